@@ -0,0 +1,15 @@
+package com.example.savings_app.batch;
+
+/** Processes one ID range of a {@link ChunkedJobRunner} job inside the chunk's transaction. */
+@FunctionalInterface
+public interface ChunkProcessor {
+
+  /**
+   * Processes the rows with IDs in the given range.
+   *
+   * @param fromId The first ID of the range, inclusive.
+   * @param toId The end of the range, exclusive.
+   * @return The number of items processed.
+   */
+  int process(int fromId, int toId);
+}
@@ -0,0 +1,177 @@
+package com.example.savings_app.batch;
+
+import com.example.savings_app.config.ShardContext;
+import com.example.savings_app.model.JobCheckpoint;
+import com.example.savings_app.repository.JobCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a batch job over an ID range by splitting it into fixed-size chunks and processing the
+ * chunks in parallel on a shared worker pool.
+ *
+ * <p>Each chunk runs in its own transaction together with the insert of its {@link JobCheckpoint},
+ * so a chunk's writes and its checkpoint commit or roll back as one. Running the same job and run
+ * key again skips every checkpointed chunk, which lets a crashed or partly failed run resume where
+ * it stopped without applying any chunk twice.
+ */
+@Slf4j
+@Component
+public class ChunkedJobRunner {
+
+  private final JobCheckpointRepository jobCheckpointRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ExecutorService executor;
+
+  // The most recent report of each job, for the admin endpoints
+  private final Map<String, JobReport> lastReports = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor to inject dependencies into the ChunkedJobRunner.
+   *
+   * @param jobCheckpointRepository Repository used to record and look up completed chunks.
+   * @param transactionManager Transaction manager used to commit each chunk separately.
+   * @param workers The number of chunks processed in parallel.
+   */
+  @Autowired
+  public ChunkedJobRunner(
+      JobCheckpointRepository jobCheckpointRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${savings.batch.workers:4}") int workers) {
+    this.jobCheckpointRepository = jobCheckpointRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.executor = Executors.newFixedThreadPool(workers);
+  }
+
+  /**
+   * Runs a job over the IDs from minId to maxId inclusive and waits for every chunk to finish.
+   *
+   * @param jobName The name of the job, used for checkpoints and reports.
+   * @param runKey Identifies the run; reusing it resumes the run.
+   * @param minId The lowest ID to process.
+   * @param maxId The highest ID to process.
+   * @param chunkSize The width of each chunk's ID range.
+   * @param processor The work done for each chunk.
+   * @return A report of this attempt.
+   * @throws IllegalArgumentException if the chunk size is not positive.
+   */
+  public JobReport run(
+      String jobName,
+      String runKey,
+      int minId,
+      int maxId,
+      int chunkSize,
+      ChunkProcessor processor) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be greater than zero");
+    }
+
+    long started = System.nanoTime();
+    Set<Integer> done = new HashSet<>();
+    for (JobCheckpoint checkpoint :
+        jobCheckpointRepository.findAllByJobNameAndRunKey(jobName, runKey)) {
+      done.add(checkpoint.getRangeStart());
+    }
+
+    // Worker threads must use the caller's shard for the chunks and their checkpoints
+    Integer shard = ShardContext.current();
+    AtomicLong items = new AtomicLong();
+    AtomicInteger failed = new AtomicInteger();
+    int chunks = 0;
+    int skipped = 0;
+    List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+    for (long from = minId; from <= maxId; from += chunkSize) {
+      int fromId = (int) from;
+      int toId = (int) Math.min(from + chunkSize, (long) maxId + 1);
+      chunks++;
+      if (done.contains(fromId)) {
+        skipped++;
+        continue;
+      }
+      pending.add(
+          CompletableFuture.runAsync(
+              () -> {
+                try {
+                  items.addAndGet(
+                      ShardContext.callOn(
+                          shard, () -> runChunk(jobName, runKey, fromId, toId, processor)));
+                } catch (RuntimeException e) {
+                  failed.incrementAndGet();
+                  log.warn("{} run {} chunk [{}, {}) failed", jobName, runKey, fromId, toId, e);
+                }
+              },
+              executor));
+    }
+    CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+
+    JobReport report =
+        new JobReport(
+            jobName,
+            runKey,
+            chunks,
+            skipped,
+            failed.get(),
+            items.get(),
+            (System.nanoTime() - started) / 1_000_000);
+    lastReports.put(jobName, report);
+    log.info(
+        "{} run {}: {} items in {} chunks ({} skipped, {} failed) in {} ms, {} items/s",
+        jobName,
+        runKey,
+        report.items(),
+        report.chunks(),
+        report.skippedChunks(),
+        report.failedChunks(),
+        report.elapsedMs(),
+        Math.round(report.itemsPerSecond()));
+    return report;
+  }
+
+  private int runChunk(
+      String jobName, String runKey, int fromId, int toId, ChunkProcessor processor) {
+    Integer processed =
+        transactionTemplate.execute(
+            status -> {
+              int count = processor.process(fromId, toId);
+              jobCheckpointRepository.save(
+                  JobCheckpoint.builder()
+                      .jobName(jobName)
+                      .runKey(runKey)
+                      .rangeStart(fromId)
+                      .rangeEnd(toId)
+                      .items(count)
+                      .completedAt(LocalDateTime.now())
+                      .build());
+              return count;
+            });
+    return processed != null ? processed : 0;
+  }
+
+  /** Returns the most recent report of every job run since startup. */
+  public Map<String, JobReport> getLastReports() {
+    return Map.copyOf(lastReports);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+}
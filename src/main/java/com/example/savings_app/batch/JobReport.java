@@ -0,0 +1,44 @@
+package com.example.savings_app.batch;
+
+/**
+ * Summary of one {@link ChunkedJobRunner} run.
+ *
+ * @param jobName The name of the job.
+ * @param runKey The run the report belongs to.
+ * @param chunks The number of chunks the ID range was split into.
+ * @param skippedChunks Chunks already completed by an earlier attempt at the same run.
+ * @param failedChunks Chunks that failed and will be retried when the run is resumed.
+ * @param items The number of items processed by this attempt.
+ * @param elapsedMs The wall-clock time of this attempt.
+ */
+public record JobReport(
+    String jobName,
+    String runKey,
+    int chunks,
+    int skippedChunks,
+    int failedChunks,
+    long items,
+    long elapsedMs) {
+
+  /** Returns the throughput of this attempt in items per second. */
+  public double itemsPerSecond() {
+    return elapsedMs == 0 ? items : items * 1000.0 / elapsedMs;
+  }
+
+  /** Returns a report covering this run and another part of the same run, e.g. another shard. */
+  public JobReport plus(JobReport other) {
+    return new JobReport(
+        jobName,
+        runKey,
+        chunks + other.chunks,
+        skippedChunks + other.skippedChunks,
+        failedChunks + other.failedChunks,
+        items + other.items,
+        elapsedMs + other.elapsedMs);
+  }
+
+  /** Returns whether every chunk of the run has completed. */
+  public boolean isComplete() {
+    return failedChunks == 0;
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.savings_app.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Opt-in binary encodings for every controller. A client that sends {@code Accept:
+ * application/cbor} or {@code Accept: application/x-jackson-smile} gets the same response shape as
+ * JSON, without repeated field names or numbers written as text; everyone else keeps JSON.
+ *
+ * <p>Spring MVC registers CBOR and Smile converters as soon as the Jackson data formats are on the
+ * classpath, but builds their mappers without the application's Jackson settings. These beans
+ * replace them with mappers that share the settings of the JSON one, so dates and enums are
+ * written the same way in every format.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+  public static final MediaType CBOR = MediaType.valueOf("application/cbor");
+  public static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+  @Bean
+  @ConditionalOnClass(name = "com.fasterxml.jackson.dataformat.cbor.CBORFactory")
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      List<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.cbor();
+    customizers.forEach(customizer -> customizer.customize(builder));
+    return new MappingJackson2CborHttpMessageConverter(builder.build());
+  }
+
+  @Bean
+  @ConditionalOnClass(name = "com.fasterxml.jackson.dataformat.smile.SmileFactory")
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      List<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.smile();
+    customizers.forEach(customizer -> customizer.customize(builder));
+    return new MappingJackson2SmileHttpMessageConverter(builder.build());
+  }
+
+  /**
+   * Returns the suffix that keeps ETags unique per encoding: empty for JSON, {@code -cbor}
+   * or {@code -smile} when the Accept header prefers one of those. Mirrors the converter order,
+   * so JSON wins for wildcards and ties.
+   *
+   * @param accept The request's Accept header, or null if it sent none.
+   */
+  public static String etagVariant(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return "";
+    }
+
+    List<MediaType> acceptable;
+    try {
+      acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+    } catch (InvalidMediaTypeException e) {
+      return "";
+    }
+
+    // Highest quality first; the sort is stable, so the client's order breaks ties
+    acceptable.sort((a, b) -> Double.compare(b.getQualityValue(), a.getQualityValue()));
+    for (MediaType mediaType : acceptable) {
+      if (mediaType.getQualityValue() == 0) {
+        continue;
+      }
+      if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+        return "";
+      }
+      if (mediaType.isCompatibleWith(CBOR)) {
+        return "-cbor";
+      }
+      if (mediaType.isCompatibleWith(SMILE)) {
+        return "-smile";
+      }
+    }
+    return "";
+  }
+}
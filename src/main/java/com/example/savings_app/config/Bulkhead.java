@@ -0,0 +1,97 @@
+package com.example.savings_app.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of requests of one class handled at once. A request that finds the class full
+ * waits briefly in a bounded queue and is rejected if no slot frees up, so a saturated class fails
+ * fast instead of tying up the servlet threads that other classes need.
+ */
+public class Bulkhead {
+
+  private final String name;
+  private final int maxConcurrent;
+  private final int maxQueue;
+  private final long maxWaitMs;
+  private final Semaphore slots;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * Creates a bulkhead with all of its slots free.
+   *
+   * @param name The name of the class of route.
+   * @param maxConcurrent The most requests handled at once.
+   * @param maxQueue The most requests that may wait for a free slot.
+   * @param maxWaitMs How long a request waits for a free slot; 0 rejects at once.
+   */
+  public Bulkhead(String name, int maxConcurrent, int maxQueue, long maxWaitMs) {
+    this.name = name;
+    this.maxConcurrent = maxConcurrent;
+    this.maxQueue = maxQueue;
+    this.maxWaitMs = maxWaitMs;
+    this.slots = new Semaphore(maxConcurrent);
+  }
+
+  /**
+   * Takes a slot, waiting up to the configured time if the queue has room.
+   *
+   * @return true if the request was admitted and must later call {@link #release()}.
+   */
+  public boolean tryAcquire() {
+    if (slots.tryAcquire()) {
+      return true;
+    }
+    if (maxWaitMs <= 0 || queued.incrementAndGet() > maxQueue) {
+      if (maxWaitMs > 0) {
+        queued.decrementAndGet();
+      }
+      rejected.increment();
+      return false;
+    }
+
+    try {
+      if (slots.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      queued.decrementAndGet();
+    }
+    rejected.increment();
+    return false;
+  }
+
+  /** Frees the slot taken by an admitted request. */
+  public void release() {
+    slots.release();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  /** Returns the current load and the rejections since startup. */
+  public Stats getStats() {
+    return new Stats(
+        maxConcurrent, maxConcurrent - slots.availablePermits(), queued.get(), rejected.sum());
+  }
+
+  /**
+   * Counters of a bulkhead.
+   *
+   * @param maxConcurrent The most requests handled at once.
+   * @param inFlight The requests being handled now.
+   * @param queued The requests waiting for a slot now.
+   * @param rejected The requests rejected since startup.
+   */
+  public record Stats(int maxConcurrent, int inFlight, int queued, long rejected) {}
+}
@@ -0,0 +1,63 @@
+package com.example.savings_app.config;
+
+import com.example.savings_app.exception.BulkheadFullException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Admits each request through the bulkhead of its class of route before the controller runs, and
+ * frees the slot once the request is handled. Streaming requests free their slot as soon as the
+ * stream is open, since an idle stream holds no thread or connection.
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+  private static final String SLOT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".slot";
+
+  private final Bulkheads bulkheads;
+  private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+  public BulkheadInterceptor(Bulkheads bulkheads) {
+    this.bulkheads = bulkheads;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    // The dispatch that completes an async request was admitted when the request started
+    if (request.getDispatcherType() == DispatcherType.ASYNC) {
+      return true;
+    }
+    Bulkhead bulkhead =
+        bulkheads.forRequest(request.getMethod(), urlPathHelper.getLookupPathForRequest(request));
+    if (bulkhead == null) {
+      return true;
+    }
+    if (!bulkhead.tryAcquire()) {
+      throw new BulkheadFullException(bulkhead.getName());
+    }
+    request.setAttribute(SLOT_ATTRIBUTE, bulkhead);
+    return true;
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    release(request);
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    release(request);
+  }
+
+  private static void release(HttpServletRequest request) {
+    if (request.getAttribute(SLOT_ATTRIBUTE) instanceof Bulkhead bulkhead) {
+      request.removeAttribute(SLOT_ATTRIBUTE);
+      bulkhead.release();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.savings_app.config;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the bulkheads that cap in-flight requests per class of route, bound from {@code
+ * savings.bulkhead.*}.
+ *
+ * @param enabled Whether requests are admitted through the bulkheads.
+ * @param excludedPaths Routes that are never admitted through a bulkhead, such as {@code /batch},
+ *     whose sub-requests are admitted one by one.
+ * @param reservedConnections Connections of the pool left for work that no bulkhead admits: the
+ *     scheduled jobs and their workers.
+ * @param compartments The classes of route, in the order they are matched.
+ */
+@ConfigurationProperties(prefix = "savings.bulkhead")
+public record BulkheadProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("/batch") List<String> excludedPaths,
+    @DefaultValue("0") int reservedConnections,
+    @DefaultValue List<Compartment> compartments) {
+
+  /**
+   * One class of route with its own concurrency limit. An admitted request usually holds one
+   * connection of a pool at a time, so the limit is roughly the class's share of what the pool has
+   * left after the reserved connections.
+   *
+   * @param name The name of the class, e.g. {@code reads}.
+   * @param paths Ant-style patterns of the routes in the class; empty matches every route.
+   * @param methods The HTTP methods in the class; empty matches every method.
+   * @param maxConcurrent The most requests of the class handled at once.
+   * @param maxQueue The most requests that may wait for a free slot; any more are rejected at once.
+   * @param maxWaitMs How long a request waits for a free slot before it is rejected.
+   */
+  public record Compartment(
+      String name,
+      @DefaultValue List<String> paths,
+      @DefaultValue List<String> methods,
+      int maxConcurrent,
+      @DefaultValue("0") int maxQueue,
+      @DefaultValue("0") long maxWaitMs) {}
+}
@@ -0,0 +1,67 @@
+package com.example.savings_app.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Registers the bulkheads straight after the rate limiter. */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+@ConditionalOnProperty(
+    name = "savings.bulkhead.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class BulkheadWebConfig implements WebMvcConfigurer {
+
+  private final BulkheadProperties bulkheadProperties;
+  private final int connectionPoolSize;
+
+  /**
+   * Constructor to inject the bulkhead settings.
+   *
+   * @param bulkheadProperties The classes of route and their limits.
+   * @param connectionPoolSize The size of the connection pool the classes share.
+   */
+  @Autowired
+  public BulkheadWebConfig(
+      BulkheadProperties bulkheadProperties,
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+    this.bulkheadProperties = bulkheadProperties;
+    this.connectionPoolSize = connectionPoolSize;
+  }
+
+  /**
+   * Creates the bulkheads, warning if together with the connections reserved for jobs they can ask
+   * for more connections than exist.
+   */
+  @Bean
+  public Bulkheads bulkheads() {
+    Bulkheads bulkheads = new Bulkheads(bulkheadProperties);
+    int reserved = bulkheadProperties.reservedConnections();
+    if (bulkheads.getTotalConcurrency() + reserved > connectionPoolSize) {
+      log.warn(
+          "Bulkheads admit {} requests at once and {} connections are reserved for jobs, "
+              + "but the connection pool holds {}; a busy class or job can still starve the "
+              + "others of connections",
+          bulkheads.getTotalConcurrency(),
+          reserved,
+          connectionPoolSize);
+    }
+    return bulkheads;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(new BulkheadInterceptor(bulkheads()))
+        .order(Ordered.HIGHEST_PRECEDENCE + 1);
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.savings_app.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+/** The bulkheads of every class of route, and the rules that assign a request to one. */
+public class Bulkheads {
+
+  private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+  private final List<String> excludedPaths;
+  private final List<Entry> entries = new ArrayList<>();
+
+  /**
+   * Creates one bulkhead per configured class of route.
+   *
+   * @param properties The classes of route and their limits.
+   */
+  public Bulkheads(BulkheadProperties properties) {
+    this.excludedPaths = properties.excludedPaths();
+    for (BulkheadProperties.Compartment compartment : properties.compartments()) {
+      entries.add(
+          new Entry(
+              compartment,
+              new Bulkhead(
+                  compartment.name(),
+                  compartment.maxConcurrent(),
+                  compartment.maxQueue(),
+                  compartment.maxWaitMs())));
+    }
+  }
+
+  /**
+   * Finds the bulkhead of a request.
+   *
+   * @param method The HTTP method of the request.
+   * @param path The path of the request, without the context path.
+   * @return The first bulkhead whose class matches, or null if the request is not bulkheaded.
+   */
+  public Bulkhead forRequest(String method, String path) {
+    for (String excluded : excludedPaths) {
+      if (PATH_MATCHER.match(excluded, path)) {
+        return null;
+      }
+    }
+    for (Entry entry : entries) {
+      if (entry.matches(method, path)) {
+        return entry.bulkhead();
+      }
+    }
+    return null;
+  }
+
+  /** Returns the sum of the concurrency limits, which is the most connections requests can hold. */
+  public int getTotalConcurrency() {
+    return entries.stream().mapToInt(entry -> entry.bulkhead().getMaxConcurrent()).sum();
+  }
+
+  /** Returns the counters of every bulkhead, keyed by class name. */
+  public Map<String, Bulkhead.Stats> getStats() {
+    Map<String, Bulkhead.Stats> stats = new LinkedHashMap<>();
+    for (Entry entry : entries) {
+      stats.put(entry.bulkhead().getName(), entry.bulkhead().getStats());
+    }
+    return stats;
+  }
+
+  private record Entry(BulkheadProperties.Compartment compartment, Bulkhead bulkhead) {
+
+    boolean matches(String method, String path) {
+      if (!compartment.methods().isEmpty()
+          && compartment.methods().stream().noneMatch(method::equalsIgnoreCase)) {
+        return false;
+      }
+      return compartment.paths().isEmpty()
+          || compartment.paths().stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+  }
+}
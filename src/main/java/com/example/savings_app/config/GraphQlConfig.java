@@ -0,0 +1,22 @@
+package com.example.savings_app.config;
+
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limits the GraphQL queries the server will run. The schema is cyclic (a milestone's owner has
+ * milestones of its own), and each level of a query costs a few statements per shard, so the depth
+ * of a query is what bounds its cost; deeper queries are rejected before anything is read.
+ */
+@Configuration
+public class GraphQlConfig {
+
+  /** Rejects queries nested deeper than {@code savings.graphql.max-depth}. */
+  @Bean
+  public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+      @Value("${savings.graphql.max-depth:10}") int maxDepth) {
+    return new MaxQueryDepthInstrumentation(maxDepth);
+  }
+}
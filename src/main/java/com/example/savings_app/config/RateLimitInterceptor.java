@@ -0,0 +1,211 @@
+package com.example.savings_app.config;
+
+import com.example.savings_app.exception.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Applies the rate limit rules before the controller runs, so that rejected requests never reach
+ * the database. The account bucket is keyed by the ID in the path as it is, without looking up the
+ * row it names, so a throttled request does not take a connection; the IP limit bounds a caller
+ * spreading requests over several IDs. For routes whose account is only in the body, such as
+ * login, {@link RateLimitRequestBodyAdvice} applies the account limit instead.
+ *
+ * <p>The client IP is the remote address, unless that is a trusted proxy. Then {@code
+ * X-Forwarded-For} is read from the right, skipping the trusted proxies, and the first other
+ * address is the client: entries to its left were written by the client and may be forged.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+  static final String RULE_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".rule";
+
+  // Path variables that identify the account a request acts on, in order of preference
+  private static final List<String> ACCOUNT_VARIABLES =
+      List.of("userId", "custId", "milestoneId", "savingsId", "scheduleId");
+
+  // IPv4 literals; anything else without a colon is a host name and is never looked up
+  private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+  private final RateLimiter rateLimiter;
+  private final Map<String, RateLimitProperties.Rule> rules = new HashMap<>();
+  private final List<Network> trustedProxies = new ArrayList<>();
+
+  /**
+   * Creates the interceptor.
+   *
+   * @param rateLimiter The buckets to take tokens from.
+   * @param rules The limited routes.
+   * @param trustedProxies The addresses or CIDR ranges of the proxies in front of the application.
+   * @throws IllegalArgumentException if a trusted proxy is not an IP address or CIDR range.
+   */
+  public RateLimitInterceptor(
+      RateLimiter rateLimiter,
+      List<RateLimitProperties.Rule> rules,
+      List<String> trustedProxies) {
+    this.rateLimiter = rateLimiter;
+    for (RateLimitProperties.Rule rule : rules) {
+      this.rules.put(ruleName(rule), rule);
+    }
+    for (String proxy : trustedProxies) {
+      this.trustedProxies.add(Network.parse(proxy.trim()));
+    }
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    if (pattern == null) {
+      return true;
+    }
+    String name = request.getMethod() + " " + pattern;
+    RateLimitProperties.Rule rule = rules.get(name);
+    if (rule == null) {
+      return true;
+    }
+    request.setAttribute(RULE_ATTRIBUTE, rule);
+
+    String ip = clientIp(request);
+    if (rule.ip() != null && ip != null) {
+      check(rateLimiter, name, "ip", ip, rule.ip());
+    }
+    if (rule.account() != null) {
+      String account = accountFromPath(request);
+      if (account != null) {
+        check(rateLimiter, name, "account", account, rule.account());
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Takes a token from a caller's bucket for a rule.
+   *
+   * @throws RateLimitExceededException if the bucket is empty.
+   */
+  static void check(
+      RateLimiter rateLimiter,
+      String ruleName,
+      String scope,
+      String caller,
+      RateLimitProperties.Limit limit) {
+    long waitNanos = rateLimiter.tryAcquire(ruleName + "|" + scope + "|" + caller, limit);
+    if (waitNanos > 0) {
+      rateLimiter.recordRejection(ruleName + " (" + scope + ")");
+      throw new RateLimitExceededException((waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+  }
+
+  static String ruleName(RateLimitProperties.Rule rule) {
+    return rule.method().toUpperCase() + " " + rule.path();
+  }
+
+  private String accountFromPath(HttpServletRequest request) {
+    @SuppressWarnings("unchecked")
+    Map<String, String> variables =
+        (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    if (variables == null) {
+      return null;
+    }
+    for (String name : ACCOUNT_VARIABLES) {
+      String value = variables.get(name);
+      if (value != null) {
+        return name + ":" + value;
+      }
+    }
+    return null;
+  }
+
+  private String clientIp(HttpServletRequest request) {
+    String remote = request.getRemoteAddr();
+    if (!isTrustedProxy(remote)) {
+      return remote;
+    }
+    List<String> hops = new ArrayList<>();
+    for (String header : Collections.list(request.getHeaders("X-Forwarded-For"))) {
+      for (String hop : header.split(",")) {
+        if (!hop.isBlank()) {
+          hops.add(hop.trim());
+        }
+      }
+    }
+    for (int i = hops.size() - 1; i >= 0; i--) {
+      if (!isTrustedProxy(hops.get(i))) {
+        return hops.get(i);
+      }
+    }
+    // Every hop is a trusted proxy, so the leftmost one is where the request came from
+    return hops.isEmpty() ? remote : hops.get(0);
+  }
+
+  private boolean isTrustedProxy(String address) {
+    byte[] bytes = parseAddress(address);
+    if (bytes == null) {
+      return false;
+    }
+    for (Network network : trustedProxies) {
+      if (network.contains(bytes)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the bytes of an IP literal, or null for anything else, without any DNS lookup. */
+  private static byte[] parseAddress(String address) {
+    if (address == null || !(address.contains(":") || IPV4.matcher(address).matches())) {
+      return null;
+    }
+    try {
+      return InetAddress.getByName(address).getAddress();
+    } catch (UnknownHostException e) {
+      return null;
+    }
+  }
+
+  /** An IP address or CIDR range of trusted proxies. */
+  private record Network(byte[] address, int prefixLength) {
+
+    static Network parse(String cidr) {
+      int slash = cidr.indexOf('/');
+      byte[] address = parseAddress(slash < 0 ? cidr : cidr.substring(0, slash));
+      if (address == null) {
+        throw new IllegalArgumentException("Trusted proxy is not an IP address: " + cidr);
+      }
+      int prefixLength =
+          slash < 0 ? address.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+      if (prefixLength < 0 || prefixLength > address.length * 8) {
+        throw new IllegalArgumentException("Invalid prefix length in trusted proxy: " + cidr);
+      }
+      return new Network(address, prefixLength);
+    }
+
+    boolean contains(byte[] candidate) {
+      if (candidate.length != address.length) {
+        return false;
+      }
+      int full = prefixLength / 8;
+      for (int i = 0; i < full; i++) {
+        if (candidate[i] != address[i]) {
+          return false;
+        }
+      }
+      int rest = prefixLength % 8;
+      if (rest == 0) {
+        return true;
+      }
+      int mask = 0xff << (8 - rest);
+      return (candidate[full] & mask) == (address[full] & mask);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.savings_app.config;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the token-bucket limits on hot endpoints, bound from {@code savings.rate-limit.*}.
+ * Routes without a rule are not limited.
+ *
+ * @param enabled Whether requests are checked against the rules.
+ * @param maxBuckets The most buckets kept in memory; idle buckets are evicted to stay under it.
+ * @param trustedProxies The addresses or CIDR ranges of the proxies in front of the application,
+ *     whose {@code X-Forwarded-For} entries are believed. With none, the remote address is used.
+ * @param rules The limited routes.
+ */
+@ConfigurationProperties(prefix = "savings.rate-limit")
+public record RateLimitProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("100000") int maxBuckets,
+    @DefaultValue List<String> trustedProxies,
+    @DefaultValue List<Rule> rules) {
+
+  /**
+   * The limits of one route. Each caller gets a bucket per account and a bucket per client IP, and
+   * a request must take a token from both.
+   *
+   * @param method The HTTP method of the route.
+   * @param path The route exactly as mapped in its controller, e.g. {@code /milestone/{milestoneId}
+   *     /updateSavedAmount}.
+   * @param account The limit per account, or null for no account limit.
+   * @param ip The limit per client IP, or null for no IP limit.
+   */
+  public record Rule(String method, String path, Limit account, Limit ip) {}
+
+  /**
+   * A token bucket.
+   *
+   * @param capacity The number of requests that can be made in a burst.
+   * @param refillPerSecond The rate at which the bucket refills, in requests per second.
+   */
+  public record Limit(int capacity, double refillPerSecond) {}
+}
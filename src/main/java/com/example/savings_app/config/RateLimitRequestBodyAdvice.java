@@ -0,0 +1,67 @@
+package com.example.savings_app.config;
+
+import com.example.savings_app.model.LoginRequest;
+import java.lang.reflect.Type;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * Applies the account limit of routes whose account is only known from the body, so that repeated
+ * login attempts against one email are limited whichever IPs they come from.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(
+    name = "savings.rate-limit.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class RateLimitRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+  private final RateLimiter rateLimiter;
+
+  @Autowired
+  public RateLimitRequestBodyAdvice(RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  public boolean supports(
+      MethodParameter methodParameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return targetType == LoginRequest.class;
+  }
+
+  @Override
+  public Object afterBodyRead(
+      Object body,
+      HttpInputMessage inputMessage,
+      MethodParameter parameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    Object rule =
+        attributes != null
+            ? attributes.getAttribute(
+                RateLimitInterceptor.RULE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+            : null;
+    if (rule instanceof RateLimitProperties.Rule limited
+        && limited.account() != null
+        && body instanceof LoginRequest login
+        && login.getEmail() != null) {
+      RateLimitInterceptor.check(
+          rateLimiter,
+          RateLimitInterceptor.ruleName(limited),
+          "account",
+          "email:" + login.getEmail().trim().toLowerCase(),
+          limited.account());
+    }
+    return body;
+  }
+}
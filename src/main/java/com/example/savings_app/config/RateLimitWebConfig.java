@@ -0,0 +1,44 @@
+package com.example.savings_app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Registers the rate limiter ahead of the other interceptors. */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(
+    name = "savings.rate-limit.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class RateLimitWebConfig implements WebMvcConfigurer {
+
+  private final RateLimitProperties rateLimitProperties;
+
+  @Autowired
+  public RateLimitWebConfig(RateLimitProperties rateLimitProperties) {
+    this.rateLimitProperties = rateLimitProperties;
+  }
+
+  /** Creates the bucket store shared by the interceptor and the login body check. */
+  @Bean
+  public RateLimiter rateLimiter() {
+    return new RateLimiter(rateLimitProperties.maxBuckets());
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(
+            new RateLimitInterceptor(
+                rateLimiter(),
+                rateLimitProperties.rules(),
+                rateLimitProperties.trustedProxies()))
+        .order(Ordered.HIGHEST_PRECEDENCE);
+  }
+}
@@ -0,0 +1,165 @@
+package com.example.savings_app.config;
+
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Token buckets keyed by caller, kept as a single timestamp each so that checking one takes a
+ * compare-and-set and no lock.
+ *
+ * <p>Each bucket stores the time at which it will be full again; a request is allowed if taking a
+ * token would not push that time more than the bucket's capacity ahead of now. A bucket whose time
+ * has passed is full, which is the same as having no bucket, so such buckets are evicted freely to
+ * keep memory bounded. When the limit is reached, idle buckets are swept at most once a second, so
+ * that a flood of new callers does not scan the whole map on every request. Otherwise the buckets
+ * nearest to full are dropped to make room, so a flood of new callers can only return a few callers
+ * to a full bucket early and is never let through unchecked.
+ */
+public class RateLimiter {
+
+  private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+  private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> rejected = new ConcurrentHashMap<>();
+  private final LongAdder evicted = new LongAdder();
+  private final LongAdder displaced = new LongAdder();
+  private final AtomicBoolean displacing = new AtomicBoolean();
+  private final AtomicLong lastSweep;
+  private final int maxBuckets;
+  private final LongSupplier nanoClock;
+
+  public RateLimiter(int maxBuckets) {
+    this(maxBuckets, System::nanoTime);
+  }
+
+  RateLimiter(int maxBuckets, LongSupplier nanoClock) {
+    this.maxBuckets = maxBuckets;
+    this.nanoClock = nanoClock;
+    this.lastSweep = new AtomicLong(nanoClock.getAsLong() - SWEEP_INTERVAL_NANOS);
+  }
+
+  /**
+   * Takes a token from a bucket.
+   *
+   * @param key The caller's bucket, unique per rule and caller.
+   * @param limit The size and refill rate of the bucket.
+   * @return 0 if the request may proceed, otherwise the nanoseconds until a token is available.
+   */
+  public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+    long interval = (long) (1_000_000_000L / limit.refillPerSecond());
+    long burst = interval * limit.capacity();
+    long now = nanoClock.getAsLong();
+
+    AtomicLong fullAt = buckets.get(key);
+    if (fullAt == null) {
+      if (buckets.size() >= maxBuckets) {
+        sweepIfDue(now);
+        if (buckets.size() >= maxBuckets) {
+          displaceNearestFull();
+        }
+      }
+      fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    while (true) {
+      long current = fullAt.get();
+      long next = Math.max(current, now) + interval;
+      if (next - now > burst) {
+        return next - now - burst;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Counts a rejected request.
+   *
+   * @param rule The name of the rule that rejected it.
+   */
+  public void recordRejection(String rule) {
+    rejected.computeIfAbsent(rule, r -> new LongAdder()).increment();
+  }
+
+  /** Drops every bucket that has refilled completely. */
+  @Scheduled(fixedDelayString = "${savings.rate-limit.eviction-interval-ms:60000}")
+  public void evictIdle() {
+    long now = nanoClock.getAsLong();
+    buckets
+        .entrySet()
+        .removeIf(
+            entry -> {
+              boolean idle = entry.getValue().get() - now <= 0;
+              if (idle) {
+                evicted.increment();
+              }
+              return idle;
+            });
+  }
+
+  /** Sweeps idle buckets if no caller has in the last second; one caller wins each sweep. */
+  private void sweepIfDue(long now) {
+    long last = lastSweep.get();
+    if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+      evictIdle();
+    }
+  }
+
+  /**
+   * Drops the busy buckets that are nearest to full, about one in a hundred so that the scan is
+   * shared by the next callers. One thread scans at a time; callers that arrive meanwhile add their
+   * bucket anyway, which lets the map run over its limit by at most the number of request threads.
+   */
+  private void displaceNearestFull() {
+    if (!displacing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      int count = Math.max(1, maxBuckets / 100);
+      // Max-heap on the refill time, holding the count buckets that refill soonest
+      PriorityQueue<Map.Entry<String, Long>> nearest =
+          new PriorityQueue<>(count, Map.Entry.<String, Long>comparingByValue().reversed());
+      for (Map.Entry<String, AtomicLong> bucket : buckets.entrySet()) {
+        long fullAt = bucket.getValue().get();
+        if (nearest.size() < count) {
+          nearest.add(Map.entry(bucket.getKey(), fullAt));
+        } else if (fullAt < nearest.peek().getValue()) {
+          nearest.poll();
+          nearest.add(Map.entry(bucket.getKey(), fullAt));
+        }
+      }
+      for (Map.Entry<String, Long> bucket : nearest) {
+        if (buckets.remove(bucket.getKey()) != null) {
+          displaced.increment();
+        }
+      }
+    } finally {
+      displacing.set(false);
+    }
+  }
+
+  /** Returns the counters of the limiter since startup. */
+  public Stats getStats() {
+    Map<String, Long> rejectedByRule = new TreeMap<>();
+    rejected.forEach((rule, count) -> rejectedByRule.put(rule, count.sum()));
+    return new Stats(buckets.size(), evicted.sum(), displaced.sum(), rejectedByRule);
+  }
+
+  /**
+   * Counters of the limiter.
+   *
+   * @param buckets The number of buckets in memory.
+   * @param evicted The number of idle buckets evicted.
+   * @param displaced The number of busy buckets dropped because the bucket limit was reached.
+   * @param rejected The number of rejected requests, by rule.
+   */
+  public record Stats(int buckets, long evicted, long displaced, Map<String, Long> rejected) {}
+}
@@ -0,0 +1,68 @@
+package com.example.savings_app.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Set;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Keeps a client on the primary database for a short window after it writes, so that reads made
+ * straight after a write see it even while the replica is catching up.
+ *
+ * <p>The window is carried in a cookie rather than held on the server, so it works whichever node
+ * serves the client's next request.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+  static final String COOKIE_NAME = "savings-primary-until";
+
+  private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+  private final long windowMs;
+
+  public ReadYourWritesInterceptor(long windowMs) {
+    this.windowMs = windowMs;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    long now = System.currentTimeMillis();
+    boolean write = !SAFE_METHODS.contains(request.getMethod());
+
+    // The cookie must be set before the controller writes the response body
+    if (write) {
+      Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + windowMs));
+      cookie.setPath("/");
+      cookie.setHttpOnly(true);
+      cookie.setMaxAge((int) Math.max(1, (windowMs + 999) / 1000));
+      response.addCookie(cookie);
+    }
+    ReplicaRoutingDataSource.setPrimaryRequired(write || primaryUntil(request) > now);
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+  }
+
+  private static long primaryUntil(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return 0;
+    }
+    for (Cookie cookie : cookies) {
+      if (COOKIE_NAME.equals(cookie.getName())) {
+        try {
+          return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 0;
+  }
+}
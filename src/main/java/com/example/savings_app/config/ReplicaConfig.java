@@ -0,0 +1,46 @@
+package com.example.savings_app.config;
+
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Adds a read replica to the unsharded setup: {@code spring.datasource} stays the primary and
+ * read-only transactions go to {@code savings.replica.url}. Sharded setups configure a replica per
+ * shard in {@link ShardingConfig} instead.
+ */
+@Configuration
+@ConditionalOnExpression("${savings.replica.enabled:false} && !${savings.sharding.enabled:false}")
+public class ReplicaConfig {
+
+  /** Creates the DataSource that routes between the primary and the replica. */
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties) {
+    if (replicaProperties.url() == null) {
+      throw new IllegalStateException("Replicas are enabled but savings.replica.url is not set");
+    }
+
+    DataSource primary = dataSourceProperties.initializeDataSourceBuilder().build();
+    DataSource replica =
+        DataSourceBuilder.create()
+            .url(replicaProperties.url())
+            .username(replicaProperties.username())
+            .password(replicaProperties.password())
+            .driverClassName(dataSourceProperties.determineDriverClassName())
+            .build();
+    return new ReplicaRoutingDataSource(primary, replica);
+  }
+
+  /** Exposes the routing DataSource behind a lazy proxy so each transaction routes on first use. */
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+}
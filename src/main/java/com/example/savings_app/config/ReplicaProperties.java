@@ -0,0 +1,22 @@
+package com.example.savings_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for sending read-only transactions to a replica, bound from {@code savings.replica.*}.
+ * With sharding enabled each shard names its own replica instead of the URL here.
+ *
+ * @param enabled Whether read-only transactions may use replicas.
+ * @param url The JDBC URL of the replica of {@code spring.datasource}.
+ * @param username The database user of the replica.
+ * @param password The database password of the replica.
+ * @param readYourWritesMs How long after a write the same client keeps reading from the primary.
+ */
+@ConfigurationProperties(prefix = "savings.replica")
+public record ReplicaProperties(
+    @DefaultValue("false") boolean enabled,
+    String url,
+    String username,
+    String password,
+    @DefaultValue("5000") long readYourWritesMs) {}
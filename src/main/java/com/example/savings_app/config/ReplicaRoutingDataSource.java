@@ -0,0 +1,64 @@
+package com.example.savings_app.config;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource that sends read-only transactions to a replica and everything else to the primary. A
+ * thread can pin itself to the primary, which the web layer does for clients that have just
+ * written so they read their own writes despite replication lag.
+ *
+ * <p>The choice is made when the connection is first used, so it must sit behind a lazy connection
+ * proxy that defers the lookup until the transaction's read-only flag has been set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+  private static final String PRIMARY = "primary";
+  private static final String REPLICA = "replica";
+
+  private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+  /**
+   * Constructor to route between a primary and its replica.
+   *
+   * @param primary The pool of the primary database.
+   * @param replica The pool of the read replica.
+   */
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+    setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    setLenientFallback(false);
+    afterPropertiesSet();
+  }
+
+  /** Pins the current thread to the primary, or releases it. */
+  public static void setPrimaryRequired(boolean required) {
+    if (required) {
+      PRIMARY_REQUIRED.set(Boolean.TRUE);
+    } else {
+      PRIMARY_REQUIRED.remove();
+    }
+  }
+
+  /** Returns whether the current thread is pinned to the primary. */
+  public static boolean isPrimaryRequired() {
+    return PRIMARY_REQUIRED.get() != null;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    return readOnly && PRIMARY_REQUIRED.get() == null ? REPLICA : PRIMARY;
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (DataSource dataSource : getResolvedDataSources().values()) {
+      if (dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.savings_app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Registers the interceptor that keeps recent writers reading from the primary. */
+@Configuration
+@ConditionalOnProperty(name = "savings.replica.enabled", havingValue = "true")
+public class ReplicaRoutingWebConfig implements WebMvcConfigurer {
+
+  private final ReplicaProperties replicaProperties;
+
+  @Autowired
+  public ReplicaRoutingWebConfig(ReplicaProperties replicaProperties) {
+    this.replicaProperties = replicaProperties;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new ReadYourWritesInterceptor(replicaProperties.readYourWritesMs()));
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.savings_app.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the shard the current thread works against. The routing DataSource reads it when a
+ * connection is first needed, so it must be set before the transaction's first statement; the
+ * request interceptor does that for web requests and {@link ShardScatterGather} for jobs.
+ */
+public final class ShardContext {
+
+  private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+  private ShardContext() {}
+
+  /** Returns the current shard, or null when none has been chosen and the default is used. */
+  public static Integer current() {
+    return CURRENT.get();
+  }
+
+  /** Sets the shard for the current thread. */
+  public static void set(Integer shard) {
+    if (shard == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(shard);
+    }
+  }
+
+  /** Clears the shard for the current thread. */
+  public static void clear() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Runs an action against the given shard and then restores the previous shard.
+   *
+   * @param shard The shard to use, or null for the default.
+   * @param action The work to run.
+   * @return The action's result.
+   */
+  public static <T> T callOn(Integer shard, Supplier<T> action) {
+    Integer previous = CURRENT.get();
+    set(shard);
+    try {
+      return action.get();
+    } finally {
+      set(previous);
+    }
+  }
+
+  /**
+   * Runs an action against the given shard and then restores the previous shard.
+   *
+   * @param shard The shard to use, or null for the default.
+   * @param action The work to run.
+   */
+  public static void runOn(Integer shard, Runnable action) {
+    callOn(
+        shard,
+        () -> {
+          action.run();
+          return null;
+        });
+  }
+}
@@ -0,0 +1,110 @@
+package com.example.savings_app.config;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Knows which shard owns a user and everything the user owns.
+ *
+ * <p>Each shard allocates IDs from its own range, so the shard of any account, customer link,
+ * milestone, savings row or schedule can be read straight from its ID without a lookup. The first
+ * shard's range starts at 1, which keeps the rows of an existing single database routable when it
+ * becomes shard 0. New accounts are spread over the shards that accept new users, and everything a
+ * user creates afterwards is written to the user's shard.
+ *
+ * <p>Emails are only unique per shard in the database, so a sign-up is placed by its email: two
+ * concurrent sign-ups with the same email land on the same shard and meet its unique key.
+ */
+@Component
+public class ShardDirectory {
+
+  private final int[] idStarts;
+  private final int[] placement;
+  private final AtomicInteger nextPlacement = new AtomicInteger();
+
+  /**
+   * Constructor to build the directory from the configured shards.
+   *
+   * @param properties The sharding settings.
+   * @throws IllegalStateException if the shard ID ranges are not in ascending order.
+   */
+  @Autowired
+  public ShardDirectory(ShardingProperties properties) {
+    List<ShardingProperties.Shard> shards = properties.shards();
+    if (!properties.enabled() || shards.isEmpty()) {
+      this.idStarts = new int[] {1};
+      this.placement = new int[] {0};
+      return;
+    }
+
+    this.idStarts = shards.stream().mapToInt(ShardingProperties.Shard::idStart).toArray();
+    for (int i = 1; i < idStarts.length; i++) {
+      if (idStarts[i] <= idStarts[i - 1]) {
+        throw new IllegalStateException("Shard ID ranges must be in ascending order");
+      }
+    }
+    this.placement =
+        IntStream.range(0, shards.size()).filter(i -> shards.get(i).acceptsNewUsers()).toArray();
+    if (placement.length == 0) {
+      throw new IllegalStateException("At least one shard must accept new users");
+    }
+  }
+
+  /** Returns a directory with only the default shard, as used when sharding is disabled. */
+  public static ShardDirectory single() {
+    return new ShardDirectory(new ShardingProperties(false, 1, false, List.of()));
+  }
+
+  /** Returns the number of shards. */
+  public int getShardCount() {
+    return idStarts.length;
+  }
+
+  /** Returns whether there is more than one shard. */
+  public boolean isSharded() {
+    return idStarts.length > 1;
+  }
+
+  /**
+   * Returns the shard that owns a row, from the ID of the row.
+   *
+   * @param id The ID of an account, customer link, milestone, savings row or schedule.
+   * @return The index of the owning shard.
+   */
+  public int shardForId(int id) {
+    int index = Arrays.binarySearch(idStarts, id);
+    // A miss returns -(insertion point) - 1; the owner is the shard just before the insertion point
+    return index >= 0 ? index : Math.max(0, -index - 2);
+  }
+
+  /** Returns the shard for a new account, taking the accepting shards in turn. */
+  public int placeNewUser() {
+    return placement[Math.floorMod(nextPlacement.getAndIncrement(), placement.length)];
+  }
+
+  /**
+   * Returns the shard for a new account, chosen from its email so that every sign-up with the same
+   * email goes to the same shard while the set of accepting shards is unchanged.
+   *
+   * @param email The email of the new account.
+   * @return The index of the shard to create the account on.
+   */
+  public int placeNewUser(String email) {
+    if (email == null) {
+      return placeNewUser();
+    }
+    // Emails compare case-insensitively in the unique key
+    int hash = email.toLowerCase(Locale.ROOT).hashCode();
+    return placement[Math.floorMod(hash, placement.length)];
+  }
+
+  /** Returns the first ID allocated on a shard. */
+  public int getIdStart(int shard) {
+    return idStarts[shard];
+  }
+}
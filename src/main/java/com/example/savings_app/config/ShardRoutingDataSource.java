@@ -0,0 +1,36 @@
+package com.example.savings_app.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource that hands out connections to the shard held in {@link ShardContext}, or to shard 0
+ * when none is set. It is exposed behind a lazy connection proxy so that a transaction only picks
+ * its shard at its first statement.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return ShardContext.current();
+  }
+
+  /** Returns the pool of one shard, for work that must run against every shard. */
+  public DataSource getShardDataSource(int shard) {
+    DataSource dataSource = getResolvedDataSources().get(shard);
+    if (dataSource == null) {
+      throw new IllegalArgumentException("Unknown shard: " + shard);
+    }
+    return dataSource;
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    for (DataSource dataSource : getResolvedDataSources().values()) {
+      if (dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+}
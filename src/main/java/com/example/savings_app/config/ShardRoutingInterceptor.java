@@ -0,0 +1,57 @@
+package com.example.savings_app.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Map;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Chooses the shard for a request from the ID in its path, before the controller opens any
+ * transaction. Requests without a routable ID are left to {@link ShardRoutingRequestBodyAdvice} or
+ * use the default shard.
+ */
+public class ShardRoutingInterceptor implements HandlerInterceptor {
+
+  // Path variables that hold the ID of a row living on its owner's shard
+  private static final List<String> ROUTING_VARIABLES =
+      List.of("userId", "milestoneId", "savingsId", "scheduleId", "custId");
+
+  private final ShardDirectory shardDirectory;
+
+  public ShardRoutingInterceptor(ShardDirectory shardDirectory) {
+    this.shardDirectory = shardDirectory;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    ShardContext.clear();
+    @SuppressWarnings("unchecked")
+    Map<String, String> variables =
+        (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    if (variables == null) {
+      return true;
+    }
+
+    for (String name : ROUTING_VARIABLES) {
+      String value = variables.get(name);
+      if (value != null) {
+        try {
+          ShardContext.set(shardDirectory.shardForId(Integer.parseInt(value)));
+        } catch (NumberFormatException e) {
+          // Leave the controller to reject the malformed ID
+        }
+        break;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    ShardContext.clear();
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.savings_app.config;
+
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Customer;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.RecurringDeposit;
+import com.example.savings_app.model.Savings;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * Chooses the shard for requests whose owner is only known from the request body, such as creating
+ * a milestone for a user. New accounts, alone or in bulk, are placed by the {@link ShardDirectory}.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "savings.sharding.enabled", havingValue = "true")
+public class ShardRoutingRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+  private final ShardDirectory shardDirectory;
+
+  @Autowired
+  public ShardRoutingRequestBodyAdvice(ShardDirectory shardDirectory) {
+    this.shardDirectory = shardDirectory;
+  }
+
+  @Override
+  public boolean supports(
+      MethodParameter methodParameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object afterBodyRead(
+      Object body,
+      HttpInputMessage inputMessage,
+      MethodParameter parameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    if (ShardContext.current() == null) {
+      ShardContext.set(resolveShard(body));
+    }
+    return body;
+  }
+
+  private Integer resolveShard(Object body) {
+    if (body instanceof Account account) {
+      return account.getUserId() != null
+          ? shardDirectory.shardForId(account.getUserId())
+          : shardDirectory.placeNewUser(account.getEmail());
+    }
+    if (body instanceof Milestone milestone) {
+      return shardForOwner(milestone.getUser());
+    }
+    if (body instanceof Savings savings) {
+      return shardForOwner(savings.getUser());
+    }
+    if (body instanceof RecurringDeposit schedule) {
+      return shardForOwner(schedule.getUser());
+    }
+    if (body instanceof Customer customer && customer.getParentId() != null) {
+      return shardDirectory.shardForId(customer.getParentId());
+    }
+    // Bulk provisioning keeps each request's families together on one shard
+    if (body instanceof List<?>) {
+      return shardDirectory.placeNewUser();
+    }
+    return null;
+  }
+
+  private Integer shardForOwner(Account user) {
+    return user != null && user.getUserId() != null
+        ? shardDirectory.shardForId(user.getUserId())
+        : null;
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.savings_app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Registers the interceptor that routes each request to its user's shard. */
+@Configuration
+@ConditionalOnProperty(name = "savings.sharding.enabled", havingValue = "true")
+public class ShardRoutingWebConfig implements WebMvcConfigurer {
+
+  private final ShardDirectory shardDirectory;
+
+  @Autowired
+  public ShardRoutingWebConfig(ShardDirectory shardDirectory) {
+    this.shardDirectory = shardDirectory;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new ShardRoutingInterceptor(shardDirectory));
+  }
+}
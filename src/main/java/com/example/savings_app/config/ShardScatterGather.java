@@ -0,0 +1,196 @@
+package com.example.savings_app.config;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs work against every shard, for queries that are not scoped to one user and for background
+ * jobs. With a single shard everything runs directly on the calling thread, inside any transaction
+ * the caller already has.
+ *
+ * <p>Reads run in parallel on worker threads, each in its own short transaction on its shard, and
+ * their results are merged. A caller pinned to the primary for read-your-writes keeps that pin on
+ * the workers, so a read straight after a write never goes to a lagging replica. Jobs run shard by
+ * shard on the calling thread and must not be started from inside a transaction, because an open
+ * transaction stays bound to the shard it started on.
+ */
+@Component
+public class ShardScatterGather {
+
+  private final ShardDirectory shardDirectory;
+  private final ExecutorService executor;
+
+  /**
+   * Constructor to inject dependencies into the ShardScatterGather.
+   *
+   * @param shardDirectory The directory of shards to fan out over.
+   * @param properties The sharding settings, for the number of parallel workers.
+   */
+  @Autowired
+  public ShardScatterGather(ShardDirectory shardDirectory, ShardingProperties properties) {
+    this.shardDirectory = shardDirectory;
+    this.executor =
+        shardDirectory.isSharded()
+            ? Executors.newFixedThreadPool(Math.max(1, properties.workers()))
+            : null;
+  }
+
+  /** Returns a scatter-gather over only the default shard, as used when sharding is disabled. */
+  public static ShardScatterGather single() {
+    return new ShardScatterGather(
+        ShardDirectory.single(), new ShardingProperties(false, 1, false, List.of()));
+  }
+
+  /**
+   * Runs a query on every shard in parallel and concatenates the results in shard order.
+   *
+   * @param query The query to run; it is called once per shard.
+   * @return The combined results.
+   */
+  public <T> List<T> gather(Supplier<? extends Collection<T>> query) {
+    if (!shardDirectory.isSharded()) {
+      return new ArrayList<>(query.get());
+    }
+
+    List<CompletableFuture<? extends Collection<T>>> results = new ArrayList<>();
+    for (int shard = 0; shard < shardDirectory.getShardCount(); shard++) {
+      int target = shard;
+      results.add(onShard(target, query));
+    }
+
+    List<T> combined = new ArrayList<>();
+    for (CompletableFuture<? extends Collection<T>> result : results) {
+      combined.addAll(result.join());
+    }
+    return combined;
+  }
+
+  /**
+   * Looks up rows by ID, querying only the shards that own those IDs, in parallel. IDs that match
+   * nothing are left out of the result.
+   *
+   * @param ids The IDs to look up, in the order the results should be returned.
+   * @param query The lookup to run; it is called once per owning shard with that shard's IDs.
+   * @param idOf Returns the ID of a result row.
+   * @return The matching rows, in the order of their IDs in {@code ids}.
+   */
+  public <T> List<T> findAllByOwner(
+      Collection<Integer> ids,
+      Function<Collection<Integer>, ? extends Collection<T>> query,
+      ToIntFunction<T> idOf) {
+    if (ids.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    List<T> found;
+    if (!shardDirectory.isSharded()) {
+      found = new ArrayList<>(query.apply(ids));
+    } else {
+      Map<Integer, List<Integer>> idsByShard = new LinkedHashMap<>();
+      for (Integer id : ids) {
+        idsByShard
+            .computeIfAbsent(shardDirectory.shardForId(id), shard -> new ArrayList<>())
+            .add(id);
+      }
+
+      List<CompletableFuture<? extends Collection<T>>> results = new ArrayList<>();
+      for (Map.Entry<Integer, List<Integer>> entry : idsByShard.entrySet()) {
+        results.add(onShard(entry.getKey(), () -> query.apply(entry.getValue())));
+      }
+      found = new ArrayList<>();
+      for (CompletableFuture<? extends Collection<T>> result : results) {
+        found.addAll(result.join());
+      }
+    }
+
+    Map<Integer, Integer> position = new HashMap<>();
+    for (Integer id : ids) {
+      position.putIfAbsent(id, position.size());
+    }
+    found.sort(Comparator.comparingInt(row -> position.get(idOf.applyAsInt(row))));
+    return found;
+  }
+
+  /**
+   * Runs a lookup on every shard in parallel and returns the first match in shard order.
+   *
+   * @param query The lookup to run; it is called once per shard.
+   * @return The first match, or an empty Optional if no shard has one.
+   */
+  public <T> Optional<T> findFirst(Supplier<Optional<T>> query) {
+    if (!shardDirectory.isSharded()) {
+      return query.get();
+    }
+    return gather(() -> query.get().map(List::of).orElse(List.of())).stream().findFirst();
+  }
+
+  /**
+   * Runs a sum on every shard in parallel and adds the results.
+   *
+   * @param query The count or sum to run; it is called once per shard.
+   * @return The total over all shards.
+   */
+  public long sum(Supplier<Long> query) {
+    if (!shardDirectory.isSharded()) {
+      return query.get();
+    }
+    return gather(() -> List.of(query.get())).stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * Runs a job once per shard, one shard after another, on the calling thread.
+   *
+   * @param action The job to run; it is called once per shard.
+   * @throws IllegalStateException if called inside a transaction while sharding is enabled.
+   */
+  public void forEachShard(Runnable action) {
+    if (!shardDirectory.isSharded()) {
+      action.run();
+      return;
+    }
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException("Cannot switch shards inside a transaction");
+    }
+    for (int shard = 0; shard < shardDirectory.getShardCount(); shard++) {
+      ShardContext.runOn(shard, action);
+    }
+  }
+
+  /** Runs a query against one shard on a worker thread, with the caller's primary pin. */
+  private <T> CompletableFuture<T> onShard(int shard, Supplier<T> query) {
+    boolean primaryRequired = ReplicaRoutingDataSource.isPrimaryRequired();
+    return CompletableFuture.supplyAsync(
+        () -> {
+          ReplicaRoutingDataSource.setPrimaryRequired(primaryRequired);
+          try {
+            return ShardContext.callOn(shard, query);
+          } finally {
+            ReplicaRoutingDataSource.setPrimaryRequired(false);
+          }
+        },
+        executor);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.example.savings_app.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import java.sql.DatabaseMetaData;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.tool.schema.spi.DelayedDropRegistryNotAvailableImpl;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepares every shard at startup. Hibernate only manages the schema of the default shard, so the
+ * same update is applied to the others, and each shard's identity counters are moved to the start
+ * of its ID range so that new rows can be routed by ID.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "savings.sharding.enabled", havingValue = "true")
+public class ShardSchemaInitializer {
+
+  // Tables whose IDs are used to route requests to a shard
+  private static final List<String> ROUTED_TABLES =
+      List.of("Account", "Customer", "Milestone", "Savings", "Recurring_Deposit");
+
+  private final ShardRoutingDataSource shardRoutingDataSource;
+  private final ShardDirectory shardDirectory;
+  private final EntityManagerFactory entityManagerFactory;
+  private final ShardingProperties properties;
+  private final String ddlAuto;
+
+  /**
+   * Constructor to inject dependencies into the ShardSchemaInitializer.
+   *
+   * @param shardRoutingDataSource The routing DataSource holding each shard's pool.
+   * @param shardDirectory The directory holding each shard's ID range.
+   * @param entityManagerFactory The factory whose entities describe the schema.
+   * @param properties The sharding settings.
+   * @param ddlAuto The schema management mode applied to the default shard.
+   */
+  @Autowired
+  public ShardSchemaInitializer(
+      ShardRoutingDataSource shardRoutingDataSource,
+      ShardDirectory shardDirectory,
+      EntityManagerFactory entityManagerFactory,
+      ShardingProperties properties,
+      @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+    this.shardRoutingDataSource = shardRoutingDataSource;
+    this.shardDirectory = shardDirectory;
+    this.entityManagerFactory = entityManagerFactory;
+    this.properties = properties;
+    this.ddlAuto = ddlAuto;
+  }
+
+  /** Brings every shard's schema and ID counters in line with the default shard. */
+  @PostConstruct
+  public void initialise() {
+    boolean manageSchema = List.of("update", "create", "create-drop").contains(ddlAuto);
+    for (int shard = 0; shard < shardDirectory.getShardCount(); shard++) {
+      DataSource dataSource = shardRoutingDataSource.getShardDataSource(shard);
+      if (manageSchema && shard > 0) {
+        updateSchema(dataSource);
+      }
+      if (properties.applyIdRanges() && shardDirectory.getIdStart(shard) > 1) {
+        applyIdRange(dataSource, shardDirectory.getIdStart(shard));
+      }
+    }
+  }
+
+  private void updateSchema(DataSource dataSource) {
+    Map<String, Object> settings = new HashMap<>();
+    entityManagerFactory
+        .getProperties()
+        .forEach(
+            (key, value) -> {
+              if (key.startsWith("hibernate.") && !key.startsWith("hibernate.connection")) {
+                settings.put(key, value);
+              }
+            });
+    settings.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+    settings.put(AvailableSettings.HBM2DDL_AUTO, "update");
+
+    StandardServiceRegistry registry =
+        new StandardServiceRegistryBuilder().applySettings(settings).build();
+    try {
+      MetadataSources sources = new MetadataSources(registry);
+      for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+        sources.addAnnotatedClass(entity.getJavaType());
+      }
+      SchemaManagementToolCoordinator.process(
+          sources.buildMetadata(),
+          registry,
+          settings,
+          DelayedDropRegistryNotAvailableImpl.INSTANCE);
+    } finally {
+      StandardServiceRegistryBuilder.destroy(registry);
+    }
+  }
+
+  // MySQL keeps the counter above existing rows, so this is safe to repeat on every startup
+  private void applyIdRange(DataSource dataSource, int idStart) {
+    if (!isMySql(dataSource)) {
+      throw new IllegalStateException(
+          "savings.sharding.apply-id-ranges only supports MySQL; start the identity counters of"
+              + " each shard at its ID range by hand and turn it off");
+    }
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    for (String table : ROUTED_TABLES) {
+      jdbcTemplate.execute("alter table " + table + " auto_increment = " + idStart);
+    }
+    log.info("Moved identity counters of {} tables to {}", ROUTED_TABLES.size(), idStart);
+  }
+
+  private static boolean isMySql(DataSource dataSource) {
+    try {
+      String product =
+          JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+      return "MySQL".equalsIgnoreCase(product);
+    } catch (MetaDataAccessException e) {
+      throw new IllegalStateException("Could not read the database type of a shard", e);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.savings_app.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Wires the sharded persistence layer. When {@code savings.sharding.enabled} is set, the single
+ * {@code spring.datasource} pool is replaced by a routing DataSource over one pool per shard, and
+ * every repository, JdbcTemplate and transaction goes through it. A shard with a replica routes its
+ * read-only transactions there when {@code savings.replica.enabled} is set.
+ */
+@Configuration
+@EnableConfigurationProperties({ShardingProperties.class, ReplicaProperties.class})
+public class ShardingConfig {
+
+  /** Creates the routing DataSource over one connection pool per configured shard. */
+  @Bean
+  @ConditionalOnProperty(name = "savings.sharding.enabled", havingValue = "true")
+  public ShardRoutingDataSource shardRoutingDataSource(
+      ShardingProperties properties, ReplicaProperties replicaProperties) {
+    List<ShardingProperties.Shard> shards = properties.shards();
+    if (shards.isEmpty()) {
+      throw new IllegalStateException("Sharding is enabled but no shards are configured");
+    }
+
+    Map<Object, Object> targets = new HashMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      ShardingProperties.Shard shard = shards.get(i);
+      DataSource primary = pool(shard, shard.url());
+      targets.put(
+          i,
+          replicaProperties.enabled() && shard.replicaUrl() != null
+              ? new ReplicaRoutingDataSource(primary, pool(shard, shard.replicaUrl()))
+              : primary);
+    }
+
+    ShardRoutingDataSource routing = new ShardRoutingDataSource();
+    routing.setTargetDataSources(targets);
+    routing.setDefaultTargetDataSource(targets.get(0));
+    routing.setLenientFallback(false);
+    return routing;
+  }
+
+  private static DataSource pool(ShardingProperties.Shard shard, String url) {
+    return DataSourceBuilder.create()
+        .url(url)
+        .username(shard.username())
+        .password(shard.password())
+        .driverClassName(shard.driverClassName())
+        .build();
+  }
+
+  /**
+   * Exposes the routing DataSource behind a lazy proxy, so a transaction that starts before the
+   * shard is known still fetches its connection from the right shard at its first statement.
+   */
+  @Bean
+  @Primary
+  @ConditionalOnProperty(name = "savings.sharding.enabled", havingValue = "true")
+  public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+  }
+}
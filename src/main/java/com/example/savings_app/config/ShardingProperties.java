@@ -0,0 +1,43 @@
+package com.example.savings_app.config;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for splitting the data by user ID across several databases, bound from {@code
+ * savings.sharding.*}. With sharding disabled the application uses {@code spring.datasource} as a
+ * single shard.
+ *
+ * @param enabled Whether requests are routed across the configured shards.
+ * @param workers The number of shards queried in parallel by scatter-gather reads.
+ * @param applyIdRanges Whether to move each shard's identity counters to its ID range at startup.
+ * @param shards The shards, in ascending order of their ID ranges.
+ */
+@ConfigurationProperties(prefix = "savings.sharding")
+public record ShardingProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("4") int workers,
+    @DefaultValue("true") boolean applyIdRanges,
+    @DefaultValue List<Shard> shards) {
+
+  /**
+   * One database holding a slice of the users and everything they own.
+   *
+   * @param url The JDBC URL of the shard.
+   * @param username The database user.
+   * @param password The database password.
+   * @param driverClassName The JDBC driver, detected from the URL when not set.
+   * @param idStart The first ID allocated on this shard; the range runs to the next shard's start.
+   * @param acceptsNewUsers Whether new accounts may be placed on this shard.
+   * @param replicaUrl The JDBC URL of the shard's read replica, if it has one.
+   */
+  public record Shard(
+      String url,
+      String username,
+      String password,
+      String driverClassName,
+      @DefaultValue("1") int idStart,
+      @DefaultValue("true") boolean acceptsNewUsers,
+      String replicaUrl) {}
+}
@@ -1,10 +1,21 @@
 package com.example.savings_app.controller;
 
+import com.example.savings_app.dto.AccountResponse;
 import com.example.savings_app.model.Account;
+import com.example.savings_app.model.AccountDeletion;
 import com.example.savings_app.model.LoginRequest;
+import com.example.savings_app.model.ProvisioningResult;
+import com.example.savings_app.model.ProvisioningRow;
+import com.example.savings_app.service.AccountProvisioningService;
 import com.example.savings_app.service.AccountService;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,22 +28,42 @@ import org.springframework.web.bind.annotation.*;
 public class AccountController {
 
   private final AccountService accountService;
+  private final AccountProvisioningService accountProvisioningService;
+  private final int maxBatchSize;
 
   @Autowired
-  public AccountController(AccountService accountService) {
+  public AccountController(
+      AccountService accountService,
+      AccountProvisioningService accountProvisioningService,
+      @Value("${savings.api.max-batch-size:100}") int maxBatchSize) {
     this.accountService = accountService;
+    this.accountProvisioningService = accountProvisioningService;
+    this.maxBatchSize = maxBatchSize;
   }
 
   /**
    * Endpoint to create a new account.
    *
    * @param account the account details provided in the request body.
-   * @return the created account.
+   * @return the created account, without its password hash or date of birth.
    */
   @PostMapping("/account/create")
-  public Account createAccount(@RequestBody Account account) {
+  public AccountResponse createAccount(@RequestBody Account account) {
     // Delegates the creation of the account to the service layer
-    return accountService.createAccount(account);
+    return AccountResponse.from(accountService.createAccount(account));
+  }
+
+  /**
+   * Endpoint to create many parent/child account pairs in one request, for example a whole school
+   * class. Each row is reported individually so that a rejected row does not fail the others.
+   *
+   * @param rows the parent/child pairs to create.
+   * @return a ResponseEntity containing one result per row, or 400 Bad Request if no rows are sent.
+   */
+  @PostMapping("/account/bulkCreate")
+  public ResponseEntity<List<ProvisioningResult>> bulkCreateAccounts(
+      @RequestBody List<ProvisioningRow> rows) {
+    return ResponseEntity.ok(accountProvisioningService.provisionAccounts(rows));
   }
 
   /**
@@ -42,9 +73,9 @@ public class AccountController {
    * @return a ResponseEntity containing the account if found, or a 404 Not Found if not found.
    */
   @GetMapping("/account/id/{userId}")
-  public ResponseEntity<Account> getAccountByUserId(@PathVariable int userId) {
+  public ResponseEntity<AccountResponse> getAccountByUserId(@PathVariable int userId) {
     // Attempts to retrieve the account by user ID
-    Optional<Account> accountOptional = accountService.getAccountByUserId(userId);
+    Optional<AccountResponse> accountOptional = accountService.getAccountResponse(userId);
 
     // If account exists, return 200 OK status with account details
     if (accountOptional.isPresent()) {
@@ -55,6 +86,39 @@ public class AccountController {
     }
   }
 
+  /**
+   * Endpoint to retrieve several accounts by user ID in one request, for example the parent and
+   * child shown together on a family screen.
+   *
+   * @param ids the user IDs of the accounts; an ID given twice is returned once.
+   * @return a ResponseEntity containing the accounts found, in the order requested, or 400 Bad
+   *     Request if no IDs or too many IDs are given.
+   */
+  @GetMapping("/account/batch")
+  public ResponseEntity<List<AccountResponse>> getAccountsByUserIds(
+      @RequestParam List<Integer> ids) {
+    Set<Integer> userIds = new LinkedHashSet<>(ids);
+    userIds.removeIf(Objects::isNull);
+    if (userIds.isEmpty() || userIds.size() > maxBatchSize) {
+      return ResponseEntity.badRequest().body(null);
+    }
+    return ResponseEntity.ok(accountService.getAccountResponses(userIds));
+  }
+
+  /**
+   * Endpoint to check whether an email address is free to register, for validating sign-up forms
+   * as the user types.
+   *
+   * @param email the email address to check.
+   * @return a ResponseEntity containing the email and whether it is available, or 400 Bad Request
+   *     if no email is given.
+   */
+  @GetMapping("/account/email/available")
+  public ResponseEntity<Map<String, Object>> isEmailAvailable(@RequestParam String email) {
+    boolean available = accountService.isEmailAvailable(email);
+    return ResponseEntity.ok(Map.of("email", email, "available", available));
+  }
+
   /**
    * Endpoint to handle account login. Verifies the email and password and returns the account if
    * valid.
@@ -64,7 +128,7 @@ public class AccountController {
    *     status if the password is incorrect.
    */
   @PostMapping("/account/login")
-  public ResponseEntity<Account> login(@RequestBody LoginRequest loginRequest) {
+  public ResponseEntity<AccountResponse> login(@RequestBody LoginRequest loginRequest) {
     // Retrieves account by email
     Optional<Account> accountOptional = accountService.getAccountByEmail(loginRequest.getEmail());
 
@@ -77,7 +141,7 @@ public class AccountController {
 
       // If the password matches, return the account details
       if (isPasswordValid) {
-        return ResponseEntity.ok(account);
+        return ResponseEntity.ok(AccountResponse.from(account));
       } else {
         // If password doesn't match, return 403 Forbidden status
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
@@ -89,24 +153,30 @@ public class AccountController {
   }
 
   /**
-   * Endpoint to delete an account by its user ID.
+   * Endpoint to delete an account by its user ID. The account disappears at once, while its data
+   * is purged in the background.
    *
    * @param userId the user ID of the account to be deleted.
-   * @return a ResponseEntity with a success message or error message.
+   * @return a ResponseEntity with 202 Accepted and the progress of the deletion, or 400 Bad Request
+   *     if no account has this ID.
    */
   @DeleteMapping("/account/id/{userId}")
-  public ResponseEntity<String> deleteAccount(@PathVariable int userId) {
-    try {
-      // Calls the service to delete the account
-      accountService.deleteAccount(userId);
-      return ResponseEntity.ok("Account with ID " + userId + " deleted successfully.");
-    } catch (IllegalArgumentException e) {
-      // If an invalid argument error occurs, return a 400 Bad Request status with the error message
-      return ResponseEntity.badRequest().body(e.getMessage());
-    } catch (Exception e) {
-      // Catch any other unexpected exceptions and return a 500 Internal Server Error status
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-          .body("An unexpected error occurred: " + e.getMessage());
-    }
+  public ResponseEntity<AccountDeletion> deleteAccount(@PathVariable int userId) {
+    return ResponseEntity.accepted().body(accountService.deleteAccount(userId));
+  }
+
+  /**
+   * Endpoint to follow the purge of a deleted account's data.
+   *
+   * @param userId the user ID of the deleted account.
+   * @return a ResponseEntity containing the progress of the deletion, or a 404 Not Found if the
+   *     account was never deleted.
+   */
+  @GetMapping("/account/id/{userId}/deletion")
+  public ResponseEntity<AccountDeletion> getAccountDeletion(@PathVariable int userId) {
+    return accountService
+        .getAccountDeletion(userId)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
   }
 }
@@ -0,0 +1,165 @@
+package com.example.savings_app.controller;
+
+import com.example.savings_app.batch.ChunkedJobRunner;
+import com.example.savings_app.batch.JobReport;
+import com.example.savings_app.config.Bulkhead;
+import com.example.savings_app.config.Bulkheads;
+import com.example.savings_app.config.RateLimiter;
+import com.example.savings_app.dto.CacheRegionStats;
+import com.example.savings_app.dto.ReconciliationReport;
+import com.example.savings_app.service.ArchiveService;
+import com.example.savings_app.service.EntityCacheService;
+import com.example.savings_app.service.InterestAccrualService;
+import com.example.savings_app.service.LedgerReconciliationService;
+import com.example.savings_app.service.ReadCoalescingService;
+import com.example.savings_app.util.SingleFlight;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * AdminController is a REST controller for operating the application: triggering batch jobs by
+ * hand and reading back how they performed.
+ */
+@RestController
+public class AdminController {
+
+  private final InterestAccrualService interestAccrualService;
+  private final LedgerReconciliationService ledgerReconciliationService;
+  private final ArchiveService archiveService;
+  private final ChunkedJobRunner chunkedJobRunner;
+  private final EntityCacheService entityCacheService;
+  private final ReadCoalescingService readCoalescingService;
+  private final Optional<RateLimiter> rateLimiter;
+  private final Optional<Bulkheads> bulkheads;
+
+  /**
+   * Constructor to initialize the services used by the admin endpoints.
+   *
+   * @param interestAccrualService The service that credits daily interest.
+   * @param ledgerReconciliationService The service that checks balances against the ledger.
+   * @param archiveService The service that moves cold rows into the archive tables.
+   * @param chunkedJobRunner The runner that keeps the latest report of each batch job.
+   * @param entityCacheService The service that reports on the second-level cache.
+   * @param readCoalescingService The service that shares identical concurrent reads.
+   * @param rateLimiter The rate limiter, if rate limiting is enabled.
+   * @param bulkheads The bulkheads, if they are enabled.
+   */
+  @Autowired
+  public AdminController(
+      InterestAccrualService interestAccrualService,
+      LedgerReconciliationService ledgerReconciliationService,
+      ArchiveService archiveService,
+      ChunkedJobRunner chunkedJobRunner,
+      EntityCacheService entityCacheService,
+      ReadCoalescingService readCoalescingService,
+      Optional<RateLimiter> rateLimiter,
+      Optional<Bulkheads> bulkheads) {
+    this.interestAccrualService = interestAccrualService;
+    this.ledgerReconciliationService = ledgerReconciliationService;
+    this.archiveService = archiveService;
+    this.chunkedJobRunner = chunkedJobRunner;
+    this.entityCacheService = entityCacheService;
+    this.readCoalescingService = readCoalescingService;
+    this.rateLimiter = rateLimiter;
+    this.bulkheads = bulkheads;
+  }
+
+  /**
+   * Runs, or resumes, the interest accrual for a date.
+   *
+   * @param date The accrual date in ISO format.
+   * @return A ResponseEntity containing the report of the run.
+   */
+  @PostMapping("/admin/jobs/interest/{date}")
+  public ResponseEntity<JobReport> runInterestAccrual(@PathVariable String date) {
+    return ResponseEntity.ok(interestAccrualService.accrueInterest(LocalDate.parse(date)));
+  }
+
+  /**
+   * Runs, or resumes, the reconciliation of every milestone's saved amount with its ledger.
+   *
+   * @param date The run date in ISO format.
+   * @param repair Whether to set mismatched saved amounts to their ledger total.
+   * @return A ResponseEntity containing the differences found and how many were repaired.
+   */
+  @PostMapping("/admin/jobs/reconciliation/{date}")
+  public ResponseEntity<ReconciliationReport> runLedgerReconciliation(
+      @PathVariable String date, @RequestParam(defaultValue = "false") boolean repair) {
+    return ResponseEntity.ok(
+        ledgerReconciliationService.reconcile(LocalDate.parse(date), repair));
+  }
+
+  /**
+   * Runs, or resumes, the move of everything past its retention period into the archive tables.
+   *
+   * @param date The date the retention periods are counted back from, in ISO format.
+   * @return A ResponseEntity containing the report of the run.
+   */
+  @PostMapping("/admin/jobs/archive/{date}")
+  public ResponseEntity<JobReport> runArchive(@PathVariable String date) {
+    return ResponseEntity.ok(archiveService.archive(LocalDate.parse(date)));
+  }
+
+  /**
+   * Retrieves the latest report of every batch job run since startup.
+   *
+   * @return A ResponseEntity containing the reports keyed by job name.
+   */
+  @GetMapping("/admin/jobs")
+  public ResponseEntity<Map<String, JobReport>> getJobReports() {
+    return ResponseEntity.ok(chunkedJobRunner.getLastReports());
+  }
+
+  /**
+   * Retrieves the hits, misses and puts of every second-level cache region since startup.
+   *
+   * @return A ResponseEntity containing the counters of each region, empty if Hibernate statistics
+   *     are disabled.
+   */
+  @GetMapping("/admin/cache")
+  public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+    return ResponseEntity.ok(entityCacheService.getRegionStats());
+  }
+
+  /**
+   * Retrieves how many reads ran against the database and how many shared a query already running.
+   *
+   * @return A ResponseEntity containing the counters of the shared reads since startup.
+   */
+  @GetMapping("/admin/coalescing")
+  public ResponseEntity<SingleFlight.Stats> getCoalescingStats() {
+    return ResponseEntity.ok(readCoalescingService.getStats());
+  }
+
+  /**
+   * Retrieves the rate limiter's counters, including the requests rejected by each rule.
+   *
+   * @return A ResponseEntity containing the counters, or 404 Not Found if rate limiting is
+   *     disabled.
+   */
+  @GetMapping("/admin/rate-limits")
+  public ResponseEntity<RateLimiter.Stats> getRateLimitStats() {
+    return rateLimiter
+        .map(limiter -> ResponseEntity.ok(limiter.getStats()))
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Retrieves the load of every bulkhead, including how many requests are queued for a slot and
+   * how many have been rejected.
+   *
+   * @return A ResponseEntity containing the counters keyed by class of route, or 404 Not Found if
+   *     bulkheads are disabled.
+   */
+  @GetMapping("/admin/bulkheads")
+  public ResponseEntity<Map<String, Bulkhead.Stats>> getBulkheadStats() {
+    return bulkheads
+        .map(all -> ResponseEntity.ok(all.getStats()))
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+}
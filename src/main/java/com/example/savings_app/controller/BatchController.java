@@ -0,0 +1,58 @@
+package com.example.savings_app.controller;
+
+import com.example.savings_app.model.BatchOperation;
+import com.example.savings_app.model.BatchOperationResult;
+import com.example.savings_app.service.BatchRequestService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller that lets a client send several API calls in one request, for example everything a
+ * dashboard needs on first load.
+ */
+@RestController
+public class BatchController {
+
+  private final BatchRequestService batchRequestService;
+
+  @Autowired
+  public BatchController(BatchRequestService batchRequestService) {
+    this.batchRequestService = batchRequestService;
+  }
+
+  /**
+   * Endpoint to run a list of API calls. Each call has its own status and body in the response, so
+   * a failed call does not fail the others.
+   *
+   * @param operations the calls to run, in order.
+   * @param request the current request, whose headers and client address are passed on to every
+   *     call, so that the calls are authorized and rate limited as the client.
+   * @param response the current response.
+   * @return a ResponseEntity containing one result per call, or 400 Bad Request if the batch is
+   *     empty, too large, or has an invalid call.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<List<BatchOperationResult>> executeBatch(
+      @RequestBody List<BatchOperation> operations,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    try {
+      List<String> setCookies = new ArrayList<>();
+      List<BatchOperationResult> results =
+          batchRequestService.execute(operations, request, response, setCookies);
+      return ResponseEntity.ok()
+          .header(HttpHeaders.SET_COOKIE, setCookies.toArray(String[]::new))
+          .body(results);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(null);
+    }
+  }
+}
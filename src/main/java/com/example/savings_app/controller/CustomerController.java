@@ -35,19 +35,11 @@ public class CustomerController {
    */
   @GetMapping("/customer/id/{custId}")
   public ResponseEntity<Customer> getCustomerByCustId(@PathVariable int custId) {
-    try {
-      // Attempt to find the customer by their customer ID
-      Optional<Customer> customer = customerService.getCustomerByCustId(custId);
+    // Attempt to find the customer by their customer ID
+    Optional<Customer> customer = customerService.getCustomerByCustId(custId);
 
-      // Return the customer if found, else return 404 not found
-      return customer.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
-    } catch (IllegalArgumentException e) {
-      // Return 400 Bad Request if there is an issue with the input or validation
-      return ResponseEntity.badRequest().body(null);
-    } catch (Exception e) {
-      // Return 500 Internal Server Error for unexpected issues
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-    }
+    // Return the customer if found, else return 404 not found
+    return customer.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
   }
 
   /**
@@ -58,18 +50,9 @@ public class CustomerController {
    */
   @DeleteMapping("/customer/{custId}")
   public ResponseEntity<String> deleteCustomer(@PathVariable int custId) {
-    try {
-      // Call the service layer to delete the customer by their ID
-      customerService.deleteCustomer(custId);
-      return ResponseEntity.ok("Customer with ID " + custId + " deleted successfully.");
-    } catch (IllegalArgumentException e) {
-      // Handle invalid customer ID or other exceptions
-      return ResponseEntity.badRequest().body(e.getMessage());
-    } catch (Exception e) {
-      // Handle unexpected errors
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-          .body("An unexpected error occurred: " + e.getMessage());
-    }
+    // Call the service layer to delete the customer by their ID
+    customerService.deleteCustomer(custId);
+    return ResponseEntity.ok("Customer with ID " + custId + " deleted successfully.");
   }
 
   /**
@@ -80,17 +63,8 @@ public class CustomerController {
    */
   @PostMapping("/customer/create")
   public ResponseEntity<String> createCustomer(@RequestBody Customer customer) {
-    try {
-      // Call the service to create the customer
-      customerService.createCustomer(customer);
-      return ResponseEntity.status(HttpStatus.CREATED).body("Customer created successfully.");
-    } catch (IllegalArgumentException e) {
-      // Handle invalid customer data or any issues during the creation process
-      return ResponseEntity.badRequest().body(e.getMessage());
-    } catch (Exception e) {
-      // Handle any unexpected errors
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-          .body("An unexpected error occurred: " + e.getMessage());
-    }
+    // Call the service to create the customer
+    customerService.createCustomer(customer);
+    return ResponseEntity.status(HttpStatus.CREATED).body("Customer created successfully.");
   }
 }
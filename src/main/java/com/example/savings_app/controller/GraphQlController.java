@@ -0,0 +1,357 @@
+package com.example.savings_app.controller;
+
+import com.example.savings_app.dto.AccountResponse;
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Customer;
+import com.example.savings_app.service.AccountService;
+import com.example.savings_app.service.CustomerService;
+import com.example.savings_app.service.MilestoneService;
+import com.example.savings_app.service.SavingsService;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+/**
+ * GraphQlController serves the read-only GraphQL schema in {@code graphql/schema.graphqls}, so that
+ * each screen can fetch the slice of accounts, milestones and savings it shows in one request.
+ *
+ * <p>Nested fields are batch mappings: GraphQL collects every parent at one level of the response
+ * and resolves the field for all of them with one service call, which runs one query per table on
+ * each shard that owns some of the parents. A query therefore costs a few statements per level,
+ * however long its lists are, and its depth is capped by {@code savings.graphql.max-depth}.
+ *
+ * <p>Savings lists grow with every deposit, so they are paged: each parent gets at most {@code
+ * first} records, up to {@code savings.api.max-page-size}. A batch mapping cannot see the
+ * arguments of a field, so these fields go through data loaders keyed by the parent and its page
+ * instead; the pages of every parent at one level are still read with one service call.
+ */
+@Controller
+public class GraphQlController {
+
+  private static final String ACCOUNT_SAVINGS = "accountSavings";
+  private static final String MILESTONE_SAVINGS = "milestoneSavings";
+
+  private final AccountService accountService;
+  private final MilestoneService milestoneService;
+  private final SavingsService savingsService;
+  private final CustomerService customerService;
+  private final int maxBatchSize;
+  private final int maxPageSize;
+
+  /**
+   * Constructor to inject the services the schema is read through.
+   *
+   * @param accountService Service used to read accounts.
+   * @param milestoneService Service used to read milestones.
+   * @param savingsService Service used to read savings records.
+   * @param customerService Service used to read the links between parents and children.
+   * @param maxBatchSize The most accounts a single {@code accounts} query may ask for.
+   * @param maxPageSize The most savings records returned for one account or milestone.
+   * @param batchLoaderRegistry Registry the loaders of the paged savings fields are added to.
+   */
+  @Autowired
+  public GraphQlController(
+      AccountService accountService,
+      MilestoneService milestoneService,
+      SavingsService savingsService,
+      CustomerService customerService,
+      @Value("${savings.api.max-batch-size:100}") int maxBatchSize,
+      @Value("${savings.api.max-page-size:100}") int maxPageSize,
+      BatchLoaderRegistry batchLoaderRegistry) {
+    this.accountService = accountService;
+    this.milestoneService = milestoneService;
+    this.savingsService = savingsService;
+    this.customerService = customerService;
+    this.maxBatchSize = maxBatchSize;
+    this.maxPageSize = maxPageSize;
+    batchLoaderRegistry
+        .<SavingsPage, List<SavingsResponse>>forName(ACCOUNT_SAVINGS)
+        .registerMappedBatchLoader(
+            (pages, environment) ->
+                Mono.fromCallable(
+                    () ->
+                        loadPages(
+                            pages,
+                            savingsService::getSavingsResponsesForUsers,
+                            SavingsResponse::userId)));
+    batchLoaderRegistry
+        .<SavingsPage, List<SavingsResponse>>forName(MILESTONE_SAVINGS)
+        .registerMappedBatchLoader(
+            (pages, environment) ->
+                Mono.fromCallable(
+                    () ->
+                        loadPages(
+                            pages,
+                            savingsService::getSavingsResponsesForMilestones,
+                            SavingsResponse::milestoneId)));
+  }
+
+  /**
+   * Retrieves an account by its user ID.
+   *
+   * @param userId The user ID of the account.
+   * @return The account, or null if there is none.
+   */
+  @QueryMapping
+  public AccountResponse account(@Argument int userId) {
+    return first(accountService.getAccountResponses(List.of(userId)));
+  }
+
+  /**
+   * Retrieves several accounts by their user IDs.
+   *
+   * @param userIds The user IDs of the accounts.
+   * @return The accounts that exist, in the order of their IDs in {@code userIds}.
+   * @throws IllegalArgumentException if more accounts are asked for than a batch may hold.
+   */
+  @QueryMapping
+  public List<AccountResponse> accounts(@Argument List<Integer> userIds) {
+    List<Integer> ids = userIds.stream().distinct().toList();
+    if (ids.size() > maxBatchSize) {
+      throw new IllegalArgumentException("At most " + maxBatchSize + " accounts may be requested");
+    }
+    return accountService.getAccountResponses(ids);
+  }
+
+  /**
+   * Retrieves a milestone by its ID, archived ones included.
+   *
+   * @param milestoneId The ID of the milestone.
+   * @return The milestone, or null if there is none.
+   */
+  @QueryMapping
+  public MilestoneResponse milestone(@Argument int milestoneId) {
+    return first(milestoneService.getMilestoneResponses(List.of(milestoneId)));
+  }
+
+  /** Resolves the milestones of every account at one level of the response. */
+  @BatchMapping(typeName = "Account", field = "milestones")
+  public Map<AccountResponse, List<MilestoneResponse>> accountMilestones(
+      List<AccountResponse> accounts) {
+    return groupByOwner(
+        accounts,
+        AccountResponse::userId,
+        milestoneService::getMilestoneResponsesForUsers,
+        MilestoneResponse::userId);
+  }
+
+  /**
+   * Resolves a page of the savings records of an account. The pages of every account at one level
+   * of the response are read together.
+   *
+   * @param account The account whose savings are read.
+   * @param first The most records to return, or null for the largest page allowed.
+   * @param after The savings ID the page starts after, or null for the first page.
+   * @param environment The environment of the field, which holds its data loader.
+   * @return The records on the page, once the level has been read.
+   * @throws IllegalArgumentException if {@code first} is out of range.
+   */
+  @SchemaMapping(typeName = "Account", field = "savings")
+  public CompletableFuture<List<SavingsResponse>> accountSavings(
+      AccountResponse account,
+      @Argument Integer first,
+      @Argument Integer after,
+      DataFetchingEnvironment environment) {
+    return environment
+        .<SavingsPage, List<SavingsResponse>>getDataLoader(ACCOUNT_SAVINGS)
+        .load(page(account.userId(), first, after));
+  }
+
+  /**
+   * Resolves the children of every account at one level of the response, reading the links of the
+   * parents first and then the linked accounts.
+   */
+  @BatchMapping(typeName = "Account", field = "children")
+  public Map<AccountResponse, List<AccountResponse>> accountChildren(
+      List<AccountResponse> accounts) {
+    List<AccountResponse> parents =
+        accounts.stream().filter(account -> account.role() == Account.Role.parent).toList();
+    Map<Integer, List<Customer>> links =
+        customerService.getCustomersForParents(ids(parents, AccountResponse::userId)).stream()
+            .collect(Collectors.groupingBy(Customer::getParentId));
+    Map<Integer, AccountResponse> children =
+        byId(
+            accountService.getAccountResponses(
+                links.values().stream()
+                    .flatMap(List::stream)
+                    .map(Customer::getChildId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList()),
+            AccountResponse::userId);
+
+    Map<AccountResponse, List<AccountResponse>> result = new LinkedHashMap<>();
+    for (AccountResponse account : accounts) {
+      List<AccountResponse> linked = new ArrayList<>();
+      for (Customer link : links.getOrDefault(account.userId(), List.of())) {
+        // A child whose account has been deleted is left out
+        AccountResponse child = children.get(link.getChildId());
+        if (child != null) {
+          linked.add(child);
+        }
+      }
+      result.put(account, linked);
+    }
+    return result;
+  }
+
+  /**
+   * Resolves a page of the savings records made to a milestone. The pages of every milestone at
+   * one level of the response are read together.
+   *
+   * @param milestone The milestone whose savings are read.
+   * @param first The most records to return, or null for the largest page allowed.
+   * @param after The savings ID the page starts after, or null for the first page.
+   * @param environment The environment of the field, which holds its data loader.
+   * @return The records on the page, once the level has been read.
+   * @throws IllegalArgumentException if {@code first} is out of range.
+   */
+  @SchemaMapping(typeName = "Milestone", field = "savings")
+  public CompletableFuture<List<SavingsResponse>> milestoneSavings(
+      MilestoneResponse milestone,
+      @Argument Integer first,
+      @Argument Integer after,
+      DataFetchingEnvironment environment) {
+    return environment
+        .<SavingsPage, List<SavingsResponse>>getDataLoader(MILESTONE_SAVINGS)
+        .load(page(milestone.milestoneId(), first, after));
+  }
+
+  /** Resolves the saver of every milestone at one level of the response. */
+  @BatchMapping(typeName = "Milestone", field = "owner")
+  public Map<MilestoneResponse, AccountResponse> milestoneOwner(
+      List<MilestoneResponse> milestones) {
+    return lookUp(
+        milestones,
+        MilestoneResponse::userId,
+        accountService::getAccountResponses,
+        AccountResponse::userId);
+  }
+
+  /** Resolves the milestone of every savings record at one level of the response. */
+  @BatchMapping(typeName = "Savings", field = "milestone")
+  public Map<SavingsResponse, MilestoneResponse> savingsMilestone(List<SavingsResponse> savings) {
+    return lookUp(
+        savings,
+        SavingsResponse::milestoneId,
+        milestoneService::getMilestoneResponses,
+        MilestoneResponse::milestoneId);
+  }
+
+  private SavingsPage page(int ownerId, Integer first, Integer after) {
+    int limit = first != null ? first : maxPageSize;
+    if (limit <= 0 || limit > maxPageSize) {
+      throw new IllegalArgumentException("first must be between 1 and " + maxPageSize);
+    }
+    return new SavingsPage(ownerId, after != null ? after : 0, limit);
+  }
+
+  /**
+   * Loads the pages asked for by a batch of parents. Parents at one level normally ask for the
+   * same page, which takes one call; a query that aliases the field with other arguments takes one
+   * call per distinct page.
+   */
+  private static <T> Map<SavingsPage, List<T>> loadPages(
+      Set<SavingsPage> pages, PageLoader<T> load, ToIntFunction<T> ownerOf) {
+    Map<SavingsPage, List<T>> result = new HashMap<>();
+    pages.stream()
+        .collect(Collectors.groupingBy(page -> List.of(page.afterId(), page.limit())))
+        .forEach(
+            (arguments, group) ->
+                result.putAll(
+                    groupByOwner(
+                        group,
+                        SavingsPage::ownerId,
+                        ids -> load.load(ids, arguments.get(0), arguments.get(1)),
+                        ownerOf)));
+    return result;
+  }
+
+  /**
+   * Loads the rows owned by a batch of parents with one call and hands each parent its own, or an
+   * empty list if it has none.
+   */
+  private static <P, T> Map<P, List<T>> groupByOwner(
+      List<P> parents,
+      ToIntFunction<P> idOf,
+      Function<Collection<Integer>, List<T>> load,
+      ToIntFunction<T> ownerOf) {
+    Map<Integer, List<T>> byOwner =
+        load.apply(ids(parents, idOf)).stream()
+            .collect(Collectors.groupingBy(ownerOf::applyAsInt));
+    Map<P, List<T>> result = new LinkedHashMap<>();
+    for (P parent : parents) {
+      result.put(parent, byOwner.getOrDefault(idOf.applyAsInt(parent), List.of()));
+    }
+    return result;
+  }
+
+  /**
+   * Loads the row each of a batch of children refers to with one call. Children whose row does
+   * not exist are left out, which resolves their field to null.
+   */
+  private static <C, T> Map<C, T> lookUp(
+      List<C> children,
+      Function<C, Integer> referenceOf,
+      Function<Collection<Integer>, List<T>> load,
+      ToIntFunction<T> idOf) {
+    List<Integer> references =
+        children.stream().map(referenceOf).filter(Objects::nonNull).distinct().toList();
+    Map<Integer, T> rows = byId(load.apply(references), idOf);
+    Map<C, T> result = new LinkedHashMap<>();
+    for (C child : children) {
+      T row = rows.get(referenceOf.apply(child));
+      if (row != null) {
+        result.put(child, row);
+      }
+    }
+    return result;
+  }
+
+  /** Returns the distinct IDs of a batch of parents, in order. */
+  private static <P> List<Integer> ids(List<P> parents, ToIntFunction<P> idOf) {
+    return parents.stream().map(parent -> idOf.applyAsInt(parent)).distinct().toList();
+  }
+
+  private static <T> Map<Integer, T> byId(List<T> rows, ToIntFunction<T> idOf) {
+    Map<Integer, T> byId = new HashMap<>();
+    for (T row : rows) {
+      byId.put(idOf.applyAsInt(row), row);
+    }
+    return byId;
+  }
+
+  private static <T> T first(List<T> rows) {
+    return rows.isEmpty() ? null : rows.get(0);
+  }
+
+  /** The page of savings records one parent asks for. */
+  private record SavingsPage(int ownerId, int afterId, int limit) {}
+
+  /** Reads a page of the rows of each of several owners. */
+  @FunctionalInterface
+  private interface PageLoader<T> {
+    List<T> load(Collection<Integer> ownerIds, int afterId, int limit);
+  }
+}
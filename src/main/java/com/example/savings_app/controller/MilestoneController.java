@@ -1,19 +1,30 @@
 package com.example.savings_app.controller;
 
-import com.example.savings_app.exception.MilestoneException;
+import com.example.savings_app.config.BinaryFormatConfig;
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.event.MilestoneProgressStream;
 import com.example.savings_app.model.Account;
 import com.example.savings_app.model.Milestone;
 import com.example.savings_app.service.AccountService;
 import com.example.savings_app.service.MilestoneService;
+import com.example.savings_app.service.UserVersionService;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * MilestoneController is a REST controller that handles HTTP requests related to milestone
@@ -24,17 +35,32 @@ public class MilestoneController {
 
   private final MilestoneService milestoneService;
   private final AccountService accountService;
+  private final UserVersionService userVersionService;
+  private final MilestoneProgressStream milestoneProgressStream;
+  private final int maxBatchSize;
 
   /**
-   * Constructor to initialize MilestoneService and AccountService.
+   * Constructor to initialize MilestoneService, AccountService, UserVersionService and
+   * MilestoneProgressStream.
    *
    * @param milestoneService The service that handles milestone-related operations.
    * @param accountService The service that handles account-related operations.
+   * @param userVersionService The service that provides ETags for a user's data.
+   * @param milestoneProgressStream The registry of live milestone subscriptions.
+   * @param maxBatchSize The most milestones that can be fetched in one batch request.
    */
   @Autowired
-  public MilestoneController(MilestoneService milestoneService, AccountService accountService) {
+  public MilestoneController(
+      MilestoneService milestoneService,
+      AccountService accountService,
+      UserVersionService userVersionService,
+      MilestoneProgressStream milestoneProgressStream,
+      @Value("${savings.api.max-batch-size:100}") int maxBatchSize) {
     this.milestoneService = milestoneService;
     this.accountService = accountService;
+    this.userVersionService = userVersionService;
+    this.milestoneProgressStream = milestoneProgressStream;
+    this.maxBatchSize = maxBatchSize;
   }
 
   /**
@@ -44,16 +70,30 @@ public class MilestoneController {
    * @return A ResponseEntity containing the milestone if found, or 404 if not found.
    */
   @GetMapping("/milestone/{milestoneId}")
-  public ResponseEntity<Milestone> getMilestoneByMilestoneId(@PathVariable int milestoneId) {
-    try {
-      // Attempt to find the milestone by its ID
-      Optional<Milestone> milestone = milestoneService.getMilestoneByMilestoneId(milestoneId);
-      return milestone.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
-    } catch (IllegalArgumentException e) {
+  public ResponseEntity<MilestoneResponse> getMilestoneByMilestoneId(
+      @PathVariable int milestoneId) {
+    // Attempt to find the milestone by its ID
+    Optional<MilestoneResponse> milestone = milestoneService.getMilestoneResponse(milestoneId);
+    return milestone.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Retrieves several milestones in one round trip, e.g. {@code /milestone/batch?ids=1,2,3}.
+   *
+   * @param ids The IDs of the milestones to retrieve; repeated IDs are returned once.
+   * @return A ResponseEntity containing the milestones found, in the order requested, or 400 if
+   *     no IDs or more than the batch limit are given.
+   */
+  @GetMapping("/milestone/batch")
+  public ResponseEntity<List<MilestoneResponse>> getMilestonesByIds(
+      @RequestParam List<Integer> ids) {
+    Set<Integer> milestoneIds = new LinkedHashSet<>(ids);
+    milestoneIds.removeIf(Objects::isNull);
+    if (milestoneIds.isEmpty() || milestoneIds.size() > maxBatchSize) {
       return ResponseEntity.badRequest().body(null);
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
     }
+
+    return ResponseEntity.ok(milestoneService.getMilestoneResponses(milestoneIds));
   }
 
   /**
@@ -63,15 +103,9 @@ public class MilestoneController {
    * @return A ResponseEntity containing the milestone if found, or 404 if not found.
    */
   @GetMapping("/milestone/name/{name}")
-  public ResponseEntity<Milestone> getMilestoneByName(@PathVariable String name) {
-    try {
-      Optional<Milestone> milestone = milestoneService.getMilestoneByName(name);
-      return milestone.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body(null);
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-    }
+  public ResponseEntity<MilestoneResponse> getMilestoneByName(@PathVariable String name) {
+    Optional<MilestoneResponse> milestone = milestoneService.getMilestoneResponseByName(name);
+    return milestone.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
   }
 
   /**
@@ -81,18 +115,14 @@ public class MilestoneController {
    * @return A ResponseEntity containing a list of milestones for the provided start date.
    */
   @GetMapping("/milestone/startDate/{startDate}")
-  public ResponseEntity<List<Milestone>> getMilestoneByStartDate(@PathVariable String startDate) {
+  public ResponseEntity<List<MilestoneResponse>> getMilestoneByStartDate(
+      @PathVariable String startDate) {
     LocalDate parsedDate = LocalDate.parse(startDate);
-    try {
-      List<Milestone> milestones = milestoneService.getMilestoneByStartDate(parsedDate);
-      return milestones.isEmpty()
-          ? ResponseEntity.notFound().build()
-          : ResponseEntity.ok(milestones);
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body(null);
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-    }
+    List<MilestoneResponse> milestones =
+        milestoneService.getMilestoneResponsesByStartDate(parsedDate);
+    return milestones.isEmpty()
+        ? ResponseEntity.notFound().build()
+        : ResponseEntity.ok(milestones);
   }
 
   /**
@@ -102,19 +132,14 @@ public class MilestoneController {
    * @return A ResponseEntity containing a list of milestones for the provided completion date.
    */
   @GetMapping("/milestone/completionDate/{completionDate}")
-  public ResponseEntity<List<Milestone>> getMilestoneByCompletionDate(
+  public ResponseEntity<List<MilestoneResponse>> getMilestoneByCompletionDate(
       @PathVariable String completionDate) {
     LocalDate parsedDate = LocalDate.parse(completionDate);
-    try {
-      List<Milestone> milestones = milestoneService.getMilestoneByCompletionDate(parsedDate);
-      return milestones.isEmpty()
-          ? ResponseEntity.notFound().build()
-          : ResponseEntity.ok(milestones);
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body(null);
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-    }
+    List<MilestoneResponse> milestones =
+        milestoneService.getMilestoneResponsesByCompletionDate(parsedDate);
+    return milestones.isEmpty()
+        ? ResponseEntity.notFound().build()
+        : ResponseEntity.ok(milestones);
   }
 
   /**
@@ -124,18 +149,13 @@ public class MilestoneController {
    * @return A ResponseEntity containing a list of milestones with the given status.
    */
   @GetMapping("/milestone/status/{status}")
-  public ResponseEntity<List<Milestone>> getMilestoneStatus(@PathVariable String status) {
-    try {
-      Milestone.Status milestoneStatus = Milestone.Status.valueOf(status);
-      List<Milestone> milestones = milestoneService.getMilestoneByStatus(milestoneStatus);
-      return milestones.isEmpty()
-          ? ResponseEntity.notFound().build()
-          : ResponseEntity.ok(milestones);
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body(null);
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-    }
+  public ResponseEntity<List<MilestoneResponse>> getMilestoneStatus(@PathVariable String status) {
+    Milestone.Status milestoneStatus = Milestone.Status.valueOf(status);
+    List<MilestoneResponse> milestones =
+        milestoneService.getMilestoneResponsesByStatus(milestoneStatus);
+    return milestones.isEmpty()
+        ? ResponseEntity.notFound().build()
+        : ResponseEntity.ok(milestones);
   }
 
   /**
@@ -146,15 +166,8 @@ public class MilestoneController {
    */
   @DeleteMapping("/milestone/{milestoneId}")
   public ResponseEntity<String> deleteMilestone(@PathVariable int milestoneId) {
-    try {
-      milestoneService.deleteMilestone(milestoneId);
-      return ResponseEntity.ok("Milestone with ID " + milestoneId + " deleted successfully.");
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body(e.getMessage());
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-          .body("An unexpected error occurred: " + e.getMessage());
-    }
+    milestoneService.deleteMilestone(milestoneId);
+    return ResponseEntity.ok("Milestone with ID " + milestoneId + " deleted successfully.");
   }
 
   /**
@@ -165,15 +178,8 @@ public class MilestoneController {
    */
   @PostMapping("/milestone/create")
   public ResponseEntity<String> createMilestone(@RequestBody Milestone milestone) {
-    try {
-      milestoneService.createMilestone(milestone);
-      return ResponseEntity.status(HttpStatus.CREATED).body("Milestone created successfully.");
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body(e.getMessage());
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-          .body("An unexpected error occurred: " + e.getMessage());
-    }
+    milestoneService.createMilestone(milestone);
+    return ResponseEntity.status(HttpStatus.CREATED).body("Milestone created successfully.");
   }
 
   /**
@@ -183,10 +189,11 @@ public class MilestoneController {
    * @return A ResponseEntity with the updated milestone or an error message.
    */
   @PatchMapping("/milestone/{milestoneId}/complete")
-  public ResponseEntity<Milestone> markMilestoneAsCompleted(@PathVariable Integer milestoneId) {
+  public ResponseEntity<MilestoneResponse> markMilestoneAsCompleted(
+      @PathVariable Integer milestoneId) {
     try {
       Milestone updatedMilestone = milestoneService.markMilestoneAsCompleted(milestoneId);
-      return ResponseEntity.ok(updatedMilestone);
+      return ResponseEntity.ok(MilestoneResponse.from(updatedMilestone));
     } catch (IllegalArgumentException e) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
     } catch (IllegalStateException e) {
@@ -202,61 +209,90 @@ public class MilestoneController {
    * @return A ResponseEntity with the updated milestone or an error message.
    */
   @PatchMapping("/milestone/{milestoneId}/updateSavedAmount")
-  public ResponseEntity<Milestone> updateSavedAmount(
+  public ResponseEntity<MilestoneResponse> updateSavedAmount(
       @PathVariable Integer milestoneId, @RequestBody Map<String, Object> body) {
-    try {
-      Object addedAmountObject = body.get("addedAmount");
-      if (addedAmountObject == null) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-      }
-
-      BigDecimal addedAmountBigDecimal;
-      if (addedAmountObject instanceof String) {
-        addedAmountBigDecimal = new BigDecimal((String) addedAmountObject);
-      } else if (addedAmountObject instanceof Double) {
-        addedAmountBigDecimal = BigDecimal.valueOf((Double) addedAmountObject);
-      } else {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-      }
+    Object addedAmountObject = body.get("addedAmount");
+    if (addedAmountObject == null) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    }
 
-      Milestone updatedMilestone =
-          milestoneService.updateSavedAmountAndCheckCompletion(milestoneId, addedAmountBigDecimal);
-      return ResponseEntity.ok(updatedMilestone);
-    } catch (MilestoneException.MilestoneNotFoundException e) {
-      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-    } catch (MilestoneException.InvalidAmountException e) {
+    BigDecimal addedAmountBigDecimal;
+    if (addedAmountObject instanceof String) {
+      addedAmountBigDecimal = new BigDecimal((String) addedAmountObject);
+    } else if (addedAmountObject instanceof Double) {
+      addedAmountBigDecimal = BigDecimal.valueOf((Double) addedAmountObject);
+    } else {
       return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-    } catch (Exception e) {
-      e.printStackTrace();
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
     }
+
+    Milestone updatedMilestone =
+        milestoneService.updateSavedAmountAndCheckCompletion(milestoneId, addedAmountBigDecimal);
+    return ResponseEntity.ok(MilestoneResponse.from(updatedMilestone));
   }
 
   /**
-   * Retrieves all milestones for a specific user based on the user ID.
+   * Retrieves all milestones for a specific user based on the user ID. Responses carry a weak
+   * ETag, and a request whose If-None-Match still matches is answered with 304 Not Modified
+   * without reading the milestones.
    *
    * @param userId The unique ID of the user to fetch milestones for.
+   * @param request The current request, used to evaluate If-None-Match.
    * @return A ResponseEntity containing a list of milestones for the user.
    */
   @GetMapping("/milestone/user/{userId}")
-  public ResponseEntity<List<Milestone>> getAllMilestonesForUser(@PathVariable String userId) {
-    try {
-      Account user =
-          accountService
-              .getAccountByUserId(Integer.parseInt(userId))
-              .orElseThrow(() -> new IllegalArgumentException("Invalid Account Provided"));
+  public ResponseEntity<List<MilestoneResponse>> getAllMilestonesForUser(
+      @PathVariable String userId, WebRequest request) {
+    int id = Integer.parseInt(userId);
+
+    // Read the version before the data, so a concurrent write can only make the ETag stale
+    String etag =
+        userVersionService.getETag(
+            id, BinaryFormatConfig.etagVariant(request.getHeader(HttpHeaders.ACCEPT)));
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    Account user =
+        accountService
+            .getAccountByUserId(id)
+            .orElseThrow(() -> new IllegalArgumentException("Invalid Account Provided"));
 
-      List<Milestone> milestones = milestoneService.getAllMilestonesForUser(user);
+    List<MilestoneResponse> milestones =
+        milestoneService.getMilestoneResponsesForUser(user.getUserId());
+
+    if (milestones.isEmpty()) {
+      return ResponseEntity.noContent().eTag(etag).build();
+    }
 
-      if (milestones.isEmpty()) {
-        return ResponseEntity.noContent().build();
+    return ResponseEntity.ok().eTag(etag).body(milestones);
+  }
+
+  /**
+   * Opens a Server-Sent Events stream of a user's milestone progress, as an alternative to polling
+   * {@code /milestone/user/{userId}}. Each event carries the milestone's saved amount and status. A
+   * client that reconnects with a Last-Event-ID header receives the events it missed.
+   *
+   * @param userId The unique ID of the user to stream milestone events for.
+   * @param lastEventId The ID of the last event the client received, if it is reconnecting.
+   * @return A ResponseEntity containing the event stream, 404 Not Found if the user does not
+   *     exist, or 429 Too Many Requests if the user already has too many streams open.
+   */
+  @GetMapping(
+      value = "/milestone/user/{userId}/stream",
+      produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamMilestonesForUser(
+      @PathVariable int userId,
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    try {
+      if (accountService.getAccountByUserId(userId).isEmpty()) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
       }
 
-      return ResponseEntity.ok(milestones);
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+      String resumeFrom =
+          lastEventId != null && !lastEventId.isBlank() ? lastEventId.trim() : null;
+      return ResponseEntity.ok(milestoneProgressStream.subscribe(userId, resumeFrom));
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(null);
     }
   }
 }
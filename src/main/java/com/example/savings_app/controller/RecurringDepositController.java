@@ -0,0 +1,75 @@
+package com.example.savings_app.controller;
+
+import com.example.savings_app.dto.RecurringDepositResponse;
+import com.example.savings_app.model.RecurringDeposit;
+import com.example.savings_app.service.RecurringDepositService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * RecurringDepositController is a REST controller that handles HTTP requests related to recurring
+ * allowances. It includes methods for creating, listing, and cancelling deposit schedules.
+ */
+@RestController
+public class RecurringDepositController {
+
+  private final RecurringDepositService recurringDepositService;
+
+  /**
+   * Constructor to initialize RecurringDepositService.
+   *
+   * @param recurringDepositService The service that handles recurring deposit schedules.
+   */
+  @Autowired
+  public RecurringDepositController(RecurringDepositService recurringDepositService) {
+    this.recurringDepositService = recurringDepositService;
+  }
+
+  /**
+   * Creates a new recurring deposit schedule.
+   *
+   * @param schedule The schedule to be created.
+   * @return A ResponseEntity with the created schedule or an error message.
+   */
+  @PostMapping("/recurring/create")
+  public ResponseEntity<?> createSchedule(@RequestBody RecurringDeposit schedule) {
+    RecurringDeposit created = recurringDepositService.createSchedule(schedule);
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(RecurringDepositResponse.from(created));
+  }
+
+  /**
+   * Retrieves all recurring deposit schedules for a user.
+   *
+   * @param userId The unique ID of the user.
+   * @return A ResponseEntity containing the user's schedules, or 204 if there are none.
+   */
+  @GetMapping("/recurring/user/{userId}")
+  public ResponseEntity<List<RecurringDepositResponse>> getSchedulesForUser(
+      @PathVariable int userId) {
+    List<RecurringDepositResponse> schedules =
+        recurringDepositService.getSchedulesForUser(userId);
+    return schedules.isEmpty()
+        ? ResponseEntity.noContent().build()
+        : ResponseEntity.ok(schedules);
+  }
+
+  /**
+   * Cancels a recurring deposit schedule.
+   *
+   * @param scheduleId The unique ID of the schedule to cancel.
+   * @return A ResponseEntity with a message indicating the result of the cancellation.
+   */
+  @DeleteMapping("/recurring/{scheduleId}")
+  public ResponseEntity<String> cancelSchedule(@PathVariable int scheduleId) {
+    try {
+      recurringDepositService.cancelSchedule(scheduleId);
+      return ResponseEntity.ok("Schedule with ID " + scheduleId + " cancelled successfully.");
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+  }
+}
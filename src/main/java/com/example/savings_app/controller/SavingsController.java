@@ -1,17 +1,27 @@
 package com.example.savings_app.controller;
 
+import com.example.savings_app.config.BinaryFormatConfig;
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.dto.SavingsTotalResponse;
 import com.example.savings_app.model.Account;
 import com.example.savings_app.model.Savings;
 import com.example.savings_app.service.AccountService;
 import com.example.savings_app.service.SavingsService;
+import com.example.savings_app.service.UserVersionService;
 import java.text.ParseException;
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * This is the controller class responsible for handling API requests related to Savings. It
@@ -23,17 +33,32 @@ public class SavingsController {
   private final SavingsService savingsService;
   private final AccountService
       accountService; // Injecting AccountService for account-related operations
+  private final UserVersionService userVersionService;
+  private final int maxBatchSize;
+  private final int maxPageSize;
 
   /**
-   * Constructor for injecting dependencies (SavingsService and AccountService).
+   * Constructor for injecting dependencies (SavingsService, AccountService and
+   * UserVersionService).
    *
    * @param savingsService The service responsible for operations related to Savings.
    * @param accountService The service responsible for operations related to Account.
+   * @param userVersionService The service responsible for ETags of a user's data.
+   * @param maxBatchSize The largest number of IDs accepted by the batch endpoint.
+   * @param maxPageSize The largest page of savings returned for a milestone.
    */
   @Autowired
-  public SavingsController(SavingsService savingsService, AccountService accountService) {
+  public SavingsController(
+      SavingsService savingsService,
+      AccountService accountService,
+      UserVersionService userVersionService,
+      @Value("${savings.api.max-batch-size:100}") int maxBatchSize,
+      @Value("${savings.api.max-page-size:100}") int maxPageSize) {
     this.savingsService = savingsService;
     this.accountService = accountService;
+    this.userVersionService = userVersionService;
+    this.maxBatchSize = maxBatchSize;
+    this.maxPageSize = maxPageSize;
   }
 
   /**
@@ -43,17 +68,29 @@ public class SavingsController {
    * @return ResponseEntity containing the Savings object or a 404 if not found.
    */
   @GetMapping("/savings/{savingsId}")
-  public ResponseEntity<Savings> getSavingsById(@PathVariable int savingsId) {
-    try {
-      Optional<Savings> savings = savingsService.getSavingsById(savingsId);
-
-      // If savings is found, return it; otherwise, return 404 not found
-      return savings.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body(null); // Return 400 for invalid arguments
-    } catch (Exception e) {
-      return ResponseEntity.status(500).body(null); // Return 500 for any unexpected error
+  public ResponseEntity<SavingsResponse> getSavingsById(@PathVariable int savingsId) {
+    Optional<SavingsResponse> savings = savingsService.getSavingsResponse(savingsId);
+
+    // If savings is found, return it; otherwise, return 404 not found
+    return savings.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Get several Savings objects by ID in one request.
+   *
+   * @param ids The comma-separated savings IDs; repeats are ignored.
+   * @return ResponseEntity containing the Savings that exist, in the requested order, or a 400 if
+   *     the list is empty or longer than the batch limit.
+   */
+  @GetMapping("/savings/batch")
+  public ResponseEntity<List<SavingsResponse>> getSavingsByIds(@RequestParam List<Integer> ids) {
+    Set<Integer> savingsIds = new LinkedHashSet<>(ids);
+    savingsIds.removeIf(Objects::isNull);
+    if (savingsIds.isEmpty() || savingsIds.size() > maxBatchSize) {
+      return ResponseEntity.badRequest().body(null); // Return 400 for an empty or oversized batch
     }
+
+    return ResponseEntity.ok(savingsService.getSavingsResponses(savingsIds));
   }
 
   /**
@@ -64,45 +101,68 @@ public class SavingsController {
    * @throws ParseException If the date format is invalid.
    */
   @GetMapping("/savings/date/{date}")
-  public ResponseEntity<List<Savings>> getSavingsByDate(@PathVariable String date)
+  public ResponseEntity<List<SavingsResponse>> getSavingsByDate(@PathVariable String date)
       throws ParseException {
 
     // Parse the date string into LocalDate
     LocalDate parsedDate = LocalDate.parse(date);
 
-    try {
-      List<Savings> savings = savingsService.getSavingsByDate(parsedDate);
-
-      // If no savings are found for the given date, return 404
-      if (savings.isEmpty()) {
-        return ResponseEntity.notFound().build();
-      }
-      return ResponseEntity.ok(savings); // Return the list of savings for the date
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body(null); // Return 400 for invalid date
-    } catch (Exception e) {
-      return ResponseEntity.status(500).body(null); // Return 500 for unexpected errors
+    List<SavingsResponse> savings = savingsService.getSavingsResponsesByDate(parsedDate);
+
+    // If no savings are found for the given date, return 404
+    if (savings.isEmpty()) {
+      return ResponseEntity.notFound().build();
     }
+    return ResponseEntity.ok(savings); // Return the list of savings for the date
   }
 
   /**
-   * Get a specific Savings object by its milestone ID.
+   * Get the latest Savings object made to a milestone. Use the ledger endpoint to list them all.
    *
    * @param milestoneId The milestone ID to filter savings by.
-   * @return ResponseEntity containing the Savings object or a 404 if not found.
+   * @return ResponseEntity containing the latest Savings object or a 404 if there are none.
    */
   @GetMapping("/savings/milestone/{milestoneId}")
-  public ResponseEntity<Savings> getSavingsByMilestoneId(@PathVariable int milestoneId) {
-    try {
-      Optional<Savings> savings = savingsService.getSavingsByMilestoneId(milestoneId);
-
-      // If savings are found for the milestone, return it; otherwise, return 404
-      return savings.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body(null); // Return 400 for invalid milestone ID
-    } catch (Exception e) {
-      return ResponseEntity.status(500).body(null); // Return 500 for unexpected errors
+  public ResponseEntity<SavingsResponse> getSavingsByMilestoneId(@PathVariable int milestoneId) {
+    Optional<SavingsResponse> savings =
+        savingsService.getSavingsResponseByMilestoneId(milestoneId);
+
+    // If savings are found for the milestone, return it; otherwise, return 404
+    return savings.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Get one page of the Savings objects made to a milestone, oldest first. The next page starts
+   * after the last savings ID of this one; a page shorter than the limit is the last.
+   *
+   * @param milestoneId The milestone ID to filter savings by.
+   * @param afterId The savings ID the previous page ended with, or 0 for the first page.
+   * @param limit The page size, up to the configured maximum.
+   * @return ResponseEntity containing the page, or a 400 if the limit is out of range.
+   */
+  @GetMapping("/savings/milestone/{milestoneId}/ledger")
+  public ResponseEntity<List<SavingsResponse>> getSavingsLedger(
+      @PathVariable int milestoneId,
+      @RequestParam(defaultValue = "0") int afterId,
+      @RequestParam(defaultValue = "50") int limit) {
+    if (limit <= 0 || limit > maxPageSize) {
+      return ResponseEntity.badRequest().body(null); // Return 400 for an out of range page size
     }
+
+    return ResponseEntity.ok(
+        savingsService.getSavingsResponsesForMilestone(milestoneId, afterId, limit));
+  }
+
+  /**
+   * Get the total of the Savings objects made to a milestone, added up by the database.
+   *
+   * @param milestoneId The milestone ID to filter savings by.
+   * @return ResponseEntity containing the total, which is zero if there are no savings.
+   */
+  @GetMapping("/savings/milestone/{milestoneId}/total")
+  public ResponseEntity<SavingsTotalResponse> getSavingsTotal(@PathVariable int milestoneId) {
+    return ResponseEntity.ok(
+        new SavingsTotalResponse(milestoneId, savingsService.getLedgerTotal(milestoneId)));
   }
 
   /**
@@ -113,45 +173,46 @@ public class SavingsController {
    */
   @DeleteMapping("/savings/{savingsId}")
   public ResponseEntity<Void> deleteSavings(@PathVariable int savingsId) {
-    try {
-      savingsService.deleteSavings(savingsId);
-      return ResponseEntity.noContent().build(); // Return 204 on successful deletion
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().build(); // Return 400 for invalid savings ID
-    }
+    savingsService.deleteSavings(savingsId);
+    return ResponseEntity.noContent().build(); // Return 204 on successful deletion
   }
 
   /**
-   * Get all Savings records associated with a user.
+   * Get all Savings records associated with a user. Responses carry a weak ETag, and a request
+   * whose If-None-Match still matches gets a 304 without the savings being read.
    *
    * @param userId The user ID to retrieve associated Savings.
-   * @return ResponseEntity containing the list of Savings for the user or a 204 if no records
-   *     exist.
+   * @param request The current request, used to evaluate If-None-Match.
+   * @return ResponseEntity containing the list of Savings for the user, a 204 if no records
+   *     exist, or a 304 if the client's copy is current.
    */
   @GetMapping("/savings/user/{userId}")
-  public ResponseEntity<List<Savings>> getAllMilestonesForUser(@PathVariable String userId) {
-    try {
-      // Retrieve user by ID, throw exception if not found
-      Account user =
-          accountService
-              .getAccountByUserId(Integer.parseInt(userId))
-              .orElseThrow(() -> new IllegalArgumentException("Invalid Account Provided"));
-
-      List<Savings> savings = savingsService.getAllSavingsForUser(user);
-
-      // If no savings exist for the user, return 204
-      if (savings.isEmpty()) {
-        return ResponseEntity.noContent().build();
-      }
-
-      return ResponseEntity.ok(savings); // Return the list of savings for the user
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-          .body(null); // Return 400 for invalid user ID
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-          .body(null); // Return 500 for unexpected errors
+  public ResponseEntity<List<SavingsResponse>> getAllMilestonesForUser(
+      @PathVariable String userId, WebRequest request) {
+    int id = Integer.parseInt(userId);
+
+    // Read the version before the data, so a concurrent write can only make the ETag stale
+    String etag =
+        userVersionService.getETag(
+            id, BinaryFormatConfig.etagVariant(request.getHeader(HttpHeaders.ACCEPT)));
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
     }
+
+    // Retrieve user by ID, throw exception if not found
+    Account user =
+        accountService
+            .getAccountByUserId(id)
+            .orElseThrow(() -> new IllegalArgumentException("Invalid Account Provided"));
+
+    List<SavingsResponse> savings = savingsService.getSavingsResponsesForUser(user.getUserId());
+
+    // If no savings exist for the user, return 204
+    if (savings.isEmpty()) {
+      return ResponseEntity.noContent().eTag(etag).build();
+    }
+
+    return ResponseEntity.ok().eTag(etag).body(savings); // Return the savings for the user
   }
 
   /**
@@ -162,17 +223,8 @@ public class SavingsController {
    */
   @PostMapping("/savings/create")
   public ResponseEntity<String> createSavings(@RequestBody Savings savings) {
-    try {
-      savingsService.createSavings(savings);
-      return ResponseEntity.status(HttpStatus.CREATED)
-          .body("Savings created successfully."); // Return 201 on success
-    } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest()
-          .body(e.getMessage()); // Return 400 with error message for invalid data
-    } catch (Exception e) {
-      // Return 500 for any unexpected errors
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-          .body("An unexpected error occurred: " + e.getMessage());
-    }
+    savingsService.createSavings(savings);
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body("Savings created successfully."); // Return 201 on success
   }
 }
@@ -0,0 +1,53 @@
+package com.example.savings_app.controller;
+
+import com.example.savings_app.dto.SyncResponse;
+import com.example.savings_app.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * SyncController is a REST controller that lets apps keep a local copy of a user's account,
+ * milestones and savings up to date by fetching only what changed since their last sync.
+ */
+@RestController
+public class SyncController {
+
+  private final SyncService syncService;
+  private final int maxChanges;
+
+  /**
+   * Constructor to initialize SyncService.
+   *
+   * @param syncService The service that reads the changes since a cursor.
+   * @param maxChanges The largest page of changes a client may ask for.
+   */
+  @Autowired
+  public SyncController(
+      SyncService syncService, @Value("${savings.sync.max-changes:1000}") int maxChanges) {
+    this.syncService = syncService;
+    this.maxChanges = maxChanges;
+  }
+
+  /**
+   * Retrieves the changes to a user's data since a cursor. Without a cursor, or with one too old
+   * to sync from, the response asks the client to refetch its lists and carries the cursor to
+   * sync from afterwards.
+   *
+   * @param userId The user ID of the saver.
+   * @param cursor The cursor returned by the previous sync, if any.
+   * @param limit The most changes to return in one page.
+   * @return A ResponseEntity containing the changes, or 400 Bad Request for an out of range limit.
+   */
+  @GetMapping("/sync/{userId}")
+  public ResponseEntity<SyncResponse> getChanges(
+      @PathVariable int userId,
+      @RequestParam(required = false) Long cursor,
+      @RequestParam(defaultValue = "200") int limit) {
+    if (limit <= 0 || limit > maxChanges) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok(syncService.getChanges(userId, cursor, limit));
+  }
+}
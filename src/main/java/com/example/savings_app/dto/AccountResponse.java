@@ -0,0 +1,37 @@
+package com.example.savings_app.dto;
+
+import com.example.savings_app.model.Account;
+import java.time.LocalDate;
+
+/**
+ * Account as returned by the API. The password hash and date of birth never leave the server.
+ *
+ * @param userId The user ID of the account.
+ * @param firstName The account holder's first name.
+ * @param lastName The account holder's last name.
+ * @param email The account's email address.
+ * @param role Whether the account belongs to a parent or a child.
+ * @param childId The linked child account of a parent, if any.
+ * @param createdAt The date the account was created.
+ */
+public record AccountResponse(
+    Integer userId,
+    String firstName,
+    String lastName,
+    String email,
+    Account.Role role,
+    Integer childId,
+    LocalDate createdAt) {
+
+  /** Maps an account entity that has already been loaded, e.g. after a write. */
+  public static AccountResponse from(Account account) {
+    return new AccountResponse(
+        account.getUserId(),
+        account.getFirstName(),
+        account.getLastName(),
+        account.getEmail(),
+        account.getRole(),
+        account.getChildId(),
+        account.getCreatedAt());
+  }
+}
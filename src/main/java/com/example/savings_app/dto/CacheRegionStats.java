@@ -0,0 +1,23 @@
+package com.example.savings_app.dto;
+
+/**
+ * How one second-level cache region has performed since startup.
+ *
+ * @param region The name of the region.
+ * @param hits The number of reads answered from the region.
+ * @param misses The number of reads that had to go to the database.
+ * @param puts The number of entries put into the region.
+ * @param entries The number of entries the region holds now, or -1 if the provider cannot tell.
+ * @param hitRatio The share of reads answered from the region, or 0 before the first read.
+ */
+public record CacheRegionStats(
+    String region, long hits, long misses, long puts, long entries, double hitRatio) {
+
+  /** Creates the statistics of a region, working out its hit ratio. */
+  public static CacheRegionStats of(
+      String region, long hits, long misses, long puts, long entries) {
+    long reads = hits + misses;
+    return new CacheRegionStats(
+        region, hits, misses, puts, entries, reads == 0 ? 0 : (double) hits / reads);
+  }
+}
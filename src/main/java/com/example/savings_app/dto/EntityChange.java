@@ -0,0 +1,25 @@
+package com.example.savings_app.dto;
+
+import com.example.savings_app.model.ChangeLog;
+
+/**
+ * A change to one of a user's rows, to be logged with the version bump of the same transaction.
+ *
+ * @param userId The user ID of the saver the row belongs to.
+ * @param entityType The kind of row.
+ * @param entityId The ID of the row.
+ * @param operation Whether the row was created or updated, or deleted.
+ */
+public record EntityChange(
+    int userId, ChangeLog.EntityType entityType, int entityId, ChangeLog.Operation operation) {
+
+  /** A row that was created or updated. */
+  public static EntityChange upsert(int userId, ChangeLog.EntityType entityType, int entityId) {
+    return new EntityChange(userId, entityType, entityId, ChangeLog.Operation.upsert);
+  }
+
+  /** A row that was deleted. */
+  public static EntityChange delete(int userId, ChangeLog.EntityType entityType, int entityId) {
+    return new EntityChange(userId, entityType, entityId, ChangeLog.Operation.delete);
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.savings_app.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A milestone's saved amount next to the total of its savings ledger.
+ *
+ * @param milestoneId The ID of the milestone.
+ * @param userId The user ID of the saver.
+ * @param savedAmount The saved amount held on the milestone.
+ * @param ledgerTotal The sum of the savings records made to the milestone.
+ */
+public record LedgerBalance(
+    int milestoneId, int userId, BigDecimal savedAmount, BigDecimal ledgerTotal) {
+
+  /** Returns whether the saved amount agrees with the ledger. */
+  public boolean isBalanced() {
+    return savedAmount.compareTo(ledgerTotal) == 0;
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.savings_app.dto;
+
+import com.example.savings_app.model.Milestone;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Milestone as returned by the API, with its owner reduced to the user ID.
+ *
+ * @param milestoneId The ID of the milestone.
+ * @param userId The user ID of the saver.
+ * @param milestoneName The name of the milestone.
+ * @param targetAmount The amount the saver is aiming for.
+ * @param savedAmount The amount saved so far.
+ * @param startDate The date the milestone was started.
+ * @param completionDate The date the target was reached, if it has been.
+ * @param status Whether the milestone is active or completed.
+ */
+public record MilestoneResponse(
+    Integer milestoneId,
+    Integer userId,
+    String milestoneName,
+    BigDecimal targetAmount,
+    BigDecimal savedAmount,
+    LocalDate startDate,
+    LocalDate completionDate,
+    Milestone.Status status) {
+
+  /** Maps a milestone entity that has already been loaded, e.g. after a write. */
+  public static MilestoneResponse from(Milestone milestone) {
+    return new MilestoneResponse(
+        milestone.getMilestoneId(),
+        milestone.getUser() != null ? milestone.getUser().getUserId() : null,
+        milestone.getMilestoneName(),
+        milestone.getTargetAmount(),
+        milestone.getSavedAmount(),
+        milestone.getStartDate(),
+        milestone.getCompletionDate(),
+        milestone.getStatus());
+  }
+}
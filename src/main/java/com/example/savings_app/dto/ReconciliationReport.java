@@ -0,0 +1,23 @@
+package com.example.savings_app.dto;
+
+import com.example.savings_app.batch.JobReport;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of a ledger reconciliation run.
+ *
+ * @param job The report of the chunked run, counting every milestone checked.
+ * @param repair Whether differences were written back or only reported.
+ * @param mismatches The number of milestones whose saved amount differs from their ledger.
+ * @param repaired The number of milestones set back to their ledger total.
+ * @param netDrift The sum of saved amount minus ledger total over the mismatched milestones.
+ * @param sample The first mismatched milestones found, up to the configured sample size.
+ */
+public record ReconciliationReport(
+    JobReport job,
+    boolean repair,
+    long mismatches,
+    long repaired,
+    BigDecimal netDrift,
+    List<LedgerBalance> sample) {}
@@ -0,0 +1,38 @@
+package com.example.savings_app.dto;
+
+import com.example.savings_app.model.RecurringDeposit;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Recurring deposit schedule as returned by the API, with its owner reduced to the user ID.
+ *
+ * @param scheduleId The ID of the schedule.
+ * @param userId The user ID of the saver.
+ * @param milestoneId The milestone the deposits go towards.
+ * @param amount The amount of each deposit.
+ * @param frequency How often a deposit is made.
+ * @param nextRunDate The date of the next deposit.
+ * @param status Whether the schedule is active, cancelled or finished.
+ */
+public record RecurringDepositResponse(
+    Integer scheduleId,
+    Integer userId,
+    int milestoneId,
+    BigDecimal amount,
+    RecurringDeposit.Frequency frequency,
+    LocalDate nextRunDate,
+    RecurringDeposit.Status status) {
+
+  /** Maps a schedule entity that has already been loaded, e.g. after a write. */
+  public static RecurringDepositResponse from(RecurringDeposit schedule) {
+    return new RecurringDepositResponse(
+        schedule.getScheduleId(),
+        schedule.getUser() != null ? schedule.getUser().getUserId() : null,
+        schedule.getMilestoneId(),
+        schedule.getAmount(),
+        schedule.getFrequency(),
+        schedule.getNextRunDate(),
+        schedule.getStatus());
+  }
+}
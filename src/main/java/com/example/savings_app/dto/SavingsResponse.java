@@ -0,0 +1,28 @@
+package com.example.savings_app.dto;
+
+import com.example.savings_app.model.Savings;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Savings deposit as returned by the API, with its owner reduced to the user ID.
+ *
+ * @param savingsId The ID of the deposit.
+ * @param userId The user ID of the saver.
+ * @param amount The amount deposited.
+ * @param date The date of the deposit.
+ * @param milestoneId The milestone the deposit counts towards.
+ */
+public record SavingsResponse(
+    Integer savingsId, Integer userId, BigDecimal amount, LocalDate date, int milestoneId) {
+
+  /** Maps a savings entity that has already been loaded, e.g. after a write. */
+  public static SavingsResponse from(Savings savings) {
+    return new SavingsResponse(
+        savings.getSavingsId(),
+        savings.getUser() != null ? savings.getUser().getUserId() : null,
+        savings.getAmount(),
+        savings.getDate(),
+        savings.getMilestoneId());
+  }
+}
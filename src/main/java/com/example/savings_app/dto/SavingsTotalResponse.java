@@ -0,0 +1,11 @@
+package com.example.savings_app.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * The total of the savings records made to a milestone, as returned by the API.
+ *
+ * @param milestoneId The ID of the milestone.
+ * @param total The sum of the milestone's savings records, including credited interest.
+ */
+public record SavingsTotalResponse(int milestoneId, BigDecimal total) {}
@@ -0,0 +1,43 @@
+package com.example.savings_app.dto;
+
+import java.util.List;
+
+/**
+ * A page of the changes to a user's account, milestones and savings since a sync cursor. Rows
+ * created or updated are returned as they are now; rows deleted are returned by ID. A row changed
+ * several times appears once.
+ *
+ * @param cursor The cursor to send on the next sync.
+ * @param resyncRequired Whether the changes since the cursor are no longer all known, so the
+ *     client must refetch its lists in full before syncing from the returned cursor.
+ * @param hasMore Whether more changes follow; if so, sync again straight away.
+ * @param accounts The accounts created or updated.
+ * @param milestones The milestones created or updated.
+ * @param savings The savings records created or updated.
+ * @param deletedAccountIds The user IDs of the accounts deleted.
+ * @param deletedMilestoneIds The IDs of the milestones deleted.
+ * @param deletedSavingsIds The IDs of the savings records deleted.
+ */
+public record SyncResponse(
+    long cursor,
+    boolean resyncRequired,
+    boolean hasMore,
+    List<AccountResponse> accounts,
+    List<MilestoneResponse> milestones,
+    List<SavingsResponse> savings,
+    List<Integer> deletedAccountIds,
+    List<Integer> deletedMilestoneIds,
+    List<Integer> deletedSavingsIds) {
+
+  /** A response telling the client to refetch its lists and then sync from {@code cursor}. */
+  public static SyncResponse resync(long cursor) {
+    return new SyncResponse(
+        cursor, true, false, List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+  }
+
+  /** A response with nothing changed since {@code cursor}. */
+  public static SyncResponse unchanged(long cursor) {
+    return new SyncResponse(
+        cursor, false, false, List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.savings_app.event;
+
+import com.example.savings_app.model.OutboxEvent;
+
+/**
+ * An in-process consumer of domain events drained from the outbox. Any Spring bean implementing
+ * this interface is registered with the dispatcher automatically.
+ *
+ * <p>Delivery is at least once: an event may be handed over again if the dispatcher stops before
+ * recording it as processed, so handlers must be idempotent. Events for the same user are always
+ * delivered in the order they were written.
+ */
+public interface DomainEventHandler {
+
+  /**
+   * Whether this handler wants events of the given type.
+   *
+   * @param eventType The type of the event about to be delivered.
+   * @return true if {@link #handle(OutboxEvent)} should be called for it.
+   */
+  boolean supports(OutboxEvent.EventType eventType);
+
+  /**
+   * Handles one event. Throwing leaves the event pending so that it is retried.
+   *
+   * @param event The event read from the outbox, with its JSON payload.
+   * @throws Exception if the event could not be handled.
+   */
+  void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,102 @@
+package com.example.savings_app.event;
+
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes domain events to the outbox table. Publishing must happen inside the transaction that
+ * makes the change, so the event is stored if and only if the change commits; the dispatcher then
+ * delivers it to handlers after the request has returned.
+ */
+@Component
+public class DomainEventPublisher {
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Constructor to inject dependencies into the DomainEventPublisher.
+   *
+   * @param outboxEventRepository Repository used to store events in the outbox.
+   * @param objectMapper Mapper used to serialise event payloads to JSON.
+   */
+  @Autowired
+  public DomainEventPublisher(
+      OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Adds an event to the outbox as part of the current transaction.
+   *
+   * @param eventType The type of the event.
+   * @param userId The user the event belongs to, which determines delivery order.
+   * @param aggregateId The ID of the entity the event is about.
+   * @param payload The event details, serialised to JSON.
+   * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is
+   *     active.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void publish(
+      OutboxEvent.EventType eventType,
+      Integer userId,
+      Integer aggregateId,
+      Map<String, Object> payload) {
+    outboxEventRepository.save(toOutboxEvent(eventType, userId, aggregateId, payload));
+  }
+
+  /**
+   * Adds several events of the same type to the outbox as part of the current transaction.
+   *
+   * @param eventType The type of the events.
+   * @param events The user, aggregate and payload of each event.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void publishAll(OutboxEvent.EventType eventType, List<PendingEvent> events) {
+    List<OutboxEvent> outboxEvents = new ArrayList<>(events.size());
+    for (PendingEvent event : events) {
+      outboxEvents.add(
+          toOutboxEvent(eventType, event.userId(), event.aggregateId(), event.payload()));
+    }
+    outboxEventRepository.saveAll(outboxEvents);
+  }
+
+  private OutboxEvent toOutboxEvent(
+      OutboxEvent.EventType eventType,
+      Integer userId,
+      Integer aggregateId,
+      Map<String, Object> payload) {
+    try {
+      return OutboxEvent.builder()
+          .eventType(eventType)
+          .userId(userId)
+          .aggregateId(aggregateId)
+          .payload(objectMapper.writeValueAsString(payload))
+          .status(OutboxEvent.Status.pending)
+          .createdAt(LocalDateTime.now())
+          .build();
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Event payload cannot be serialised", e);
+    }
+  }
+
+  /**
+   * An event waiting to be written by {@link #publishAll}.
+   *
+   * @param userId The user the event belongs to.
+   * @param aggregateId The ID of the entity the event is about.
+   * @param payload The event details.
+   */
+  public record PendingEvent(Integer userId, Integer aggregateId, Map<String, Object> payload) {}
+}
@@ -0,0 +1,252 @@
+package com.example.savings_app.event;
+
+import com.example.savings_app.config.ShardContext;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes milestone progress and completion events to savers subscribed over Server-Sent Events.
+ *
+ * <p>Subscriptions use servlet async requests, so an idle connection holds no thread: the registry
+ * keeps one emitter per connection, grouped by user, and writes to them only when an event arrives
+ * or a heartbeat is due. Each event carries the shard and ID of its outbox row as {@code
+ * shard-id}, since outbox IDs are only ordered within one shard, and the most recent events of
+ * every user share one fixed-size ring, so a client that reconnects with {@code Last-Event-ID}
+ * receives what it missed. If the events after that ID have already left the ring, or the ID
+ * cannot be placed in order with the user's events, the client is sent a {@code resync} event and
+ * should reload its milestones instead.
+ *
+ * <p>Events arrive through the outbox dispatcher, so only subscribers connected to the node that
+ * runs the dispatcher receive them.
+ */
+@Slf4j
+@Component
+public class MilestoneProgressStream implements DomainEventHandler {
+
+  static final String EVENT_NAME = "milestone";
+  static final String RESYNC_EVENT_NAME = "resync";
+
+  private final ObjectMapper objectMapper;
+  private final long timeoutMs;
+  private final int maxConnectionsPerUser;
+
+  private final Map<Integer, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+  private final AtomicInteger connections = new AtomicInteger();
+
+  // Ring of recent events, and per shard the newest outbox ID that can no longer be replayed
+  private final StreamEvent[] recent;
+  private final Map<Integer, Long> highestEvictedIds = new HashMap<>();
+  private int next;
+
+  /**
+   * Constructor to inject dependencies into the MilestoneProgressStream.
+   *
+   * @param objectMapper Mapper used to read event payloads.
+   * @param bufferSize The number of recent events kept for reconnecting clients.
+   * @param timeoutMs How long a subscription stays open before the client must reconnect.
+   * @param maxConnectionsPerUser The most open subscriptions a user may hold at once.
+   */
+  @Autowired
+  public MilestoneProgressStream(
+      ObjectMapper objectMapper,
+      @Value("${savings.stream.buffer-size:4096}") int bufferSize,
+      @Value("${savings.stream.timeout-ms:1800000}") long timeoutMs,
+      @Value("${savings.stream.max-connections-per-user:5}") int maxConnectionsPerUser) {
+    this.objectMapper = objectMapper;
+    this.recent = new StreamEvent[bufferSize];
+    this.timeoutMs = timeoutMs;
+    this.maxConnectionsPerUser = maxConnectionsPerUser;
+  }
+
+  /**
+   * Opens a subscription to a user's milestone events.
+   *
+   * @param userId The user whose events are wanted.
+   * @param lastEventId The ID of the last event the client received, or null for a new stream.
+   * @return The emitter to return from the controller.
+   * @throws IllegalStateException if the user already holds the most subscriptions allowed.
+   */
+  public SseEmitter subscribe(int userId, String lastEventId) {
+    Set<SseEmitter> emitters =
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet());
+    if (emitters.size() >= maxConnectionsPerUser) {
+      throw new IllegalStateException("Too many open streams for user " + userId);
+    }
+
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    emitters.add(emitter);
+    connections.incrementAndGet();
+    emitter.onCompletion(() -> unsubscribe(userId, emitter));
+    emitter.onTimeout(emitter::complete);
+    emitter.onError(e -> emitter.complete());
+
+    if (lastEventId != null) {
+      replay(userId, lastEventId, emitter);
+    }
+    return emitter;
+  }
+
+  /** Sends whatever the client missed since its last event, or asks it to reload. */
+  private void replay(int userId, String lastEventId, SseEmitter emitter) {
+    List<StreamEvent> missed = missedSince(userId, lastEventId);
+    if (missed == null) {
+      send(userId, emitter, SseEmitter.event().name(RESYNC_EVENT_NAME).data("{}"));
+      return;
+    }
+    for (StreamEvent event : missed) {
+      send(userId, emitter, toSse(event));
+    }
+  }
+
+  /**
+   * Finds a user's buffered events after the given event ID.
+   *
+   * @return The events in order, or null if some of them may have left the ring, if the ID is not
+   *     one this stream sent, or if the user has events on another shard, which cannot be ordered
+   *     against it.
+   */
+  List<StreamEvent> missedSince(int userId, String lastEventId) {
+    int separator = lastEventId.indexOf('-');
+    int lastShard;
+    long lastId;
+    try {
+      lastShard = Integer.parseInt(lastEventId.substring(0, separator));
+      lastId = Long.parseLong(lastEventId.substring(separator + 1));
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      return null;
+    }
+
+    List<StreamEvent> missed = new ArrayList<>();
+    synchronized (recent) {
+      if (lastId < highestEvictedIds.getOrDefault(lastShard, 0L)) {
+        return null;
+      }
+      for (StreamEvent event : recent) {
+        if (event == null || event.userId() != userId) {
+          continue;
+        }
+        if (event.shard() != lastShard) {
+          return null;
+        }
+        if (event.id() > lastId) {
+          missed.add(event);
+        }
+      }
+    }
+    missed.sort(Comparator.comparingLong(StreamEvent::id));
+    return missed;
+  }
+
+  private void unsubscribe(int userId, SseEmitter emitter) {
+    subscribers.computeIfPresent(
+        userId,
+        (id, emitters) -> {
+          if (emitters.remove(emitter)) {
+            connections.decrementAndGet();
+          }
+          return emitters.isEmpty() ? null : emitters;
+        });
+  }
+
+  @Override
+  public boolean supports(OutboxEvent.EventType eventType) {
+    return eventType == OutboxEvent.EventType.milestone_progress
+        || eventType == OutboxEvent.EventType.milestone_completed;
+  }
+
+  @Override
+  public void handle(OutboxEvent event) throws IOException {
+    if (event.getUserId() == null) {
+      return;
+    }
+    ObjectNode data = (ObjectNode) objectMapper.readTree(event.getPayload());
+    if (event.getEventType() == OutboxEvent.EventType.milestone_completed) {
+      data.put("status", Milestone.Status.completed.name());
+    }
+    // The dispatcher drains each shard with its context set; unsharded, everything is shard 0
+    Integer shard = ShardContext.current();
+    StreamEvent streamEvent =
+        new StreamEvent(
+            shard != null ? shard : 0,
+            event.getEventId(),
+            event.getUserId(),
+            objectMapper.writeValueAsString(data));
+
+    synchronized (recent) {
+      StreamEvent evicted = recent[next];
+      if (evicted != null) {
+        highestEvictedIds.merge(evicted.shard(), evicted.id(), Math::max);
+      }
+      recent[next] = streamEvent;
+      next = (next + 1) % recent.length;
+    }
+
+    Set<SseEmitter> emitters = subscribers.get(streamEvent.userId());
+    if (emitters != null) {
+      for (SseEmitter emitter : emitters) {
+        send(streamEvent.userId(), emitter, toSse(streamEvent));
+      }
+    }
+  }
+
+  /** Sends a comment to every subscriber so that proxies keep idle connections open. */
+  @Scheduled(fixedDelayString = "${savings.stream.heartbeat-ms:15000}")
+  public void sendHeartbeats() {
+    subscribers.forEach(
+        (userId, emitters) -> {
+          for (SseEmitter emitter : emitters) {
+            send(userId, emitter, SseEmitter.event().comment("heartbeat"));
+          }
+        });
+  }
+
+  /** @return The number of open subscriptions on this node. */
+  public int getConnectionCount() {
+    return connections.get();
+  }
+
+  private SseEmitter.SseEventBuilder toSse(StreamEvent event) {
+    return SseEmitter.event()
+        .id(event.eventId())
+        .name(EVENT_NAME)
+        .data(event.data(), MediaType.APPLICATION_JSON);
+  }
+
+  /** Sends one event, dropping the subscription if the client has gone away. */
+  private void send(int userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+    try {
+      emitter.send(event);
+    } catch (IOException | IllegalStateException e) {
+      log.debug("Dropping milestone stream of user {}: {}", userId, e.getMessage());
+      unsubscribe(userId, emitter);
+      emitter.completeWithError(e);
+    }
+  }
+
+  /** A milestone event as it is sent to subscribers. */
+  record StreamEvent(int shard, long id, int userId, String data) {
+
+    /** Returns the event ID sent to clients, which they echo back in {@code Last-Event-ID}. */
+    String eventId() {
+      return shard + "-" + id;
+    }
+  }
+}
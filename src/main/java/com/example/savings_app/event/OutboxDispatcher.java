@@ -0,0 +1,223 @@
+package com.example.savings_app.event;
+
+import com.example.savings_app.config.ShardContext;
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains pending events from the outbox and hands them to the registered {@link
+ * DomainEventHandler}s, off the request path.
+ *
+ * <p>Each batch is read in event order and split by user. Users are processed in parallel, but a
+ * user's events are delivered one after another, and the first failure stops that user's remaining
+ * events for the batch so that nothing overtakes it. Events are only marked processed after every
+ * interested handler has succeeded; a failed event stays pending and is retried on a later poll
+ * until it reaches the attempt limit, when it is parked as failed.
+ *
+ * <p>Per-user ordering relies on a single dispatcher, so the dispatcher is off unless {@code
+ * savings.outbox.dispatcher-enabled=true}, which must be set on exactly one node. That node also
+ * deletes processed events once they are older than the retention period, in small batches.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "savings.outbox.dispatcher-enabled", havingValue = "true")
+public class OutboxDispatcher {
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final List<DomainEventHandler> handlers;
+  private final ShardScatterGather shardScatterGather;
+  private final ExecutorService executor;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final int retentionDays;
+  private final int pruneBatchSize;
+
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+
+  /**
+   * Constructor to inject dependencies into the OutboxDispatcher.
+   *
+   * @param outboxEventRepository Repository used to read and update outbox events.
+   * @param handlers Every handler bean in the application context.
+   * @param shardScatterGather Helper used to drain the outbox of every shard.
+   * @param batchSize The number of events read per batch.
+   * @param workers The number of users whose events are delivered in parallel.
+   * @param maxAttempts The number of attempts before an event is parked as failed.
+   * @param retentionDays How long processed events are kept before they are deleted.
+   * @param pruneBatchSize The maximum number of processed events deleted per transaction.
+   */
+  @Autowired
+  public OutboxDispatcher(
+      OutboxEventRepository outboxEventRepository,
+      List<DomainEventHandler> handlers,
+      ShardScatterGather shardScatterGather,
+      @Value("${savings.outbox.batch-size:500}") int batchSize,
+      @Value("${savings.outbox.workers:4}") int workers,
+      @Value("${savings.outbox.max-attempts:10}") int maxAttempts,
+      @Value("${savings.outbox.retention-days:7}") int retentionDays,
+      @Value("${savings.outbox.prune-batch-size:5000}") int pruneBatchSize) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.handlers = handlers;
+    this.shardScatterGather = shardScatterGather;
+    this.executor = Executors.newFixedThreadPool(workers);
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    this.retentionDays = retentionDays;
+    this.pruneBatchSize = pruneBatchSize;
+  }
+
+  /** Drains the outbox of every shard. */
+  @Scheduled(fixedDelayString = "${savings.outbox.poll-interval-ms:500}")
+  public void drain() {
+    shardScatterGather.forEachShard(this::drainShard);
+  }
+
+  /** Delivers pending events batch by batch until the outbox is empty or a delivery fails. */
+  private void drainShard() {
+    boolean progressed = true;
+    while (progressed) {
+      List<OutboxEvent> batch =
+          outboxEventRepository.findByStatusOrderByEventIdAsc(
+              OutboxEvent.Status.pending, PageRequest.of(0, batchSize));
+      if (batch.isEmpty()) {
+        return;
+      }
+
+      // Leave failed events for the next poll instead of spinning on them
+      progressed = dispatchBatch(batch) && batch.size() == batchSize;
+    }
+  }
+
+  /**
+   * Delivers one batch and records the outcome.
+   *
+   * @return true if every event in the batch was delivered.
+   */
+  boolean dispatchBatch(List<OutboxEvent> batch) {
+    Map<Integer, List<OutboxEvent>> byUser = new LinkedHashMap<>();
+    for (OutboxEvent event : batch) {
+      byUser.computeIfAbsent(event.getUserId(), userId -> new ArrayList<>()).add(event);
+    }
+
+    // Failures are recorded from the worker threads, so they must use the batch's shard
+    Integer shard = ShardContext.current();
+    List<CompletableFuture<List<Long>>> deliveries = new ArrayList<>(byUser.size());
+    for (List<OutboxEvent> events : byUser.values()) {
+      deliveries.add(
+          CompletableFuture.supplyAsync(
+              () -> ShardContext.callOn(shard, () -> deliverInOrder(events)), executor));
+    }
+
+    List<Long> processed = new ArrayList<>(batch.size());
+    for (CompletableFuture<List<Long>> delivery : deliveries) {
+      processed.addAll(delivery.join());
+    }
+    if (!processed.isEmpty()) {
+      outboxEventRepository.updateStatus(
+          processed, OutboxEvent.Status.processed, LocalDateTime.now());
+    }
+    delivered.addAndGet(processed.size());
+    return processed.size() == batch.size();
+  }
+
+  /** Delivers one user's events in order, stopping at the first failure. */
+  private List<Long> deliverInOrder(List<OutboxEvent> events) {
+    List<Long> processed = new ArrayList<>(events.size());
+    for (OutboxEvent event : events) {
+      try {
+        for (DomainEventHandler handler : handlers) {
+          if (handler.supports(event.getEventType())) {
+            handler.handle(event);
+          }
+        }
+        processed.add(event.getEventId());
+      } catch (Exception e) {
+        recordFailure(event, e);
+        break;
+      }
+    }
+    return processed;
+  }
+
+  private void recordFailure(OutboxEvent event, Exception e) {
+    failures.incrementAndGet();
+    int attempts = event.getAttempts() + 1;
+    OutboxEvent.Status status =
+        attempts >= maxAttempts ? OutboxEvent.Status.failed : OutboxEvent.Status.pending;
+    String error = String.valueOf(e.getMessage());
+    if (error.length() > 1000) {
+      error = error.substring(0, 1000);
+    }
+    outboxEventRepository.recordFailure(event.getEventId(), attempts, status, error);
+
+    if (status == OutboxEvent.Status.failed) {
+      log.error(
+          "Outbox event {} ({}) failed {} times and was parked",
+          event.getEventId(),
+          event.getEventType(),
+          attempts,
+          e);
+    } else {
+      log.warn("Outbox event {} ({}) failed, will retry", event.getEventId(), event.getEventType());
+    }
+  }
+
+  /** Deletes the events processed before the retention period on every shard. */
+  @Scheduled(cron = "${savings.outbox.prune-cron:0 0 3 * * *}")
+  public void pruneProcessed() {
+    LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+    shardScatterGather.forEachShard(
+        () -> log.info("Deleted {} processed outbox events", prune(cutoff)));
+  }
+
+  /**
+   * Deletes the events processed before a cutoff, one committed batch at a time. Failed events are
+   * kept for inspection.
+   *
+   * @param cutoff The time before which processed events are deleted.
+   * @return The number of events deleted.
+   */
+  long prune(LocalDateTime cutoff) {
+    long total = 0;
+    int deleted;
+    do {
+      deleted = outboxEventRepository.deleteProcessedBefore(cutoff, pruneBatchSize);
+      total += deleted;
+    } while (deleted == pruneBatchSize);
+    return total;
+  }
+
+  /** Returns the number of events delivered since startup. */
+  public long getDelivered() {
+    return delivered.get();
+  }
+
+  /** Returns the number of failed delivery attempts since startup. */
+  public long getFailures() {
+    return failures.get();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.savings_app.exception;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.format.DateTimeParseException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * Turns exceptions thrown by the controllers into responses, so that each endpoint only handles the
+ * outcomes that are specific to it.
+ *
+ * <p>Expected outcomes, such as invalid input or a missing milestone, are answered with their
+ * message and are not logged. Anything else is a bug or an outage: it is logged once with its stack
+ * trace and answered with a generic 500. Spring's own exceptions, including rate limit rejections,
+ * keep their standard status through {@link ResponseEntityExceptionHandler}.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+  /** Answers invalid input with 400 Bad Request. */
+  @ExceptionHandler({
+    IllegalArgumentException.class,
+    DateTimeParseException.class,
+    MilestoneException.InvalidAmountException.class
+  })
+  public ResponseEntity<String> handleBadRequest(RuntimeException e) {
+    return ResponseEntity.badRequest().body(e.getMessage());
+  }
+
+  /** Answers a missing milestone with 404 Not Found. */
+  @ExceptionHandler(MilestoneException.MilestoneNotFoundException.class)
+  public ResponseEntity<String> handleMilestoneNotFound(
+      MilestoneException.MilestoneNotFoundException e) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+  }
+
+  /** Answers any other failure with 500 Internal Server Error, without exposing its details. */
+  @ExceptionHandler(Exception.class)
+  public ResponseEntity<String> handleUnexpected(Exception e, HttpServletRequest request) {
+    log.error("Unexpected error handling {} {}", request.getMethod(), request.getRequestURI(), e);
+    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        .body("An unexpected error occurred.");
+  }
+}
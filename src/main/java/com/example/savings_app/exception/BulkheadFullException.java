@@ -0,0 +1,28 @@
+package com.example.savings_app.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Exception thrown when a request's class of route is at its concurrency limit. It is answered with
+ * 503 Service Unavailable and a Retry-After header.
+ */
+public class BulkheadFullException extends ResponseStatusException {
+
+  /**
+   * Constructor that accepts the class that is full.
+   *
+   * @param bulkhead The name of the class of route.
+   */
+  public BulkheadFullException(String bulkhead) {
+    super(HttpStatus.SERVICE_UNAVAILABLE, "Too many " + bulkhead + " requests in progress");
+  }
+
+  @Override
+  public HttpHeaders getHeaders() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, "1");
+    return headers;
+  }
+}
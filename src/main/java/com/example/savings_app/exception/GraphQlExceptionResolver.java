@@ -0,0 +1,37 @@
+package com.example.savings_app.exception;
+
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import java.time.format.DateTimeParseException;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns exceptions thrown while resolving GraphQL fields into errors, the way {@link
+ * ApiExceptionHandler} does for the REST controllers. Invalid input and a missing milestone are
+ * reported with their message; anything else is left to Spring, which logs it and reports an
+ * internal error without its details.
+ */
+@Component
+public class GraphQlExceptionResolver extends DataFetcherExceptionResolverAdapter {
+
+  @Override
+  protected GraphQLError resolveToSingleError(Throwable e, DataFetchingEnvironment environment) {
+    ErrorType errorType;
+    if (e instanceof IllegalArgumentException
+        || e instanceof DateTimeParseException
+        || e instanceof MilestoneException.InvalidAmountException) {
+      errorType = ErrorType.BAD_REQUEST;
+    } else if (e instanceof MilestoneException.MilestoneNotFoundException) {
+      errorType = ErrorType.NOT_FOUND;
+    } else {
+      return null;
+    }
+    return GraphqlErrorBuilder.newError(environment)
+        .errorType(errorType)
+        .message(e.getMessage())
+        .build();
+  }
+}
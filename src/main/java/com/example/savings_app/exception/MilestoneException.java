@@ -3,9 +3,20 @@ package com.example.savings_app.exception;
 /**
  * This class contains custom exception classes related to Milestone operations. It defines specific
  * exceptions for scenarios like milestone not found or invalid amount.
+ *
+ * <p>These exceptions report expected outcomes to the caller rather than bugs, so they are created
+ * without a stack trace, and the ones with a fixed message are allocated once and reused.
  */
 public class MilestoneException {
 
+  /** Thrown when an amount added to a milestone is zero or negative. */
+  public static final InvalidAmountException AMOUNT_NOT_POSITIVE =
+      new InvalidAmountException("The added amount must be greater than zero.");
+
+  /** Thrown when an amount added to a milestone would take it past its target. */
+  public static final InvalidAmountException AMOUNT_EXCEEDS_TARGET =
+      new InvalidAmountException("The added amount exceeds the target amount.");
+
   /** Exception thrown when a milestone is not found. */
   public static class MilestoneNotFoundException extends RuntimeException {
 
@@ -15,7 +26,7 @@ public class MilestoneException {
      * @param message The custom message describing the error.
      */
     public MilestoneNotFoundException(String message) {
-      super(message); // Pass the message to the superclass (RuntimeException)
+      super(message, null, false, false); // No stack trace or suppressed exceptions
     }
   }
 
@@ -28,7 +39,7 @@ public class MilestoneException {
      * @param message The custom message describing the error.
      */
     public InvalidAmountException(String message) {
-      super(message); // Pass the message to the superclass (RuntimeException)
+      super(message, null, false, false); // No stack trace or suppressed exceptions
     }
   }
 }
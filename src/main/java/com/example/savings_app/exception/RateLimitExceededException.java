@@ -0,0 +1,35 @@
+package com.example.savings_app.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Exception thrown when a caller has used up its rate limit. It is answered with 429 Too Many
+ * Requests and a Retry-After header.
+ */
+public class RateLimitExceededException extends ResponseStatusException {
+
+  private final long retryAfterSeconds;
+
+  /**
+   * Constructor that accepts how long the caller should wait.
+   *
+   * @param retryAfterSeconds The seconds until the caller may try again.
+   */
+  public RateLimitExceededException(long retryAfterSeconds) {
+    super(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+
+  @Override
+  public HttpHeaders getHeaders() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    return headers;
+  }
+}
@@ -2,11 +2,16 @@ package com.example.savings_app.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account")
 @Data
 @Builder
 @AllArgsConstructor
@@ -43,6 +48,10 @@ public class Account {
   @Column(name = "dob", nullable = false)
   private LocalDate dob;
 
+  // Set when the account is deleted; the row stays as a tombstone until its data has been purged
+  @Column(name = "deleted_at")
+  private LocalDateTime deletedAt;
+
   public enum Role {
     child,
     parent
@@ -0,0 +1,56 @@
+package com.example.savings_app.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@Table(
+    name = "Account_Deletion",
+    indexes = @Index(name = "idx_account_deletion_status", columnList = "status, requested_at"))
+public class AccountDeletion {
+
+  // One row per deleted account, kept after the purge as a record of what was removed
+  @Id
+  @Column(name = "user_id", nullable = false)
+  private Integer userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  private Status status;
+
+  @Column(name = "requested_at", nullable = false)
+  private LocalDateTime requestedAt;
+
+  @Column(name = "recurring_deposits_deleted", nullable = false)
+  private long recurringDepositsDeleted;
+
+  // Includes archived savings
+  @Column(name = "savings_deleted", nullable = false)
+  private long savingsDeleted;
+
+  // Includes archived milestones
+  @Column(name = "milestones_deleted", nullable = false)
+  private long milestonesDeleted;
+
+  @Column(name = "customers_deleted", nullable = false)
+  private long customersDeleted;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  @Column(name = "completed_at")
+  private LocalDateTime completedAt;
+
+  public enum Status {
+    pending,
+    completed
+  }
+
+  public AccountDeletion() {}
+}
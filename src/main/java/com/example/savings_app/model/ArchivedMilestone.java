@@ -0,0 +1,57 @@
+package com.example.savings_app.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A completed milestone moved out of the Milestone table by the archive job. It keeps its original
+ * ID, so lookups by ID and shard routing work as before; its savings are archived with it.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@Table(
+    name = "Milestone_Archive",
+    indexes = {
+      @Index(name = "idx_milestone_archive_user", columnList = "user_id"),
+      @Index(name = "idx_milestone_archive_completion", columnList = "completion_date")
+    })
+public class ArchivedMilestone {
+
+  @Id
+  @Column(name = "milestone_id", nullable = false)
+  private Integer milestoneId;
+
+  @Column(name = "user_id", nullable = false)
+  private Integer userId;
+
+  @Column(name = "milestone_name", nullable = false)
+  private String milestoneName;
+
+  @Column(name = "target_amount", nullable = false, precision = 10, scale = 2)
+  private BigDecimal targetAmount;
+
+  @Column(name = "saved_amount", precision = 10, scale = 2)
+  private BigDecimal savedAmount;
+
+  @Column(name = "start_date", nullable = false)
+  private LocalDate startDate;
+
+  @Column(name = "completion_date")
+  private LocalDate completionDate;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  private Milestone.Status status;
+
+  @Column(name = "archived_at", nullable = false)
+  private LocalDateTime archivedAt;
+
+  public ArchivedMilestone() {}
+}
@@ -0,0 +1,48 @@
+package com.example.savings_app.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A savings record moved out of the Savings table by the archive job, either because it is old or
+ * because its milestone was archived. It keeps its original ID.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@Table(
+    name = "Savings_Archive",
+    indexes = {
+      @Index(name = "idx_savings_archive_milestone", columnList = "milestone_id"),
+      @Index(name = "idx_savings_archive_user", columnList = "user_id"),
+      @Index(name = "idx_savings_archive_date", columnList = "date")
+    })
+public class ArchivedSavings {
+
+  @Id
+  @Column(name = "sav_id", nullable = false)
+  private Integer savingsId;
+
+  @Column(name = "user_id", nullable = false)
+  private Integer userId;
+
+  @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+  private BigDecimal amount;
+
+  @Column(name = "date", nullable = false)
+  private LocalDate date;
+
+  @Column(name = "milestone_id", nullable = false)
+  private int milestoneId;
+
+  @Column(name = "archived_at", nullable = false)
+  private LocalDateTime archivedAt;
+
+  public ArchivedSavings() {}
+}
@@ -0,0 +1,24 @@
+package com.example.savings_app.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One sub-request of a call to the batch endpoint, addressed to an existing route, e.g. {@code
+ * GET /milestone/user/7}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperation {
+
+  private String method;
+  private String path;
+
+  // Sent as the JSON request body of a write; ignored for reads
+  private JsonNode body;
+}
@@ -0,0 +1,21 @@
+package com.example.savings_app.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The response to one sub-request of a batch call. A JSON response body is embedded as is; any
+ * other body is embedded as a string.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationResult {
+
+  private int status;
+  private JsonNode body;
+}
@@ -0,0 +1,63 @@
+package com.example.savings_app.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * One row created, updated or deleted for a user, logged at the version of the user's data the
+ * change produced. A user's changes are read back by version, so the version is the sync cursor.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@Table(
+    name = "Change_Log",
+    indexes = {
+      @Index(name = "idx_change_log_user_version", columnList = "user_id, version"),
+      @Index(name = "idx_change_log_changed_at", columnList = "changed_at")
+    })
+public class ChangeLog {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "change_id", nullable = false)
+  private Long changeId;
+
+  @Column(name = "user_id", nullable = false)
+  private Integer userId;
+
+  // The User_Version version the change was made at; one write may log several rows per version
+  @Column(name = "version", nullable = false)
+  private long version;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "entity_type", nullable = false)
+  private EntityType entityType;
+
+  @Column(name = "entity_id", nullable = false)
+  private Integer entityId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "operation", nullable = false)
+  private Operation operation;
+
+  @Column(name = "changed_at", nullable = false)
+  private LocalDateTime changedAt;
+
+  public enum EntityType {
+    account,
+    milestone,
+    savings
+  }
+
+  public enum Operation {
+    upsert,
+    delete
+  }
+
+  public ChangeLog() {}
+}
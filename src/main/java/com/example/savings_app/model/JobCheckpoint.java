@@ -0,0 +1,47 @@
+package com.example.savings_app.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@Table(
+    name = "Job_Checkpoint",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_job_checkpoint_chunk",
+            columnNames = {"job_name", "run_key", "range_start"}))
+public class JobCheckpoint {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto increment for checkpoint_id
+  @Column(name = "checkpoint_id", nullable = false)
+  private Long checkpointId;
+
+  @Column(name = "job_name", nullable = false, length = 64)
+  private String jobName;
+
+  // Identifies one run of the job, e.g. the business date it was run for
+  @Column(name = "run_key", nullable = false, length = 64)
+  private String runKey;
+
+  // The chunk covers IDs from range_start (inclusive) to range_end (exclusive)
+  @Column(name = "range_start", nullable = false)
+  private int rangeStart;
+
+  @Column(name = "range_end", nullable = false)
+  private int rangeEnd;
+
+  @Column(name = "items", nullable = false)
+  private int items;
+
+  @Column(name = "completed_at", nullable = false)
+  private LocalDateTime completedAt;
+
+  public JobCheckpoint() {}
+}
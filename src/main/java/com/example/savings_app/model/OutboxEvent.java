@@ -0,0 +1,70 @@
+package com.example.savings_app.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@Table(
+    name = "Outbox_Event",
+    indexes = {
+      @Index(name = "idx_outbox_status_event", columnList = "status, event_id"),
+      @Index(name = "idx_outbox_status_processed", columnList = "status, processed_at")
+    })
+public class OutboxEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto increment for event_id
+  @Column(name = "event_id", nullable = false)
+  private Long eventId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "event_type", nullable = false)
+  private EventType eventType;
+
+  // The owning user, used to deliver each user's events in order
+  @Column(name = "user_id")
+  private Integer userId;
+
+  @Column(name = "aggregate_id")
+  private Integer aggregateId;
+
+  @Column(name = "payload", nullable = false, length = 4000)
+  private String payload;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  private Status status;
+
+  @Column(name = "attempts", nullable = false)
+  private int attempts;
+
+  @Column(name = "last_error", length = 1000)
+  private String lastError;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "processed_at")
+  private LocalDateTime processedAt;
+
+  public enum EventType {
+    savings_created,
+    milestone_completed,
+    milestone_progress,
+    account_deleted
+  }
+
+  public enum Status {
+    pending,
+    processed,
+    failed
+  }
+
+  public OutboxEvent() {}
+}
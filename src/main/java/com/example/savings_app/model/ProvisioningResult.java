@@ -0,0 +1,26 @@
+package com.example.savings_app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The outcome of provisioning one row of a bulk provisioning request. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProvisioningResult {
+
+  private int row;
+  private Status status;
+  private Integer parentUserId;
+  private Integer childUserId;
+  private Integer custId;
+  private String message;
+
+  public enum Status {
+    created,
+    rejected
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.savings_app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single parent/child pair submitted to the bulk provisioning endpoint. The child is optional;
+ * when it is present a Customer link between the two accounts is created as well.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProvisioningRow {
+
+  private Account parent;
+  private Account child;
+}
@@ -0,0 +1,69 @@
+package com.example.savings_app.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@Table(
+    name = "Recurring_Deposit",
+    indexes =
+        @Index(
+            name = "idx_recurring_due",
+            columnList = "status, next_run_date, schedule_id"))
+public class RecurringDeposit {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto increment for schedule_id
+  @Column(name = "schedule_id", nullable = false)
+  private Integer scheduleId;
+
+  // The saver whose milestone receives the deposits
+  @ManyToOne
+  @JoinColumn(name = "user_id", nullable = false)
+  private Account user;
+
+  @Column(name = "milestone_id", nullable = false)
+  private int milestoneId;
+
+  // The parent who set up the allowance, if any
+  @Column(name = "created_by")
+  private Integer createdBy;
+
+  @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+  private BigDecimal amount;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "frequency", nullable = false)
+  private Frequency frequency;
+
+  @Column(name = "next_run_date", nullable = false)
+  @Temporal(TemporalType.DATE)
+  private LocalDate nextRunDate;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  private Status status;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDate createdAt;
+
+  public enum Frequency {
+    weekly,
+    monthly
+  }
+
+  public enum Status {
+    active,
+    cancelled,
+    finished
+  }
+
+  public RecurringDeposit() {}
+}
@@ -1,17 +1,22 @@
 package com.example.savings_app.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
 @Data
 @Builder
 @AllArgsConstructor
-@Table(name = "Savings")
+@Table(
+    name = "Savings",
+    indexes = @Index(name = "idx_savings_milestone", columnList = "milestone_id"))
 public class Savings {
 
   @Id
@@ -33,5 +38,17 @@ public class Savings {
   @Column(name = "milestone_id", nullable = false)
   private int milestoneId;
 
+  // Read-only view of milestone_id, which gives the column its foreign key; write milestoneId
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "milestone_id",
+      insertable = false,
+      updatable = false,
+      foreignKey = @ForeignKey(name = "fk_savings_milestone"))
+  @JsonIgnore
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private Milestone milestone;
+
   public Savings() {}
 }
@@ -0,0 +1,28 @@
+package com.example.savings_app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Version stamp of a user's milestones and savings. It is bumped in the same transaction as every
+ * change to them, so an unchanged version means the user's lists are unchanged.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@Table(name = "User_Version")
+public class UserVersion {
+
+  // Not generated: one row per user, keyed by the account's user ID
+  @Id
+  @Column(name = "user_id", nullable = false)
+  private Integer userId;
+
+  @Column(name = "version", nullable = false)
+  private long version;
+
+  public UserVersion() {}
+}
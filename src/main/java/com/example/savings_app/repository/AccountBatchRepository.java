@@ -0,0 +1,206 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Customer;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch writer for accounts and customer links. Both tables use identity keys, which stops
+ * Hibernate from batching inserts, so bulk paths go through here and read the generated keys back
+ * from a single batched statement.
+ *
+ * <p>It also purges the data of deleted accounts. Each delete removes at most a given number of
+ * rows, so a caller can work through a large account in small transactions.
+ */
+@Repository
+public class AccountBatchRepository {
+
+  private static final String INSERT_ACCOUNT =
+      "insert into Account (first_name, last_name, email, password_hash, role, child_id,"
+          + " created_at, dob) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_CUSTOMER =
+      "insert into Customer (parent_id, child_id) values (?, ?)";
+
+  private static final String DELETE_RECURRING_DEPOSITS =
+      "delete from Recurring_Deposit where user_id = ? limit ?";
+
+  private static final String DELETE_SAVINGS = "delete from Savings where user_id = ? limit ?";
+
+  private static final String DELETE_ARCHIVED_SAVINGS =
+      "delete from Savings_Archive where user_id = ? limit ?";
+
+  private static final String DELETE_MILESTONES = "delete from Milestone where user_id = ? limit ?";
+
+  private static final String DELETE_ARCHIVED_MILESTONES =
+      "delete from Milestone_Archive where user_id = ? limit ?";
+
+  private static final String DELETE_CUSTOMERS =
+      "delete from Customer where parent_id = ? or child_id = ? limit ?";
+
+  private static final String UNLINK_CHILD =
+      "update Account set child_id = null where child_id = ?";
+
+  // Only a tombstoned account may be purged
+  private static final String DELETE_ACCOUNT =
+      "delete from Account where user_id = ? and deleted_at is not null";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public AccountBatchRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Inserts the given accounts in one batch and writes the generated user IDs back onto them.
+   *
+   * @param accounts The accounts to insert, in the order their keys should be assigned.
+   */
+  public void insertAccounts(List<Account> accounts) {
+    if (accounts.isEmpty()) {
+      return;
+    }
+
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+    jdbcTemplate.batchUpdate(
+        con -> con.prepareStatement(INSERT_ACCOUNT, Statement.RETURN_GENERATED_KEYS),
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            Account account = accounts.get(i);
+            ps.setString(1, account.getFirstName());
+            ps.setString(2, account.getLastName());
+            ps.setString(3, account.getEmail());
+            ps.setString(4, account.getPasswordHash());
+            ps.setString(5, account.getRole().name());
+            if (account.getChildId() != null) {
+              ps.setInt(6, account.getChildId());
+            } else {
+              ps.setNull(6, Types.INTEGER);
+            }
+            ps.setDate(7, Date.valueOf(account.getCreatedAt()));
+            ps.setDate(8, Date.valueOf(account.getDob()));
+          }
+
+          @Override
+          public int getBatchSize() {
+            return accounts.size();
+          }
+        },
+        keyHolder);
+
+    List<Map<String, Object>> keys = keyHolder.getKeyList();
+    for (int i = 0; i < accounts.size(); i++) {
+      accounts.get(i).setUserId(firstKey(keys.get(i)));
+    }
+  }
+
+  /**
+   * Inserts the given customer links in one batch and writes the generated customer IDs back onto
+   * them.
+   *
+   * @param customers The parent/child links to insert.
+   */
+  public void insertCustomers(List<Customer> customers) {
+    if (customers.isEmpty()) {
+      return;
+    }
+
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+    jdbcTemplate.batchUpdate(
+        con -> con.prepareStatement(INSERT_CUSTOMER, Statement.RETURN_GENERATED_KEYS),
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            Customer customer = customers.get(i);
+            ps.setInt(1, customer.getParentId());
+            ps.setInt(2, customer.getChildId());
+          }
+
+          @Override
+          public int getBatchSize() {
+            return customers.size();
+          }
+        },
+        keyHolder);
+
+    List<Map<String, Object>> keys = keyHolder.getKeyList();
+    for (int i = 0; i < customers.size(); i++) {
+      customers.get(i).setCustId(firstKey(keys.get(i)));
+    }
+  }
+
+  /**
+   * Deletes up to {@code limit} recurring deposit schedules of an account.
+   *
+   * @return The number of schedules deleted.
+   */
+  public int deleteRecurringDeposits(int userId, int limit) {
+    return jdbcTemplate.update(DELETE_RECURRING_DEPOSITS, userId, limit);
+  }
+
+  /**
+   * Deletes up to {@code limit} savings of an account, live ones first and then archived ones.
+   *
+   * @return The number of savings deleted.
+   */
+  public int deleteSavings(int userId, int limit) {
+    int deleted = jdbcTemplate.update(DELETE_SAVINGS, userId, limit);
+    if (deleted < limit) {
+      deleted += jdbcTemplate.update(DELETE_ARCHIVED_SAVINGS, userId, limit - deleted);
+    }
+    return deleted;
+  }
+
+  /**
+   * Deletes up to {@code limit} milestones of an account, live ones first and then archived ones.
+   * The account's savings must already be gone, since they reference the live milestones.
+   *
+   * @return The number of milestones deleted.
+   */
+  public int deleteMilestones(int userId, int limit) {
+    int deleted = jdbcTemplate.update(DELETE_MILESTONES, userId, limit);
+    if (deleted < limit) {
+      deleted += jdbcTemplate.update(DELETE_ARCHIVED_MILESTONES, userId, limit - deleted);
+    }
+    return deleted;
+  }
+
+  /**
+   * Deletes up to {@code limit} customer links in which the account is the parent or the child.
+   *
+   * @return The number of links deleted.
+   */
+  public int deleteCustomers(int userId, int limit) {
+    return jdbcTemplate.update(DELETE_CUSTOMERS, userId, userId, limit);
+  }
+
+  /**
+   * Deletes a tombstoned account row, after clearing any parent's reference to it as a child.
+   *
+   * @return true if the account row was deleted.
+   */
+  public boolean deleteAccount(int userId) {
+    jdbcTemplate.update(UNLINK_CHILD, userId);
+    return jdbcTemplate.update(DELETE_ACCOUNT, userId) > 0;
+  }
+
+  // Drivers name the generated key column differently (GENERATED_KEY, user_id, ...), so take the
+  // first value rather than looking it up by name
+  private static Integer firstKey(Map<String, Object> key) {
+    return ((Number) key.values().iterator().next()).intValue();
+  }
+}
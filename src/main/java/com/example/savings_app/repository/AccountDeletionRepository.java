@@ -0,0 +1,12 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.model.AccountDeletion;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, Integer> {
+
+  List<AccountDeletion> findByStatusOrderByRequestedAtAsc(
+      AccountDeletion.Status status, Pageable pageable);
+}
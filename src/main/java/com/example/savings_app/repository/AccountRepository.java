@@ -1,10 +1,53 @@
 package com.example.savings_app.repository;
 
+import com.example.savings_app.dto.AccountResponse;
 import com.example.savings_app.model.Account;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface AccountRepository extends JpaRepository<Account, Integer> {
 
+  // Leaves the password hash and date of birth in the database, and hides deleted accounts
+  String SELECT_RESPONSE =
+      "select new com.example.savings_app.dto.AccountResponse(a.userId, a.firstName, a.lastName,"
+          + " a.email, a.role, a.childId, a.createdAt) from Account a where a.deletedAt is null";
+
+  // Results of lookups by ID are cached until Hibernate next writes to the Account table
+  String QUERY_CACHE_REGION = "account-queries";
+
   Optional<Account> findByEmail(String email);
+
+  @Query("select a.email from Account a where a.email in :emails")
+  List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+  // A fetch size of Integer.MIN_VALUE makes the MySQL driver stream rows instead of buffering them
+  @Query("select a.email from Account a")
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+  Stream<String> streamAllEmails();
+
+  @Query(SELECT_RESPONSE + " and a.userId = :userId")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+  })
+  Optional<AccountResponse> findResponseById(@Param("userId") int userId);
+
+  @Query(SELECT_RESPONSE + " and a.userId in :userIds")
+  List<AccountResponse> findResponsesByIdIn(@Param("userIds") Collection<Integer> userIds);
+
+  @Modifying
+  @Query(
+      "update Account a set a.deletedAt = :deletedAt"
+          + " where a.userId = :userId and a.deletedAt is null")
+  int markDeleted(@Param("userId") int userId, @Param("deletedAt") LocalDateTime deletedAt);
 }
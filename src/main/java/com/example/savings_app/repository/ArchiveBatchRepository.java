@@ -0,0 +1,105 @@
+package com.example.savings_app.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access that moves cold rows into the archive tables one milestone ID range at a time. Each
+ * move copies the rows with one insert-select and deletes them with a delete using the same
+ * condition, so within the chunk transaction a row is either hot or archived, never both.
+ */
+@Repository
+public class ArchiveBatchRepository {
+
+  // Savings of the completed milestones in the range, which must leave before their milestone
+  private static final String COMPLETED_MILESTONE_SAVINGS =
+      " from Savings s join Milestone m on m.milestone_id = s.milestone_id"
+          + " where m.milestone_id >= ? and m.milestone_id < ?"
+          + " and m.status = 'completed' and m.completion_date < ?";
+
+  private static final String ARCHIVE_COMPLETED_MILESTONE_SAVINGS =
+      "insert into Savings_Archive (sav_id, user_id, amount, date, milestone_id, archived_at)"
+          + " select s.sav_id, s.user_id, s.amount, s.date, s.milestone_id, ?"
+          + COMPLETED_MILESTONE_SAVINGS;
+
+  private static final String DELETE_COMPLETED_MILESTONE_SAVINGS =
+      "delete s" + COMPLETED_MILESTONE_SAVINGS;
+
+  private static final String COMPLETED_MILESTONES =
+      " from Milestone where milestone_id >= ? and milestone_id < ?"
+          + " and status = 'completed' and completion_date < ?";
+
+  private static final String ARCHIVE_COMPLETED_MILESTONES =
+      "insert into Milestone_Archive (milestone_id, user_id, milestone_name, target_amount,"
+          + " saved_amount, start_date, completion_date, status, archived_at)"
+          + " select milestone_id, user_id, milestone_name, target_amount, saved_amount,"
+          + " start_date, completion_date, status, ?"
+          + COMPLETED_MILESTONES;
+
+  private static final String DELETE_COMPLETED_MILESTONES = "delete" + COMPLETED_MILESTONES;
+
+  // Old savings of the milestones in the range, found through the Savings milestone index
+  private static final String OLD_SAVINGS =
+      " from Savings where milestone_id >= ? and milestone_id < ? and date < ?";
+
+  private static final String ARCHIVE_OLD_SAVINGS =
+      "insert into Savings_Archive (sav_id, user_id, amount, date, milestone_id, archived_at)"
+          + " select sav_id, user_id, amount, date, milestone_id, ?"
+          + OLD_SAVINGS;
+
+  private static final String DELETE_OLD_SAVINGS = "delete" + OLD_SAVINGS;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public ArchiveBatchRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Moves the milestones in an ID range that were completed before a date, together with all of
+   * their savings, into the archive tables.
+   *
+   * @param fromId The first milestone ID, inclusive.
+   * @param toId The end of the range, exclusive.
+   * @param completedBefore Milestones completed on or after this date stay in the hot table.
+   * @param archivedAt The time stamped on the archived rows.
+   * @return The number of rows archived, counting both the milestones and their savings.
+   */
+  public int archiveCompletedMilestones(
+      int fromId, int toId, LocalDate completedBefore, LocalDateTime archivedAt) {
+    Date cutoff = Date.valueOf(completedBefore);
+    Timestamp stamp = Timestamp.valueOf(archivedAt);
+    int savings =
+        jdbcTemplate.update(ARCHIVE_COMPLETED_MILESTONE_SAVINGS, stamp, fromId, toId, cutoff);
+    jdbcTemplate.update(DELETE_COMPLETED_MILESTONE_SAVINGS, fromId, toId, cutoff);
+    int milestones =
+        jdbcTemplate.update(ARCHIVE_COMPLETED_MILESTONES, stamp, fromId, toId, cutoff);
+    jdbcTemplate.update(DELETE_COMPLETED_MILESTONES, fromId, toId, cutoff);
+    return savings + milestones;
+  }
+
+  /**
+   * Moves the savings dated before a date, whose milestones are in an ID range, into the archive.
+   *
+   * @param fromId The first milestone ID, inclusive.
+   * @param toId The end of the range, exclusive.
+   * @param datedBefore Savings dated on or after this date stay in the hot table.
+   * @param archivedAt The time stamped on the archived rows.
+   * @return The number of savings archived.
+   */
+  public int archiveOldSavings(
+      int fromId, int toId, LocalDate datedBefore, LocalDateTime archivedAt) {
+    Date cutoff = Date.valueOf(datedBefore);
+    int archived =
+        jdbcTemplate.update(
+            ARCHIVE_OLD_SAVINGS, Timestamp.valueOf(archivedAt), fromId, toId, cutoff);
+    jdbcTemplate.update(DELETE_OLD_SAVINGS, fromId, toId, cutoff);
+    return archived;
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.model.ArchivedMilestone;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ArchivedMilestoneRepository extends JpaRepository<ArchivedMilestone, Integer> {
+
+  // Archived milestones are returned exactly like live ones
+  String SELECT_RESPONSE =
+      "select new com.example.savings_app.dto.MilestoneResponse(m.milestoneId, m.userId,"
+          + " m.milestoneName, m.targetAmount, m.savedAmount, m.startDate, m.completionDate,"
+          + " m.status) from ArchivedMilestone m";
+
+  @Query(SELECT_RESPONSE + " where m.milestoneId = :milestoneId")
+  Optional<MilestoneResponse> findResponseById(@Param("milestoneId") int milestoneId);
+
+  @Query(SELECT_RESPONSE + " where m.milestoneId in :milestoneIds")
+  List<MilestoneResponse> findResponsesByIdIn(
+      @Param("milestoneIds") Collection<Integer> milestoneIds);
+
+  @Query(SELECT_RESPONSE + " where m.completionDate = :completionDate")
+  List<MilestoneResponse> findResponsesByCompletionDate(
+      @Param("completionDate") LocalDate completionDate);
+
+  @Query(SELECT_RESPONSE + " where m.userId = :userId")
+  List<MilestoneResponse> findResponsesByUserId(@Param("userId") int userId);
+
+  @Query(SELECT_RESPONSE + " where m.userId in :userIds")
+  List<MilestoneResponse> findResponsesByUserIdIn(@Param("userIds") Collection<Integer> userIds);
+}
@@ -0,0 +1,85 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.model.ArchivedSavings;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ArchivedSavingsRepository extends JpaRepository<ArchivedSavings, Integer> {
+
+  // Archived savings are returned exactly like live ones
+  String SELECT_RESPONSE =
+      "select new com.example.savings_app.dto.SavingsResponse(s.savingsId, s.userId,"
+          + " s.amount, s.date, s.milestoneId) from ArchivedSavings s";
+
+  String SELECT_RANKED_RESPONSE =
+      "select new com.example.savings_app.dto.SavingsResponse(r.savingsId, r.userId, r.amount,"
+          + " r.savedOn, r.milestoneId) from (select s.savingsId as savingsId,"
+          + " s.userId as userId, s.amount as amount, s.date as savedOn,"
+          + " s.milestoneId as milestoneId, row_number() over (partition by ";
+
+  @Query(SELECT_RESPONSE + " where s.savingsId = :savingsId")
+  Optional<SavingsResponse> findResponseById(@Param("savingsId") int savingsId);
+
+  @Query(SELECT_RESPONSE + " where s.savingsId in :savingsIds")
+  List<SavingsResponse> findResponsesByIdIn(@Param("savingsIds") Collection<Integer> savingsIds);
+
+  @Query(SELECT_RESPONSE + " where s.date = :date")
+  List<SavingsResponse> findResponsesByDate(@Param("date") LocalDate date);
+
+  @Query(
+      SELECT_RESPONSE
+          + " where s.savingsId = (select max(latest.savingsId) from ArchivedSavings latest"
+          + " where latest.milestoneId = :milestoneId)")
+  Optional<SavingsResponse> findLatestResponseByMilestoneId(@Param("milestoneId") int milestoneId);
+
+  @Query(
+      SELECT_RESPONSE
+          + " where s.milestoneId = :milestoneId and s.savingsId > :afterId"
+          + " order by s.savingsId")
+  List<SavingsResponse> findResponsePageByMilestoneId(
+      @Param("milestoneId") int milestoneId, @Param("afterId") int afterId, Pageable pageable);
+
+  @Query(
+      "select coalesce(sum(s.amount), 0) from ArchivedSavings s"
+          + " where s.milestoneId = :milestoneId")
+  BigDecimal sumAmountByMilestoneId(@Param("milestoneId") int milestoneId);
+
+  @Query(SELECT_RESPONSE + " where s.userId = :userId")
+  List<SavingsResponse> findResponsesByUserId(@Param("userId") int userId);
+
+  @Query(
+      SELECT_RANKED_RESPONSE
+          + "s.userId order by s.savingsId) as seq from ArchivedSavings s"
+          + " where s.userId in :userIds and s.savingsId > :afterId) r"
+          + " where r.seq <= :limit")
+  List<SavingsResponse> findResponsePagesByUserIdIn(
+      @Param("userIds") Collection<Integer> userIds,
+      @Param("afterId") int afterId,
+      @Param("limit") int limit);
+
+  @Query(
+      SELECT_RANKED_RESPONSE
+          + "s.milestoneId order by s.savingsId) as seq from ArchivedSavings s"
+          + " where s.milestoneId in :milestoneIds and s.savingsId > :afterId) r"
+          + " where r.seq <= :limit")
+  List<SavingsResponse> findResponsePagesByMilestoneIdIn(
+      @Param("milestoneIds") Collection<Integer> milestoneIds,
+      @Param("afterId") int afterId,
+      @Param("limit") int limit);
+
+  @Query("select s.savingsId from ArchivedSavings s where s.milestoneId = :milestoneId")
+  List<Integer> findIdsByMilestoneId(@Param("milestoneId") int milestoneId);
+
+  @Modifying
+  @Query("delete from ArchivedSavings s where s.milestoneId = :milestoneId")
+  int deleteByMilestoneId(@Param("milestoneId") int milestoneId);
+}
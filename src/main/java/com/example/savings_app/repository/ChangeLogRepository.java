@@ -0,0 +1,28 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.model.ChangeLog;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+// Rows are written by UserVersionRepository, together with the version bump they belong to
+public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long> {
+
+  List<ChangeLog> findByUserIdAndVersionGreaterThanOrderByVersionAscChangeIdAsc(
+      int userId, long version, Pageable pageable);
+
+  List<ChangeLog> findByUserIdAndVersionOrderByChangeIdAsc(int userId, long version);
+
+  @Query("select min(c.version) from ChangeLog c where c.userId = :userId")
+  Long findOldestVersion(@Param("userId") int userId);
+
+  @Modifying
+  @Query(
+      value = "delete from Change_Log where changed_at < :cutoff limit :limit",
+      nativeQuery = true)
+  int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
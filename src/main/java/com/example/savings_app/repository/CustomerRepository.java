@@ -1,6 +1,11 @@
 package com.example.savings_app.repository;
 
 import com.example.savings_app.model.Customer;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface CustomerRepository extends JpaRepository<Customer, Integer> {}
+public interface CustomerRepository extends JpaRepository<Customer, Integer> {
+
+  List<Customer> findByParentIdIn(Collection<Integer> parentIds);
+}
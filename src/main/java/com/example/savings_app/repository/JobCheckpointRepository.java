@@ -0,0 +1,10 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.model.JobCheckpoint;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, Long> {
+
+  List<JobCheckpoint> findAllByJobNameAndRunKey(String jobName, String runKey);
+}
@@ -0,0 +1,170 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.dto.LedgerBalance;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Milestone;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to milestone balances for background jobs that touch every milestone. Rows are read
+ * as plain balances without their accounts, and written back with one batched update per chunk.
+ */
+@Repository
+public class MilestoneBatchRepository {
+
+  private static final String LOCK_ACTIVE_RANGE =
+      "select milestone_id, user_id, target_amount, saved_amount from Milestone"
+          + " where status = 'active' and milestone_id >= ? and milestone_id < ?"
+          + " order by milestone_id for update";
+
+  private static final String UPDATE_BALANCE =
+      "update Milestone set saved_amount = ?, status = ?, completion_date = ?"
+          + " where milestone_id = ?";
+
+  // The ledger of a milestone is its savings in both the hot and the archive table
+  private static final String LEDGER_TOTAL =
+      "(select coalesce(sum(s.amount), 0) from Savings s where s.milestone_id = m.milestone_id)"
+          + " + (select coalesce(sum(a.amount), 0) from Savings_Archive a"
+          + " where a.milestone_id = m.milestone_id)";
+
+  // A plain consistent read: walks the primary key and the milestone indexes, locking nothing
+  private static final String LEDGER_BALANCES =
+      "select m.milestone_id, m.user_id, m.saved_amount, "
+          + LEDGER_TOTAL
+          + " as ledger_total from Milestone m where m.milestone_id >= ? and m.milestone_id < ?"
+          + " order by m.milestone_id";
+
+  // Only applies if the balance is still the one that was checked, and recomputes the total under
+  // the row lock so a deposit made since the check is not lost
+  private static final String REPAIR_BALANCE =
+      "update Milestone m set m.saved_amount = "
+          + LEDGER_TOTAL
+          + " where m.milestone_id = ? and coalesce(m.saved_amount, 0) = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public MilestoneBatchRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Locks the active milestones in an ID range for the rest of the transaction and returns their
+   * balances. The returned milestones carry only their IDs, owner ID, amounts and status.
+   *
+   * @param fromId The first milestone ID, inclusive.
+   * @param toId The end of the range, exclusive.
+   * @return The active milestones in the range, in ID order.
+   */
+  public List<Milestone> lockActiveRange(int fromId, int toId) {
+    return jdbcTemplate.query(
+        LOCK_ACTIVE_RANGE,
+        (rs, rowNum) -> {
+          BigDecimal saved = rs.getBigDecimal("saved_amount");
+          return Milestone.builder()
+              .milestoneId(rs.getInt("milestone_id"))
+              .user(Account.builder().userId(rs.getInt("user_id")).build())
+              .targetAmount(rs.getBigDecimal("target_amount"))
+              .savedAmount(saved != null ? saved : BigDecimal.ZERO)
+              .status(Milestone.Status.active)
+              .build();
+        },
+        fromId,
+        toId);
+  }
+
+  /**
+   * Reads the saved amount and ledger total of every milestone in an ID range, without locking.
+   *
+   * @param fromId The first milestone ID, inclusive.
+   * @param toId The end of the range, exclusive.
+   * @return The balances of the milestones in the range, in ID order.
+   */
+  public List<LedgerBalance> findLedgerBalances(int fromId, int toId) {
+    return jdbcTemplate.query(
+        LEDGER_BALANCES,
+        (rs, rowNum) -> {
+          BigDecimal saved = rs.getBigDecimal("saved_amount");
+          return new LedgerBalance(
+              rs.getInt("milestone_id"),
+              rs.getInt("user_id"),
+              saved != null ? saved : BigDecimal.ZERO,
+              rs.getBigDecimal("ledger_total"));
+        },
+        fromId,
+        toId);
+  }
+
+  /**
+   * Sets the saved amount of each milestone to its ledger total in one batch. A milestone whose
+   * saved amount has changed since it was read is left alone.
+   *
+   * @param balances The mismatched balances as they were read.
+   * @return The number of milestones that were repaired.
+   */
+  public int repairBalances(List<LedgerBalance> balances) {
+    if (balances.isEmpty()) {
+      return 0;
+    }
+
+    int[][] counts =
+        jdbcTemplate.batchUpdate(
+            REPAIR_BALANCE,
+            balances,
+            balances.size(),
+            (ps, balance) -> {
+              ps.setInt(1, balance.milestoneId());
+              ps.setBigDecimal(2, balance.savedAmount());
+            });
+    int repaired = 0;
+    for (int[] batch : counts) {
+      for (int count : batch) {
+        // The driver may report a batched statement as succeeded without a row count
+        repaired += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+      }
+    }
+    return repaired;
+  }
+
+  /**
+   * Writes the saved amount, status and completion date of each milestone in one batch.
+   *
+   * @param milestones The milestones to update.
+   */
+  public void updateBalances(List<Milestone> milestones) {
+    if (milestones.isEmpty()) {
+      return;
+    }
+
+    jdbcTemplate.batchUpdate(
+        UPDATE_BALANCE,
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            Milestone milestone = milestones.get(i);
+            ps.setBigDecimal(1, milestone.getSavedAmount());
+            ps.setString(2, milestone.getStatus().name());
+            ps.setDate(
+                3,
+                milestone.getCompletionDate() != null
+                    ? Date.valueOf(milestone.getCompletionDate())
+                    : null);
+            ps.setInt(4, milestone.getMilestoneId());
+          }
+
+          @Override
+          public int getBatchSize() {
+            return milestones.size();
+          }
+        });
+  }
+}
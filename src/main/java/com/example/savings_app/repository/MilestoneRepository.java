@@ -1,16 +1,30 @@
 package com.example.savings_app.repository;
 
+import com.example.savings_app.dto.MilestoneResponse;
 import com.example.savings_app.model.Account;
 import com.example.savings_app.model.Milestone;
+import jakarta.persistence.LockModeType;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface MilestoneRepository extends JpaRepository<Milestone, Integer> {
 
+  // Selects only the columns the API returns, reading the owner's ID from the foreign key
+  String SELECT_RESPONSE =
+      "select new com.example.savings_app.dto.MilestoneResponse(m.milestoneId, m.user.userId,"
+          + " m.milestoneName, m.targetAmount, m.savedAmount, m.startDate, m.completionDate,"
+          + " m.status) from Milestone m";
+
   Optional<Milestone> findByMilestoneName(String milestoneName);
 
+  // Not in the query cache: the date finders run once per shard, and a cached result is keyed by
+  // the query and its parameters only, so every shard would be served the first shard's rows
   List<Milestone> findByStartDate(LocalDate startDate);
 
   List<Milestone> findByCompletionDate(LocalDate completionDate);
@@ -18,4 +32,53 @@ public interface MilestoneRepository extends JpaRepository<Milestone, Integer> {
   List<Milestone> findByStatus(Enum status);
 
   List<Milestone> findAllByUser(Account user);
+
+  // Reads the current row under a lock, never a cached copy, before changing the balance
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select m from Milestone m where m.milestoneId = :milestoneId")
+  Optional<Milestone> findByIdForUpdate(@Param("milestoneId") int milestoneId);
+
+  // Locks the rows for the rest of the transaction so batch jobs can update balances safely
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select m from Milestone m where m.milestoneId in :milestoneIds")
+  List<Milestone> findAllForUpdate(@Param("milestoneIds") Collection<Integer> milestoneIds);
+
+  @Query("select min(m.milestoneId) from Milestone m where m.status = :status")
+  Integer findMinIdByStatus(@Param("status") Milestone.Status status);
+
+  @Query("select max(m.milestoneId) from Milestone m where m.status = :status")
+  Integer findMaxIdByStatus(@Param("status") Milestone.Status status);
+
+  @Query("select min(m.milestoneId) from Milestone m")
+  Integer findMinId();
+
+  @Query("select max(m.milestoneId) from Milestone m")
+  Integer findMaxId();
+
+  @Query(SELECT_RESPONSE + " where m.milestoneId = :milestoneId")
+  Optional<MilestoneResponse> findResponseById(@Param("milestoneId") int milestoneId);
+
+  @Query(SELECT_RESPONSE + " where m.milestoneId in :milestoneIds")
+  List<MilestoneResponse> findResponsesByIdIn(
+      @Param("milestoneIds") Collection<Integer> milestoneIds);
+
+  @Query(SELECT_RESPONSE + " where m.milestoneName = :milestoneName")
+  Optional<MilestoneResponse> findResponseByMilestoneName(
+      @Param("milestoneName") String milestoneName);
+
+  @Query(SELECT_RESPONSE + " where m.startDate = :startDate")
+  List<MilestoneResponse> findResponsesByStartDate(@Param("startDate") LocalDate startDate);
+
+  @Query(SELECT_RESPONSE + " where m.completionDate = :completionDate")
+  List<MilestoneResponse> findResponsesByCompletionDate(
+      @Param("completionDate") LocalDate completionDate);
+
+  @Query(SELECT_RESPONSE + " where m.status = :status")
+  List<MilestoneResponse> findResponsesByStatus(@Param("status") Milestone.Status status);
+
+  @Query(SELECT_RESPONSE + " where m.user.userId = :userId")
+  List<MilestoneResponse> findResponsesByUserId(@Param("userId") int userId);
+
+  @Query(SELECT_RESPONSE + " where m.user.userId in :userIds")
+  List<MilestoneResponse> findResponsesByUserIdIn(@Param("userIds") Collection<Integer> userIds);
 }
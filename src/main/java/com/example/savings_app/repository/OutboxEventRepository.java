@@ -0,0 +1,47 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.model.OutboxEvent;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  List<OutboxEvent> findByStatusOrderByEventIdAsc(OutboxEvent.Status status, Pageable pageable);
+
+  @Transactional
+  @Modifying
+  @Query(
+      "update OutboxEvent e set e.status = :status, e.processedAt = :processedAt"
+          + " where e.eventId in :eventIds")
+  int updateStatus(
+      @Param("eventIds") Collection<Long> eventIds,
+      @Param("status") OutboxEvent.Status status,
+      @Param("processedAt") LocalDateTime processedAt);
+
+  @Transactional
+  @Modifying
+  @Query(
+      "update OutboxEvent e set e.attempts = :attempts, e.status = :status,"
+          + " e.lastError = :error where e.eventId = :eventId")
+  int recordFailure(
+      @Param("eventId") Long eventId,
+      @Param("attempts") int attempts,
+      @Param("status") OutboxEvent.Status status,
+      @Param("error") String error);
+
+  @Transactional
+  @Modifying
+  @Query(
+      value =
+          "delete from Outbox_Event where status = 'processed' and processed_at < :cutoff"
+              + " limit :limit",
+      nativeQuery = true)
+  int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,34 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.dto.RecurringDepositResponse;
+import com.example.savings_app.model.RecurringDeposit;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RecurringDepositRepository extends JpaRepository<RecurringDeposit, Integer> {
+
+  @Query(
+      "select new com.example.savings_app.dto.RecurringDepositResponse(r.scheduleId, r.user.userId,"
+          + " r.milestoneId, r.amount, r.frequency, r.nextRunDate, r.status)"
+          + " from RecurringDeposit r where r.user.userId = :userId")
+  List<RecurringDepositResponse> findResponsesByUserId(@Param("userId") int userId);
+
+  // Keyset page over the (status, next_run_date, schedule_id) index, starting after the last
+  // schedule of the previous page. Savers are fetched in the same query rather than one by one.
+  @Query(
+      "select r from RecurringDeposit r join fetch r.user"
+          + " where r.status = :status and r.nextRunDate <= :today"
+          + " and (r.nextRunDate > :afterDate"
+          + " or (r.nextRunDate = :afterDate and r.scheduleId > :afterId))"
+          + " order by r.nextRunDate, r.scheduleId")
+  List<RecurringDeposit> findDuePage(
+      @Param("status") RecurringDeposit.Status status,
+      @Param("today") LocalDate today,
+      @Param("afterDate") LocalDate afterDate,
+      @Param("afterId") Integer afterId,
+      Pageable pageable);
+}
@@ -0,0 +1,69 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.model.Savings;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch writer for savings rows generated by background jobs. The Savings table uses identity
+ * keys, which stops Hibernate from batching inserts.
+ */
+@Repository
+public class SavingsBatchRepository {
+
+  private static final String INSERT_SAVINGS =
+      "insert into Savings (user_id, amount, date, milestone_id) values (?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public SavingsBatchRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Inserts the given savings rows in one batch and writes the generated IDs back onto them.
+   *
+   * @param savings The savings rows to insert; each must have a user with an ID.
+   */
+  public void insertSavings(List<Savings> savings) {
+    if (savings.isEmpty()) {
+      return;
+    }
+
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+    jdbcTemplate.batchUpdate(
+        con -> con.prepareStatement(INSERT_SAVINGS, Statement.RETURN_GENERATED_KEYS),
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            Savings row = savings.get(i);
+            ps.setInt(1, row.getUser().getUserId());
+            ps.setBigDecimal(2, row.getAmount());
+            ps.setDate(3, Date.valueOf(row.getDate()));
+            ps.setInt(4, row.getMilestoneId());
+          }
+
+          @Override
+          public int getBatchSize() {
+            return savings.size();
+          }
+        },
+        keyHolder);
+
+    List<Map<String, Object>> keys = keyHolder.getKeyList();
+    for (int i = 0; i < savings.size(); i++) {
+      savings.get(i).setSavingsId(((Number) keys.get(i).values().iterator().next()).intValue());
+    }
+  }
+}
@@ -1,17 +1,92 @@
 package com.example.savings_app.repository;
 
+import com.example.savings_app.dto.SavingsResponse;
 import com.example.savings_app.model.Account;
 import com.example.savings_app.model.Savings;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface SavingsRepository extends JpaRepository<Savings, Integer> {
 
+  // Selects only the columns the API returns, reading the owner's ID from the foreign key
+  String SELECT_RESPONSE =
+      "select new com.example.savings_app.dto.SavingsResponse(s.savingsId, s.user.userId,"
+          + " s.amount, s.date, s.milestoneId) from Savings s";
+
+  // Numbers each owner's rows in ID order, so that a page of every owner is read in one statement
+  String SELECT_RANKED_RESPONSE =
+      "select new com.example.savings_app.dto.SavingsResponse(r.savingsId, r.userId, r.amount,"
+          + " r.savedOn, r.milestoneId) from (select s.savingsId as savingsId,"
+          + " s.user.userId as userId, s.amount as amount, s.date as savedOn,"
+          + " s.milestoneId as milestoneId, row_number() over (partition by ";
+
   List<Savings> findByDate(LocalDate date);
 
-  Optional<Savings> findByMilestoneId(int milestoneId);
+  Optional<Savings> findFirstByMilestoneIdOrderBySavingsIdDesc(int milestoneId);
 
   List<Savings> findAllByUser(Account user);
+
+  @Query(SELECT_RESPONSE + " where s.savingsId = :savingsId")
+  Optional<SavingsResponse> findResponseById(@Param("savingsId") int savingsId);
+
+  @Query(SELECT_RESPONSE + " where s.savingsId in :savingsIds")
+  List<SavingsResponse> findResponsesByIdIn(@Param("savingsIds") Collection<Integer> savingsIds);
+
+  @Query(SELECT_RESPONSE + " where s.date = :date")
+  List<SavingsResponse> findResponsesByDate(@Param("date") LocalDate date);
+
+  @Query(
+      SELECT_RESPONSE
+          + " where s.savingsId = (select max(latest.savingsId) from Savings latest"
+          + " where latest.milestoneId = :milestoneId)")
+  Optional<SavingsResponse> findLatestResponseByMilestoneId(@Param("milestoneId") int milestoneId);
+
+  // Keyset page over the milestone_id index, whose entries are already in savings ID order
+  @Query(
+      SELECT_RESPONSE
+          + " where s.milestoneId = :milestoneId and s.savingsId > :afterId"
+          + " order by s.savingsId")
+  List<SavingsResponse> findResponsePageByMilestoneId(
+      @Param("milestoneId") int milestoneId, @Param("afterId") int afterId, Pageable pageable);
+
+  @Query("select coalesce(sum(s.amount), 0) from Savings s where s.milestoneId = :milestoneId")
+  BigDecimal sumAmountByMilestoneId(@Param("milestoneId") int milestoneId);
+
+  @Query(SELECT_RESPONSE + " where s.user.userId = :userId")
+  List<SavingsResponse> findResponsesByUserId(@Param("userId") int userId);
+
+  @Query(
+      SELECT_RANKED_RESPONSE
+          + "s.user.userId order by s.savingsId) as seq from Savings s"
+          + " where s.user.userId in :userIds and s.savingsId > :afterId) r"
+          + " where r.seq <= :limit")
+  List<SavingsResponse> findResponsePagesByUserIdIn(
+      @Param("userIds") Collection<Integer> userIds,
+      @Param("afterId") int afterId,
+      @Param("limit") int limit);
+
+  @Query(
+      SELECT_RANKED_RESPONSE
+          + "s.milestoneId order by s.savingsId) as seq from Savings s"
+          + " where s.milestoneId in :milestoneIds and s.savingsId > :afterId) r"
+          + " where r.seq <= :limit")
+  List<SavingsResponse> findResponsePagesByMilestoneIdIn(
+      @Param("milestoneIds") Collection<Integer> milestoneIds,
+      @Param("afterId") int afterId,
+      @Param("limit") int limit);
+
+  @Query("select s.savingsId from Savings s where s.milestoneId = :milestoneId")
+  List<Integer> findIdsByMilestoneId(@Param("milestoneId") int milestoneId);
+
+  @Modifying
+  @Query("delete from Savings s where s.milestoneId = :milestoneId")
+  int deleteByMilestoneId(@Param("milestoneId") int milestoneId);
 }
@@ -0,0 +1,91 @@
+package com.example.savings_app.repository;
+
+import com.example.savings_app.dto.EntityChange;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to the per-user version stamps and the change log written with them. Bumps are
+ * single upserts so that a user's first write does not need a separate insert.
+ */
+@Repository
+public class UserVersionRepository {
+
+  private static final String BUMP =
+      "insert into User_Version (user_id, version) values (?, 1)"
+          + " on duplicate key update version = version + 1";
+
+  // Reads the version this transaction has just bumped to, under the lock the bump took
+  private static final String LOG_CHANGE =
+      "insert into Change_Log (user_id, version, entity_type, entity_id, operation, changed_at)"
+          + " select user_id, version, ?, ?, ?, ? from User_Version where user_id = ?";
+
+  private static final String FIND_VERSION = "select version from User_Version where user_id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public UserVersionRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Increments the version of each user, creating the row on a user's first write. The row stays
+   * locked until the surrounding transaction ends.
+   *
+   * @param userIds The users whose data has changed.
+   */
+  public void bump(Collection<Integer> userIds) {
+    if (userIds.isEmpty()) {
+      return;
+    }
+
+    // Lock rows in a fixed order so that concurrent jobs cannot deadlock on them
+    SortedSet<Integer> ordered = new TreeSet<>(userIds);
+    jdbcTemplate.batchUpdate(
+        BUMP, ordered, ordered.size(), (ps, userId) -> ps.setInt(1, userId));
+  }
+
+  /**
+   * Logs changes at the version their users were bumped to in the current transaction, so each
+   * user must have been bumped first.
+   *
+   * @param changes The rows created, updated or deleted.
+   * @param changedAt The time of the change, used to expire old log rows.
+   */
+  public void logChanges(Collection<EntityChange> changes, LocalDateTime changedAt) {
+    if (changes.isEmpty()) {
+      return;
+    }
+
+    Timestamp timestamp = Timestamp.valueOf(changedAt);
+    jdbcTemplate.batchUpdate(
+        LOG_CHANGE,
+        changes,
+        changes.size(),
+        (ps, change) -> {
+          ps.setString(1, change.entityType().name());
+          ps.setInt(2, change.entityId());
+          ps.setString(3, change.operation().name());
+          ps.setTimestamp(4, timestamp);
+          ps.setInt(5, change.userId());
+        });
+  }
+
+  /**
+   * Returns the current version of a user, or 0 if their data has never been written.
+   *
+   * @param userId The user ID of the saver.
+   */
+  public long findVersion(int userId) {
+    List<Long> versions = jdbcTemplate.queryForList(FIND_VERSION, Long.class, userId);
+    return versions.isEmpty() ? 0 : versions.get(0);
+  }
+}
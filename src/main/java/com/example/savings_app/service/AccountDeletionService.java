@@ -0,0 +1,173 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.AccountDeletion;
+import com.example.savings_app.model.Customer;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.repository.AccountBatchRepository;
+import com.example.savings_app.repository.AccountDeletionRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ObjIntConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class responsible for purging the data of deleted accounts in the background.
+ *
+ * <p>Deleting an account only tombstones it. This worker then removes the account's recurring
+ * deposit schedules, savings, milestones and customer links, in that order so that no foreign key
+ * is violated, and finally the account row itself. Every batch is its own short transaction that
+ * also records the progress on the account's {@link AccountDeletion}, so a large account never
+ * holds locks for long, and a purge interrupted by a failure or a restart resumes where it stopped
+ * on the next poll.
+ *
+ * <p>Only one node should run with {@code savings.account-deletion.worker-enabled=true}.
+ */
+@Slf4j
+@Service
+public class AccountDeletionService {
+
+  private final AccountDeletionRepository accountDeletionRepository;
+  private final AccountBatchRepository accountBatchRepository;
+  private final EntityCacheService entityCacheService;
+  private final EmailAvailabilityService emailAvailabilityService;
+  private final ShardScatterGather shardScatterGather;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final int accountsPerPoll;
+  private final boolean workerEnabled;
+  private final List<Step> steps;
+
+  /**
+   * Constructor to inject dependencies into the AccountDeletionService.
+   *
+   * @param accountDeletionRepository Repository used to find and update pending deletions.
+   * @param accountBatchRepository Repository used to delete the account's rows in batches.
+   * @param entityCacheService Service used to evict the purged rows from the entity cache.
+   * @param emailAvailabilityService Service told when an account's email is freed.
+   * @param shardScatterGather Helper used to purge the deleted accounts of every shard.
+   * @param transactionManager Transaction manager used to commit each batch separately.
+   * @param batchSize The maximum number of rows deleted per transaction.
+   * @param accountsPerPoll The maximum number of deleted accounts purged per shard and poll.
+   * @param workerEnabled Whether this node purges deleted accounts.
+   */
+  @Autowired
+  public AccountDeletionService(
+      AccountDeletionRepository accountDeletionRepository,
+      AccountBatchRepository accountBatchRepository,
+      EntityCacheService entityCacheService,
+      EmailAvailabilityService emailAvailabilityService,
+      ShardScatterGather shardScatterGather,
+      PlatformTransactionManager transactionManager,
+      @Value("${savings.account-deletion.batch-size:500}") int batchSize,
+      @Value("${savings.account-deletion.accounts-per-poll:20}") int accountsPerPoll,
+      @Value("${savings.account-deletion.worker-enabled:true}") boolean workerEnabled) {
+    this.accountDeletionRepository = accountDeletionRepository;
+    this.accountBatchRepository = accountBatchRepository;
+    this.entityCacheService = entityCacheService;
+    this.emailAvailabilityService = emailAvailabilityService;
+    this.shardScatterGather = shardScatterGather;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.accountsPerPoll = accountsPerPoll;
+    this.workerEnabled = workerEnabled;
+    this.steps =
+        List.of(
+            new Step(
+                accountBatchRepository::deleteRecurringDeposits,
+                (deletion, deleted) ->
+                    deletion.setRecurringDepositsDeleted(
+                        deletion.getRecurringDepositsDeleted() + deleted)),
+            new Step(
+                accountBatchRepository::deleteSavings,
+                (deletion, deleted) ->
+                    deletion.setSavingsDeleted(deletion.getSavingsDeleted() + deleted)),
+            new Step(
+                accountBatchRepository::deleteMilestones,
+                (deletion, deleted) ->
+                    deletion.setMilestonesDeleted(deletion.getMilestonesDeleted() + deleted)),
+            new Step(
+                accountBatchRepository::deleteCustomers,
+                (deletion, deleted) ->
+                    deletion.setCustomersDeleted(deletion.getCustomersDeleted() + deleted)));
+  }
+
+  /** Purges pending deletions on every shard, oldest first. */
+  @Scheduled(fixedDelayString = "${savings.account-deletion.poll-interval-ms:5000}")
+  public void purgePending() {
+    if (!workerEnabled) {
+      return;
+    }
+    shardScatterGather.forEachShard(this::purgePendingOnShard);
+  }
+
+  private void purgePendingOnShard() {
+    List<AccountDeletion> pending =
+        accountDeletionRepository.findByStatusOrderByRequestedAtAsc(
+            AccountDeletion.Status.pending, PageRequest.of(0, accountsPerPoll));
+    for (AccountDeletion deletion : pending) {
+      try {
+        purge(deletion.getUserId());
+      } catch (RuntimeException e) {
+        // Leave it pending; the next poll resumes from the first step with rows left
+        log.warn("Purging deleted account {} failed, will retry", deletion.getUserId(), e);
+      }
+    }
+  }
+
+  /**
+   * Purges the data of one tombstoned account, batch by batch, then deletes the account row and
+   * marks the deletion completed.
+   *
+   * @param userId The user ID of the deleted account.
+   */
+  void purge(int userId) {
+    for (Step step : steps) {
+      boolean full = true;
+      while (full) {
+        full = Boolean.TRUE.equals(transactionTemplate.execute(status -> purgeBatch(userId, step)));
+      }
+    }
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          accountBatchRepository.deleteAccount(userId);
+          AccountDeletion deletion = accountDeletionRepository.findById(userId).orElseThrow();
+          LocalDateTime now = LocalDateTime.now();
+          deletion.setStatus(AccountDeletion.Status.completed);
+          deletion.setUpdatedAt(now);
+          deletion.setCompletedAt(now);
+        });
+    // The deletes went through JDBC, and cleared links on other accounts, so drop what may be stale
+    entityCacheService.evictAll(Account.class, Milestone.class, Customer.class);
+    emailAvailabilityService.markRemoved();
+    log.info("Purged deleted account {}", userId);
+  }
+
+  /**
+   * Deletes one batch of rows and records the progress in the same transaction.
+   *
+   * @return true if the batch was full, so more rows may be left.
+   */
+  private boolean purgeBatch(int userId, Step step) {
+    int deleted = step.delete().applyAsInt(userId, batchSize);
+    if (deleted > 0) {
+      AccountDeletion deletion = accountDeletionRepository.findById(userId).orElseThrow();
+      step.progress().accept(deletion, deleted);
+      deletion.setUpdatedAt(LocalDateTime.now());
+    }
+    return deleted == batchSize;
+  }
+
+  /** One kind of row to purge, with where its deleted count is recorded. */
+  private record Step(IntBinaryOperator delete, ObjIntConsumer<AccountDeletion> progress) {}
+}
@@ -0,0 +1,234 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Customer;
+import com.example.savings_app.model.ProvisioningResult;
+import com.example.savings_app.model.ProvisioningRow;
+import com.example.savings_app.repository.AccountBatchRepository;
+import com.example.savings_app.repository.AccountRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class responsible for provisioning parent and child accounts in bulk, for example when a
+ * school signs up a whole year group. Rows are validated up front, email uniqueness is checked with
+ * set-based queries, and accounts and Customer links are written in JDBC batches, each chunk in its
+ * own transaction so that one bad chunk does not roll back the rows before it.
+ */
+@Slf4j
+@Service
+public class AccountProvisioningService {
+
+  private final AccountRepository accountRepository;
+  private final AccountBatchRepository accountBatchRepository;
+  private final EmailAvailabilityService emailAvailabilityService;
+  private final ShardScatterGather shardScatterGather;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+
+  /**
+   * Constructor to inject dependencies into the AccountProvisioningService.
+   *
+   * @param accountRepository Repository used to look up already registered emails.
+   * @param accountBatchRepository Repository used to batch insert accounts and customer links.
+   * @param emailAvailabilityService Service told about each newly registered email.
+   * @param shardScatterGather Helper used to check emails against every shard.
+   * @param transactionManager Transaction manager used to commit each chunk separately.
+   * @param batchSize The number of rows written per JDBC batch and transaction.
+   */
+  @Autowired
+  public AccountProvisioningService(
+      AccountRepository accountRepository,
+      AccountBatchRepository accountBatchRepository,
+      EmailAvailabilityService emailAvailabilityService,
+      ShardScatterGather shardScatterGather,
+      PlatformTransactionManager transactionManager,
+      @Value("${savings.provisioning.batch-size:1000}") int batchSize) {
+    this.accountRepository = accountRepository;
+    this.accountBatchRepository = accountBatchRepository;
+    this.emailAvailabilityService = emailAvailabilityService;
+    this.shardScatterGather = shardScatterGather;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Provisions every row that passes validation and returns one result per submitted row, in the
+   * same order as the request.
+   *
+   * @param rows The parent/child pairs to create.
+   * @return The per-row outcome, including generated IDs for created rows.
+   * @throws IllegalArgumentException if no rows are provided.
+   */
+  public List<ProvisioningResult> provisionAccounts(List<ProvisioningRow> rows) {
+    if (rows == null || rows.isEmpty()) {
+      throw new IllegalArgumentException("At least one row is required");
+    }
+
+    ProvisioningResult[] results = new ProvisioningResult[rows.size()];
+    List<Integer> accepted = new ArrayList<>(rows.size());
+    Set<String> requestEmails = new HashSet<>();
+
+    // Validate every row and reject emails that appear more than once in the request itself
+    for (int i = 0; i < rows.size(); i++) {
+      ProvisioningRow row = rows.get(i);
+      try {
+        validateRow(row);
+      } catch (IllegalArgumentException e) {
+        results[i] = rejected(i, e.getMessage());
+        continue;
+      }
+
+      if (!requestEmails.add(normalise(row.getParent().getEmail()))
+          || (row.getChild() != null && !requestEmails.add(normalise(row.getChild().getEmail())))) {
+        results[i] = rejected(i, "Email is duplicated within the request");
+        continue;
+      }
+      accepted.add(i);
+    }
+
+    // Drop rows whose emails are already registered
+    Set<String> registered = findRegisteredEmails(requestEmails);
+    List<Integer> writable = new ArrayList<>(accepted.size());
+    for (int i : accepted) {
+      ProvisioningRow row = rows.get(i);
+      if (registered.contains(normalise(row.getParent().getEmail()))
+          || (row.getChild() != null
+              && registered.contains(normalise(row.getChild().getEmail())))) {
+        results[i] = rejected(i, "An account with this email already exists");
+      } else {
+        writable.add(i);
+      }
+    }
+
+    for (int from = 0; from < writable.size(); from += batchSize) {
+      List<Integer> chunk = writable.subList(from, Math.min(from + batchSize, writable.size()));
+      try {
+        transactionTemplate.executeWithoutResult(status -> writeChunk(rows, chunk, results));
+      } catch (DataAccessException e) {
+        log.warn("Bulk provisioning chunk of {} rows failed", chunk.size(), e);
+        for (int i : chunk) {
+          results[i] = rejected(i, "Failed to create account due to data integrity issues");
+        }
+      }
+    }
+
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Writes one chunk of rows: child accounts first so their IDs can be stored on the parents, then
+   * the parents, then the Customer links between them.
+   */
+  private void writeChunk(
+      List<ProvisioningRow> rows, List<Integer> chunk, ProvisioningResult[] results) {
+    LocalDate today = LocalDate.now();
+    List<Account> children = new ArrayList<>();
+    List<Account> parents = new ArrayList<>(chunk.size());
+
+    for (int i : chunk) {
+      ProvisioningRow row = rows.get(i);
+      if (row.getChild() != null) {
+        prepare(row.getChild(), Account.Role.child, today);
+        children.add(row.getChild());
+      }
+    }
+    accountBatchRepository.insertAccounts(children);
+
+    for (int i : chunk) {
+      ProvisioningRow row = rows.get(i);
+      prepare(row.getParent(), Account.Role.parent, today);
+      row.getParent().setChildId(row.getChild() != null ? row.getChild().getUserId() : null);
+      parents.add(row.getParent());
+    }
+    accountBatchRepository.insertAccounts(parents);
+
+    List<Customer> customers = new ArrayList<>(children.size());
+    for (int i : chunk) {
+      ProvisioningRow row = rows.get(i);
+      if (row.getChild() != null) {
+        customers.add(
+            Customer.builder()
+                .parentId(row.getParent().getUserId())
+                .childId(row.getChild().getUserId())
+                .build());
+      }
+    }
+    accountBatchRepository.insertCustomers(customers);
+    children.forEach(child -> emailAvailabilityService.register(child.getEmail()));
+    parents.forEach(parent -> emailAvailabilityService.register(parent.getEmail()));
+
+    int customerIndex = 0;
+    for (int i : chunk) {
+      ProvisioningRow row = rows.get(i);
+      Integer custId = null;
+      if (row.getChild() != null) {
+        custId = customers.get(customerIndex++).getCustId();
+      }
+      results[i] =
+          ProvisioningResult.builder()
+              .row(i)
+              .status(ProvisioningResult.Status.created)
+              .parentUserId(row.getParent().getUserId())
+              .childUserId(row.getChild() != null ? row.getChild().getUserId() : null)
+              .custId(custId)
+              .build();
+    }
+  }
+
+  /** Looks up which of the given emails are already registered on any shard, a chunk at a time. */
+  private Set<String> findRegisteredEmails(Set<String> emails) {
+    Set<String> registered = new HashSet<>();
+    List<String> all = new ArrayList<>(emails);
+    for (int from = 0; from < all.size(); from += batchSize) {
+      List<String> chunk = all.subList(from, Math.min(from + batchSize, all.size()));
+      for (String email :
+          shardScatterGather.gather(() -> accountRepository.findExistingEmails(chunk))) {
+        registered.add(normalise(email));
+      }
+    }
+    return registered;
+  }
+
+  private static void validateRow(ProvisioningRow row) {
+    if (row == null || row.getParent() == null) {
+      throw new IllegalArgumentException("Parent account is required");
+    }
+    AccountService.validateAccount(row.getParent());
+    if (row.getChild() != null) {
+      AccountService.validateAccount(row.getChild());
+    }
+  }
+
+  private static void prepare(Account account, Account.Role role, LocalDate today) {
+    account.setUserId(null);
+    account.setRole(role);
+    account.setCreatedAt(today);
+  }
+
+  // The email column uses a case-insensitive collation, so compare emails the same way
+  private static String normalise(String email) {
+    return email.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static ProvisioningResult rejected(int row, String message) {
+    return ProvisioningResult.builder()
+        .row(row)
+        .status(ProvisioningResult.Status.rejected)
+        .message(message)
+        .build();
+  }
+}
@@ -1,36 +1,71 @@
 package com.example.savings_app.service;
 
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.AccountResponse;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.event.DomainEventPublisher;
 import com.example.savings_app.model.Account;
+import com.example.savings_app.model.AccountDeletion;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.repository.AccountDeletionRepository;
 import com.example.savings_app.repository.AccountRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /** Service class responsible for managing the account-related business logic. */
+@Slf4j
 @Service
 @Transactional
 public class AccountService {
 
   private final AccountRepository accountRepository;
+  private final AccountDeletionRepository accountDeletionRepository;
   @PersistenceContext private EntityManager entityManager;
 
   private final ParentChildAccountService parentChildAccountService;
+  private final EmailAvailabilityService emailAvailabilityService;
+  private final DomainEventPublisher domainEventPublisher;
+  private final UserVersionService userVersionService;
+  private final ShardScatterGather shardScatterGather;
 
   /**
    * Constructor to inject dependencies into the AccountService.
    *
    * @param accountRepository Repository used to interact with the account data in the database.
+   * @param accountDeletionRepository Repository used to record and report account deletions.
    * @param parentChildAccountService Service used for handling child-parent account relations.
+   * @param emailAvailabilityService Service used to check whether an email is already registered.
+   * @param domainEventPublisher Publisher used to record account events in the outbox.
+   * @param userVersionService Service used to log account changes for the delta sync.
+   * @param shardScatterGather Helper used to look up accounts by email across every shard.
    */
   @Autowired
   public AccountService(
-      AccountRepository accountRepository, ParentChildAccountService parentChildAccountService) {
+      AccountRepository accountRepository,
+      AccountDeletionRepository accountDeletionRepository,
+      ParentChildAccountService parentChildAccountService,
+      EmailAvailabilityService emailAvailabilityService,
+      DomainEventPublisher domainEventPublisher,
+      UserVersionService userVersionService,
+      ShardScatterGather shardScatterGather) {
     this.accountRepository = accountRepository;
+    this.accountDeletionRepository = accountDeletionRepository;
     this.parentChildAccountService = parentChildAccountService;
+    this.emailAvailabilityService = emailAvailabilityService;
+    this.domainEventPublisher = domainEventPublisher;
+    this.userVersionService = userVersionService;
+    this.shardScatterGather = shardScatterGather;
   }
 
   /**
@@ -47,33 +82,10 @@ public class AccountService {
     int custId;
 
     // Validate required fields
-    if (account.getFirstName() == null || account.getFirstName().isEmpty()) {
-      throw new IllegalArgumentException("First Name is required");
-    }
-
-    if (account.getLastName() == null || account.getLastName().isEmpty()) {
-      throw new IllegalArgumentException("Last Name is required");
-    }
-
-    if (account.getEmail() == null || account.getEmail().isEmpty()) {
-      throw new IllegalArgumentException("Email is required");
-    }
-
-    if (account.getPasswordHash() == null || account.getPasswordHash().isEmpty()) {
-      throw new IllegalArgumentException("Password is required");
-    }
-
-    if (account.getPasswordHash().length() < 6) {
-      throw new IllegalArgumentException("Password must be more than 6 characters");
-    }
-
-    if (account.getDob() == null) {
-      throw new IllegalArgumentException("DOB is required");
-    }
+    validateAccount(account);
 
     // Check if an account with the same email already exists
-    Optional<Account> existingAccount = accountRepository.findByEmail(account.getEmail());
-    if (existingAccount.isPresent()) {
+    if (!emailAvailabilityService.isEmailAvailable(account.getEmail())) {
       throw new IllegalStateException("An account with this email already exists");
     }
 
@@ -83,15 +95,16 @@ public class AccountService {
     try {
       // Save the account to the repository
       Account savedAccount = accountRepository.save(account);
+      emailAvailabilityService.register(savedAccount.getEmail());
 
       // Only run child account creation if save is successful and childId is provided
       if (savedAccount.getUserId() != null && account.getChildId() != null) {
         custId = parentChildAccountService.createAccountWithCustomer(savedAccount);
 
         if (custId != 0) {
-          System.out.println("CustomerId: " + custId);
+          log.debug("Linked account {} to customer {}", savedAccount.getUserId(), custId);
         } else {
-          System.out.println("Failed to create account");
+          log.warn("Failed to link account {} to a customer", savedAccount.getUserId());
         }
       }
 
@@ -102,23 +115,129 @@ public class AccountService {
     }
   }
 
+  /**
+   * Checks whether an email address is free to use for a new account.
+   *
+   * @param email The email address to check.
+   * @return true if no account is registered with the email.
+   * @throws IllegalArgumentException if the email is missing.
+   */
+  @Transactional(readOnly = true)
+  public boolean isEmailAvailable(String email) {
+    return emailAvailabilityService.isEmailAvailable(email);
+  }
+
+  /**
+   * Validates the fields required to create an account. Shared with bulk provisioning so that both
+   * paths reject exactly the same input.
+   *
+   * @param account The account to validate.
+   * @throws IllegalArgumentException if any required field is missing or invalid.
+   */
+  static void validateAccount(Account account) {
+    if (account.getFirstName() == null || account.getFirstName().isEmpty()) {
+      throw new IllegalArgumentException("First Name is required");
+    }
+
+    if (account.getLastName() == null || account.getLastName().isEmpty()) {
+      throw new IllegalArgumentException("Last Name is required");
+    }
+
+    if (account.getEmail() == null || account.getEmail().isEmpty()) {
+      throw new IllegalArgumentException("Email is required");
+    }
+
+    if (account.getPasswordHash() == null || account.getPasswordHash().isEmpty()) {
+      throw new IllegalArgumentException("Password is required");
+    }
+
+    if (account.getPasswordHash().length() < 6) {
+      throw new IllegalArgumentException("Password must be more than 6 characters");
+    }
+
+    if (account.getDob() == null) {
+      throw new IllegalArgumentException("DOB is required");
+    }
+  }
+
   /**
    * Retrieves an account by its user ID.
    *
    * @param userId The user ID of the account to be retrieved.
-   * @return An Optional containing the account if found, otherwise an empty Optional.
+   * @return An Optional containing the account if found and not deleted, otherwise an empty
+   *     Optional.
    */
+  @Transactional(readOnly = true)
   public Optional<Account> getAccountByUserId(int userId) {
-    return accountRepository.findById(userId);
+    return accountRepository.findById(userId).filter(AccountService::isActive);
   }
 
   /**
-   * Deletes an account by its user ID.
+   * Retrieves the API view of an account, without its password hash or date of birth.
+   *
+   * @param userId The user ID of the account to be retrieved.
+   * @return An Optional containing the account if found, otherwise an empty Optional.
+   */
+  @Transactional(readOnly = true)
+  public Optional<AccountResponse> getAccountResponse(int userId) {
+    return accountRepository.findResponseById(userId);
+  }
+
+  /**
+   * Retrieves the API view of several accounts with one query per shard.
+   *
+   * @param userIds The user IDs of the accounts to be retrieved.
+   * @return The accounts that exist, in the order of their IDs in {@code userIds}.
+   */
+  @Transactional(readOnly = true)
+  public List<AccountResponse> getAccountResponses(Collection<Integer> userIds) {
+    return shardScatterGather.findAllByOwner(
+        userIds, accountRepository::findResponsesByIdIn, AccountResponse::userId);
+  }
+
+  /**
+   * Deletes an account by its user ID. The account is tombstoned at once, which hides it from
+   * every read, and its savings, milestones, schedules and customer links are purged later in small
+   * batches by the {@link AccountDeletionService}. Deleting an account again reports the progress
+   * of the first deletion.
    *
    * @param userId The user ID of the account to be deleted.
+   * @return The progress of the deletion.
+   * @throws IllegalArgumentException if no account has this ID.
    */
-  public void deleteAccount(int userId) {
-    accountRepository.deleteById(userId);
+  public AccountDeletion deleteAccount(int userId) {
+    LocalDateTime now = LocalDateTime.now();
+    if (accountRepository.markDeleted(userId, now) == 0) {
+      return accountDeletionRepository
+          .findById(userId)
+          .orElseThrow(() -> new IllegalArgumentException("Account not found: " + userId));
+    }
+
+    AccountDeletion deletion =
+        accountDeletionRepository.save(
+            AccountDeletion.builder()
+                .userId(userId)
+                .status(AccountDeletion.Status.pending)
+                .requestedAt(now)
+                .updatedAt(now)
+                .build());
+    userVersionService.recordChange(
+        EntityChange.delete(userId, ChangeLog.EntityType.account, userId));
+    domainEventPublisher.publish(
+        OutboxEvent.EventType.account_deleted, userId, userId, Map.of("userId", userId));
+    return deletion;
+  }
+
+  /**
+   * Retrieves the progress of an account deletion.
+   *
+   * @param userId The user ID of the deleted account.
+   * @return An Optional containing the deletion if the account was deleted, otherwise an empty
+   *     Optional.
+   */
+  @Transactional(readOnly = true)
+  public Optional<AccountDeletion> getAccountDeletion(int userId) {
+    return accountDeletionRepository.findById(userId);
   }
 
   /**
@@ -128,9 +247,13 @@ public class AccountService {
    * @return An Optional containing the account if found, otherwise an empty Optional.
    * @throws RuntimeException if the account retrieval fails.
    */
+  @Transactional(readOnly = true)
   public Optional<Account> getAccountByEmail(String email) {
     try {
-      return accountRepository.findByEmail(email);
+      // A deleted account keeps its email until it is purged, but can no longer sign in
+      return shardScatterGather
+          .findFirst(() -> accountRepository.findByEmail(email))
+          .filter(AccountService::isActive);
     } catch (RuntimeException e) {
       throw new RuntimeException("Failed to retrieve account with email", e);
     }
@@ -145,7 +268,8 @@ public class AccountService {
    * @return An Optional containing the updated account if it exists, otherwise an empty Optional.
    */
   public Optional<Account> updateAccount(int userId, Account updatedAccount) {
-    Optional<Account> existingAccountOpt = accountRepository.findById(userId);
+    Optional<Account> existingAccountOpt =
+        accountRepository.findById(userId).filter(AccountService::isActive);
     if (existingAccountOpt.isEmpty()) {
       return Optional.empty();
     }
@@ -166,6 +290,8 @@ public class AccountService {
 
     if (!existingAccount.getEmail().equals(updatedAccount.getEmail())) {
       existingAccount.setEmail(updatedAccount.getEmail());
+      emailAvailabilityService.register(updatedAccount.getEmail());
+      emailAvailabilityService.markRemoved();
       hasChanges = true;
     }
 
@@ -184,8 +310,14 @@ public class AccountService {
     // Only save the entity if changes were made
     if (hasChanges) {
       accountRepository.save(existingAccount);
+      userVersionService.recordChange(
+          EntityChange.upsert(userId, ChangeLog.EntityType.account, userId));
     }
 
     return Optional.of(existingAccount);
   }
+
+  private static boolean isActive(Account account) {
+    return account.getDeletedAt() == null;
+  }
 }
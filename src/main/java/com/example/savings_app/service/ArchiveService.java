@@ -0,0 +1,133 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.batch.ChunkedJobRunner;
+import com.example.savings_app.batch.JobReport;
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.repository.ArchiveBatchRepository;
+import com.example.savings_app.repository.MilestoneRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class responsible for moving cold data out of the hot tables: milestones completed long
+ * ago, together with their savings, and savings older than the retention period. What stays in
+ * Milestone and Savings is bounded by the retention periods rather than by the age of the platform.
+ *
+ * <p>The run is split into milestone ID ranges by the {@link ChunkedJobRunner}, and each range is
+ * moved in its own transaction, so rows are only locked for as long as one range takes. Reads fall
+ * back to the archive tables in the services, so archiving does not change what the API returns.
+ */
+@Slf4j
+@Service
+public class ArchiveService {
+
+  public static final String JOB_NAME = "archive";
+
+  private final MilestoneRepository milestoneRepository;
+  private final ArchiveBatchRepository archiveBatchRepository;
+  private final EntityCacheService entityCacheService;
+  private final ChunkedJobRunner chunkedJobRunner;
+  private final ShardScatterGather shardScatterGather;
+  private final int milestoneRetentionDays;
+  private final int savingsRetentionDays;
+  private final int chunkSize;
+  private final boolean schedulerEnabled;
+
+  /**
+   * Constructor to inject dependencies into the ArchiveService.
+   *
+   * @param milestoneRepository Repository used to find the range of milestone IDs.
+   * @param archiveBatchRepository Repository used to move rows into the archive by ID range.
+   * @param entityCacheService Service used to evict archived milestones from the entity cache.
+   * @param chunkedJobRunner Runner that splits the work into checkpointed parallel chunks.
+   * @param shardScatterGather Helper used to run the job on every shard.
+   * @param milestoneRetentionDays How long a completed milestone stays in the hot table.
+   * @param savingsRetentionDays How long a savings record stays in the hot table.
+   * @param chunkSize The width of each milestone ID range.
+   * @param schedulerEnabled Whether this node runs the nightly job.
+   */
+  @Autowired
+  public ArchiveService(
+      MilestoneRepository milestoneRepository,
+      ArchiveBatchRepository archiveBatchRepository,
+      EntityCacheService entityCacheService,
+      ChunkedJobRunner chunkedJobRunner,
+      ShardScatterGather shardScatterGather,
+      @Value("${savings.archive.milestone-retention-days:365}") int milestoneRetentionDays,
+      @Value("${savings.archive.savings-retention-days:1095}") int savingsRetentionDays,
+      @Value("${savings.archive.chunk-size:2000}") int chunkSize,
+      @Value("${savings.archive.scheduler-enabled:true}") boolean schedulerEnabled) {
+    this.milestoneRepository = milestoneRepository;
+    this.archiveBatchRepository = archiveBatchRepository;
+    this.entityCacheService = entityCacheService;
+    this.chunkedJobRunner = chunkedJobRunner;
+    this.shardScatterGather = shardScatterGather;
+    this.milestoneRetentionDays = milestoneRetentionDays;
+    this.savingsRetentionDays = savingsRetentionDays;
+    this.chunkSize = chunkSize;
+    this.schedulerEnabled = schedulerEnabled;
+  }
+
+  /** Runs the nightly archive for today, if this node is configured to run it. */
+  @Scheduled(cron = "${savings.archive.cron:0 0 2 * * *}")
+  public void runScheduledArchive() {
+    if (schedulerEnabled) {
+      archive(LocalDate.now());
+    }
+  }
+
+  /**
+   * Archives everything past its retention period as of a date, or resumes an earlier attempt for
+   * the same date.
+   *
+   * @param runDate The day the retention periods are counted back from.
+   * @return A report of the run, counting the archived rows, totalled over every shard.
+   */
+  public JobReport archive(LocalDate runDate) {
+    AtomicReference<JobReport> total =
+        new AtomicReference<>(new JobReport(JOB_NAME, runDate.toString(), 0, 0, 0, 0, 0));
+    shardScatterGather.forEachShard(
+        () -> total.accumulateAndGet(archiveShard(runDate), JobReport::plus));
+    return total.get();
+  }
+
+  /** Archives the cold rows of the current shard. */
+  private JobReport archiveShard(LocalDate runDate) {
+    Integer minId = milestoneRepository.findMinId();
+    Integer maxId = milestoneRepository.findMaxId();
+    if (minId == null || maxId == null) {
+      log.info("No milestones to archive on {}", runDate);
+      return new JobReport(JOB_NAME, runDate.toString(), 0, 0, 0, 0, 0);
+    }
+
+    LocalDate completedBefore = runDate.minusDays(milestoneRetentionDays);
+    LocalDate datedBefore = runDate.minusDays(savingsRetentionDays);
+    return chunkedJobRunner.run(
+        JOB_NAME,
+        runDate.toString(),
+        minId,
+        maxId,
+        chunkSize,
+        (fromId, toId) -> archiveRange(fromId, toId, completedBefore, datedBefore));
+  }
+
+  /** Moves the cold rows of one milestone ID range, inside the chunk transaction. */
+  int archiveRange(int fromId, int toId, LocalDate completedBefore, LocalDate datedBefore) {
+    LocalDateTime archivedAt = LocalDateTime.now();
+    int completed =
+        archiveBatchRepository.archiveCompletedMilestones(
+            fromId, toId, completedBefore, archivedAt);
+    if (completed > 0) {
+      entityCacheService.evictAll(Milestone.class);
+    }
+    return completed
+        + archiveBatchRepository.archiveOldSavings(fromId, toId, datedBefore, archivedAt);
+  }
+}
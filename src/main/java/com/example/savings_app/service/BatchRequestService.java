@@ -0,0 +1,313 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.model.BatchOperation;
+import com.example.savings_app.model.BatchOperationResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Runs the sub-requests of a batch call in-process through the {@link DispatcherServlet}, so that
+ * they pass through the same interceptors, validation and error handling as direct calls without
+ * holding a second connection or request thread per sub-request.
+ *
+ * <p>Sub-requests run in the order given, except that consecutive reads run in parallel. Every
+ * write waits for the operations before it and blocks the ones after it, so a read placed after a
+ * write sees that write. Cookies set by a sub-request, such as the read-your-writes window, are
+ * passed on to the sub-requests after it and returned to the client.
+ *
+ * <p>Every sub-request runs on one of a fixed number of workers, which bounds how many run at once
+ * across all batches, and gets a thread of its own so that the routing state one sets never leaks
+ * into another or into the batch call. A batch is never run from inside another, since its
+ * sub-requests would wait for workers held by the batch above them. A sub-request that does not
+ * finish within the timeout is reported as 504 Gateway Timeout, so a stuck call never holds the
+ * batch call's thread for good.
+ *
+ * <p>Sub-requests skip the servlet filter chain and enter at the {@link DispatcherServlet}. The
+ * application registers no filters of its own: rate limits, bulkheads, shard routing and
+ * read-your-writes are handler interceptors, which do run. Container features, such as response
+ * compression, apply to the batch response as a whole.
+ */
+@Slf4j
+@Service
+public class BatchRequestService {
+
+  private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE");
+
+  // Headers that identify the caller and are passed on to every sub-request
+  private static final List<String> FORWARDED_HEADERS =
+      List.of(
+          HttpHeaders.AUTHORIZATION,
+          HttpHeaders.ACCEPT_LANGUAGE,
+          HttpHeaders.USER_AGENT,
+          "X-Forwarded-For");
+
+  private final DispatcherServlet dispatcherServlet;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService executor;
+  private final int maxOperations;
+  private final long timeoutMs;
+
+  /**
+   * Constructor to inject dependencies into the BatchRequestService.
+   *
+   * @param dispatcherServlet The servlet the sub-requests are dispatched through.
+   * @param objectMapper Mapper used to embed JSON response bodies.
+   * @param maxOperations The most sub-requests accepted in one batch.
+   * @param workers The most sub-requests run at once, across all batches.
+   * @param timeoutMs How long a batch waits for one sub-request before reporting it as timed out.
+   */
+  @Autowired
+  public BatchRequestService(
+      DispatcherServlet dispatcherServlet,
+      ObjectMapper objectMapper,
+      @Value("${savings.api.max-batch-operations:20}") int maxOperations,
+      @Value("${savings.api.batch-workers:8}") int workers,
+      @Value("${savings.api.batch-timeout-ms:10000}") long timeoutMs) {
+    this.dispatcherServlet = dispatcherServlet;
+    this.objectMapper = objectMapper;
+    this.executor = Executors.newFixedThreadPool(workers);
+    this.maxOperations = maxOperations;
+    this.timeoutMs = timeoutMs;
+  }
+
+  /**
+   * Runs a batch of sub-requests.
+   *
+   * @param operations The sub-requests, in order.
+   * @param batchRequest The batch call, whose caller headers and client address are passed on to
+   *     every sub-request.
+   * @param batchResponse The response to the batch call, which the sub-requests never write to.
+   * @param setCookies Collects the Set-Cookie headers of every sub-request, for the batch response.
+   * @return One result per operation, in the same order.
+   * @throws IllegalArgumentException if the batch is empty, too large, has an invalid operation,
+   *     or is itself a sub-request of a batch.
+   */
+  public List<BatchOperationResult> execute(
+      List<BatchOperation> operations,
+      HttpServletRequest batchRequest,
+      HttpServletResponse batchResponse,
+      List<String> setCookies) {
+    // Whatever path spelling routed here, a batch inside a batch would wait on its own workers
+    if (BatchSubRequest.isSubRequest(batchRequest)) {
+      throw new IllegalArgumentException("Batches cannot be nested.");
+    }
+    validate(operations);
+
+    HttpHeaders headers = new HttpHeaders();
+    for (String name : FORWARDED_HEADERS) {
+      List<String> values = Collections.list(batchRequest.getHeaders(name));
+      if (!values.isEmpty()) {
+        headers.put(name, values);
+      }
+    }
+    headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+    Map<String, String> cookies = parseCookies(batchRequest.getCookies());
+
+    List<BatchOperationResult> results = new ArrayList<>(operations.size());
+    int next = 0;
+    while (next < operations.size()) {
+      BatchOperation operation = operations.get(next);
+      if (!isRead(operation)) {
+        BatchSubResponse response =
+            await(dispatchAsync(operation, batchRequest, batchResponse, headers, cookies));
+        if (response == null) {
+          // The write may still land, so no later operation can be sure to see it
+          while (results.size() < operations.size()) {
+            results.add(timedOut());
+          }
+          break;
+        }
+        results.add(toResult(response));
+        for (String setCookie : response.getSetCookies()) {
+          setCookies.add(setCookie);
+          mergeSetCookie(cookies, setCookie);
+        }
+        next++;
+        continue;
+      }
+
+      // Run this stretch of consecutive reads in parallel
+      int end = next;
+      while (end < operations.size() && isRead(operations.get(end))) {
+        end++;
+      }
+      Map<String, String> snapshot = Map.copyOf(cookies);
+      List<CompletableFuture<BatchSubResponse>> reads = new ArrayList<>(end - next);
+      for (BatchOperation read : operations.subList(next, end)) {
+        reads.add(dispatchAsync(read, batchRequest, batchResponse, headers, snapshot));
+      }
+      for (CompletableFuture<BatchSubResponse> read : reads) {
+        BatchSubResponse response = await(read);
+        results.add(response != null ? toResult(response) : timedOut());
+      }
+      next = end;
+    }
+    return results;
+  }
+
+  private void validate(List<BatchOperation> operations) {
+    if (operations == null || operations.isEmpty()) {
+      throw new IllegalArgumentException("A batch must contain at least one operation.");
+    }
+    if (operations.size() > maxOperations) {
+      throw new IllegalArgumentException(
+          "A batch can contain at most " + maxOperations + " operations.");
+    }
+    for (BatchOperation operation : operations) {
+      if (operation == null
+          || operation.getMethod() == null
+          || !METHODS.contains(operation.getMethod().toUpperCase())) {
+        throw new IllegalArgumentException("Each operation needs a method of " + METHODS + ".");
+      }
+      String path = operation.getPath();
+      if (path == null || !path.startsWith("/") || path.startsWith("//")) {
+        throw new IllegalArgumentException("Each operation needs a path starting with '/'.");
+      }
+      // Refuses the plain spelling up front; execute() catches any other that routes to /batch
+      if (path.equals("/batch") || path.startsWith("/batch?")) {
+        throw new IllegalArgumentException("Batches cannot be nested.");
+      }
+      try {
+        URI.create(path);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid operation path: " + path);
+      }
+    }
+  }
+
+  private static boolean isRead(BatchOperation operation) {
+    return operation.getMethod().equalsIgnoreCase("GET");
+  }
+
+  private CompletableFuture<BatchSubResponse> dispatchAsync(
+      BatchOperation operation,
+      HttpServletRequest batchRequest,
+      HttpServletResponse batchResponse,
+      HttpHeaders headers,
+      Map<String, String> cookies) {
+    return CompletableFuture.supplyAsync(
+        () -> dispatch(operation, batchRequest, batchResponse, headers, cookies), executor);
+  }
+
+  /** Waits for a sub-request until the timeout, returning null if it has not finished. */
+  private BatchSubResponse await(CompletableFuture<BatchSubResponse> pending) {
+    try {
+      return pending.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      // dispatch() turns every failure into a response, so this is unexpected
+      throw new IllegalStateException("Batch sub-request failed", e.getCause());
+    }
+  }
+
+  private static BatchOperationResult timedOut() {
+    return BatchOperationResult.builder().status(HttpServletResponse.SC_GATEWAY_TIMEOUT).build();
+  }
+
+  private BatchSubResponse dispatch(
+      BatchOperation operation,
+      HttpServletRequest batchRequest,
+      HttpServletResponse batchResponse,
+      HttpHeaders headers,
+      Map<String, String> cookies) {
+    BatchSubResponse response = new BatchSubResponse(batchResponse);
+    try {
+      HttpHeaders subHeaders = new HttpHeaders();
+      subHeaders.addAll(headers);
+      byte[] body = null;
+      if (!isRead(operation) && operation.getBody() != null) {
+        subHeaders.setContentType(MediaType.APPLICATION_JSON);
+        body = objectMapper.writeValueAsBytes(operation.getBody());
+      }
+      dispatcherServlet.service(
+          new BatchSubRequest(
+              batchRequest,
+              operation.getMethod().toUpperCase(),
+              operation.getPath(),
+              subHeaders,
+              body,
+              cookies),
+          response);
+    } catch (Exception e) {
+      // Exceptions the handlers do not map to a status surface here
+      log.warn("Batch sub-request {} {} failed", operation.getMethod(), operation.getPath(), e);
+      response = new BatchSubResponse(batchResponse);
+      response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    }
+    return response;
+  }
+
+  private BatchOperationResult toResult(BatchSubResponse response) {
+    JsonNode body = null;
+    byte[] bytes = response.getBody();
+    if (bytes.length > 0) {
+      body = parseBody(response.getMediaType(), bytes);
+    }
+    return BatchOperationResult.builder().status(response.getStatus()).body(body).build();
+  }
+
+  private JsonNode parseBody(MediaType contentType, byte[] body) {
+    if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+      try {
+        return objectMapper.readTree(body);
+      } catch (IOException e) {
+        // Fall back to the raw text below
+      }
+    }
+    return TextNode.valueOf(new String(body, StandardCharsets.UTF_8));
+  }
+
+  private static Map<String, String> parseCookies(Cookie[] requestCookies) {
+    Map<String, String> cookies = new LinkedHashMap<>();
+    if (requestCookies != null) {
+      for (Cookie cookie : requestCookies) {
+        cookies.put(cookie.getName(), cookie.getValue());
+      }
+    }
+    return cookies;
+  }
+
+  private static void mergeSetCookie(Map<String, String> cookies, String setCookie) {
+    String pair = setCookie.split(";", 2)[0];
+    int equals = pair.indexOf('=');
+    if (equals > 0) {
+      cookies.put(pair.substring(0, equals).trim(), pair.substring(equals + 1).trim());
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+}
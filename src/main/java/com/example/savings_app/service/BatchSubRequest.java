@@ -0,0 +1,308 @@
+package com.example.savings_app.service;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * One sub-request of a batch call, dispatched in-process. The method, path, query, headers and body
+ * are the sub-request's own; the connection details, such as the client address, are the batch
+ * call's. Attributes are kept apart from the batch call's, so that routing state set while
+ * handling one sub-request never leaks into another.
+ */
+final class BatchSubRequest extends HttpServletRequestWrapper {
+
+  // Marks a sub-request however it is wrapped on its way to a handler
+  private static final String SUB_REQUEST_ATTRIBUTE = BatchSubRequest.class.getName();
+
+  private final String method;
+  private final String path;
+  private final String queryString;
+  private final HttpHeaders headers;
+  private final byte[] body;
+  private final Cookie[] cookies;
+  private final Map<String, String[]> parameters;
+  private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+  /**
+   * Builds a sub-request of a batch call.
+   *
+   * @param batchRequest The batch call, for its connection details.
+   * @param method The HTTP method of the sub-request.
+   * @param pathAndQuery The path of the sub-request, with its query string if it has one.
+   * @param headers The headers of the sub-request.
+   * @param body The body of the sub-request, or null for none.
+   * @param cookies The cookies sent with the sub-request.
+   */
+  BatchSubRequest(
+      HttpServletRequest batchRequest,
+      String method,
+      String pathAndQuery,
+      HttpHeaders headers,
+      byte[] body,
+      Map<String, String> cookies) {
+    super(batchRequest);
+    int query = pathAndQuery.indexOf('?');
+    this.method = method;
+    this.path = query < 0 ? pathAndQuery : pathAndQuery.substring(0, query);
+    this.queryString = query < 0 ? null : pathAndQuery.substring(query + 1);
+    this.headers = headers;
+    this.body = body != null ? body : new byte[0];
+    this.cookies =
+        cookies.entrySet().stream()
+            .map(cookie -> new Cookie(cookie.getKey(), cookie.getValue()))
+            .toArray(Cookie[]::new);
+    this.parameters = parseQuery(queryString);
+    attributes.put(SUB_REQUEST_ATTRIBUTE, Boolean.TRUE);
+  }
+
+  /** Returns whether a request is a sub-request of a batch call. */
+  static boolean isSubRequest(HttpServletRequest request) {
+    return request.getAttribute(SUB_REQUEST_ATTRIBUTE) != null;
+  }
+
+  private static Map<String, String[]> parseQuery(String queryString) {
+    Map<String, String[]> parameters = new LinkedHashMap<>();
+    if (queryString == null) {
+      return parameters;
+    }
+    MultiValueMap<String, String> raw =
+        UriComponentsBuilder.newInstance().query(queryString).build().getQueryParams();
+    // A parameter without "=" has a null value, which the servlet API reports as empty
+    raw.forEach(
+        (name, values) ->
+            parameters.put(
+                decode(name),
+                values.stream()
+                    .map(value -> value == null ? "" : decode(value))
+                    .toArray(String[]::new)));
+    return parameters;
+  }
+
+  private static String decode(String value) {
+    return UriUtils.decode(value.replace('+', ' '), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public String getMethod() {
+    return method;
+  }
+
+  @Override
+  public String getRequestURI() {
+    return getContextPath() + path;
+  }
+
+  @Override
+  public StringBuffer getRequestURL() {
+    return new StringBuffer(getScheme())
+        .append("://")
+        .append(getServerName())
+        .append(':')
+        .append(getServerPort())
+        .append(getRequestURI());
+  }
+
+  @Override
+  public String getServletPath() {
+    return path;
+  }
+
+  @Override
+  public String getPathInfo() {
+    return null;
+  }
+
+  @Override
+  public String getQueryString() {
+    return queryString;
+  }
+
+  @Override
+  public DispatcherType getDispatcherType() {
+    return DispatcherType.REQUEST;
+  }
+
+  @Override
+  public String getParameter(String name) {
+    String[] values = parameters.get(name);
+    return values != null && values.length > 0 ? values[0] : null;
+  }
+
+  @Override
+  public Map<String, String[]> getParameterMap() {
+    return Collections.unmodifiableMap(parameters);
+  }
+
+  @Override
+  public Enumeration<String> getParameterNames() {
+    return Collections.enumeration(parameters.keySet());
+  }
+
+  @Override
+  public String[] getParameterValues(String name) {
+    return parameters.get(name);
+  }
+
+  @Override
+  public String getHeader(String name) {
+    return headers.getFirst(name);
+  }
+
+  @Override
+  public Enumeration<String> getHeaders(String name) {
+    return Collections.enumeration(headers.getOrEmpty(name));
+  }
+
+  @Override
+  public Enumeration<String> getHeaderNames() {
+    return Collections.enumeration(headers.keySet());
+  }
+
+  @Override
+  public int getIntHeader(String name) {
+    String value = getHeader(name);
+    return value != null ? Integer.parseInt(value) : -1;
+  }
+
+  @Override
+  public long getDateHeader(String name) {
+    return headers.containsKey(name) ? headers.getFirstDate(name) : -1;
+  }
+
+  @Override
+  public Cookie[] getCookies() {
+    return cookies.length > 0 ? cookies.clone() : null;
+  }
+
+  @Override
+  public String getContentType() {
+    return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+  }
+
+  @Override
+  public int getContentLength() {
+    return body.length;
+  }
+
+  @Override
+  public long getContentLengthLong() {
+    return body.length;
+  }
+
+  @Override
+  public String getCharacterEncoding() {
+    return StandardCharsets.UTF_8.name();
+  }
+
+  @Override
+  public void setCharacterEncoding(String encoding) {
+    // Sub-request bodies are always UTF-8 JSON
+  }
+
+  @Override
+  public ServletInputStream getInputStream() {
+    ByteArrayInputStream input = new ByteArrayInputStream(body);
+    return new ServletInputStream() {
+      @Override
+      public boolean isFinished() {
+        return input.available() == 0;
+      }
+
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setReadListener(ReadListener readListener) {
+        throw new UnsupportedOperationException("Sub-requests are read synchronously");
+      }
+
+      @Override
+      public int read() {
+        return input.read();
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) {
+        return input.read(buffer, offset, length);
+      }
+    };
+  }
+
+  @Override
+  public BufferedReader getReader() {
+    return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public Object getAttribute(String name) {
+    return attributes.get(name);
+  }
+
+  @Override
+  public Enumeration<String> getAttributeNames() {
+    return Collections.enumeration(List.copyOf(attributes.keySet()));
+  }
+
+  @Override
+  public void setAttribute(String name, Object value) {
+    if (value == null) {
+      attributes.remove(name);
+    } else {
+      attributes.put(name, value);
+    }
+  }
+
+  @Override
+  public void removeAttribute(String name) {
+    attributes.remove(name);
+  }
+
+  // Streaming responses cannot be embedded in a batch result
+  @Override
+  public boolean isAsyncSupported() {
+    return false;
+  }
+
+  @Override
+  public boolean isAsyncStarted() {
+    return false;
+  }
+
+  @Override
+  public AsyncContext startAsync() {
+    throw new IllegalStateException("Sub-requests of a batch cannot run asynchronously");
+  }
+
+  @Override
+  public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+    throw new IllegalStateException("Sub-requests of a batch cannot run asynchronously");
+  }
+
+  @Override
+  public AsyncContext getAsyncContext() {
+    throw new IllegalStateException("Sub-requests of a batch cannot run asynchronously");
+  }
+}
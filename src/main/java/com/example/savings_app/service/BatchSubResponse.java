@@ -0,0 +1,323 @@
+package com.example.savings_app.service;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Collects the response to one sub-request of a batch call in memory, so that it can be embedded
+ * in the batch result. Nothing is written to the batch call's own response.
+ */
+final class BatchSubResponse extends HttpServletResponseWrapper {
+
+  private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+  private final HttpHeaders headers = new HttpHeaders();
+  private int status = HttpServletResponse.SC_OK;
+  private String characterEncoding;
+  private Locale locale = Locale.getDefault();
+  private ServletOutputStream outputStream;
+  private PrintWriter writer;
+  private boolean committed;
+
+  /**
+   * Builds the response to a sub-request of a batch call.
+   *
+   * @param batchResponse The response to the batch call, which is never written to.
+   */
+  BatchSubResponse(HttpServletResponse batchResponse) {
+    super(batchResponse);
+  }
+
+  /** Returns the body written so far. */
+  byte[] getBody() {
+    if (writer != null) {
+      writer.flush();
+    }
+    return body.toByteArray();
+  }
+
+  /** Returns the content type, or null if none was set. */
+  MediaType getMediaType() {
+    String contentType = getContentType();
+    return contentType != null ? MediaType.parseMediaType(contentType) : null;
+  }
+
+  /** Returns the cookies set by the sub-request, as Set-Cookie header values. */
+  List<String> getSetCookies() {
+    return headers.getOrEmpty(HttpHeaders.SET_COOKIE);
+  }
+
+  @Override
+  public void setStatus(int status) {
+    if (!committed) {
+      this.status = status;
+    }
+  }
+
+  @Override
+  public int getStatus() {
+    return status;
+  }
+
+  @Override
+  public void sendError(int status) {
+    sendError(status, null);
+  }
+
+  @Override
+  public void sendError(int status, String message) {
+    if (committed) {
+      throw new IllegalStateException("Response already committed");
+    }
+    this.status = status;
+    body.reset();
+    if (message != null) {
+      setContentType(MediaType.TEXT_PLAIN_VALUE);
+      body.writeBytes(message.getBytes(StandardCharsets.UTF_8));
+    }
+    committed = true;
+  }
+
+  @Override
+  public void sendRedirect(String location) {
+    if (committed) {
+      throw new IllegalStateException("Response already committed");
+    }
+    status = HttpServletResponse.SC_FOUND;
+    headers.set(HttpHeaders.LOCATION, location);
+    committed = true;
+  }
+
+  @Override
+  public void addCookie(Cookie cookie) {
+    StringBuilder header =
+        new StringBuilder(cookie.getName()).append('=').append(cookie.getValue());
+    if (cookie.getPath() != null) {
+      header.append("; Path=").append(cookie.getPath());
+    }
+    if (cookie.getDomain() != null) {
+      header.append("; Domain=").append(cookie.getDomain());
+    }
+    if (cookie.getMaxAge() >= 0) {
+      header.append("; Max-Age=").append(cookie.getMaxAge());
+    }
+    if (cookie.getSecure()) {
+      header.append("; Secure");
+    }
+    if (cookie.isHttpOnly()) {
+      header.append("; HttpOnly");
+    }
+    headers.add(HttpHeaders.SET_COOKIE, header.toString());
+  }
+
+  @Override
+  public boolean containsHeader(String name) {
+    return headers.containsKey(name);
+  }
+
+  @Override
+  public String getHeader(String name) {
+    return headers.getFirst(name);
+  }
+
+  @Override
+  public Collection<String> getHeaders(String name) {
+    return headers.getOrEmpty(name);
+  }
+
+  @Override
+  public Collection<String> getHeaderNames() {
+    return headers.keySet();
+  }
+
+  @Override
+  public void setHeader(String name, String value) {
+    if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+      setContentType(value);
+    } else if (value == null) {
+      headers.remove(name);
+    } else {
+      headers.set(name, value);
+    }
+  }
+
+  @Override
+  public void addHeader(String name, String value) {
+    if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+      setContentType(value);
+    } else if (value != null) {
+      headers.add(name, value);
+    }
+  }
+
+  @Override
+  public void setIntHeader(String name, int value) {
+    setHeader(name, Integer.toString(value));
+  }
+
+  @Override
+  public void addIntHeader(String name, int value) {
+    addHeader(name, Integer.toString(value));
+  }
+
+  @Override
+  public void setDateHeader(String name, long date) {
+    headers.setDate(name, date);
+  }
+
+  @Override
+  public void addDateHeader(String name, long date) {
+    HttpHeaders formatted = new HttpHeaders();
+    formatted.setDate(name, date);
+    headers.add(name, formatted.getFirst(name));
+  }
+
+  @Override
+  public void setContentType(String contentType) {
+    if (contentType == null) {
+      headers.remove(HttpHeaders.CONTENT_TYPE);
+      return;
+    }
+    MediaType mediaType = MediaType.parseMediaType(contentType);
+    if (mediaType.getCharset() != null) {
+      characterEncoding = mediaType.getCharset().name();
+    }
+    headers.set(HttpHeaders.CONTENT_TYPE, contentType);
+  }
+
+  @Override
+  public String getContentType() {
+    return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+  }
+
+  @Override
+  public void setCharacterEncoding(String characterEncoding) {
+    this.characterEncoding = characterEncoding;
+  }
+
+  @Override
+  public String getCharacterEncoding() {
+    return characterEncoding != null ? characterEncoding : StandardCharsets.ISO_8859_1.name();
+  }
+
+  @Override
+  public void setContentLength(int length) {
+    // The length is taken from the collected body
+  }
+
+  @Override
+  public void setContentLengthLong(long length) {
+    // The length is taken from the collected body
+  }
+
+  @Override
+  public ServletOutputStream getOutputStream() {
+    if (writer != null) {
+      throw new IllegalStateException("getWriter() has already been called");
+    }
+    if (outputStream == null) {
+      outputStream =
+          new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+              return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+              throw new UnsupportedOperationException("Sub-responses are written synchronously");
+            }
+
+            @Override
+            public void write(int b) {
+              body.write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+              body.write(bytes, offset, length);
+            }
+          };
+    }
+    return outputStream;
+  }
+
+  @Override
+  public PrintWriter getWriter() {
+    if (outputStream != null) {
+      throw new IllegalStateException("getOutputStream() has already been called");
+    }
+    if (writer == null) {
+      writer =
+          new PrintWriter(new OutputStreamWriter(body, Charset.forName(getCharacterEncoding())));
+    }
+    return writer;
+  }
+
+  @Override
+  public void flushBuffer() {
+    if (writer != null) {
+      writer.flush();
+    }
+    committed = true;
+  }
+
+  @Override
+  public boolean isCommitted() {
+    return committed;
+  }
+
+  @Override
+  public void reset() {
+    if (committed) {
+      throw new IllegalStateException("Response already committed");
+    }
+    resetBuffer();
+    headers.clear();
+    status = HttpServletResponse.SC_OK;
+    characterEncoding = null;
+  }
+
+  @Override
+  public void resetBuffer() {
+    if (committed) {
+      throw new IllegalStateException("Response already committed");
+    }
+    if (writer != null) {
+      writer.flush();
+    }
+    body.reset();
+  }
+
+  @Override
+  public void setBufferSize(int size) {
+    // The whole body is held in memory
+  }
+
+  @Override
+  public int getBufferSize() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public void setLocale(Locale locale) {
+    this.locale = locale;
+  }
+
+  @Override
+  public Locale getLocale() {
+    return locale;
+  }
+}
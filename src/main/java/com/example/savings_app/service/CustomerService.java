@@ -1,25 +1,33 @@
 package com.example.savings_app.service;
 
+import com.example.savings_app.config.ShardScatterGather;
 import com.example.savings_app.model.Customer;
 import com.example.savings_app.repository.CustomerRepository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /** Service class responsible for managing customer-related business logic. */
 @Service
 public class CustomerService {
 
   private final CustomerRepository customerRepository;
+  private final ShardScatterGather shardScatterGather;
 
   /**
-   * Constructor to inject the CustomerRepository dependency into the CustomerService.
+   * Constructor to inject the dependencies into the CustomerService.
    *
    * @param customerRepository Repository used to interact with the customer data in the database.
+   * @param shardScatterGather Helper used to look up the links of parents on several shards.
    */
   @Autowired
-  public CustomerService(CustomerRepository customerRepository) {
+  public CustomerService(
+      CustomerRepository customerRepository, ShardScatterGather shardScatterGather) {
     this.customerRepository = customerRepository;
+    this.shardScatterGather = shardScatterGather;
   }
 
   /**
@@ -33,8 +41,6 @@ public class CustomerService {
    */
   public Customer createCustomer(Customer customer) {
     // Validate parent and child accounts
-    System.out.println(customer.toString());
-
     if (customer.getParentId() == null || customer.getChildId() == null) {
       throw new IllegalArgumentException("Both parent and child accounts must be provided.");
     }
@@ -55,6 +61,7 @@ public class CustomerService {
    * @throws IllegalArgumentException if the provided custId is invalid (<= 0).
    * @throws RuntimeException if there is an error during the retrieval process.
    */
+  @Transactional(readOnly = true)
   public Optional<Customer> getCustomerByCustId(int custId) {
     // Validate the customer ID
     if (custId <= 0) {
@@ -69,6 +76,19 @@ public class CustomerService {
     }
   }
 
+  /**
+   * Retrieves the parent-child links of several parents, with one query on each shard that owns
+   * some of the parents. Links live on the parent's shard.
+   *
+   * @param parentIds The user IDs of the parents.
+   * @return The links, grouped by parent in the order of {@code parentIds}.
+   */
+  @Transactional(readOnly = true)
+  public List<Customer> getCustomersForParents(Collection<Integer> parentIds) {
+    return shardScatterGather.findAllByOwner(
+        parentIds, customerRepository::findByParentIdIn, Customer::getParentId);
+  }
+
   /**
    * Deletes a customer by their custId.
    *
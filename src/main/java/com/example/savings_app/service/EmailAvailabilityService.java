@@ -0,0 +1,188 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.repository.AccountRepository;
+import com.example.savings_app.util.BloomFilter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class that answers whether an email address is free to register without querying the
+ * database in the common case. Registered emails are kept in an in-memory Bloom filter, so a miss
+ * means the email is definitely free; only a possible match falls back to the unique email lookup.
+ *
+ * <p>The filter is built at startup from a streamed scan of the Account table and kept current as
+ * accounts are created and updated. Bloom filters cannot forget values, so deletions and email
+ * changes only leave stale bits behind; once enough of them build up, or the filter grows past the
+ * size it was built for, it is rebuilt in the background.
+ */
+@Slf4j
+@Service
+public class EmailAvailabilityService {
+
+  private final AccountRepository accountRepository;
+  private final ShardScatterGather shardScatterGather;
+  private final TransactionTemplate readOnlyTransaction;
+  private final long minimumCapacity;
+  private final double falsePositiveRate;
+  private final double staleRebuildRatio;
+
+  private volatile BloomFilter filter;
+  private volatile BloomFilter rebuilding;
+  private final AtomicLong removedSinceBuild = new AtomicLong();
+  private final AtomicLong filterAnswers = new AtomicLong();
+  private final AtomicLong databaseChecks = new AtomicLong();
+
+  /**
+   * Constructor to inject dependencies into the EmailAvailabilityService.
+   *
+   * @param accountRepository Repository used to stream registered emails and confirm matches.
+   * @param shardScatterGather Helper used to scan and query every shard.
+   * @param transactionManager Transaction manager used to hold the streaming scan open.
+   * @param minimumCapacity The smallest number of emails the filter is sized for.
+   * @param falsePositiveRate The target rate of possible matches that still need a lookup.
+   * @param staleRebuildRatio The share of removed emails that triggers a rebuild.
+   */
+  @Autowired
+  public EmailAvailabilityService(
+      AccountRepository accountRepository,
+      ShardScatterGather shardScatterGather,
+      PlatformTransactionManager transactionManager,
+      @Value("${savings.email-filter.minimum-capacity:100000}") long minimumCapacity,
+      @Value("${savings.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+      @Value("${savings.email-filter.stale-rebuild-ratio:0.1}") double staleRebuildRatio) {
+    this.accountRepository = accountRepository;
+    this.shardScatterGather = shardScatterGather;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.minimumCapacity = minimumCapacity;
+    this.falsePositiveRate = falsePositiveRate;
+    this.staleRebuildRatio = staleRebuildRatio;
+  }
+
+  /**
+   * Checks whether an email address can be used for a new account.
+   *
+   * @param email The email address to check.
+   * @return true if no account is registered with the email, false otherwise.
+   * @throws IllegalArgumentException if the email is null or empty.
+   */
+  public boolean isEmailAvailable(String email) {
+    if (email == null || email.trim().isEmpty()) {
+      throw new IllegalArgumentException("Email is required");
+    }
+
+    BloomFilter current = filter;
+    if (current != null && !current.mightContain(normalise(email))) {
+      filterAnswers.incrementAndGet();
+      return true;
+    }
+
+    // Filter not built yet or a possible match, so ask the database
+    databaseChecks.incrementAndGet();
+    return shardScatterGather.findFirst(() -> accountRepository.findByEmail(email)).isEmpty();
+  }
+
+  /**
+   * Records a newly registered email so later checks see it without a database lookup.
+   *
+   * @param email The email address that was registered.
+   */
+  public void register(String email) {
+    String key = normalise(email);
+    BloomFilter current = filter;
+    if (current != null) {
+      current.put(key);
+    }
+    // Also feed a rebuild in progress, since its scan may have started before this email existed
+    BloomFilter next = rebuilding;
+    if (next != null) {
+      next.put(key);
+    }
+  }
+
+  /** Records that a registered email was freed by an account deletion or an email change. */
+  public void markRemoved() {
+    removedSinceBuild.incrementAndGet();
+  }
+
+  /** Builds the filter once the application has started. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    rebuild();
+  }
+
+  /** Rebuilds the filter when removals or growth have pushed its false positive rate up. */
+  @Scheduled(fixedDelayString = "${savings.email-filter.check-interval-ms:300000}")
+  public void rebuildIfStale() {
+    BloomFilter current = filter;
+    if (current == null) {
+      return;
+    }
+    boolean tooManyRemoved =
+        removedSinceBuild.get() > current.getInsertions() * staleRebuildRatio;
+    boolean overCapacity = current.getInsertions() > current.getExpectedInsertions();
+    if (tooManyRemoved || overCapacity) {
+      rebuild();
+    }
+  }
+
+  /**
+   * Rebuilds the filter from a streamed scan of every registered email. Checks keep using the old
+   * filter until the new one is complete.
+   */
+  public synchronized void rebuild() {
+    long started = System.nanoTime();
+    long accounts = shardScatterGather.sum(accountRepository::count);
+    BloomFilter next =
+        BloomFilter.create(Math.max(minimumCapacity, accounts * 2), falsePositiveRate);
+    rebuilding = next;
+    long removedBefore = removedSinceBuild.get();
+
+    try {
+      shardScatterGather.forEachShard(
+          () ->
+              readOnlyTransaction.executeWithoutResult(
+                  status -> {
+                    try (Stream<String> emails = accountRepository.streamAllEmails()) {
+                      emails.forEach(email -> next.put(normalise(email)));
+                    }
+                  }));
+      filter = next;
+      removedSinceBuild.addAndGet(-removedBefore);
+      log.info(
+          "Built email filter with {} emails in {} ms",
+          next.getInsertions(),
+          (System.nanoTime() - started) / 1_000_000);
+    } catch (RuntimeException e) {
+      log.warn("Failed to build email filter, availability checks will use the database", e);
+    } finally {
+      rebuilding = null;
+    }
+  }
+
+  /** Returns the number of checks answered by the filter alone. */
+  public long getFilterAnswers() {
+    return filterAnswers.get();
+  }
+
+  /** Returns the number of checks that needed a database lookup. */
+  public long getDatabaseChecks() {
+    return databaseChecks.get();
+  }
+
+  // The email column uses a case-insensitive collation, so the filter must as well
+  private static String normalise(String email) {
+    return email.trim().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.dto.CacheRegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps Hibernate's second-level cache in step with writes that bypass Hibernate, and reports how
+ * well each cache region is doing.
+ *
+ * <p>Hibernate updates the cache itself for everything it writes, including bulk JPQL updates.
+ * The JDBC batch paths are invisible to it, so code that changes cached tables through JDBC must
+ * evict what it changed. Evictions made inside a transaction wait until it commits; evicting
+ * earlier would let a concurrent read put the old row straight back.
+ */
+@Service
+public class EntityCacheService {
+
+  private final SessionFactory sessionFactory;
+
+  /**
+   * Constructor to inject dependencies into the EntityCacheService.
+   *
+   * @param entityManagerFactory The entity manager factory whose cache is managed.
+   */
+  @Autowired
+  public EntityCacheService(EntityManagerFactory entityManagerFactory) {
+    this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+  }
+
+  /**
+   * Evicts the given entities, and every cached query result, once the current transaction
+   * commits.
+   *
+   * @param entityClass The cached entity class.
+   * @param ids The IDs of the rows changed outside Hibernate.
+   */
+  public void evict(Class<?> entityClass, Collection<?> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    List<?> evicted = List.copyOf(ids);
+    afterCommit(
+        () -> {
+          Cache cache = sessionFactory.getCache();
+          evicted.forEach(id -> cache.evictEntityData(entityClass, id));
+          cache.evictQueryRegions();
+        });
+  }
+
+  /**
+   * Evicts every cached row of the given entities, and every cached query result, once the
+   * current transaction commits. For changes whose IDs are not known, such as deletes by owner.
+   *
+   * @param entityClasses The cached entity classes.
+   */
+  public void evictAll(Class<?>... entityClasses) {
+    afterCommit(
+        () -> {
+          Cache cache = sessionFactory.getCache();
+          Arrays.stream(entityClasses).forEach(cache::evictEntityData);
+          cache.evictQueryRegions();
+        });
+  }
+
+  /**
+   * Returns the hit and miss counts of every cache region, or an empty list if Hibernate
+   * statistics are disabled.
+   */
+  public List<CacheRegionStats> getRegionStats() {
+    Statistics statistics = sessionFactory.getStatistics();
+    if (!statistics.isStatisticsEnabled()) {
+      return List.of();
+    }
+
+    List<CacheRegionStats> regions = new ArrayList<>();
+    String[] names = statistics.getSecondLevelCacheRegionNames();
+    Arrays.sort(names);
+    for (String name : names) {
+      CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+      if (region == null) {
+        continue;
+      }
+      // JCache providers do not expose their size
+      long entries = region.getElementCountInMemory();
+      if (entries == CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN) {
+        entries = -1;
+      }
+      regions.add(
+          CacheRegionStats.of(
+              name, region.getHitCount(), region.getMissCount(), region.getPutCount(), entries));
+    }
+    return regions;
+  }
+
+  private static void afterCommit(Runnable eviction) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      eviction.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            eviction.run();
+          }
+        });
+  }
+}
@@ -0,0 +1,232 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.batch.ChunkedJobRunner;
+import com.example.savings_app.batch.JobReport;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.event.DomainEventPublisher;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.model.Savings;
+import com.example.savings_app.repository.MilestoneBatchRepository;
+import com.example.savings_app.repository.MilestoneRepository;
+import com.example.savings_app.repository.SavingsBatchRepository;
+import com.example.savings_app.util.Money;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class responsible for crediting daily interest to every active milestone.
+ *
+ * <p>The run is split into milestone ID ranges by the {@link ChunkedJobRunner}, which processes
+ * ranges in parallel and checkpoints each one. Within a range the balances are locked and read
+ * with one query, the interest rows are written as one JDBC batch, and the new balances with one
+ * batched update. The run key is the accrual date, so a run that is resumed, or triggered twice for
+ * the same day, never credits a milestone twice.
+ */
+@Slf4j
+@Service
+public class InterestAccrualService {
+
+  public static final String JOB_NAME = "interest-accrual";
+
+  private static final long DAYS_PER_YEAR = 365;
+
+  private final MilestoneRepository milestoneRepository;
+  private final MilestoneBatchRepository milestoneBatchRepository;
+  private final SavingsBatchRepository savingsBatchRepository;
+  private final DomainEventPublisher domainEventPublisher;
+  private final UserVersionService userVersionService;
+  private final EntityCacheService entityCacheService;
+  private final ChunkedJobRunner chunkedJobRunner;
+  private final ShardScatterGather shardScatterGather;
+  // The daily rate as a fraction, so interest is worked out in pence without BigDecimal
+  private final long dailyRateNumerator;
+  private final long dailyRateDenominator;
+  private final int chunkSize;
+  private final boolean schedulerEnabled;
+
+  /**
+   * Constructor to inject dependencies into the InterestAccrualService.
+   *
+   * @param milestoneRepository Repository used to find the range of active milestone IDs.
+   * @param milestoneBatchRepository Repository used to lock and update milestone balances.
+   * @param savingsBatchRepository Repository used to batch insert the interest rows.
+   * @param domainEventPublisher Publisher used to record the credits in the outbox.
+   * @param userVersionService Service used to mark the savers' data as changed.
+   * @param entityCacheService Service used to evict the credited milestones from the entity cache.
+   * @param chunkedJobRunner Runner that splits the work into checkpointed parallel chunks.
+   * @param shardScatterGather Helper used to run the job on every shard.
+   * @param annualRate The annual interest rate, e.g. 0.02 for 2%.
+   * @param chunkSize The width of each milestone ID range.
+   * @param schedulerEnabled Whether this node runs the nightly job.
+   */
+  @Autowired
+  public InterestAccrualService(
+      MilestoneRepository milestoneRepository,
+      MilestoneBatchRepository milestoneBatchRepository,
+      SavingsBatchRepository savingsBatchRepository,
+      DomainEventPublisher domainEventPublisher,
+      UserVersionService userVersionService,
+      EntityCacheService entityCacheService,
+      ChunkedJobRunner chunkedJobRunner,
+      ShardScatterGather shardScatterGather,
+      @Value("${savings.interest.annual-rate:0.02}") BigDecimal annualRate,
+      @Value("${savings.interest.chunk-size:2000}") int chunkSize,
+      @Value("${savings.interest.scheduler-enabled:true}") boolean schedulerEnabled) {
+    this.milestoneRepository = milestoneRepository;
+    this.milestoneBatchRepository = milestoneBatchRepository;
+    this.savingsBatchRepository = savingsBatchRepository;
+    this.domainEventPublisher = domainEventPublisher;
+    this.userVersionService = userVersionService;
+    this.entityCacheService = entityCacheService;
+    this.chunkedJobRunner = chunkedJobRunner;
+    this.shardScatterGather = shardScatterGather;
+    BigDecimal rate = annualRate.stripTrailingZeros();
+    if (rate.scale() < 0) {
+      rate = rate.setScale(0);
+    }
+    this.dailyRateNumerator = rate.unscaledValue().longValueExact();
+    this.dailyRateDenominator =
+        Math.multiplyExact(BigDecimal.TEN.pow(rate.scale()).longValueExact(), DAYS_PER_YEAR);
+    this.chunkSize = chunkSize;
+    this.schedulerEnabled = schedulerEnabled;
+  }
+
+  /** Runs the nightly accrual for yesterday, if this node is configured to run it. */
+  @Scheduled(cron = "${savings.interest.cron:0 30 0 * * *}")
+  public void runScheduledAccrual() {
+    if (schedulerEnabled) {
+      accrueInterest(LocalDate.now().minusDays(1));
+    }
+  }
+
+  /**
+   * Credits one day of interest to every active milestone, or resumes an earlier attempt for the
+   * same date.
+   *
+   * @param accrualDate The day the interest is for.
+   * @return A report of the run, totalled over every shard.
+   */
+  public JobReport accrueInterest(LocalDate accrualDate) {
+    AtomicReference<JobReport> total =
+        new AtomicReference<>(new JobReport(JOB_NAME, accrualDate.toString(), 0, 0, 0, 0, 0));
+    shardScatterGather.forEachShard(
+        () -> total.accumulateAndGet(accrueShard(accrualDate), JobReport::plus));
+    return total.get();
+  }
+
+  /** Credits interest to the active milestones of the current shard. */
+  private JobReport accrueShard(LocalDate accrualDate) {
+    Integer minId = milestoneRepository.findMinIdByStatus(Milestone.Status.active);
+    Integer maxId = milestoneRepository.findMaxIdByStatus(Milestone.Status.active);
+    if (minId == null || maxId == null) {
+      log.info("No active milestones to accrue interest for on {}", accrualDate);
+      return new JobReport(JOB_NAME, accrualDate.toString(), 0, 0, 0, 0, 0);
+    }
+
+    return chunkedJobRunner.run(
+        JOB_NAME,
+        accrualDate.toString(),
+        minId,
+        maxId,
+        chunkSize,
+        (fromId, toId) -> accrueRange(accrualDate, fromId, toId));
+  }
+
+  /** Credits interest to the active milestones in one ID range, inside the chunk transaction. */
+  int accrueRange(LocalDate accrualDate, int fromId, int toId) {
+    List<Milestone> milestones = milestoneBatchRepository.lockActiveRange(fromId, toId);
+    List<Savings> credits = new ArrayList<>(milestones.size());
+    List<Milestone> credited = new ArrayList<>(milestones.size());
+    List<Milestone> completed = new ArrayList<>();
+
+    for (Milestone milestone : milestones) {
+      Money saved = Money.of(milestone.getSavedAmount());
+      Money interest = dailyInterest(saved);
+      if (!interest.isPositive()) {
+        continue;
+      }
+
+      credits.add(
+          Savings.builder()
+              .user(milestone.getUser())
+              .amount(interest.toBigDecimal())
+              .date(accrualDate)
+              .milestoneId(milestone.getMilestoneId())
+              .build());
+      saved = saved.plus(interest);
+      milestone.setSavedAmount(saved.toBigDecimal());
+      if (saved.isAtLeast(Money.of(milestone.getTargetAmount()))) {
+        milestone.setStatus(Milestone.Status.completed);
+        milestone.setCompletionDate(accrualDate);
+        completed.add(milestone);
+      }
+      credited.add(milestone);
+    }
+
+    savingsBatchRepository.insertSavings(credits);
+    milestoneBatchRepository.updateBalances(credited);
+    entityCacheService.evict(
+        Milestone.class, credited.stream().map(Milestone::getMilestoneId).toList());
+    List<EntityChange> changes = new ArrayList<>(credits.size() * 2);
+    for (Savings credit : credits) {
+      int userId = credit.getUser().getUserId();
+      changes.add(EntityChange.upsert(userId, ChangeLog.EntityType.savings, credit.getSavingsId()));
+      changes.add(
+          EntityChange.upsert(userId, ChangeLog.EntityType.milestone, credit.getMilestoneId()));
+    }
+    userVersionService.recordChanges(changes);
+    publishEvents(credits, completed);
+    return credits.size();
+  }
+
+  /** Returns one day of interest on the balance, rounded to the penny, ties to even. */
+  Money dailyInterest(Money balance) {
+    return balance.times(dailyRateNumerator, dailyRateDenominator);
+  }
+
+  private void publishEvents(List<Savings> credits, List<Milestone> completed) {
+    List<DomainEventPublisher.PendingEvent> created = new ArrayList<>(credits.size());
+    for (Savings credit : credits) {
+      Map<String, Object> payload = new LinkedHashMap<>();
+      payload.put("savingsId", credit.getSavingsId());
+      payload.put("milestoneId", credit.getMilestoneId());
+      payload.put("amount", credit.getAmount());
+      payload.put("date", credit.getDate());
+      payload.put("interest", true);
+      created.add(
+          new DomainEventPublisher.PendingEvent(
+              credit.getUser().getUserId(), credit.getSavingsId(), payload));
+    }
+    if (!created.isEmpty()) {
+      domainEventPublisher.publishAll(OutboxEvent.EventType.savings_created, created);
+    }
+
+    List<DomainEventPublisher.PendingEvent> completions = new ArrayList<>(completed.size());
+    for (Milestone milestone : completed) {
+      Map<String, Object> payload = new LinkedHashMap<>();
+      payload.put("milestoneId", milestone.getMilestoneId());
+      payload.put("savedAmount", milestone.getSavedAmount());
+      payload.put("targetAmount", milestone.getTargetAmount());
+      payload.put("completionDate", milestone.getCompletionDate());
+      completions.add(
+          new DomainEventPublisher.PendingEvent(
+              milestone.getUser().getUserId(), milestone.getMilestoneId(), payload));
+    }
+    if (!completions.isEmpty()) {
+      domainEventPublisher.publishAll(OutboxEvent.EventType.milestone_completed, completions);
+    }
+  }
+}
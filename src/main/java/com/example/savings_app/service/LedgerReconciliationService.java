@@ -0,0 +1,207 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.batch.ChunkedJobRunner;
+import com.example.savings_app.batch.JobReport;
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.dto.LedgerBalance;
+import com.example.savings_app.dto.ReconciliationReport;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.repository.MilestoneBatchRepository;
+import com.example.savings_app.repository.MilestoneRepository;
+import com.example.savings_app.util.Money;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class responsible for checking every milestone's saved amount against the total of its
+ * savings ledger, and optionally setting the saved amount back to the ledger total.
+ *
+ * <p>The run is split into milestone ID ranges by the {@link ChunkedJobRunner}, which checks the
+ * ranges in parallel. Each range is read with one unlocking query that walks the milestone primary
+ * key and the savings milestone index, so a check never blocks deposits. A repair only locks the
+ * mismatched rows of one range, for as long as its single batched update takes, and skips any
+ * milestone whose balance has moved since it was checked.
+ */
+@Slf4j
+@Service
+public class LedgerReconciliationService {
+
+  public static final String JOB_NAME = "ledger-reconciliation";
+
+  private final MilestoneRepository milestoneRepository;
+  private final MilestoneBatchRepository milestoneBatchRepository;
+  private final UserVersionService userVersionService;
+  private final EntityCacheService entityCacheService;
+  private final ChunkedJobRunner chunkedJobRunner;
+  private final ShardScatterGather shardScatterGather;
+  private final int chunkSize;
+  private final int sampleSize;
+  private final boolean schedulerEnabled;
+  private final boolean scheduledRepair;
+
+  /**
+   * Constructor to inject dependencies into the LedgerReconciliationService.
+   *
+   * @param milestoneRepository Repository used to find the range of milestone IDs.
+   * @param milestoneBatchRepository Repository used to read and repair balances by ID range.
+   * @param userVersionService Service used to mark the repaired savers' data as changed.
+   * @param entityCacheService Service used to evict the repaired milestones from the entity cache.
+   * @param chunkedJobRunner Runner that splits the work into checkpointed parallel chunks.
+   * @param shardScatterGather Helper used to run the job on every shard.
+   * @param chunkSize The width of each milestone ID range.
+   * @param sampleSize The most mismatched milestones listed in a report.
+   * @param schedulerEnabled Whether this node runs the weekly job.
+   * @param scheduledRepair Whether the weekly job repairs the differences it finds.
+   */
+  @Autowired
+  public LedgerReconciliationService(
+      MilestoneRepository milestoneRepository,
+      MilestoneBatchRepository milestoneBatchRepository,
+      UserVersionService userVersionService,
+      EntityCacheService entityCacheService,
+      ChunkedJobRunner chunkedJobRunner,
+      ShardScatterGather shardScatterGather,
+      @Value("${savings.reconciliation.chunk-size:2000}") int chunkSize,
+      @Value("${savings.reconciliation.sample-size:100}") int sampleSize,
+      @Value("${savings.reconciliation.scheduler-enabled:false}") boolean schedulerEnabled,
+      @Value("${savings.reconciliation.repair:false}") boolean scheduledRepair) {
+    this.milestoneRepository = milestoneRepository;
+    this.milestoneBatchRepository = milestoneBatchRepository;
+    this.userVersionService = userVersionService;
+    this.entityCacheService = entityCacheService;
+    this.chunkedJobRunner = chunkedJobRunner;
+    this.shardScatterGather = shardScatterGather;
+    this.chunkSize = chunkSize;
+    this.sampleSize = sampleSize;
+    this.schedulerEnabled = schedulerEnabled;
+    this.scheduledRepair = scheduledRepair;
+  }
+
+  /** Runs the weekly reconciliation, if this node is configured to run it. */
+  @Scheduled(cron = "${savings.reconciliation.cron:0 0 3 * * SUN}")
+  public void runScheduledReconciliation() {
+    if (schedulerEnabled) {
+      reconcile(LocalDate.now(), scheduledRepair);
+    }
+  }
+
+  /**
+   * Checks every milestone against its ledger, or resumes an earlier attempt of the same run. A
+   * check and a repair on the same day are separate runs.
+   *
+   * @param runDate The day the run is for.
+   * @param repair Whether to set mismatched saved amounts to their ledger total.
+   * @return A report of the run, totalled over every shard.
+   */
+  public ReconciliationReport reconcile(LocalDate runDate, boolean repair) {
+    String runKey = runDate + (repair ? "/repair" : "/check");
+    Tally tally = new Tally(sampleSize);
+    AtomicReference<JobReport> total =
+        new AtomicReference<>(new JobReport(JOB_NAME, runKey, 0, 0, 0, 0, 0));
+    shardScatterGather.forEachShard(
+        () -> total.accumulateAndGet(reconcileShard(runKey, repair, tally), JobReport::plus));
+
+    ReconciliationReport report =
+        new ReconciliationReport(
+            total.get(),
+            repair,
+            tally.mismatches.get(),
+            tally.repaired.get(),
+            new Money(tally.netDriftPence.get()).toBigDecimal(),
+            tally.sample());
+    if (report.mismatches() > 0) {
+      log.warn(
+          "{} run {}: {} milestones differ from their ledger by {} net, {} repaired",
+          JOB_NAME,
+          runKey,
+          report.mismatches(),
+          report.netDrift(),
+          report.repaired());
+    }
+    return report;
+  }
+
+  /** Checks the milestones of the current shard. */
+  private JobReport reconcileShard(String runKey, boolean repair, Tally tally) {
+    Integer minId = milestoneRepository.findMinId();
+    Integer maxId = milestoneRepository.findMaxId();
+    if (minId == null || maxId == null) {
+      return new JobReport(JOB_NAME, runKey, 0, 0, 0, 0, 0);
+    }
+
+    return chunkedJobRunner.run(
+        JOB_NAME,
+        runKey,
+        minId,
+        maxId,
+        chunkSize,
+        (fromId, toId) -> reconcileRange(fromId, toId, repair, tally));
+  }
+
+  /** Checks, and if asked repairs, the milestones in one ID range inside the chunk transaction. */
+  int reconcileRange(int fromId, int toId, boolean repair, Tally tally) {
+    List<LedgerBalance> balances = milestoneBatchRepository.findLedgerBalances(fromId, toId);
+    List<LedgerBalance> mismatched = new ArrayList<>();
+    for (LedgerBalance balance : balances) {
+      if (!balance.isBalanced()) {
+        mismatched.add(balance);
+        tally.add(balance);
+      }
+    }
+
+    if (repair && !mismatched.isEmpty()) {
+      tally.repaired.addAndGet(milestoneBatchRepository.repairBalances(mismatched));
+      entityCacheService.evict(
+          Milestone.class, mismatched.stream().map(LedgerBalance::milestoneId).toList());
+      userVersionService.recordChanges(
+          mismatched.stream()
+              .map(
+                  balance ->
+                      EntityChange.upsert(
+                          balance.userId(), ChangeLog.EntityType.milestone, balance.milestoneId()))
+              .toList());
+    }
+    return balances.size();
+  }
+
+  /** Totals of one run, added to by every chunk in parallel. */
+  static final class Tally {
+
+    private final int sampleSize;
+    private final List<LedgerBalance> sample = new ArrayList<>();
+    final AtomicLong mismatches = new AtomicLong();
+    final AtomicLong repaired = new AtomicLong();
+    final AtomicLong netDriftPence = new AtomicLong();
+
+    Tally(int sampleSize) {
+      this.sampleSize = sampleSize;
+    }
+
+    void add(LedgerBalance balance) {
+      mismatches.incrementAndGet();
+      netDriftPence.addAndGet(
+          Money.of(balance.savedAmount()).minus(Money.of(balance.ledgerTotal())).pence());
+      synchronized (sample) {
+        if (sample.size() < sampleSize) {
+          sample.add(balance);
+        }
+      }
+    }
+
+    List<LedgerBalance> sample() {
+      synchronized (sample) {
+        return List.copyOf(sample);
+      }
+    }
+  }
+}
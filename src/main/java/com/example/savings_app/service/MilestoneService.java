@@ -1,12 +1,27 @@
 package com.example.savings_app.service;
 
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.event.DomainEventPublisher;
 import com.example.savings_app.exception.MilestoneException;
 import com.example.savings_app.model.Account;
+import com.example.savings_app.model.ChangeLog;
 import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.repository.ArchivedMilestoneRepository;
+import com.example.savings_app.repository.ArchivedSavingsRepository;
 import com.example.savings_app.repository.MilestoneRepository;
+import com.example.savings_app.repository.SavingsRepository;
+import com.example.savings_app.util.Money;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -20,18 +35,51 @@ import org.springframework.transaction.annotation.Transactional;
 public class MilestoneService {
 
   private final MilestoneRepository milestoneRepository;
+  private final ArchivedMilestoneRepository archivedMilestoneRepository;
+  private final SavingsRepository savingsRepository;
+  private final ArchivedSavingsRepository archivedSavingsRepository;
   private final AccountService accountService;
+  private final DomainEventPublisher domainEventPublisher;
+  private final UserVersionService userVersionService;
+  private final ShardScatterGather shardScatterGather;
+  private final ReadCoalescingService readCoalescingService;
 
   /**
-   * Constructor to inject the MilestoneRepository and AccountService dependencies.
+   * Constructor to inject the MilestoneRepository, ArchivedMilestoneRepository, SavingsRepository,
+   * ArchivedSavingsRepository, AccountService, DomainEventPublisher, UserVersionService,
+   * ShardScatterGather and ReadCoalescingService dependencies.
    *
    * @param milestoneRepository Repository used to interact with milestone data.
+   * @param archivedMilestoneRepository Repository used to read archived milestones.
+   * @param savingsRepository Repository used to remove a deleted milestone's deposits.
+   * @param archivedSavingsRepository Repository used to remove a deleted milestone's archived
+   *     deposits.
    * @param accountService Service to interact with account data.
+   * @param domainEventPublisher Publisher used to record milestone events in the outbox.
+   * @param userVersionService Service used to mark the saver's data as changed.
+   * @param shardScatterGather Helper used to run queries that span every shard.
+   * @param readCoalescingService Service used to share identical concurrent list reads.
    */
   @Autowired
-  public MilestoneService(MilestoneRepository milestoneRepository, AccountService accountService) {
+  public MilestoneService(
+      MilestoneRepository milestoneRepository,
+      ArchivedMilestoneRepository archivedMilestoneRepository,
+      SavingsRepository savingsRepository,
+      ArchivedSavingsRepository archivedSavingsRepository,
+      AccountService accountService,
+      DomainEventPublisher domainEventPublisher,
+      UserVersionService userVersionService,
+      ShardScatterGather shardScatterGather,
+      ReadCoalescingService readCoalescingService) {
     this.milestoneRepository = milestoneRepository;
+    this.archivedMilestoneRepository = archivedMilestoneRepository;
+    this.savingsRepository = savingsRepository;
+    this.archivedSavingsRepository = archivedSavingsRepository;
     this.accountService = accountService;
+    this.domainEventPublisher = domainEventPublisher;
+    this.userVersionService = userVersionService;
+    this.shardScatterGather = shardScatterGather;
+    this.readCoalescingService = readCoalescingService;
   }
 
   /**
@@ -42,6 +90,7 @@ public class MilestoneService {
    * @throws IllegalArgumentException if the provided milestoneId is invalid.
    * @throws RuntimeException if there is an error while retrieving the milestone.
    */
+  @Transactional(readOnly = true)
   public Optional<Milestone> getMilestoneByMilestoneId(int milestoneId) {
     try {
       return milestoneRepository.findById(milestoneId);
@@ -61,9 +110,10 @@ public class MilestoneService {
    * @throws IllegalArgumentException if the provided name is invalid.
    * @throws RuntimeException if there is an error while retrieving the milestone.
    */
+  @Transactional(readOnly = true)
   public Optional<Milestone> getMilestoneByName(String name) {
     try {
-      return milestoneRepository.findByMilestoneName(name);
+      return shardScatterGather.findFirst(() -> milestoneRepository.findByMilestoneName(name));
     } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("Invalid milestone name: " + name, e);
     } catch (Exception e) {
@@ -79,9 +129,10 @@ public class MilestoneService {
    * @throws IllegalArgumentException if the provided startDate is invalid.
    * @throws RuntimeException if there is an error while retrieving the milestones.
    */
+  @Transactional(readOnly = true)
   public List<Milestone> getMilestoneByStartDate(LocalDate startDate) {
     try {
-      return milestoneRepository.findByStartDate(startDate);
+      return shardScatterGather.gather(() -> milestoneRepository.findByStartDate(startDate));
     } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("Invalid start date: " + startDate, e);
     } catch (Exception e) {
@@ -97,9 +148,11 @@ public class MilestoneService {
    * @throws IllegalArgumentException if the provided completionDate is invalid.
    * @throws RuntimeException if there is an error while retrieving the milestones.
    */
+  @Transactional(readOnly = true)
   public List<Milestone> getMilestoneByCompletionDate(LocalDate completionDate) {
     try {
-      return milestoneRepository.findByCompletionDate(completionDate);
+      return shardScatterGather.gather(
+          () -> milestoneRepository.findByCompletionDate(completionDate));
     } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("Invalid completion date: " + completionDate, e);
     } catch (Exception e) {
@@ -116,9 +169,10 @@ public class MilestoneService {
    * @throws IllegalArgumentException if the provided status is invalid.
    * @throws RuntimeException if there is an error while retrieving the milestones.
    */
+  @Transactional(readOnly = true)
   public List<Milestone> getMilestoneByStatus(Enum status) {
     try {
-      return milestoneRepository.findByStatus(status);
+      return shardScatterGather.gather(() -> milestoneRepository.findByStatus(status));
     } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("Invalid status: " + status, e);
     } catch (Exception e) {
@@ -127,13 +181,31 @@ public class MilestoneService {
   }
 
   /**
-   * Deletes a milestone by its milestoneId.
+   * Deletes a milestone by its milestoneId, together with the savings deposited into it, which
+   * reference it by foreign key, and those already archived. Every deleted row is logged for delta
+   * sync.
    *
    * @param milestoneId The ID of the milestone to be deleted.
    * @throws IllegalArgumentException if the provided milestoneId is invalid.
    */
+  @Transactional
   public void deleteMilestone(int milestoneId) {
     try {
+      Optional<Milestone> milestone = milestoneRepository.findById(milestoneId);
+      if (milestone.isPresent()) {
+        int userId = milestone.get().getUser().getUserId();
+        List<EntityChange> changes = new ArrayList<>();
+        for (Integer savingsId : savingsRepository.findIdsByMilestoneId(milestoneId)) {
+          changes.add(EntityChange.delete(userId, ChangeLog.EntityType.savings, savingsId));
+        }
+        for (Integer savingsId : archivedSavingsRepository.findIdsByMilestoneId(milestoneId)) {
+          changes.add(EntityChange.delete(userId, ChangeLog.EntityType.savings, savingsId));
+        }
+        changes.add(EntityChange.delete(userId, ChangeLog.EntityType.milestone, milestoneId));
+        savingsRepository.deleteByMilestoneId(milestoneId);
+        archivedSavingsRepository.deleteByMilestoneId(milestoneId);
+        userVersionService.recordChanges(changes);
+      }
       milestoneRepository.deleteById(milestoneId);
     } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("Invalid Milestone Id: " + milestoneId, e);
@@ -168,7 +240,11 @@ public class MilestoneService {
     }
 
     // Save the milestone to the database
-    return milestoneRepository.save(milestone);
+    Milestone savedMilestone = milestoneRepository.save(milestone);
+    userVersionService.recordChange(
+        EntityChange.upsert(
+            user.getUserId(), ChangeLog.EntityType.milestone, savedMilestone.getMilestoneId()));
+    return savedMilestone;
   }
 
   /**
@@ -204,12 +280,16 @@ public class MilestoneService {
    * Validates the target amount to ensure it is greater than zero.
    *
    * @param targetAmount The target amount to validate.
-   * @throws IllegalArgumentException if the target amount is less than or equal to zero.
+   * @throws IllegalArgumentException if the target amount is less than or equal to zero, or too
+   *     large to store.
    */
   private void validateTargetAmount(BigDecimal targetAmount) {
-    if (targetAmount == null || targetAmount.compareTo(BigDecimal.ZERO) <= 0) {
+    if (targetAmount == null || targetAmount.signum() <= 0) {
       throw new IllegalArgumentException("Target amount must be greater than zero.");
     }
+    if (Money.of(targetAmount).isGreaterThan(Money.MAX_STORED)) {
+      throw new IllegalArgumentException("Target amount cannot exceed " + Money.MAX_STORED + ".");
+    }
   }
 
   /**
@@ -235,10 +315,11 @@ public class MilestoneService {
    * @throws IllegalArgumentException if the milestone is not found.
    * @throws IllegalStateException if the milestone is already completed.
    */
+  @Transactional
   public Milestone markMilestoneAsCompleted(Integer milestoneId) {
     Milestone milestone =
         milestoneRepository
-            .findById(milestoneId)
+            .findByIdForUpdate(milestoneId)
             .orElseThrow(
                 () -> new IllegalArgumentException("Milestone not found for ID: " + milestoneId));
 
@@ -249,7 +330,10 @@ public class MilestoneService {
     milestone.setStatus(Milestone.Status.completed);
     milestone.setCompletionDate(LocalDate.now());
 
-    return milestoneRepository.save(milestone);
+    Milestone savedMilestone = milestoneRepository.save(milestone);
+    bumpOwner(milestone);
+    publishCompleted(milestone);
+    return savedMilestone;
   }
 
   /**
@@ -263,33 +347,89 @@ public class MilestoneService {
   @Transactional
   public Milestone updateSavedAmountAndCheckCompletion(
       Integer milestoneId, BigDecimal addedAmount) {
-    if (addedAmount == null || addedAmount.compareTo(BigDecimal.ZERO) <= 0) {
-      throw new MilestoneException.InvalidAmountException(
-          "The added amount must be greater than zero.");
+    if (addedAmount == null || addedAmount.signum() <= 0) {
+      throw MilestoneException.AMOUNT_NOT_POSITIVE;
     }
+    Money added = Money.of(addedAmount);
 
     Milestone milestone =
         milestoneRepository
-            .findById(milestoneId)
+            .findByIdForUpdate(milestoneId)
             .orElseThrow(
                 () ->
                     new MilestoneException.MilestoneNotFoundException(
                         "Milestone not found for id: " + milestoneId));
 
-    BigDecimal newSavedAmount = milestone.getSavedAmount().add(addedAmount);
-    if (newSavedAmount.compareTo(milestone.getTargetAmount()) > 0) {
-      throw new MilestoneException.InvalidAmountException(
-          "The added amount exceeds the target amount.");
+    Money target = Money.of(milestone.getTargetAmount());
+    Money newSavedAmount = Money.ofNullable(milestone.getSavedAmount()).plus(added);
+    if (newSavedAmount.isGreaterThan(target)) {
+      throw MilestoneException.AMOUNT_EXCEEDS_TARGET;
     }
 
-    milestone.setSavedAmount(newSavedAmount);
+    milestone.setSavedAmount(newSavedAmount.toBigDecimal());
 
-    if (milestone.getSavedAmount().compareTo(milestone.getTargetAmount()) >= 0) {
+    boolean completed = false;
+    if (newSavedAmount.isAtLeast(target)) {
       milestone.setCompletionDate(LocalDate.now());
       milestone.setStatus(Milestone.Status.completed);
+      completed = true;
+    }
+
+    Milestone savedMilestone = milestoneRepository.save(milestone);
+    bumpOwner(milestone);
+    if (completed) {
+      publishCompleted(milestone);
+    } else {
+      publishProgress(milestone);
     }
+    return savedMilestone;
+  }
+
+  private void bumpOwner(Milestone milestone) {
+    if (milestone.getUser() != null) {
+      userVersionService.recordChange(
+          EntityChange.upsert(
+              milestone.getUser().getUserId(),
+              ChangeLog.EntityType.milestone,
+              milestone.getMilestoneId()));
+    }
+  }
 
-    return milestoneRepository.save(milestone);
+  /**
+   * Records a milestone_completed event in the outbox within the current transaction.
+   *
+   * @param milestone The milestone that has just been completed.
+   */
+  private void publishCompleted(Milestone milestone) {
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("milestoneId", milestone.getMilestoneId());
+    payload.put("savedAmount", milestone.getSavedAmount());
+    payload.put("targetAmount", milestone.getTargetAmount());
+    payload.put("completionDate", milestone.getCompletionDate());
+    domainEventPublisher.publish(
+        OutboxEvent.EventType.milestone_completed,
+        milestone.getUser() != null ? milestone.getUser().getUserId() : null,
+        milestone.getMilestoneId(),
+        payload);
+  }
+
+  /**
+   * Records a milestone_progress event in the outbox within the current transaction, so that
+   * subscribed clients see the new saved amount.
+   *
+   * @param milestone The milestone whose saved amount has just changed.
+   */
+  private void publishProgress(Milestone milestone) {
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("milestoneId", milestone.getMilestoneId());
+    payload.put("savedAmount", milestone.getSavedAmount());
+    payload.put("targetAmount", milestone.getTargetAmount());
+    payload.put("status", milestone.getStatus());
+    domainEventPublisher.publish(
+        OutboxEvent.EventType.milestone_progress,
+        milestone.getUser() != null ? milestone.getUser().getUserId() : null,
+        milestone.getMilestoneId(),
+        payload);
   }
 
   /**
@@ -300,6 +440,7 @@ public class MilestoneService {
    * @throws IllegalArgumentException if the provided account is invalid.
    * @throws RuntimeException if there is an error while retrieving the milestones.
    */
+  @Transactional(readOnly = true)
   public List<Milestone> getAllMilestonesForUser(Account user) {
     try {
       return milestoneRepository.findAllByUser(user);
@@ -311,4 +452,147 @@ public class MilestoneService {
       throw new RuntimeException("Failed to retrieve Milestone with Account provided: ", e);
     }
   }
+
+  /**
+   * Retrieves the API view of a milestone, selecting only the columns it needs. A milestone that
+   * has been archived is read from the archive.
+   *
+   * @param milestoneId The ID of the milestone to retrieve.
+   * @return An Optional containing the milestone if found, otherwise an empty Optional.
+   */
+  @Transactional(readOnly = true)
+  public Optional<MilestoneResponse> getMilestoneResponse(int milestoneId) {
+    return milestoneRepository
+        .findResponseById(milestoneId)
+        .or(() -> archivedMilestoneRepository.findResponseById(milestoneId));
+  }
+
+  /**
+   * Retrieves the API view of several milestones with one query per shard, and a second one on the
+   * shards where some of the milestones have been archived.
+   *
+   * @param milestoneIds The IDs of the milestones to retrieve.
+   * @return The milestones that exist, in the order of their IDs in {@code milestoneIds}.
+   */
+  @Transactional(readOnly = true)
+  public List<MilestoneResponse> getMilestoneResponses(Collection<Integer> milestoneIds) {
+    return shardScatterGather.findAllByOwner(
+        milestoneIds,
+        ids -> {
+          List<MilestoneResponse> found = milestoneRepository.findResponsesByIdIn(ids);
+          if (found.size() == ids.size()) {
+            return found;
+          }
+          List<MilestoneResponse> all = new ArrayList<>(found);
+          all.addAll(archivedMilestoneRepository.findResponsesByIdIn(ids));
+          return all;
+        },
+        MilestoneResponse::milestoneId);
+  }
+
+  /**
+   * Retrieves the API view of a milestone by its name.
+   *
+   * @param name The name of the milestone to retrieve.
+   * @return An Optional containing the milestone if found, otherwise an empty Optional.
+   */
+  @Transactional(readOnly = true)
+  public Optional<MilestoneResponse> getMilestoneResponseByName(String name) {
+    return shardScatterGather.findFirst(
+        () -> milestoneRepository.findResponseByMilestoneName(name));
+  }
+
+  /**
+   * Retrieves the API view of the milestones started on a date.
+   *
+   * @param startDate The start date to filter milestones by.
+   * @return The milestones that start on the provided date.
+   */
+  @Transactional(readOnly = true)
+  public List<MilestoneResponse> getMilestoneResponsesByStartDate(LocalDate startDate) {
+    return shardScatterGather.gather(() -> milestoneRepository.findResponsesByStartDate(startDate));
+  }
+
+  /**
+   * Retrieves the API view of the milestones completed on a date.
+   *
+   * @param completionDate The completion date to filter milestones by.
+   * @return The milestones that completed on the provided date.
+   */
+  @Transactional(readOnly = true)
+  public List<MilestoneResponse> getMilestoneResponsesByCompletionDate(LocalDate completionDate) {
+    return shardScatterGather.gather(
+        () ->
+            withArchived(
+                milestoneRepository.findResponsesByCompletionDate(completionDate),
+                archivedMilestoneRepository.findResponsesByCompletionDate(completionDate)));
+  }
+
+  /**
+   * Retrieves the API view of the milestones with a status. Concurrent calls for the same status
+   * share one query, so the returned list must not be modified.
+   *
+   * @param status The status to filter milestones by.
+   * @return The milestones that match the provided status.
+   */
+  public List<MilestoneResponse> getMilestoneResponsesByStatus(Milestone.Status status) {
+    return readCoalescingService.read(
+        "milestonesByStatus",
+        status,
+        () -> shardScatterGather.gather(() -> milestoneRepository.findResponsesByStatus(status)));
+  }
+
+  /**
+   * Retrieves the API view of every milestone belonging to a user, archived ones included.
+   * Concurrent calls for the same user share one query, so the returned list must not be modified.
+   *
+   * <p>Calls share a query only if they saw the same version of the user's data, so a caller that
+   * read its ETag after a write never joins a query started before it and gets the old list under
+   * the new tag.
+   *
+   * @param userId The user ID of the saver.
+   * @return The saver's milestones, in ID order.
+   */
+  public List<MilestoneResponse> getMilestoneResponsesForUser(int userId) {
+    long version = userVersionService.getVersion(userId);
+    return readCoalescingService.read(
+        "milestonesForUser",
+        List.of(userId, version),
+        () ->
+            withArchived(
+                milestoneRepository.findResponsesByUserId(userId),
+                archivedMilestoneRepository.findResponsesByUserId(userId)));
+  }
+
+  /**
+   * Retrieves the API view of the milestones of several users, archived ones included, with one
+   * query per table on each shard that owns some of the users.
+   *
+   * @param userIds The user IDs of the savers.
+   * @return The milestones, grouped by user in the order of {@code userIds} and in ID order within
+   *     each user.
+   */
+  @Transactional(readOnly = true)
+  public List<MilestoneResponse> getMilestoneResponsesForUsers(Collection<Integer> userIds) {
+    return shardScatterGather.findAllByOwner(
+        userIds,
+        ids ->
+            withArchived(
+                milestoneRepository.findResponsesByUserIdIn(ids),
+                archivedMilestoneRepository.findResponsesByUserIdIn(ids)),
+        MilestoneResponse::userId);
+  }
+
+  /** Merges live and archived milestones in ID order, so archiving never reorders a list. */
+  private static List<MilestoneResponse> withArchived(
+      List<MilestoneResponse> live, List<MilestoneResponse> archived) {
+    if (archived.isEmpty()) {
+      return live;
+    }
+    List<MilestoneResponse> all = new ArrayList<>(live.size() + archived.size());
+    all.addAll(live);
+    all.addAll(archived);
+    all.sort(Comparator.comparing(MilestoneResponse::milestoneId));
+    return all;
+  }
 }
@@ -0,0 +1,78 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.config.ReplicaRoutingDataSource;
+import com.example.savings_app.config.ShardContext;
+import com.example.savings_app.util.SingleFlight;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class that lets concurrent identical reads share one database call. When many clients
+ * ask for the same list at once, for example every child of a class opening the app together,
+ * the first request runs the query in its own read-only transaction and the others wait for its
+ * result instead of each taking a connection. Nothing is kept after the query finishes, so a read
+ * never sees data older than one that started after it.
+ *
+ * <p>A read joins only a query started on the same shard, and is never shared when it runs inside
+ * a transaction, whose isolation it must keep, or when the request is pinned to the primary to
+ * read its own writes, since a query already running may have started before that write. Reads
+ * whose result is served under a version ETag include the user's version in their argument, so a
+ * caller that saw a newer version never joins a query started before it. The shared result is
+ * handed to every caller, so callers must not modify it.
+ */
+@Service
+public class ReadCoalescingService {
+
+  private final SingleFlight<Key, Object> reads;
+  private final TransactionTemplate readOnlyTransaction;
+  private final boolean enabled;
+
+  /**
+   * Constructor to inject dependencies into the ReadCoalescingService.
+   *
+   * @param transactionManager Transaction manager used to run each shared query read-only.
+   * @param maxInFlight The most distinct queries shared at once; others run unshared.
+   * @param enabled Whether identical reads are shared at all.
+   */
+  @Autowired
+  public ReadCoalescingService(
+      PlatformTransactionManager transactionManager,
+      @Value("${savings.coalescing.max-in-flight:1000}") int maxInFlight,
+      @Value("${savings.coalescing.enabled:true}") boolean enabled) {
+    this.reads = new SingleFlight<>(maxInFlight);
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.enabled = enabled;
+  }
+
+  /**
+   * Runs a read, or joins the identical read already running.
+   *
+   * @param query The name of the query; must be unique to the loader.
+   * @param argument The argument the query is run with; must implement equals and hashCode.
+   * @param loader The query, run in a read-only transaction.
+   * @return The result of the query, possibly shared with other callers.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T read(String query, Object argument, Supplier<T> loader) {
+    if (!enabled
+        || TransactionSynchronizationManager.isActualTransactionActive()
+        || ReplicaRoutingDataSource.isPrimaryRequired()) {
+      return readOnlyTransaction.execute(status -> loader.get());
+    }
+    Key key = new Key(query, argument, ShardContext.current());
+    return (T) reads.execute(key, () -> readOnlyTransaction.execute(status -> loader.get()));
+  }
+
+  /** Returns how many reads ran, how many were shared, and how many are running now. */
+  public SingleFlight.Stats getStats() {
+    return reads.getStats();
+  }
+
+  private record Key(String query, Object argument, Integer shard) {}
+}
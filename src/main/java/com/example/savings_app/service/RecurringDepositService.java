@@ -0,0 +1,389 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.dto.RecurringDepositResponse;
+import com.example.savings_app.event.DomainEventPublisher;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.model.RecurringDeposit;
+import com.example.savings_app.model.Savings;
+import com.example.savings_app.repository.MilestoneRepository;
+import com.example.savings_app.repository.RecurringDepositRepository;
+import com.example.savings_app.repository.SavingsBatchRepository;
+import com.example.savings_app.util.Money;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class responsible for recurring allowances: weekly or monthly deposits that a parent
+ * sets up for a child's milestone.
+ *
+ * <p>Due schedules are found through the (status, next_run_date, schedule_id) index and processed
+ * in keyset pages, one short transaction per page. Each page locks its milestones, turns the due
+ * runs into Savings rows written in one JDBC batch, and moves each schedule's next run date on.
+ * Pages run one after another with an optional pause in between, so a midnight with hundreds of
+ * thousands of due schedules becomes a steady stream of small transactions rather than a burst.
+ */
+@Slf4j
+@Service
+public class RecurringDepositService {
+
+  // Upper bound on missed runs caught up for one schedule in a single pass
+  private static final int MAX_CATCH_UP_RUNS = 12;
+
+  private final RecurringDepositRepository recurringDepositRepository;
+  private final MilestoneRepository milestoneRepository;
+  private final SavingsBatchRepository savingsBatchRepository;
+  private final AccountService accountService;
+  private final DomainEventPublisher domainEventPublisher;
+  private final UserVersionService userVersionService;
+  private final ShardScatterGather shardScatterGather;
+  private final TransactionTemplate transactionTemplate;
+  private final int pageSize;
+  private final long pauseBetweenPagesMs;
+  private final boolean schedulerEnabled;
+
+  /**
+   * Constructor to inject dependencies into the RecurringDepositService.
+   *
+   * @param recurringDepositRepository Repository used to store and page through schedules.
+   * @param milestoneRepository Repository used to lock and update the target milestones.
+   * @param savingsBatchRepository Repository used to batch insert the generated deposits.
+   * @param accountService Service used to validate the saver's account.
+   * @param domainEventPublisher Publisher used to record the deposits in the outbox.
+   * @param userVersionService Service used to mark the savers' data as changed.
+   * @param shardScatterGather Helper used to run the job on every shard.
+   * @param transactionManager Transaction manager used to commit each page separately.
+   * @param pageSize The number of schedules processed per transaction.
+   * @param pauseBetweenPagesMs The pause between pages, to spread load on the database.
+   * @param schedulerEnabled Whether this node runs the nightly job.
+   */
+  @Autowired
+  public RecurringDepositService(
+      RecurringDepositRepository recurringDepositRepository,
+      MilestoneRepository milestoneRepository,
+      SavingsBatchRepository savingsBatchRepository,
+      AccountService accountService,
+      DomainEventPublisher domainEventPublisher,
+      UserVersionService userVersionService,
+      ShardScatterGather shardScatterGather,
+      PlatformTransactionManager transactionManager,
+      @Value("${savings.recurring.page-size:500}") int pageSize,
+      @Value("${savings.recurring.pause-between-pages-ms:0}") long pauseBetweenPagesMs,
+      @Value("${savings.recurring.scheduler-enabled:true}") boolean schedulerEnabled) {
+    this.recurringDepositRepository = recurringDepositRepository;
+    this.milestoneRepository = milestoneRepository;
+    this.savingsBatchRepository = savingsBatchRepository;
+    this.accountService = accountService;
+    this.domainEventPublisher = domainEventPublisher;
+    this.userVersionService = userVersionService;
+    this.shardScatterGather = shardScatterGather;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.pageSize = pageSize;
+    this.pauseBetweenPagesMs = pauseBetweenPagesMs;
+    this.schedulerEnabled = schedulerEnabled;
+  }
+
+  /**
+   * Creates a recurring deposit schedule after validating the saver, milestone, amount and dates.
+   *
+   * @param schedule The schedule to be created.
+   * @return The created schedule.
+   * @throws IllegalArgumentException if the schedule data is invalid.
+   */
+  @Transactional
+  public RecurringDeposit createSchedule(RecurringDeposit schedule) {
+    if (schedule.getUser() == null || schedule.getUser().getUserId() == null) {
+      throw new IllegalArgumentException("Invalid user: User account is required.");
+    }
+    Account user =
+        accountService
+            .getAccountByUserId(schedule.getUser().getUserId())
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        "User not found for ID: " + schedule.getUser().getUserId()));
+
+    Milestone milestone =
+        milestoneRepository
+            .findById(schedule.getMilestoneId())
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        "Milestone not found for ID: " + schedule.getMilestoneId()));
+    if (milestone.getUser() == null || !user.getUserId().equals(milestone.getUser().getUserId())) {
+      throw new IllegalArgumentException("Milestone does not belong to the user.");
+    }
+    if (milestone.getStatus() != Milestone.Status.active) {
+      throw new IllegalArgumentException("Milestone is already completed.");
+    }
+
+    if (schedule.getAmount() == null || schedule.getAmount().signum() <= 0) {
+      throw new IllegalArgumentException("Amount must be greater than zero.");
+    }
+    Money.of(schedule.getAmount()); // Rejects fractions of a penny
+    if (schedule.getFrequency() == null) {
+      throw new IllegalArgumentException("Frequency is required.");
+    }
+
+    LocalDate today = LocalDate.now();
+    if (schedule.getNextRunDate() == null) {
+      schedule.setNextRunDate(today);
+    } else if (schedule.getNextRunDate().isBefore(today)) {
+      throw new IllegalArgumentException("First run date cannot be in the past.");
+    }
+
+    schedule.setScheduleId(null);
+    schedule.setUser(user);
+    schedule.setStatus(RecurringDeposit.Status.active);
+    schedule.setCreatedAt(today);
+    return recurringDepositRepository.save(schedule);
+  }
+
+  /**
+   * Cancels a schedule so that it generates no further deposits.
+   *
+   * @param scheduleId The ID of the schedule to cancel.
+   * @return The cancelled schedule.
+   * @throws IllegalArgumentException if the schedule is not found.
+   */
+  @Transactional
+  public RecurringDeposit cancelSchedule(int scheduleId) {
+    RecurringDeposit schedule =
+        recurringDepositRepository
+            .findById(scheduleId)
+            .orElseThrow(
+                () -> new IllegalArgumentException("Schedule not found for ID: " + scheduleId));
+    schedule.setStatus(RecurringDeposit.Status.cancelled);
+    return recurringDepositRepository.save(schedule);
+  }
+
+  /**
+   * Retrieves all schedules for a saver.
+   *
+   * @param userId The user ID of the saver.
+   * @return The saver's schedules, in any status.
+   */
+  @Transactional(readOnly = true)
+  public List<RecurringDepositResponse> getSchedulesForUser(int userId) {
+    return recurringDepositRepository.findResponsesByUserId(userId);
+  }
+
+  /** Runs the nightly job for today's date, if this node is configured to run it. */
+  @Scheduled(cron = "${savings.recurring.cron:0 0 0 * * *}")
+  public void runScheduledDeposits() {
+    if (schedulerEnabled) {
+      processDueSchedules(LocalDate.now());
+    }
+  }
+
+  /**
+   * Generates the deposits for every active schedule due on or before the given date.
+   *
+   * @param today The run date; schedules with a next run date up to and including it are due.
+   * @return The number of deposits generated.
+   */
+  public int processDueSchedules(LocalDate today) {
+    AtomicInteger deposits = new AtomicInteger();
+    shardScatterGather.forEachShard(() -> deposits.addAndGet(processShard(today)));
+    return deposits.get();
+  }
+
+  /** Processes the due schedules of the current shard, page by page. */
+  private int processShard(LocalDate today) {
+    long started = System.nanoTime();
+    int deposits = 0;
+    int pages = 0;
+    LocalDate afterDate = LocalDate.EPOCH;
+    int afterId = 0;
+
+    while (true) {
+      LocalDate pageAfterDate = afterDate;
+      int pageAfterId = afterId;
+      PageResult result =
+          transactionTemplate.execute(status -> processPage(today, pageAfterDate, pageAfterId));
+      if (result == null || result.schedules() == 0) {
+        break;
+      }
+      deposits += result.deposits();
+      pages++;
+      afterDate = result.lastDate();
+      afterId = result.lastId();
+
+      if (result.schedules() < pageSize) {
+        break;
+      }
+      pause();
+    }
+
+    log.info(
+        "Recurring deposits for {}: {} deposits over {} pages in {} ms",
+        today,
+        deposits,
+        pages,
+        (System.nanoTime() - started) / 1_000_000);
+    return deposits;
+  }
+
+  /** Processes one keyset page of due schedules inside the caller's transaction. */
+  private PageResult processPage(LocalDate today, LocalDate afterDate, int afterId) {
+    List<RecurringDeposit> schedules =
+        recurringDepositRepository.findDuePage(
+            RecurringDeposit.Status.active, today, afterDate, afterId, PageRequest.of(0, pageSize));
+    if (schedules.isEmpty()) {
+      return new PageResult(0, 0, afterDate, afterId);
+    }
+
+    // Remember where this page ends before the run dates move on
+    RecurringDeposit last = schedules.get(schedules.size() - 1);
+    LocalDate lastDate = last.getNextRunDate();
+    int lastId = last.getScheduleId();
+
+    Set<Integer> milestoneIds =
+        schedules.stream().map(RecurringDeposit::getMilestoneId).collect(Collectors.toSet());
+    Map<Integer, Milestone> milestones = new HashMap<>();
+    for (Milestone milestone : milestoneRepository.findAllForUpdate(milestoneIds)) {
+      milestones.put(milestone.getMilestoneId(), milestone);
+    }
+
+    List<Savings> deposits = new ArrayList<>();
+    List<Milestone> completed = new ArrayList<>();
+    for (RecurringDeposit schedule : schedules) {
+      Milestone milestone = milestones.get(schedule.getMilestoneId());
+      if (milestone == null || milestone.getStatus() != Milestone.Status.active) {
+        schedule.setStatus(RecurringDeposit.Status.finished);
+        continue;
+      }
+
+      Money scheduled = Money.of(schedule.getAmount());
+      Money target = Money.of(milestone.getTargetAmount());
+      Money saved = Money.ofNullable(milestone.getSavedAmount());
+      int runs = 0;
+      while (!schedule.getNextRunDate().isAfter(today) && runs++ < MAX_CATCH_UP_RUNS) {
+        if (milestone.getStatus() != Milestone.Status.active) {
+          schedule.setStatus(RecurringDeposit.Status.finished);
+          break;
+        }
+
+        // Never push a milestone past its target; the last deposit tops it up exactly
+        Money amount = scheduled.min(target.minus(saved));
+        if (amount.isPositive()) {
+          deposits.add(
+              Savings.builder()
+                  .user(schedule.getUser())
+                  .amount(amount.toBigDecimal())
+                  .date(schedule.getNextRunDate())
+                  .milestoneId(schedule.getMilestoneId())
+                  .build());
+          saved = saved.plus(amount);
+        }
+
+        if (saved.isAtLeast(target)) {
+          milestone.setStatus(Milestone.Status.completed);
+          milestone.setCompletionDate(today);
+          completed.add(milestone);
+        }
+        schedule.setNextRunDate(nextRun(schedule));
+      }
+      milestone.setSavedAmount(saved.toBigDecimal());
+    }
+
+    savingsBatchRepository.insertSavings(deposits);
+    userVersionService.recordChanges(changesOf(deposits, completed));
+    publishEvents(deposits, completed);
+    return new PageResult(schedules.size(), deposits.size(), lastDate, lastId);
+  }
+
+  /** Lists the deposits made and the milestones they, or a completion, changed. */
+  private static List<EntityChange> changesOf(List<Savings> deposits, List<Milestone> completed) {
+    List<EntityChange> changes = new ArrayList<>(deposits.size() * 2 + completed.size());
+    for (Savings deposit : deposits) {
+      int userId = deposit.getUser().getUserId();
+      changes.add(
+          EntityChange.upsert(userId, ChangeLog.EntityType.savings, deposit.getSavingsId()));
+      changes.add(
+          EntityChange.upsert(userId, ChangeLog.EntityType.milestone, deposit.getMilestoneId()));
+    }
+    for (Milestone milestone : completed) {
+      changes.add(
+          EntityChange.upsert(
+              milestone.getUser().getUserId(),
+              ChangeLog.EntityType.milestone,
+              milestone.getMilestoneId()));
+    }
+    // Catch-up runs deposit to the same milestone more than once
+    return changes.stream().distinct().toList();
+  }
+
+  private void publishEvents(List<Savings> deposits, List<Milestone> completed) {
+    List<DomainEventPublisher.PendingEvent> created = new ArrayList<>(deposits.size());
+    for (Savings deposit : deposits) {
+      Map<String, Object> payload = new LinkedHashMap<>();
+      payload.put("savingsId", deposit.getSavingsId());
+      payload.put("milestoneId", deposit.getMilestoneId());
+      payload.put("amount", deposit.getAmount());
+      payload.put("date", deposit.getDate());
+      payload.put("recurring", true);
+      created.add(
+          new DomainEventPublisher.PendingEvent(
+              deposit.getUser().getUserId(), deposit.getSavingsId(), payload));
+    }
+    if (!created.isEmpty()) {
+      domainEventPublisher.publishAll(OutboxEvent.EventType.savings_created, created);
+    }
+
+    List<DomainEventPublisher.PendingEvent> completions = new ArrayList<>(completed.size());
+    for (Milestone milestone : completed) {
+      Map<String, Object> payload = new LinkedHashMap<>();
+      payload.put("milestoneId", milestone.getMilestoneId());
+      payload.put("savedAmount", milestone.getSavedAmount());
+      payload.put("targetAmount", milestone.getTargetAmount());
+      payload.put("completionDate", milestone.getCompletionDate());
+      completions.add(
+          new DomainEventPublisher.PendingEvent(
+              milestone.getUser().getUserId(), milestone.getMilestoneId(), payload));
+    }
+    if (!completions.isEmpty()) {
+      domainEventPublisher.publishAll(OutboxEvent.EventType.milestone_completed, completions);
+    }
+  }
+
+  private static LocalDate nextRun(RecurringDeposit schedule) {
+    return schedule.getFrequency() == RecurringDeposit.Frequency.weekly
+        ? schedule.getNextRunDate().plusWeeks(1)
+        : schedule.getNextRunDate().plusMonths(1);
+  }
+
+  private void pause() {
+    if (pauseBetweenPagesMs <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(pauseBetweenPagesMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private record PageResult(int schedules, int deposits, LocalDate lastDate, int lastId) {}
+}
@@ -1,13 +1,31 @@
 package com.example.savings_app.service;
 
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.event.DomainEventPublisher;
 import com.example.savings_app.model.Account;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.OutboxEvent;
 import com.example.savings_app.model.Savings;
+import com.example.savings_app.repository.ArchivedSavingsRepository;
+import com.example.savings_app.repository.MilestoneRepository;
 import com.example.savings_app.repository.SavingsRepository;
+import com.example.savings_app.util.Money;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.ToIntFunction;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,18 +37,44 @@ import org.springframework.transaction.annotation.Transactional;
 public class SavingsService {
 
   private final SavingsRepository savingsRepository;
+  private final ArchivedSavingsRepository archivedSavingsRepository;
+  private final MilestoneRepository milestoneRepository;
   private final AccountService accountService;
+  private final DomainEventPublisher domainEventPublisher;
+  private final UserVersionService userVersionService;
+  private final ShardScatterGather shardScatterGather;
+  private final ReadCoalescingService readCoalescingService;
 
   /**
    * Constructor for injecting the necessary dependencies into the SavingsService class.
    *
    * @param savingsRepository the repository used for saving and retrieving savings data
+   * @param archivedSavingsRepository the repository used to read archived savings data
+   * @param milestoneRepository the repository used to check the milestone a deposit is made to
    * @param accountService the service used for managing user accounts
+   * @param domainEventPublisher the publisher used to record savings events in the outbox
+   * @param userVersionService the service used to mark the saver's data as changed
+   * @param shardScatterGather the helper used to run date queries across every shard
+   * @param readCoalescingService the service used to share identical concurrent list reads
    */
   @Autowired
-  public SavingsService(SavingsRepository savingsRepository, AccountService accountService) {
+  public SavingsService(
+      SavingsRepository savingsRepository,
+      ArchivedSavingsRepository archivedSavingsRepository,
+      MilestoneRepository milestoneRepository,
+      AccountService accountService,
+      DomainEventPublisher domainEventPublisher,
+      UserVersionService userVersionService,
+      ShardScatterGather shardScatterGather,
+      ReadCoalescingService readCoalescingService) {
     this.savingsRepository = savingsRepository;
+    this.archivedSavingsRepository = archivedSavingsRepository;
+    this.milestoneRepository = milestoneRepository;
     this.accountService = accountService;
+    this.domainEventPublisher = domainEventPublisher;
+    this.userVersionService = userVersionService;
+    this.shardScatterGather = shardScatterGather;
+    this.readCoalescingService = readCoalescingService;
   }
 
   /**
@@ -41,6 +85,7 @@ public class SavingsService {
    * @throws IllegalArgumentException if the provided ID is invalid
    * @throws RuntimeException if any other exception occurs during retrieval
    */
+  @Transactional(readOnly = true)
   public Optional<Savings> getSavingsById(int savingsId) {
     try {
       return savingsRepository.findById(savingsId);
@@ -61,9 +106,10 @@ public class SavingsService {
    * @throws IllegalArgumentException if the provided date is invalid
    * @throws RuntimeException if any other exception occurs during retrieval
    */
+  @Transactional(readOnly = true)
   public List<Savings> getSavingsByDate(LocalDate date) {
     try {
-      return savingsRepository.findByDate(date);
+      return shardScatterGather.gather(() -> savingsRepository.findByDate(date));
     } catch (IllegalArgumentException e) {
       // Handle invalid date
       throw new IllegalArgumentException("Invalid Savings date: " + date, e);
@@ -74,16 +120,17 @@ public class SavingsService {
   }
 
   /**
-   * Retrieves a savings record by its associated milestone ID.
+   * Retrieves the latest savings record made to a milestone.
    *
    * @param milestoneId the milestone ID associated with the savings record
-   * @return an Optional containing the savings record if found, or empty if not found
+   * @return an Optional containing the latest savings record, or empty if there are none
    * @throws IllegalArgumentException if the provided milestone ID is invalid
    * @throws RuntimeException if any other exception occurs during retrieval
    */
+  @Transactional(readOnly = true)
   public Optional<Savings> getSavingsByMilestoneId(int milestoneId) {
     try {
-      return savingsRepository.findByMilestoneId(milestoneId);
+      return savingsRepository.findFirstByMilestoneIdOrderBySavingsIdDesc(milestoneId);
     } catch (IllegalArgumentException e) {
       // Handle invalid milestone ID
       throw new IllegalArgumentException("Invalid Milestone ID: " + milestoneId, e);
@@ -99,8 +146,16 @@ public class SavingsService {
    * @param savingsId the ID of the savings record to be deleted
    * @throws IllegalArgumentException if the provided savings ID is invalid
    */
+  @Transactional
   public void deleteSavings(int savingsId) {
     try {
+      savingsRepository
+          .findById(savingsId)
+          .ifPresent(
+              savings ->
+                  userVersionService.recordChange(
+                      EntityChange.delete(
+                          savings.getUser().getUserId(), ChangeLog.EntityType.savings, savingsId)));
       savingsRepository.deleteById(savingsId);
     } catch (IllegalArgumentException e) {
       // Handle invalid savings ID
@@ -116,6 +171,7 @@ public class SavingsService {
    * @throws IllegalArgumentException if the provided account is invalid
    * @throws RuntimeException if any other exception occurs during retrieval
    */
+  @Transactional(readOnly = true)
   public List<Savings> getAllSavingsForUser(Account user) {
     try {
       return savingsRepository.findAllByUser(user);
@@ -148,11 +204,29 @@ public class SavingsService {
     // Validate milestone ID to ensure it's not null or empty
     validateMilestoneId(String.valueOf(savings.getMilestoneId()));
 
+    // Validate the milestone to ensure it exists and belongs to the saver
+    validateMilestone(savings.getMilestoneId(), user);
+
     // Validate the date to ensure it's not in the future
     validateDate(savings.getDate());
 
     // Save the savings record in the repository and return the saved entity
     Savings savedSavings = savingsRepository.save(savings);
+    userVersionService.recordChange(
+        EntityChange.upsert(
+            user.getUserId(), ChangeLog.EntityType.savings, savedSavings.getSavingsId()));
+
+    // Record the deposit in the outbox so side effects run after the transaction commits
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("savingsId", savedSavings.getSavingsId());
+    payload.put("milestoneId", savedSavings.getMilestoneId());
+    payload.put("amount", savedSavings.getAmount());
+    payload.put("date", savedSavings.getDate());
+    domainEventPublisher.publish(
+        OutboxEvent.EventType.savings_created,
+        user.getUserId(),
+        savedSavings.getSavingsId(),
+        payload);
 
     return savedSavings;
   }
@@ -187,16 +261,36 @@ public class SavingsService {
     }
   }
 
+  /**
+   * Validates that the milestone exists and belongs to the user.
+   *
+   * @param milestoneId the ID of the milestone the deposit is made to
+   * @param user the user making the deposit
+   * @throws IllegalArgumentException if the milestone is not found or belongs to another user
+   */
+  private void validateMilestone(int milestoneId, Account user) {
+    Milestone milestone =
+        milestoneRepository
+            .findById(milestoneId)
+            .orElseThrow(
+                () -> new IllegalArgumentException("Milestone not found for ID: " + milestoneId));
+    if (milestone.getUser() == null || !user.getUserId().equals(milestone.getUser().getUserId())) {
+      throw new IllegalArgumentException("Milestone does not belong to the user.");
+    }
+  }
+
   /**
    * Validates the amount to ensure it's a positive value.
    *
    * @param amount the amount to be validated
-   * @throws IllegalArgumentException if the amount is null or less than or equal to zero
+   * @throws IllegalArgumentException if the amount is null, less than or equal to zero, or has
+   *     fractions of a penny
    */
   private void validateAmount(BigDecimal amount) {
-    if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+    if (amount == null || amount.signum() <= 0) {
       throw new IllegalArgumentException("Amount must be greater than zero.");
     }
+    Money.of(amount); // Rejects fractions of a penny
   }
 
   /**
@@ -213,4 +307,204 @@ public class SavingsService {
       throw new IllegalArgumentException("Date cannot be in the future.");
     }
   }
+
+  /**
+   * Retrieves the API view of a savings record, selecting only the columns it needs. A record that
+   * has been archived is read from the archive.
+   *
+   * @param savingsId the ID of the savings record
+   * @return an Optional containing the savings record if found, or empty if not found
+   */
+  @Transactional(readOnly = true)
+  public Optional<SavingsResponse> getSavingsResponse(int savingsId) {
+    return savingsRepository
+        .findResponseById(savingsId)
+        .or(() -> archivedSavingsRepository.findResponseById(savingsId));
+  }
+
+  /**
+   * Retrieves the API view of several savings records with one query per shard, and a second one
+   * on the shards where some of the records have been archived.
+   *
+   * @param savingsIds the IDs of the savings records
+   * @return the savings records that exist, in the order of their IDs in {@code savingsIds}
+   */
+  @Transactional(readOnly = true)
+  public List<SavingsResponse> getSavingsResponses(Collection<Integer> savingsIds) {
+    return shardScatterGather.findAllByOwner(
+        savingsIds,
+        ids -> {
+          List<SavingsResponse> found = savingsRepository.findResponsesByIdIn(ids);
+          if (found.size() == ids.size()) {
+            return found;
+          }
+          List<SavingsResponse> all = new ArrayList<>(found);
+          all.addAll(archivedSavingsRepository.findResponsesByIdIn(ids));
+          return all;
+        },
+        SavingsResponse::savingsId);
+  }
+
+  /**
+   * Retrieves the API view of the savings records made on a date, archived ones included.
+   *
+   * @param date the date to filter savings records by
+   * @return the savings records for the date
+   */
+  @Transactional(readOnly = true)
+  public List<SavingsResponse> getSavingsResponsesByDate(LocalDate date) {
+    return shardScatterGather.gather(
+        () ->
+            withArchived(
+                savingsRepository.findResponsesByDate(date),
+                archivedSavingsRepository.findResponsesByDate(date)));
+  }
+
+  /**
+   * Retrieves the API view of the latest savings record made to a milestone. The archive is only
+   * read if the milestone has no savings left in the hot table.
+   *
+   * @param milestoneId the ID of the milestone
+   * @return an Optional containing the latest savings record, or empty if there are none
+   */
+  @Transactional(readOnly = true)
+  public Optional<SavingsResponse> getSavingsResponseByMilestoneId(int milestoneId) {
+    return savingsRepository
+        .findLatestResponseByMilestoneId(milestoneId)
+        .or(() -> archivedSavingsRepository.findLatestResponseByMilestoneId(milestoneId));
+  }
+
+  /**
+   * Retrieves one page of the savings records made to a milestone, oldest first, archived ones
+   * included. Both tables are read from the same position and merged in ID order.
+   *
+   * @param milestoneId the ID of the milestone
+   * @param afterId the savings ID the previous page ended with, or 0 for the first page
+   * @param limit the largest number of records to return
+   * @return the savings records on the page; fewer than {@code limit} means it is the last page
+   */
+  @Transactional(readOnly = true)
+  public List<SavingsResponse> getSavingsResponsesForMilestone(
+      int milestoneId, int afterId, int limit) {
+    PageRequest page = PageRequest.of(0, limit);
+    List<SavingsResponse> merged =
+        withArchived(
+            savingsRepository.findResponsePageByMilestoneId(milestoneId, afterId, page),
+            archivedSavingsRepository.findResponsePageByMilestoneId(milestoneId, afterId, page));
+    return merged.size() > limit ? merged.subList(0, limit) : merged;
+  }
+
+  /**
+   * Adds up the savings records made to a milestone in the database, archived ones included,
+   * without reading them.
+   *
+   * @param milestoneId the ID of the milestone
+   * @return the total of the milestone's savings records, zero if there are none
+   */
+  @Transactional(readOnly = true)
+  public BigDecimal getLedgerTotal(int milestoneId) {
+    return savingsRepository
+        .sumAmountByMilestoneId(milestoneId)
+        .add(archivedSavingsRepository.sumAmountByMilestoneId(milestoneId));
+  }
+
+  /**
+   * Retrieves the API view of every savings record belonging to a user, archived ones included.
+   * Concurrent calls for the same user share one query, so the returned list must not be modified.
+   * Calls share a query only if they saw the same version of the user's data, so one that read its
+   * ETag after a deposit never gets the list from before it.
+   *
+   * @param userId the user ID of the saver
+   * @return the saver's savings records, in ID order
+   */
+  public List<SavingsResponse> getSavingsResponsesForUser(int userId) {
+    long version = userVersionService.getVersion(userId);
+    return readCoalescingService.read(
+        "savingsForUser",
+        List.of(userId, version),
+        () ->
+            withArchived(
+                savingsRepository.findResponsesByUserId(userId),
+                archivedSavingsRepository.findResponsesByUserId(userId)));
+  }
+
+  /**
+   * Retrieves a page of the savings records of each of several users, archived ones included, with
+   * one query per table on each shard that owns some of the users.
+   *
+   * @param userIds the user IDs of the savers
+   * @param afterId the savings ID each page starts after, or 0 for the first page
+   * @param limit the largest number of records to return for each user
+   * @return the savings records, grouped by user in the order of {@code userIds} and in ID order
+   *     within each user
+   */
+  @Transactional(readOnly = true)
+  public List<SavingsResponse> getSavingsResponsesForUsers(
+      Collection<Integer> userIds, int afterId, int limit) {
+    return shardScatterGather.findAllByOwner(
+        userIds,
+        ids ->
+            firstPerOwner(
+                withArchived(
+                    savingsRepository.findResponsePagesByUserIdIn(ids, afterId, limit),
+                    archivedSavingsRepository.findResponsePagesByUserIdIn(ids, afterId, limit)),
+                SavingsResponse::userId,
+                limit),
+        SavingsResponse::userId);
+  }
+
+  /**
+   * Retrieves a page of the savings records made to each of several milestones, archived ones
+   * included, with one query per table on each shard that owns some of the milestones.
+   *
+   * @param milestoneIds the IDs of the milestones
+   * @param afterId the savings ID each page starts after, or 0 for the first page
+   * @param limit the largest number of records to return for each milestone
+   * @return the savings records, grouped by milestone in the order of {@code milestoneIds} and in
+   *     ID order within each milestone
+   */
+  @Transactional(readOnly = true)
+  public List<SavingsResponse> getSavingsResponsesForMilestones(
+      Collection<Integer> milestoneIds, int afterId, int limit) {
+    return shardScatterGather.findAllByOwner(
+        milestoneIds,
+        ids ->
+            firstPerOwner(
+                withArchived(
+                    savingsRepository.findResponsePagesByMilestoneIdIn(ids, afterId, limit),
+                    archivedSavingsRepository.findResponsePagesByMilestoneIdIn(
+                        ids, afterId, limit)),
+                SavingsResponse::milestoneId,
+                limit),
+        SavingsResponse::milestoneId);
+  }
+
+  /**
+   * Keeps the first {@code limit} records of each owner from records in ID order. Each table
+   * returns a full page per owner, so the merged pages may hold up to twice as many.
+   */
+  private static List<SavingsResponse> firstPerOwner(
+      List<SavingsResponse> savings, ToIntFunction<SavingsResponse> ownerOf, int limit) {
+    Map<Integer, Integer> counts = new HashMap<>();
+    List<SavingsResponse> page = new ArrayList<>(savings.size());
+    for (SavingsResponse row : savings) {
+      if (counts.merge(ownerOf.applyAsInt(row), 1, Integer::sum) <= limit) {
+        page.add(row);
+      }
+    }
+    return page;
+  }
+
+  /** Merges live and archived savings in ID order, so archiving never reorders a list. */
+  private static List<SavingsResponse> withArchived(
+      List<SavingsResponse> live, List<SavingsResponse> archived) {
+    if (archived.isEmpty()) {
+      return live;
+    }
+    List<SavingsResponse> all = new ArrayList<>(live.size() + archived.size());
+    all.addAll(live);
+    all.addAll(archived);
+    all.sort(Comparator.comparing(SavingsResponse::savingsId));
+    return all;
+  }
 }
@@ -0,0 +1,267 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.config.ReplicaRoutingDataSource;
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.AccountResponse;
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.dto.SyncResponse;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.repository.ChangeLogRepository;
+import com.example.savings_app.repository.UserVersionRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class responsible for the delta sync: the changes to a user's account, milestones and
+ * savings since a cursor the client holds, so that an app can update its copy instead of
+ * refetching every list on launch.
+ *
+ * <p>Every write logs the rows it changed at the user's new version (see {@link
+ * UserVersionService}), and the cursor is that version. A sync reads the log through the index on
+ * user and version, so its cost follows the number of changes, not the length of the history. The
+ * log is kept for a retention period; a client whose cursor is older than that, or that has no
+ * cursor yet, is told to refetch its lists in full and is given the cursor to continue from.
+ *
+ * <p>Syncs read from a replica, which may lag behind the primary that issued a client's cursor. A
+ * cursor ahead of the replica's version is therefore checked against the primary: if the primary
+ * has reached it, the replica is lagging and the sync is answered as unchanged, with the client's
+ * own cursor, so the client picks up the changes on its next sync. A cursor ahead of the primary
+ * too was never issued, and is answered with a resync.
+ */
+@Slf4j
+@Service
+public class SyncService {
+
+  private final ChangeLogRepository changeLogRepository;
+  private final UserVersionRepository userVersionRepository;
+  private final AccountService accountService;
+  private final MilestoneService milestoneService;
+  private final SavingsService savingsService;
+  private final ShardScatterGather shardScatterGather;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate primaryRead;
+  private final int retentionDays;
+  private final int pruneBatchSize;
+  private final boolean pruneEnabled;
+
+  /**
+   * Constructor to inject dependencies into the SyncService.
+   *
+   * @param changeLogRepository Repository used to read and expire the change log.
+   * @param userVersionRepository Repository used to read the current version of a user.
+   * @param accountService Service used to read the changed accounts.
+   * @param milestoneService Service used to read the changed milestones.
+   * @param savingsService Service used to read the changed savings records.
+   * @param shardScatterGather Helper used to expire the change log of every shard.
+   * @param transactionManager Transaction manager used to commit each expiry batch separately.
+   * @param retentionDays How long changes are kept; older cursors must resync in full.
+   * @param pruneBatchSize The maximum number of log rows expired per transaction.
+   * @param pruneEnabled Whether this node expires old log rows.
+   */
+  @Autowired
+  public SyncService(
+      ChangeLogRepository changeLogRepository,
+      UserVersionRepository userVersionRepository,
+      AccountService accountService,
+      MilestoneService milestoneService,
+      SavingsService savingsService,
+      ShardScatterGather shardScatterGather,
+      PlatformTransactionManager transactionManager,
+      @Value("${savings.sync.retention-days:90}") int retentionDays,
+      @Value("${savings.sync.prune-batch-size:5000}") int pruneBatchSize,
+      @Value("${savings.sync.prune-enabled:true}") boolean pruneEnabled) {
+    this.changeLogRepository = changeLogRepository;
+    this.userVersionRepository = userVersionRepository;
+    this.accountService = accountService;
+    this.milestoneService = milestoneService;
+    this.savingsService = savingsService;
+    this.shardScatterGather = shardScatterGather;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    // A transaction of its own, since the sync's transaction is already bound to the replica
+    this.primaryRead = new TransactionTemplate(transactionManager);
+    this.primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.primaryRead.setReadOnly(true);
+    this.retentionDays = retentionDays;
+    this.pruneBatchSize = pruneBatchSize;
+    this.pruneEnabled = pruneEnabled;
+  }
+
+  /**
+   * Retrieves a page of the changes to a user's data since a cursor. A page never ends part way
+   * through the changes of one version, so it may hold more than {@code limit} rows when a single
+   * write changed more rows than that.
+   *
+   * @param userId The user ID of the saver.
+   * @param cursor The cursor returned by the previous sync, or null on the first sync.
+   * @param limit The most logged changes to read before returning a page.
+   * @return The changes, and the cursor to continue from.
+   */
+  @Transactional(readOnly = true)
+  public SyncResponse getChanges(int userId, Long cursor, int limit) {
+    long current = userVersionRepository.findVersion(userId);
+    if (cursor == null) {
+      return SyncResponse.resync(current);
+    }
+    if (cursor > current) {
+      long primary = primaryVersion(userId);
+      return cursor <= primary ? SyncResponse.unchanged(cursor) : SyncResponse.resync(primary);
+    }
+    if (cursor == current) {
+      return SyncResponse.unchanged(current);
+    }
+
+    // The cursor's own changes must still be logged, or later ones may have expired too
+    Long oldest = changeLogRepository.findOldestVersion(userId);
+    if (oldest == null || oldest > cursor) {
+      return SyncResponse.resync(current);
+    }
+
+    List<ChangeLog> page =
+        changeLogRepository.findByUserIdAndVersionGreaterThanOrderByVersionAscChangeIdAsc(
+            userId, cursor, PageRequest.of(0, limit + 1));
+    long next = current;
+    if (page.size() > limit) {
+      page = wholeVersions(userId, page, limit);
+      next = page.get(page.size() - 1).getVersion();
+    }
+    return toResponse(next, next < current, page);
+  }
+
+  /** Reads a user's version on the primary, which a lagging replica may not have reached. */
+  private long primaryVersion(int userId) {
+    boolean pinned = ReplicaRoutingDataSource.isPrimaryRequired();
+    ReplicaRoutingDataSource.setPrimaryRequired(true);
+    try {
+      Long version = primaryRead.execute(status -> userVersionRepository.findVersion(userId));
+      return version != null ? version : 0;
+    } finally {
+      ReplicaRoutingDataSource.setPrimaryRequired(pinned);
+    }
+  }
+
+  /** Trims a page that overflowed to the versions it holds in full. */
+  private List<ChangeLog> wholeVersions(int userId, List<ChangeLog> page, int limit) {
+    long overflow = page.get(limit).getVersion();
+    List<ChangeLog> whole = page.stream().filter(change -> change.getVersion() < overflow).toList();
+    if (!whole.isEmpty()) {
+      return whole;
+    }
+    // One write changed more rows than fit a page, so return that write alone
+    return changeLogRepository.findByUserIdAndVersionOrderByChangeIdAsc(userId, overflow);
+  }
+
+  private SyncResponse toResponse(long cursor, boolean hasMore, List<ChangeLog> page) {
+    // Only the last change to each row matters
+    Map<ChangeLog.EntityType, Map<Integer, ChangeLog.Operation>> latest =
+        new EnumMap<>(ChangeLog.EntityType.class);
+    for (ChangeLog change : page) {
+      latest
+          .computeIfAbsent(change.getEntityType(), type -> new LinkedHashMap<>())
+          .put(change.getEntityId(), change.getOperation());
+    }
+
+    Changes<AccountResponse> accounts =
+        read(
+            latest.get(ChangeLog.EntityType.account),
+            accountService::getAccountResponses,
+            AccountResponse::userId);
+    Changes<MilestoneResponse> milestones =
+        read(
+            latest.get(ChangeLog.EntityType.milestone),
+            milestoneService::getMilestoneResponses,
+            MilestoneResponse::milestoneId);
+    Changes<SavingsResponse> savings =
+        read(
+            latest.get(ChangeLog.EntityType.savings),
+            savingsService::getSavingsResponses,
+            SavingsResponse::savingsId);
+    return new SyncResponse(
+        cursor,
+        false,
+        hasMore,
+        accounts.upserted(),
+        milestones.upserted(),
+        savings.upserted(),
+        accounts.deleted(),
+        milestones.deleted(),
+        savings.deleted());
+  }
+
+  /**
+   * Reads the current state of the rows of one kind that were created or updated. A row that can
+   * no longer be read was deleted by a later write, which a following page will report too.
+   */
+  private static <T> Changes<T> read(
+      Map<Integer, ChangeLog.Operation> changes,
+      Function<Collection<Integer>, List<T>> lookup,
+      ToIntFunction<T> idOf) {
+    if (changes == null) {
+      return new Changes<>(List.of(), List.of());
+    }
+
+    List<Integer> upsertedIds = new ArrayList<>();
+    List<Integer> deleted = new ArrayList<>();
+    changes.forEach(
+        (id, operation) ->
+            (operation == ChangeLog.Operation.upsert ? upsertedIds : deleted).add(id));
+
+    List<T> upserted = upsertedIds.isEmpty() ? List.of() : lookup.apply(upsertedIds);
+    if (upserted.size() < upsertedIds.size()) {
+      Set<Integer> found = upserted.stream().map(idOf::applyAsInt).collect(Collectors.toSet());
+      upsertedIds.stream().filter(id -> !found.contains(id)).forEach(deleted::add);
+    }
+    return new Changes<>(upserted, deleted);
+  }
+
+  /** Expires the changes older than the retention period on every shard. */
+  @Scheduled(cron = "${savings.sync.prune-cron:0 30 2 * * *}")
+  public void pruneChangeLog() {
+    if (!pruneEnabled) {
+      return;
+    }
+    LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+    shardScatterGather.forEachShard(() -> log.info("Expired {} changes", prune(cutoff)));
+  }
+
+  /**
+   * Deletes the changes logged before a cutoff, one committed batch at a time.
+   *
+   * @param cutoff The time before which changes are deleted.
+   * @return The number of changes deleted.
+   */
+  long prune(LocalDateTime cutoff) {
+    long total = 0;
+    int deleted;
+    do {
+      Integer batch =
+          transactionTemplate.execute(
+              status -> changeLogRepository.deleteOlderThan(cutoff, pruneBatchSize));
+      deleted = batch != null ? batch : 0;
+      total += deleted;
+    } while (deleted == pruneBatchSize);
+    return total;
+  }
+
+  /** The rows of one kind created or updated, and the IDs of those deleted. */
+  private record Changes<T>(List<T> upserted, List<Integer> deleted) {}
+}
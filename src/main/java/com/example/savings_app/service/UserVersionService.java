@@ -0,0 +1,87 @@
+package com.example.savings_app.service;
+
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.repository.UserVersionRepository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps a version stamp per user that changes whenever their account, milestones or savings
+ * change, so that polling clients can be answered with 304 Not Modified without re-reading their
+ * lists. Every bump also logs the rows it covers, which is what the delta sync reads.
+ *
+ * <p>Bumps must happen inside the transaction that makes the change: the new version then becomes
+ * visible exactly when the change does. Readers must read the version before the data it
+ * describes, so that a concurrent write can only make the ETag stale, never the body. The bump
+ * locks the user's version row until the transaction ends, so a user's versions commit in order.
+ */
+@Service
+public class UserVersionService {
+
+  private final UserVersionRepository userVersionRepository;
+
+  /**
+   * Constructor to inject dependencies into the UserVersionService.
+   *
+   * @param userVersionRepository Repository used to read and bump version stamps.
+   */
+  @Autowired
+  public UserVersionService(UserVersionRepository userVersionRepository) {
+    this.userVersionRepository = userVersionRepository;
+  }
+
+  /**
+   * Marks a user's data as changed and logs the changed row, within the current transaction.
+   *
+   * @param change The row created, updated or deleted.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordChange(EntityChange change) {
+    recordChanges(List.of(change));
+  }
+
+  /**
+   * Marks the data of every user concerned as changed once, and logs each changed row at the new
+   * version, within the current transaction.
+   *
+   * @param changes The rows created, updated or deleted.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordChanges(Collection<EntityChange> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    userVersionRepository.bump(changes.stream().map(EntityChange::userId).distinct().toList());
+    userVersionRepository.logChanges(changes, LocalDateTime.now());
+  }
+
+  /**
+   * Returns the current version of a user's data, which only ever grows.
+   *
+   * @param userId The user ID of the saver.
+   * @return The version, 0 if the user's data has never changed.
+   */
+  @Transactional(readOnly = true)
+  public long getVersion(int userId) {
+    return userVersionRepository.findVersion(userId);
+  }
+
+  /**
+   * Returns a weak ETag for the current state of a user's data in one encoding. The tag is weak
+   * because the lists are large and gzipped on the way out: Tomcat leaves responses with a strong
+   * ETag uncompressed, since compression changes their bytes.
+   *
+   * @param userId The user ID of the saver.
+   * @param variant The suffix of the response encoding, empty for JSON.
+   * @return The entity tag, e.g. {@code W/"7-42"} or {@code W/"7-42-cbor"}.
+   */
+  @Transactional(readOnly = true)
+  public String getETag(int userId, String variant) {
+    return "W/\"" + userId + "-" + userVersionRepository.findVersion(userId) + variant + "\"";
+  }
+}
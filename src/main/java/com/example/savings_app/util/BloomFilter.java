@@ -0,0 +1,118 @@
+package com.example.savings_app.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter over strings. Answers "definitely not present" or "possibly present";
+ * the false positive rate stays near the requested rate as long as no more than the expected number
+ * of values are added. Values cannot be removed.
+ */
+public class BloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+  private final long expectedInsertions;
+  private final AtomicLong insertions = new AtomicLong();
+
+  private BloomFilter(long bitCount, int hashCount, long expectedInsertions) {
+    this.bits = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+    this.bitCount = bitCount;
+    this.hashCount = hashCount;
+    this.expectedInsertions = expectedInsertions;
+  }
+
+  /**
+   * Creates a filter sized for the given number of values and false positive rate.
+   *
+   * @param expectedInsertions The number of values the filter is expected to hold.
+   * @param falsePositiveRate The acceptable false positive rate, between 0 and 1 exclusive.
+   * @return An empty filter.
+   * @throws IllegalArgumentException if either argument is out of range.
+   */
+  public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions <= 0) {
+      throw new IllegalArgumentException("Expected insertions must be greater than zero.");
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("False positive rate must be between 0 and 1.");
+    }
+
+    double ln2 = Math.log(2);
+    double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2);
+    long bitCount = Math.max(64, (long) Math.ceil(optimalBits));
+    int hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+    return new BloomFilter(bitCount, hashCount, expectedInsertions);
+  }
+
+  /**
+   * Adds a value to the filter.
+   *
+   * @param value The value to add.
+   */
+  public void put(String value) {
+    long hash1 = hash(value, 0L);
+    long hash2 = hash(value, 0x9E3779B97F4A7C15L);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+      setBit(bit);
+    }
+    insertions.incrementAndGet();
+  }
+
+  /**
+   * Checks whether a value may have been added to the filter.
+   *
+   * @param value The value to check.
+   * @return false if the value was definitely never added, true if it possibly was.
+   */
+  public boolean mightContain(String value) {
+    long hash1 = hash(value, 0L);
+    long hash2 = hash(value, 0x9E3779B97F4A7C15L);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+      if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the number of values added so far. */
+  public long getInsertions() {
+    return insertions.get();
+  }
+
+  /** Returns the number of values the filter was sized for. */
+  public long getExpectedInsertions() {
+    return expectedInsertions;
+  }
+
+  private void setBit(long bit) {
+    int index = (int) (bit >>> 6);
+    long mask = 1L << bit;
+    long current;
+    do {
+      current = bits.get(index);
+      if ((current & mask) != 0) {
+        return;
+      }
+    } while (!bits.compareAndSet(index, current, current | mask));
+  }
+
+  // FNV-1a over the characters followed by the MurmurHash3 finaliser to spread the bits
+  private static long hash(String value, long seed) {
+    long h = 0xcbf29ce484222325L ^ seed;
+    for (int i = 0; i < value.length(); i++) {
+      h ^= value.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
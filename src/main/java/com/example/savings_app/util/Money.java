@@ -0,0 +1,104 @@
+package com.example.savings_app.util;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount of money held as a whole number of pence. Arithmetic stays in a {@code long} and
+ * throws {@link ArithmeticException} rather than wrapping on overflow; conversion to and from
+ * {@link BigDecimal} is only needed where amounts enter or leave the service layer.
+ *
+ * @param pence The amount in pence; may be negative, e.g. for a difference.
+ */
+public record Money(long pence) implements Comparable<Money> {
+
+  public static final Money ZERO = new Money(0);
+
+  /** The largest amount a {@code DECIMAL(10, 2)} column can hold, 99,999,999.99. */
+  public static final Money MAX_STORED = new Money(9_999_999_999L);
+
+  private static final int SCALE = 2;
+
+  /**
+   * Converts a decimal amount in pounds.
+   *
+   * @param amount The amount, with at most two decimal places.
+   * @return The amount in pence.
+   * @throws IllegalArgumentException if the amount has fractions of a penny or does not fit in a
+   *     long.
+   */
+  public static Money of(BigDecimal amount) {
+    try {
+      return new Money(amount.movePointRight(SCALE).longValueExact());
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Amount must be a whole number of pence: " + amount);
+    }
+  }
+
+  /**
+   * Converts a decimal amount in pounds, treating null as zero.
+   *
+   * @param amount The amount, or null.
+   * @return The amount in pence.
+   */
+  public static Money ofNullable(BigDecimal amount) {
+    return amount == null ? ZERO : of(amount);
+  }
+
+  /** Returns the amount in pounds with two decimal places, for persistence and JSON. */
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(pence, SCALE);
+  }
+
+  public Money plus(Money other) {
+    return new Money(Math.addExact(pence, other.pence));
+  }
+
+  public Money minus(Money other) {
+    return new Money(Math.subtractExact(pence, other.pence));
+  }
+
+  /**
+   * Multiplies by a ratio and rounds to the nearest penny, ties to even, matching {@link
+   * java.math.RoundingMode#HALF_EVEN}.
+   *
+   * @param numerator The numerator of the ratio.
+   * @param denominator The denominator of the ratio; must be positive.
+   * @return The scaled amount.
+   * @throws ArithmeticException if the intermediate product overflows.
+   */
+  public Money times(long numerator, long denominator) {
+    long product = Math.multiplyExact(pence, numerator);
+    long quotient = Math.floorDiv(product, denominator);
+    long twiceRemainder = 2 * Math.floorMod(product, denominator);
+    if (twiceRemainder > denominator || (twiceRemainder == denominator && (quotient & 1) != 0)) {
+      quotient++;
+    }
+    return new Money(quotient);
+  }
+
+  public Money min(Money other) {
+    return pence <= other.pence ? this : other;
+  }
+
+  public boolean isPositive() {
+    return pence > 0;
+  }
+
+  public boolean isGreaterThan(Money other) {
+    return pence > other.pence;
+  }
+
+  public boolean isAtLeast(Money other) {
+    return pence >= other.pence;
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    return Long.compare(pence, other.pence);
+  }
+
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString();
+  }
+}
@@ -0,0 +1,110 @@
+package com.example.savings_app.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs the call, and every
+ * caller that arrives with the same key while it is running waits for it and gets the same result,
+ * or the same exception. Once the call finishes the key is forgotten, so a later caller runs it
+ * again; nothing is cached.
+ *
+ * <p>Memory is bounded by the number of keys in flight. When that many distinct calls are already
+ * running, a call for a new key runs on its own without being registered.
+ *
+ * @param <K> The type of the keys; must implement equals and hashCode.
+ * @param <V> The type of the results, which are shared between callers and must not be modified.
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final int maxInFlight;
+  private final LongAdder executed = new LongAdder();
+  private final LongAdder collapsed = new LongAdder();
+  private final LongAdder bypassed = new LongAdder();
+
+  /**
+   * Creates a single flight group.
+   *
+   * @param maxInFlight The most distinct keys tracked at once.
+   * @throws IllegalArgumentException if maxInFlight is not positive.
+   */
+  public SingleFlight(int maxInFlight) {
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("Max in flight must be greater than zero.");
+    }
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Runs the call, or joins the identical call already running.
+   *
+   * @param key Identifies the call; callers with equal keys share one run.
+   * @param call The call to run if none is running for the key.
+   * @return The result of the call.
+   */
+  public V execute(K key, Supplier<V> call) {
+    CompletableFuture<V> running = inFlight.get(key);
+    if (running == null) {
+      if (inFlight.size() >= maxInFlight) {
+        bypassed.increment();
+        return call.get();
+      }
+      CompletableFuture<V> mine = new CompletableFuture<>();
+      running = inFlight.putIfAbsent(key, mine);
+      if (running == null) {
+        return run(key, mine, call);
+      }
+    }
+
+    collapsed.increment();
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      throw rethrow(e.getCause());
+    }
+  }
+
+  private V run(K key, CompletableFuture<V> mine, Supplier<V> call) {
+    executed.increment();
+    try {
+      V result = call.get();
+      mine.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      mine.completeExceptionally(e);
+      throw e;
+    } finally {
+      // Forget the key only after the waiters can see the outcome
+      inFlight.remove(key, mine);
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable cause) {
+    if (cause instanceof RuntimeException runtime) {
+      return runtime;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    return new CompletionException(cause);
+  }
+
+  /** Returns the counters of this group. */
+  public Stats getStats() {
+    return new Stats(executed.sum(), collapsed.sum(), bypassed.sum(), inFlight.size());
+  }
+
+  /**
+   * Counters of a single flight group.
+   *
+   * @param executed The calls run since startup.
+   * @param collapsed The calls that shared a run instead of running themselves.
+   * @param bypassed The calls run unshared because too many keys were in flight.
+   * @param inFlight The distinct calls running now.
+   */
+  public record Stats(long executed, long collapsed, long bypassed, int inFlight) {}
+}
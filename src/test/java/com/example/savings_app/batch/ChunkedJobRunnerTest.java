@@ -0,0 +1,96 @@
+package com.example.savings_app.batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.model.JobCheckpoint;
+import com.example.savings_app.repository.JobCheckpointRepository;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Unit tests for the ChunkedJobRunner. */
+public class ChunkedJobRunnerTest {
+
+  private JobCheckpointRepository jobCheckpointRepository;
+  private ChunkedJobRunner chunkedJobRunner;
+
+  /** Setup method to initialize a runner with two workers before each test. */
+  @BeforeEach
+  void setUp() {
+    jobCheckpointRepository = mock(JobCheckpointRepository.class);
+    chunkedJobRunner =
+        new ChunkedJobRunner(jobCheckpointRepository, mock(PlatformTransactionManager.class), 2);
+  }
+
+  /** Shuts down the worker pool after each test. */
+  @AfterEach
+  void tearDown() {
+    chunkedJobRunner.shutdown();
+  }
+
+  /** Test that the ID range is covered by chunks that neither overlap nor leave gaps. */
+  @Test
+  void run_ShouldProcessEveryChunkAndCheckpointIt() {
+    Set<Integer> starts = ConcurrentHashMap.newKeySet();
+
+    JobReport report =
+        chunkedJobRunner.run(
+            "job",
+            "run-1",
+            1,
+            25,
+            10,
+            (fromId, toId) -> {
+              starts.add(fromId);
+              return toId - fromId;
+            });
+
+    // IDs 1-25 in chunks of ten are [1, 11), [11, 21) and [21, 26)
+    assertEquals(Set.of(1, 11, 21), starts);
+    assertEquals(3, report.chunks());
+    assertEquals(25, report.items());
+    assertTrue(report.isComplete());
+    verify(jobCheckpointRepository, times(3)).save(any(JobCheckpoint.class));
+  }
+
+  /** Test that a resumed run skips the chunks checkpointed by the earlier attempt. */
+  @Test
+  void run_ShouldSkipCheckpointedChunks_WhenResumed() {
+    when(jobCheckpointRepository.findAllByJobNameAndRunKey("job", "run-1"))
+        .thenReturn(List.of(JobCheckpoint.builder().rangeStart(1).build()));
+
+    JobReport report = chunkedJobRunner.run("job", "run-1", 1, 20, 10, (fromId, toId) -> 1);
+
+    assertEquals(1, report.skippedChunks());
+    assertEquals(1, report.items());
+  }
+
+  /** Test that a failing chunk is reported without stopping the other chunks. */
+  @Test
+  void run_ShouldReportFailedChunk_WhenProcessorThrows() {
+    JobReport report =
+        chunkedJobRunner.run(
+            "job",
+            "run-1",
+            1,
+            20,
+            10,
+            (fromId, toId) -> {
+              if (fromId == 1) {
+                throw new IllegalStateException("boom");
+              }
+              return 5;
+            });
+
+    assertEquals(1, report.failedChunks());
+    assertEquals(5, report.items());
+    assertFalse(report.isComplete());
+    verify(jobCheckpointRepository, times(1)).save(any(JobCheckpoint.class));
+  }
+}
@@ -0,0 +1,173 @@
+package com.example.savings_app.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+import com.example.savings_app.controller.MilestoneController;
+import com.example.savings_app.event.MilestoneProgressStream;
+import com.example.savings_app.exception.ApiExceptionHandler;
+import com.example.savings_app.exception.MilestoneException;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.service.AccountService;
+import com.example.savings_app.service.MilestoneService;
+import com.example.savings_app.service.UserVersionService;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Reports the CPU cost of answering a request with an error compared with answering it normally,
+ * and how much of that cost is capturing a stack trace. Excluded from the normal test run; run it
+ * with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+public class ErrorPathBenchmarkTest {
+
+  // Roughly the depth at which a service throws under Tomcat, Spring MVC and a transaction proxy
+  private static final int STACK_DEPTH = 120;
+  private static final int WARMUP_ROUNDS = 2_000;
+  private static final int MEASURED_ROUNDS = 5_000;
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  /** A stackless exception must be cheaper to throw than one that captures its stack. */
+  @Test
+  public void throwAndCatch() throws Exception {
+    double returned = cpuNanos(() -> depth(STACK_DEPTH, () -> 1));
+    double stackful =
+        cpuNanos(
+            () ->
+                catching(
+                    () ->
+                        depth(
+                            STACK_DEPTH,
+                            () -> {
+                              throw new IllegalStateException("Milestone not found for id: 1");
+                            })));
+    double stackless =
+        cpuNanos(
+            () ->
+                catching(
+                    () ->
+                        depth(
+                            STACK_DEPTH,
+                            () -> {
+                              throw new MilestoneException.MilestoneNotFoundException(
+                                  "Milestone not found for id: 1");
+                            })));
+    double preallocated =
+        cpuNanos(
+            () ->
+                catching(
+                    () ->
+                        depth(
+                            STACK_DEPTH,
+                            () -> {
+                              throw MilestoneException.AMOUNT_NOT_POSITIVE;
+                            })));
+
+    System.out.printf(
+        "depth %d: return %.0f ns, stack trace %.0f ns, stackless %.0f ns, preallocated %.0f ns%n",
+        STACK_DEPTH, returned, stackful, stackless, preallocated);
+    assertTrue(stackless < stackful, "a stackless exception should be cheaper to throw");
+  }
+
+  /** Reports a deposit that succeeds against ones rejected through the exception handler. */
+  @Test
+  public void depositEndpoint() throws Exception {
+    MilestoneService milestoneService = mock(MilestoneService.class);
+    Milestone milestone =
+        Milestone.builder()
+            .milestoneId(1)
+            .user(Account.builder().userId(1).build())
+            .targetAmount(new BigDecimal("100"))
+            .savedAmount(new BigDecimal("10"))
+            .status(Milestone.Status.active)
+            .build();
+    when(milestoneService.updateSavedAmountAndCheckCompletion(eq(1), any())).thenReturn(milestone);
+    when(milestoneService.updateSavedAmountAndCheckCompletion(eq(2), any()))
+        .thenThrow(MilestoneException.AMOUNT_EXCEEDS_TARGET);
+    when(milestoneService.updateSavedAmountAndCheckCompletion(eq(3), any()))
+        .thenAnswer(
+            invocation -> {
+              throw new MilestoneException.MilestoneNotFoundException(
+                  "Milestone not found for id: 3");
+            });
+
+    MockMvc mockMvc =
+        MockMvcBuilders.standaloneSetup(
+                new MilestoneController(
+                    milestoneService,
+                    mock(AccountService.class),
+                    mock(UserVersionService.class),
+                    mock(MilestoneProgressStream.class),
+                    100))
+            .setControllerAdvice(new ApiExceptionHandler())
+            .build();
+
+    double ok = cpuNanos(() -> deposit(mockMvc, 1, 200));
+    double rejected = cpuNanos(() -> deposit(mockMvc, 2, 400));
+    double notFound = cpuNanos(() -> deposit(mockMvc, 3, 404));
+    System.out.printf(
+        "deposit: ok %.1f us, invalid amount %.1f us, not found %.1f us%n",
+        ok / 1_000, rejected / 1_000, notFound / 1_000);
+  }
+
+  private static int deposit(MockMvc mockMvc, int milestoneId, int expectedStatus)
+      throws Exception {
+    int status =
+        mockMvc
+            .perform(
+                patch("/milestone/" + milestoneId + "/updateSavedAmount")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"addedAmount\": \"5\"}"))
+            .andReturn()
+            .getResponse()
+            .getStatus();
+    assertEquals(expectedStatus, status);
+    return status;
+  }
+
+  private static int depth(int frames, Work work) throws Exception {
+    return frames == 0 ? work.run() : depth(frames - 1, work) + 1;
+  }
+
+  private static int catching(Work work) {
+    try {
+      return work.run();
+    } catch (Exception e) {
+      return e.getMessage().length();
+    }
+  }
+
+  /** Returns the mean CPU time of this thread, in nanoseconds, to do the work once. */
+  private double cpuNanos(Work work) throws Exception {
+    long sink = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      sink += work.run();
+    }
+    long start = threads.getCurrentThreadCpuTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      sink += work.run();
+    }
+    long elapsed = threads.getCurrentThreadCpuTime() - start;
+    assertTrue(sink > 0);
+    return (double) elapsed / MEASURED_ROUNDS;
+  }
+
+  @FunctionalInterface
+  private interface Work {
+    int run() throws Exception;
+  }
+}
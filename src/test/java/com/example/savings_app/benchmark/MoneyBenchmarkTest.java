@@ -0,0 +1,114 @@
+package com.example.savings_app.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.savings_app.util.Money;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reports the CPU time and heap allocation of the deposit and interest arithmetic done with {@link
+ * BigDecimal} compared with {@link Money}. Excluded from the normal test run; run it with {@code
+ * gradle benchmark}.
+ */
+@Tag("benchmark")
+public class MoneyBenchmarkTest {
+
+  private static final int WARMUP_ROUNDS = 200_000;
+  private static final int MEASURED_ROUNDS = 2_000_000;
+
+  private final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final BigDecimal[] deposits = {
+    new BigDecimal("5.00"), new BigDecimal("12.50"), new BigDecimal("0.99"), new BigDecimal("20.00")
+  };
+  private final BigDecimal target = new BigDecimal("100000.00");
+  private final BigDecimal rate = new BigDecimal("0.02");
+  private final BigDecimal daysPerYear = BigDecimal.valueOf(365);
+
+  /** A deposit: check the amount, add it to the balance and compare with the target. */
+  @Test
+  public void deposit() {
+    Result bigDecimal =
+        measure(
+            i -> {
+              BigDecimal saved = BigDecimal.valueOf(i % 1_000_000, 2);
+              BigDecimal added = deposits[i & 3];
+              if (added.compareTo(BigDecimal.ZERO) <= 0) {
+                return 0;
+              }
+              BigDecimal updated = saved.add(added);
+              return updated.compareTo(target) >= 0 ? 2 : 1;
+            });
+    Money moneyTarget = Money.of(target);
+    Money[] moneyDeposits = new Money[deposits.length];
+    for (int i = 0; i < deposits.length; i++) {
+      moneyDeposits[i] = Money.of(deposits[i]);
+    }
+    Result money =
+        measure(
+            i -> {
+              Money saved = new Money(i % 1_000_000);
+              Money added = moneyDeposits[i & 3];
+              if (!added.isPositive()) {
+                return 0;
+              }
+              Money updated = saved.plus(added);
+              return updated.isAtLeast(moneyTarget) ? 2 : 1;
+            });
+
+    report("deposit", bigDecimal, money);
+    assertTrue(money.bytes() <= bigDecimal.bytes(), "Money should not allocate more");
+  }
+
+  /** A day of interest on a balance, rounded to the penny. */
+  @Test
+  public void dailyInterest() {
+    Result bigDecimal =
+        measure(
+            i ->
+                BigDecimal.valueOf(i % 1_000_000, 2)
+                    .multiply(rate)
+                    .divide(daysPerYear, 2, RoundingMode.HALF_EVEN)
+                    .signum());
+    Result money = measure(i -> new Money(i % 1_000_000).times(2, 36_500).isPositive() ? 1 : 0);
+
+    report("daily interest", bigDecimal, money);
+    assertTrue(money.bytes() <= bigDecimal.bytes(), "Money should not allocate more");
+  }
+
+  private static void report(String name, Result bigDecimal, Result money) {
+    System.out.printf(
+        "%s: BigDecimal %.1f ns %.1f B/op, Money %.1f ns %.1f B/op%n",
+        name, bigDecimal.nanos(), bigDecimal.bytes(), money.nanos(), money.bytes());
+  }
+
+  /** Returns the mean CPU time and bytes allocated by this thread to do the work once. */
+  private Result measure(Work work) {
+    long sink = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      sink += work.run(i);
+    }
+    long threadId = Thread.currentThread().getId();
+    long startBytes = threads.getThreadAllocatedBytes(threadId);
+    long startNanos = threads.getCurrentThreadCpuTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      sink += work.run(i);
+    }
+    long elapsed = threads.getCurrentThreadCpuTime() - startNanos;
+    long allocated = threads.getThreadAllocatedBytes(threadId) - startBytes;
+    assertTrue(sink > 0);
+    return new Result((double) elapsed / MEASURED_ROUNDS, (double) allocated / MEASURED_ROUNDS);
+  }
+
+  private record Result(double nanos, double bytes) {}
+
+  @FunctionalInterface
+  private interface Work {
+    int run(int i);
+  }
+}
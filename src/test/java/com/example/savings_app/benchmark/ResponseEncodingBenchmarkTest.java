@@ -0,0 +1,121 @@
+package com.example.savings_app.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.model.Milestone;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Reports bytes on the wire and CPU time per response for each encoding the API can negotiate,
+ * with and without gzip. Excluded from the normal test run; run it with {@code gradle benchmark}.
+ * Brotli is not measured because Tomcat cannot produce it.
+ */
+@Tag("benchmark")
+public class ResponseEncodingBenchmarkTest {
+
+  private static final int ROWS = 500;
+  private static final int WARMUP_ROUNDS = 200;
+  private static final int MEASURED_ROUNDS = 500;
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  /** Binary encodings must be smaller than JSON for a typical savings list. */
+  @Test
+  public void savingsList() throws Exception {
+    List<SavingsResponse> rows = new ArrayList<>(ROWS);
+    for (int i = 1; i <= ROWS; i++) {
+      rows.add(
+          new SavingsResponse(
+              i, 1, new BigDecimal("5.00"), LocalDate.parse("2024-11-01").plusDays(i % 30), i));
+    }
+    report("savings", rows);
+  }
+
+  /** Binary encodings must be smaller than JSON for a typical milestone list. */
+  @Test
+  public void milestoneList() throws Exception {
+    List<MilestoneResponse> rows = new ArrayList<>(ROWS);
+    for (int i = 1; i <= ROWS; i++) {
+      rows.add(
+          new MilestoneResponse(
+              i,
+              1,
+              "Milestone " + i,
+              new BigDecimal("500.00"),
+              BigDecimal.valueOf(i % 500, 2),
+              LocalDate.parse("2024-11-01"),
+              null,
+              Milestone.Status.active));
+    }
+    report("milestone", rows);
+  }
+
+  private void report(String name, List<?> rows) throws Exception {
+    Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+    formats.put("json", Jackson2ObjectMapperBuilder.json().build());
+    formats.put("cbor", Jackson2ObjectMapperBuilder.cbor().build());
+    formats.put("smile", Jackson2ObjectMapperBuilder.smile().build());
+
+    int jsonBytes = 0;
+    for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+      ObjectMapper mapper = format.getValue();
+      byte[] raw = mapper.writeValueAsBytes(rows);
+      byte[] gzipped = gzip(raw);
+      double rawMicros = cpuMicros(() -> mapper.writeValueAsBytes(rows));
+      double gzipMicros = cpuMicros(() -> gzip(mapper.writeValueAsBytes(rows)));
+
+      System.out.printf(
+          "%s x%d %-5s: %7d bytes / %7.1f us CPU, gzip %6d bytes / %7.1f us CPU%n",
+          name, ROWS, format.getKey(), raw.length, rawMicros, gzipped.length, gzipMicros);
+
+      if (format.getKey().equals("json")) {
+        jsonBytes = raw.length;
+      } else {
+        assertTrue(raw.length < jsonBytes, format.getKey() + " should be smaller than JSON");
+      }
+    }
+  }
+
+  private static byte[] gzip(byte[] body) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(body);
+    }
+    return out.toByteArray();
+  }
+
+  /** Returns the mean CPU time of this thread, in microseconds, to produce one response. */
+  private double cpuMicros(Encoder encoder) throws Exception {
+    long sink = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      sink += encoder.encode().length;
+    }
+    long start = threads.getCurrentThreadCpuTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      sink += encoder.encode().length;
+    }
+    long elapsed = threads.getCurrentThreadCpuTime() - start;
+    assertTrue(sink > 0);
+    return elapsed / 1_000.0 / MEASURED_ROUNDS;
+  }
+
+  @FunctionalInterface
+  private interface Encoder {
+    byte[] encode() throws Exception;
+  }
+}
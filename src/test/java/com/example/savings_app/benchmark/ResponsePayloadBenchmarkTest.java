@@ -0,0 +1,126 @@
+package com.example.savings_app.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.Savings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the JSON payload size and serialization time of the entities the API used to return
+ * with the response records that replaced them. Excluded from the normal test run; run it with
+ * {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+public class ResponsePayloadBenchmarkTest {
+
+  private static final int ROWS = 500;
+  private static final int WARMUP_ROUNDS = 200;
+  private static final int MEASURED_ROUNDS = 500;
+
+  private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+  private List<Milestone> milestones;
+  private List<Savings> savings;
+
+  /** Builds a page of rows shaped like a user's milestone and savings lists. */
+  @BeforeEach
+  public void setUp() {
+    Account user =
+        Account.builder()
+            .userId(1)
+            .firstName("Test")
+            .lastName("Parent")
+            .email("parent@example.com")
+            .passwordHash("$2a$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWX")
+            .role(Account.Role.parent)
+            .childId(2)
+            .createdAt(LocalDate.parse("2024-01-01"))
+            .dob(LocalDate.parse("1985-06-15"))
+            .build();
+
+    milestones = new ArrayList<>(ROWS);
+    savings = new ArrayList<>(ROWS);
+    for (int i = 1; i <= ROWS; i++) {
+      milestones.add(
+          Milestone.builder()
+              .milestoneId(i)
+              .user(user)
+              .milestoneName("Milestone " + i)
+              .targetAmount(BigDecimal.valueOf(500))
+              .savedAmount(BigDecimal.valueOf(i % 500))
+              .startDate(LocalDate.parse("2024-11-01"))
+              .status(Milestone.Status.active)
+              .build());
+      savings.add(
+          Savings.builder()
+              .savingsId(i)
+              .user(user)
+              .amount(BigDecimal.valueOf(5))
+              .date(LocalDate.parse("2024-11-01").plusDays(i % 30))
+              .milestoneId(i)
+              .build());
+    }
+  }
+
+  /** The milestone response must be smaller than the entity it replaces. */
+  @Test
+  public void milestonePayload() throws Exception {
+    compare("milestone", milestones, MilestoneResponse::from);
+  }
+
+  /** The savings response must be smaller than the entity it replaces. */
+  @Test
+  public void savingsPayload() throws Exception {
+    compare("savings", savings, SavingsResponse::from);
+  }
+
+  private <E, R> void compare(String name, List<E> entities, Function<E, R> mapper)
+      throws Exception {
+    List<R> responses = entities.stream().map(mapper).toList();
+
+    int entityBytes = objectMapper.writeValueAsBytes(entities).length;
+    int responseBytes = objectMapper.writeValueAsBytes(responses).length;
+    double entityMicros = timeSerialization(entities);
+    double responseMicros = timeSerialization(responses);
+
+    System.out.printf(
+        "%s x%d: entity %d bytes / %.1f us, response %d bytes / %.1f us (%.0f%% smaller)%n",
+        name,
+        ROWS,
+        entityBytes,
+        entityMicros,
+        responseBytes,
+        responseMicros,
+        100.0 * (entityBytes - responseBytes) / entityBytes);
+
+    assertTrue(responseBytes < entityBytes, "Response payload should be smaller than the entity");
+  }
+
+  /** Returns the mean time in microseconds to serialize the list once. */
+  private double timeSerialization(List<?> rows) throws Exception {
+    long sink = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      sink += objectMapper.writeValueAsBytes(rows).length;
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      sink += objectMapper.writeValueAsBytes(rows).length;
+    }
+    long elapsed = System.nanoTime() - start;
+    assertTrue(sink > 0);
+    return elapsed / 1_000.0 / MEASURED_ROUNDS;
+  }
+}
@@ -0,0 +1,137 @@
+package com.example.savings_app.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Milestone;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reports the read throughput of loading milestones, each with its owner, by ID in a fresh session
+ * with and without the second-level cache, against an in-memory H2 database. Against MySQL over
+ * the network every miss costs a round trip as well, so the gain there is larger. Excluded from
+ * the normal test run; run it with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+public class SecondLevelCacheBenchmarkTest {
+
+  private static final int USERS = 100;
+  private static final int MILESTONES = 1_000;
+  private static final int WARMUP_READS = 20_000;
+  private static final int MEASURED_READS = 200_000;
+
+  /** Reads by ID, one session per read as in a request. */
+  @Test
+  public void findMilestoneById() {
+    Result uncached = measure(false);
+    Result cached = measure(true);
+
+    System.out.printf(
+        "find milestone by ID: uncached %.0f reads/s %d statements, cached %.0f reads/s %d"
+            + " statements (%.1fx)%n",
+        uncached.readsPerSecond(),
+        uncached.statements(),
+        cached.readsPerSecond(),
+        cached.statements(),
+        cached.readsPerSecond() / uncached.readsPerSecond());
+    assertEquals(MEASURED_READS, uncached.statements(), "Every uncached read should query");
+    assertEquals(0, cached.statements(), "A warm cache should answer every read");
+  }
+
+  private Result measure(boolean cached) {
+    try (SessionFactory sessionFactory = build(cached)) {
+      int[] ids = insertMilestones(sessionFactory);
+      read(sessionFactory, ids, WARMUP_READS);
+
+      Statistics statistics = sessionFactory.getStatistics();
+      statistics.clear();
+      long start = System.nanoTime();
+      read(sessionFactory, ids, MEASURED_READS);
+      long elapsed = System.nanoTime() - start;
+
+      if (cached) {
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= MEASURED_READS);
+      }
+      return new Result(MEASURED_READS * 1e9 / elapsed, statistics.getPrepareStatementCount());
+    }
+  }
+
+  private static SessionFactory build(boolean cached) {
+    Configuration configuration =
+        new Configuration()
+            .addAnnotatedClass(Account.class)
+            .addAnnotatedClass(Milestone.class)
+            .setProperty(
+                AvailableSettings.JAKARTA_JDBC_URL,
+                "jdbc:h2:mem:l2-" + cached + ";MODE=MySQL;DB_CLOSE_DELAY=-1")
+            .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.GENERATE_STATISTICS, "true")
+            .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, String.valueOf(cached));
+    if (cached) {
+      // The same provider and region settings as the application
+      configuration
+          .setProperty(AvailableSettings.CACHE_REGION_FACTORY, "jcache")
+          .setProperty(
+              "hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider")
+          .setProperty("hibernate.javax.cache.uri", "ehcache.xml");
+    }
+    return configuration.buildSessionFactory();
+  }
+
+  private static int[] insertMilestones(SessionFactory sessionFactory) {
+    int[] ids = new int[MILESTONES];
+    sessionFactory.inTransaction(
+        session -> {
+          Account[] users = new Account[USERS];
+          for (int i = 0; i < USERS; i++) {
+            users[i] =
+                Account.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("user" + i + "@example.com")
+                    .passwordHash("hashed_password")
+                    .role(Account.Role.child)
+                    .createdAt(LocalDate.parse("2024-01-01"))
+                    .dob(LocalDate.parse("2012-06-01"))
+                    .build();
+            session.persist(users[i]);
+          }
+          for (int i = 0; i < MILESTONES; i++) {
+            Milestone milestone =
+                Milestone.builder()
+                    .user(users[i % USERS])
+                    .milestoneName("Milestone " + i)
+                    .targetAmount(new BigDecimal("500.00"))
+                    .savedAmount(new BigDecimal("125.00"))
+                    .startDate(LocalDate.parse("2024-01-01"))
+                    .status(Milestone.Status.active)
+                    .build();
+            session.persist(milestone);
+            ids[i] = milestone.getMilestoneId();
+          }
+        });
+    return ids;
+  }
+
+  private static void read(SessionFactory sessionFactory, int[] ids, int reads) {
+    long sink = 0;
+    for (int i = 0; i < reads; i++) {
+      try (Session session = sessionFactory.openSession()) {
+        sink += session.find(Milestone.class, ids[i % ids.length]).getUser().getUserId();
+      }
+    }
+    assertTrue(sink > 0);
+  }
+
+  private record Result(double readsPerSecond, long statements) {}
+}
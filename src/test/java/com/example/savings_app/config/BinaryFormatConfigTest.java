@@ -0,0 +1,28 @@
+package com.example.savings_app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the ETag variants chosen by BinaryFormatConfig. */
+public class BinaryFormatConfigTest {
+
+  /** Test that clients without a binary preference share the JSON tag. */
+  @Test
+  void etagVariant_ShouldBeEmpty_ForJsonAndWildcards() {
+    assertEquals("", BinaryFormatConfig.etagVariant(null));
+    assertEquals("", BinaryFormatConfig.etagVariant("*/*"));
+    assertEquals("", BinaryFormatConfig.etagVariant("application/json"));
+    assertEquals("", BinaryFormatConfig.etagVariant("application/json, application/cbor"));
+    assertEquals("", BinaryFormatConfig.etagVariant("not a media type"));
+  }
+
+  /** Test that a preferred binary encoding gets its own tag. */
+  @Test
+  void etagVariant_ShouldNameBinaryEncoding_WhenPreferred() {
+    assertEquals("-cbor", BinaryFormatConfig.etagVariant("application/cbor"));
+    assertEquals("-smile", BinaryFormatConfig.etagVariant("application/x-jackson-smile, */*"));
+    assertEquals(
+        "-cbor", BinaryFormatConfig.etagVariant("application/json;q=0.5, application/cbor"));
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.savings_app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the Bulkhead and the rules that assign requests to one. */
+public class BulkheadTest {
+
+  /** Test that a full bulkhead without a queue rejects at once and admits again after a release. */
+  @Test
+  void tryAcquire_ShouldRejectWhenFull_AndAdmitAfterRelease() {
+    Bulkhead bulkhead = new Bulkhead("writes", 2, 0, 0);
+
+    assertTrue(bulkhead.tryAcquire());
+    assertTrue(bulkhead.tryAcquire());
+    assertFalse(bulkhead.tryAcquire());
+    assertEquals(new Bulkhead.Stats(2, 2, 0, 1), bulkhead.getStats());
+
+    bulkhead.release();
+    assertTrue(bulkhead.tryAcquire());
+  }
+
+  /** Test that a queued request is admitted when a slot frees up within its wait. */
+  @Test
+  void tryAcquire_ShouldAdmitQueuedRequest_WhenSlotFreesInTime() throws Exception {
+    Bulkhead bulkhead = new Bulkhead("reads", 1, 1, 5000);
+    assertTrue(bulkhead.tryAcquire());
+
+    CountDownLatch admitted = new CountDownLatch(1);
+    Thread waiter =
+        new Thread(
+            () -> {
+              if (bulkhead.tryAcquire()) {
+                admitted.countDown();
+              }
+            });
+    waiter.start();
+    while (bulkhead.getStats().queued() == 0) {
+      Thread.onSpinWait();
+    }
+    // The queue holds a single request, so another one is turned away without waiting
+    assertFalse(bulkhead.tryAcquire());
+
+    bulkhead.release();
+    assertTrue(admitted.await(5, TimeUnit.SECONDS));
+    waiter.join();
+    assertEquals(new Bulkhead.Stats(1, 1, 0, 1), bulkhead.getStats());
+  }
+
+  /** Test that requests go to the first matching class and excluded paths to none. */
+  @Test
+  void forRequest_ShouldPickFirstMatchingClass() {
+    Bulkheads bulkheads =
+        new Bulkheads(
+            new BulkheadProperties(
+                true,
+                List.of("/batch"),
+                6,
+                List.of(
+                    new BulkheadProperties.Compartment(
+                        "auth", List.of("/account/login"), List.of(), 1, 0, 0),
+                    new BulkheadProperties.Compartment(
+                        "graphql", List.of("/graphql"), List.of(), 1, 0, 0),
+                    new BulkheadProperties.Compartment(
+                        "reads", List.of(), List.of("GET", "HEAD"), 3, 0, 0),
+                    new BulkheadProperties.Compartment("writes", List.of(), List.of(), 2, 0, 0))));
+
+    assertEquals("auth", bulkheads.forRequest("POST", "/account/login").getName());
+    assertEquals("graphql", bulkheads.forRequest("POST", "/graphql").getName());
+    assertEquals("reads", bulkheads.forRequest("GET", "/milestone/user/1").getName());
+    assertEquals(
+        "writes", bulkheads.forRequest("PATCH", "/milestone/1/updateSavedAmount").getName());
+    assertNull(bulkheads.forRequest("POST", "/batch"));
+    assertEquals(7, bulkheads.getTotalConcurrency());
+  }
+}
@@ -0,0 +1,131 @@
+package com.example.savings_app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.savings_app.exception.RateLimitExceededException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+/** Unit tests for the RateLimitInterceptor. */
+public class RateLimitInterceptorTest {
+
+  private static final String DEPOSIT = "/milestone/{milestoneId}/updateSavedAmount";
+
+  private RateLimiter rateLimiter;
+  private RateLimitInterceptor interceptor;
+
+  /**
+   * Setup method to limit deposits to two per account and three per IP, behind proxies on this
+   * host and in 10.1.0.0/16. Milestones 5 to 7 belong to user 1; other milestones do not exist.
+   */
+  @BeforeEach
+  void setUp() {
+    rateLimiter = new RateLimiter(100);
+    interceptor =
+        new RateLimitInterceptor(
+            rateLimiter,
+            List.of(
+                new RateLimitProperties.Rule(
+                    "patch",
+                    DEPOSIT,
+                    new RateLimitProperties.Limit(2, 0.001),
+                    new RateLimitProperties.Limit(3, 0.001))),
+            List.of("127.0.0.1", "10.1.0.0/16"));
+  }
+
+  /** Test that an account is rejected with a retry time once its bucket is empty. */
+  @Test
+  void preHandle_ShouldRejectAccount_WhenBucketEmpty() {
+    assertTrue(handle(deposit("10.0.0.1", "5")));
+    assertTrue(handle(deposit("10.0.0.2", "5")));
+
+    RateLimitExceededException exception =
+        assertThrows(RateLimitExceededException.class, () -> handle(deposit("10.0.0.3", "5")));
+    assertTrue(exception.getRetryAfterSeconds() > 0);
+    assertEquals(
+        Map.of("PATCH " + DEPOSIT + " (account)", 1L), rateLimiter.getStats().rejected());
+  }
+
+  /** Test that each milestone has a bucket of its own, keyed by its ID without a lookup. */
+  @Test
+  void preHandle_ShouldKeepBucketPerMilestone() {
+    assertTrue(handle(deposit("10.0.0.1", "5")));
+    assertTrue(handle(deposit("10.0.0.2", "5")));
+    assertThrows(RateLimitExceededException.class, () -> handle(deposit("10.0.0.3", "5")));
+
+    assertTrue(handle(deposit("10.0.0.4", "6")));
+  }
+
+  /** Test that one IP is limited across accounts, using the client forwarded by a proxy. */
+  @Test
+  void preHandle_ShouldRejectIp_WhenBucketEmpty() {
+    for (int milestoneId = 1; milestoneId <= 3; milestoneId++) {
+      MockHttpServletRequest request = deposit("127.0.0.1", String.valueOf(milestoneId));
+      request.addHeader("X-Forwarded-For", "10.0.0.1");
+      assertTrue(handle(request));
+    }
+
+    assertThrows(RateLimitExceededException.class, () -> handle(deposit("10.0.0.1", "4")));
+  }
+
+  /**
+   * Test that the client is the rightmost untrusted hop, so that entries a client adds to the left
+   * of X-Forwarded-For cannot give it a fresh bucket.
+   */
+  @Test
+  void preHandle_ShouldIgnoreForgedForwardedHops() {
+    for (int milestoneId = 1; milestoneId <= 3; milestoneId++) {
+      MockHttpServletRequest request = deposit("10.1.2.3", String.valueOf(milestoneId));
+      request.addHeader("X-Forwarded-For", "198.51.100." + milestoneId + ", 203.0.113.9, 10.1.0.7");
+      assertTrue(handle(request));
+    }
+
+    MockHttpServletRequest request = deposit("127.0.0.1", "4");
+    request.addHeader("X-Forwarded-For", "203.0.113.9");
+    assertThrows(RateLimitExceededException.class, () -> handle(request));
+  }
+
+  /** Test that X-Forwarded-For from a client that is not a trusted proxy is ignored. */
+  @Test
+  void preHandle_ShouldIgnoreForwardedFor_FromUntrustedPeer() {
+    for (int milestoneId = 1; milestoneId <= 3; milestoneId++) {
+      MockHttpServletRequest request = deposit("203.0.113.9", String.valueOf(milestoneId));
+      request.addHeader("X-Forwarded-For", "198.51.100." + milestoneId);
+      assertTrue(handle(request));
+    }
+
+    assertThrows(RateLimitExceededException.class, () -> handle(deposit("203.0.113.9", "4")));
+  }
+
+  /** Test that routes without a rule are not limited. */
+  @Test
+  void preHandle_ShouldIgnoreUnlimitedRoutes() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/milestone/5");
+    request.setAttribute(
+        HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/milestone/{milestoneId}");
+
+    for (int i = 0; i < 10; i++) {
+      assertTrue(handle(request));
+    }
+    assertEquals(0, rateLimiter.getStats().buckets());
+  }
+
+  private boolean handle(MockHttpServletRequest request) {
+    return interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+  }
+
+  private static MockHttpServletRequest deposit(String remoteAddr, String milestoneId) {
+    MockHttpServletRequest request =
+        new MockHttpServletRequest("PATCH", "/milestone/" + milestoneId + "/updateSavedAmount");
+    request.setRemoteAddr(remoteAddr);
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, DEPOSIT);
+    request.setAttribute(
+        HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("milestoneId", milestoneId));
+    return request;
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.savings_app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the RateLimiter, on a clock moved by hand. */
+public class RateLimiterTest {
+
+  // Three requests in a burst, then one per second
+  private static final RateLimitProperties.Limit LIMIT = new RateLimitProperties.Limit(3, 1);
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+  private RateLimiter rateLimiter;
+
+  /** Setup method to create a limiter that holds at most two buckets. */
+  @BeforeEach
+  void setUp() {
+    rateLimiter = new RateLimiter(2, clock::get);
+  }
+
+  /** Test that a bucket allows its burst, then refills at its rate. */
+  @Test
+  void tryAcquire_ShouldAllowBurstThenRefill() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, rateLimiter.tryAcquire("a", LIMIT));
+    }
+    assertEquals(1_000_000_000L, rateLimiter.tryAcquire("a", LIMIT));
+
+    clock.addAndGet(1_000_000_000L);
+    assertEquals(0, rateLimiter.tryAcquire("a", LIMIT));
+    assertTrue(rateLimiter.tryAcquire("a", LIMIT) > 0);
+    // Other callers have their own buckets
+    assertEquals(0, rateLimiter.tryAcquire("b", LIMIT));
+  }
+
+  /** Test that refilled buckets are evicted to make room, and busy ones are kept. */
+  @Test
+  void tryAcquire_ShouldEvictIdleBuckets_WhenFull() {
+    rateLimiter.tryAcquire("a", LIMIT);
+    rateLimiter.tryAcquire("b", LIMIT);
+    rateLimiter.tryAcquire("b", LIMIT);
+
+    // After a second "a" has refilled but "b" is still a token short
+    clock.addAndGet(1_000_000_000L);
+    assertEquals(0, rateLimiter.tryAcquire("c", LIMIT));
+
+    RateLimiter.Stats stats = rateLimiter.getStats();
+    assertEquals(2, stats.buckets());
+    assertEquals(1, stats.evicted());
+    assertEquals(0, stats.displaced());
+  }
+
+  /**
+   * Test that a full limiter sweeps for idle buckets at most once a second, and displaces a bucket
+   * for new callers in between.
+   */
+  @Test
+  void tryAcquire_ShouldSweepAtMostOncePerSecond() {
+    RateLimitProperties.Limit fast = new RateLimitProperties.Limit(1, 10);
+    rateLimiter.tryAcquire("a", fast);
+    for (int i = 0; i < 3; i++) {
+      rateLimiter.tryAcquire("b", LIMIT);
+    }
+
+    clock.addAndGet(200_000_000L);
+    assertEquals(0, rateLimiter.tryAcquire("c", fast));
+    assertEquals(1, rateLimiter.getStats().evicted());
+
+    // "c" has refilled, but the last sweep was too recent, so it is displaced instead
+    clock.addAndGet(200_000_000L);
+    assertEquals(0, rateLimiter.tryAcquire("d", LIMIT));
+    RateLimiter.Stats stats = rateLimiter.getStats();
+    assertEquals(1, stats.evicted());
+    assertEquals(1, stats.displaced());
+    assertTrue(rateLimiter.tryAcquire("b", LIMIT) > 0);
+  }
+
+  /**
+   * Test that the busy bucket nearest to full is dropped for a new caller when none is idle, and
+   * that the others keep their limits.
+   */
+  @Test
+  void tryAcquire_ShouldDisplaceNearestFullBucket_WhenNoBucketCanBeEvicted() {
+    rateLimiter.tryAcquire("a", LIMIT);
+    for (int i = 0; i < 3; i++) {
+      rateLimiter.tryAcquire("b", LIMIT);
+    }
+
+    assertEquals(0, rateLimiter.tryAcquire("c", LIMIT));
+    RateLimiter.Stats stats = rateLimiter.getStats();
+    assertEquals(2, stats.buckets());
+    assertEquals(1, stats.displaced());
+    // "b" emptied its bucket and is still limited
+    assertTrue(rateLimiter.tryAcquire("b", LIMIT) > 0);
+  }
+}
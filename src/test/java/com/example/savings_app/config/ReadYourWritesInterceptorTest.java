@@ -0,0 +1,72 @@
+package com.example.savings_app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Unit tests for the ReadYourWritesInterceptor. */
+public class ReadYourWritesInterceptorTest {
+
+  private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(5_000);
+
+  // Exposes the routing decision for the current thread
+  private final ReplicaRoutingDataSource routing =
+      new ReplicaRoutingDataSource(
+          new SimpleDriverDataSource(),
+          new SimpleDriverDataSource());
+
+  /** Clears the thread state after each test. */
+  @AfterEach
+  void tearDown() {
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  /** Test that a write sets the cookie and pins its own request to the primary. */
+  @Test
+  void preHandle_ShouldSetCookieAndUsePrimary_WhenRequestWrites() {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/savings/create");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    interceptor.preHandle(request, response, null);
+
+    assertNotNull(response.getCookie(ReadYourWritesInterceptor.COOKIE_NAME));
+    assertEquals("primary", lookupKeyForReadOnly());
+  }
+
+  /** Test that a read inside the cookie's window goes to the primary. */
+  @Test
+  void preHandle_ShouldUsePrimary_WhenClientWroteRecently() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/savings/1");
+    request.setCookies(
+        new Cookie(
+            ReadYourWritesInterceptor.COOKIE_NAME,
+            Long.toString(System.currentTimeMillis() + 5_000)));
+
+    interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+    assertEquals("primary", lookupKeyForReadOnly());
+  }
+
+  /** Test that a read without a recent write goes to the replica. */
+  @Test
+  void preHandle_ShouldUseReplica_WhenNoRecentWrite() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/savings/1");
+    request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, "1"));
+
+    interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+    assertEquals("replica", lookupKeyForReadOnly());
+  }
+
+  private Object lookupKeyForReadOnly() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    return routing.determineCurrentLookupKey();
+  }
+}
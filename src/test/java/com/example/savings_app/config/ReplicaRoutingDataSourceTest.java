@@ -0,0 +1,77 @@
+package com.example.savings_app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests for the replica routing DataSource, using two in-memory H2 databases that each hold a
+ * single row naming the database.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+  private DataSource primary;
+  private DataSource replica;
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate readWrite;
+  private TransactionTemplate readOnly;
+
+  /** Setup method to create the two databases and wire the routing DataSource behind a proxy. */
+  @BeforeEach
+  void setUp() {
+    primary = database("primary");
+    replica = database("replica");
+
+    DataSource routing =
+        new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica));
+    jdbcTemplate = new JdbcTemplate(routing);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+  }
+
+  /** Drops the tables and releases any pin to the primary after each test. */
+  @AfterEach
+  void tearDown() {
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+    new JdbcTemplate(primary).execute("drop table Node");
+    new JdbcTemplate(replica).execute("drop table Node");
+  }
+
+  /** Test that read-only transactions use the replica and others use the primary. */
+  @Test
+  void routing_ShouldSendReadOnlyTransactionsToReplica() {
+    assertEquals("replica", readOnly.execute(status -> nodeName()));
+    assertEquals("primary", readWrite.execute(status -> nodeName()));
+  }
+
+  /** Test that a thread pinned after a write reads from the primary even when read-only. */
+  @Test
+  void routing_ShouldUsePrimary_WhenPrimaryRequired() {
+    ReplicaRoutingDataSource.setPrimaryRequired(true);
+
+    assertEquals("primary", readOnly.execute(status -> nodeName()));
+  }
+
+  private String nodeName() {
+    return jdbcTemplate.queryForObject("select name from Node", String.class);
+  }
+
+  private static DataSource database(String name) {
+    DataSource dataSource =
+        new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("create table Node (name varchar(16))");
+    jdbcTemplate.update("insert into Node values (?)", name);
+    return dataSource;
+  }
+}
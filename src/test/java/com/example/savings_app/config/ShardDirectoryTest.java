@@ -0,0 +1,78 @@
+package com.example.savings_app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the ShardDirectory. */
+public class ShardDirectoryTest {
+
+  /** Test that an ID resolves to the shard whose range contains it. */
+  @Test
+  void shardForId_ShouldReturnOwningShard() {
+    ShardDirectory directory = new ShardDirectory(properties(true, true, true));
+
+    assertEquals(0, directory.shardForId(1));
+    assertEquals(0, directory.shardForId(999_999));
+    assertEquals(1, directory.shardForId(1_000_000));
+    assertEquals(2, directory.shardForId(2_500_000));
+  }
+
+  /** Test that new users are only placed on shards that accept them, in turn. */
+  @Test
+  void placeNewUser_ShouldSkipClosedShards() {
+    ShardDirectory directory = new ShardDirectory(properties(false, true, true));
+
+    assertEquals(1, directory.placeNewUser());
+    assertEquals(2, directory.placeNewUser());
+    assertEquals(1, directory.placeNewUser());
+  }
+
+  /**
+   * Test that sign-ups with the same email, in any case, are placed on the same accepting shard.
+   */
+  @Test
+  void placeNewUser_ShouldPlaceSameEmailOnSameShard() {
+    ShardDirectory directory = new ShardDirectory(properties(false, true, true));
+
+    int shard = directory.placeNewUser("sam@example.com");
+
+    assertTrue(shard == 1 || shard == 2);
+    assertEquals(shard, directory.placeNewUser("Sam@Example.com"));
+    assertEquals(shard, directory.placeNewUser("sam@example.com"));
+  }
+
+  /** Test that everything resolves to the default shard when sharding is disabled. */
+  @Test
+  void shardForId_ShouldReturnDefaultShard_WhenShardingDisabled() {
+    ShardDirectory directory = ShardDirectory.single();
+
+    assertFalse(directory.isSharded());
+    assertEquals(0, directory.shardForId(5_000_000));
+    assertEquals(0, directory.placeNewUser());
+  }
+
+  /** Test that overlapping ID ranges are refused at startup. */
+  @Test
+  void constructor_ShouldThrowException_WhenRangesOutOfOrder() {
+    ShardingProperties properties =
+        new ShardingProperties(
+            true, 2, false, List.of(shard(1, true), shard(5_000, true), shard(4_000, true)));
+
+    assertThrows(IllegalStateException.class, () -> new ShardDirectory(properties));
+  }
+
+  private static ShardingProperties properties(boolean first, boolean second, boolean third) {
+    return new ShardingProperties(
+        true,
+        2,
+        false,
+        List.of(shard(1, first), shard(1_000_000, second), shard(2_000_000, third)));
+  }
+
+  private static ShardingProperties.Shard shard(int idStart, boolean acceptsNewUsers) {
+    return new ShardingProperties.Shard(
+        "jdbc:h2:mem:unused", "sa", "", null, idStart, acceptsNewUsers, null);
+  }
+}
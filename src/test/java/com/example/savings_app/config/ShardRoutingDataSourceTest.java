@@ -0,0 +1,128 @@
+package com.example.savings_app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Tests for the routing DataSource and scatter-gather against two in-memory H2 databases standing
+ * in for two MySQL shards.
+ */
+public class ShardRoutingDataSourceTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private ShardScatterGather shardScatterGather;
+
+  /** Setup method to create a Milestone table on each shard and wire the routing DataSource. */
+  @BeforeEach
+  void setUp() {
+    Map<Object, Object> targets = new HashMap<>();
+    for (int shard = 0; shard < 2; shard++) {
+      DataSource dataSource =
+          new DriverManagerDataSource(
+              "jdbc:h2:mem:shard" + shard + ";DB_CLOSE_DELAY=-1", "sa", "");
+      new JdbcTemplate(dataSource)
+          .execute(
+              "create table Milestone (milestone_id int primary key, status varchar(16) not null)");
+      targets.put(shard, dataSource);
+    }
+
+    ShardRoutingDataSource routing = new ShardRoutingDataSource();
+    routing.setTargetDataSources(targets);
+    routing.setDefaultTargetDataSource(targets.get(0));
+    routing.afterPropertiesSet();
+    jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(routing));
+
+    ShardingProperties properties =
+        new ShardingProperties(
+            true,
+            2,
+            false,
+            List.of(shard("jdbc:h2:mem:shard0", 1), shard("jdbc:h2:mem:shard1", 1000)));
+    shardScatterGather = new ShardScatterGather(new ShardDirectory(properties), properties);
+  }
+
+  /** Drops the shard tables and stops the scatter-gather workers after each test. */
+  @AfterEach
+  void tearDown() {
+    for (int shard = 0; shard < 2; shard++) {
+      ShardContext.runOn(shard, () -> jdbcTemplate.execute("drop table Milestone"));
+    }
+    shardScatterGather.shutdown();
+  }
+
+  /** Test that writes land on the shard held in the context and are invisible to the other. */
+  @Test
+  void routing_ShouldIsolateRowsByShard() {
+    ShardContext.runOn(0, () -> insert(1, "active"));
+    ShardContext.runOn(1, () -> insert(1000, "active"));
+
+    assertEquals(List.of(1), ShardContext.callOn(0, this::milestoneIds));
+    assertEquals(List.of(1000), ShardContext.callOn(1, this::milestoneIds));
+    // Without a shard in the context the default shard is used
+    assertEquals(List.of(1), milestoneIds());
+  }
+
+  /** Test that a scatter-gather query combines the matching rows of every shard. */
+  @Test
+  void gather_ShouldCombineResultsFromEveryShard() {
+    ShardContext.runOn(0, () -> insert(1, "active"));
+    ShardContext.runOn(0, () -> insert(2, "completed"));
+    ShardContext.runOn(1, () -> insert(1000, "active"));
+
+    List<Integer> active =
+        shardScatterGather.gather(
+            () ->
+                jdbcTemplate.queryForList(
+                    "select milestone_id from Milestone where status = 'active'",
+                    Integer.class));
+
+    assertEquals(List.of(1, 1000), active);
+    assertEquals(3, shardScatterGather.sum(() -> count()));
+  }
+
+  /** Test that a batch lookup only asks the owning shards, and keeps the requested order. */
+  @Test
+  void findAllByOwner_ShouldQueryOwningShardsInRequestedOrder() {
+    ShardContext.runOn(0, () -> insert(1, "active"));
+    ShardContext.runOn(0, () -> insert(2, "active"));
+    ShardContext.runOn(1, () -> insert(1000, "active"));
+
+    List<Integer> found =
+        shardScatterGather.findAllByOwner(
+            List.of(1000, 2, 5, 1),
+            ids -> {
+              // Every shard must only see the IDs in its own range
+              ids.forEach(id -> assertEquals(id >= 1000 ? 1 : 0, ShardContext.current()));
+              return milestoneIds().stream().filter(ids::contains).toList();
+            },
+            Integer::intValue);
+
+    assertEquals(List.of(1000, 2, 1), found);
+  }
+
+  private static ShardingProperties.Shard shard(String url, int idStart) {
+    return new ShardingProperties.Shard(url, "sa", "", null, idStart, true, null);
+  }
+
+  private void insert(int milestoneId, String status) {
+    jdbcTemplate.update("insert into Milestone values (?, ?)", milestoneId, status);
+  }
+
+  private List<Integer> milestoneIds() {
+    return jdbcTemplate.queryForList("select milestone_id from Milestone", Integer.class);
+  }
+
+  private Long count() {
+    return jdbcTemplate.queryForObject("select count(*) from Milestone", Long.class);
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.savings_app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the ShardScatterGather. */
+public class ShardScatterGatherTest {
+
+  private ShardScatterGather shardScatterGather;
+
+  /** Setup method to fan out over three shards with two workers. */
+  @BeforeEach
+  void setUp() {
+    ShardingProperties properties =
+        new ShardingProperties(
+            true, 2, false, List.of(shard(1), shard(1_000_000), shard(2_000_000)));
+    shardScatterGather = new ShardScatterGather(new ShardDirectory(properties), properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+    shardScatterGather.shutdown();
+  }
+
+  /** Test that each shard's query runs against that shard. */
+  @Test
+  void gather_ShouldRunQueryOnEveryShard() {
+    assertEquals(
+        List.of(0, 1, 2), shardScatterGather.gather(() -> List.of(ShardContext.current())));
+  }
+
+  /**
+   * Test that a caller pinned to the primary keeps the pin on the workers, and that the pin does
+   * not outlive the call on the pooled worker threads.
+   */
+  @Test
+  void gather_ShouldCarryPrimaryPinToWorkers() {
+    ReplicaRoutingDataSource.setPrimaryRequired(true);
+    assertEquals(
+        List.of(true, true, true),
+        shardScatterGather.gather(() -> List.of(ReplicaRoutingDataSource.isPrimaryRequired())));
+
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+    assertEquals(
+        List.of(false, false, false),
+        shardScatterGather.gather(() -> List.of(ReplicaRoutingDataSource.isPrimaryRequired())));
+  }
+
+  /** Test that lookups by ID carry the pin as well. */
+  @Test
+  void findAllByOwner_ShouldCarryPrimaryPinToWorkers() {
+    ReplicaRoutingDataSource.setPrimaryRequired(true);
+
+    List<Integer> found =
+        shardScatterGather.findAllByOwner(
+            List.of(5, 1_000_005),
+            ids -> ReplicaRoutingDataSource.isPrimaryRequired() ? ids : List.of(),
+            id -> id);
+
+    assertEquals(List.of(5, 1_000_005), found);
+  }
+
+  private static ShardingProperties.Shard shard(int idStart) {
+    return new ShardingProperties.Shard(
+        "jdbc:h2:mem:unused", "sa", "", null, idStart, true, null);
+  }
+}
@@ -2,17 +2,28 @@ package com.example.savings_app.controller;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.savings_app.SavingsAppApplication;
+import com.example.savings_app.dto.AccountResponse;
 import com.example.savings_app.model.Account;
+import com.example.savings_app.model.AccountDeletion;
+import com.example.savings_app.model.ProvisioningResult;
+import com.example.savings_app.service.AccountProvisioningService;
 import com.example.savings_app.service.AccountService;
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +43,8 @@ public class AccountControllerTest {
   @MockBean
   private AccountService accountService; // Mocked AccountService to simulate the service layer
 
+  @MockBean private AccountProvisioningService accountProvisioningService;
+
   private Account account; // Sample account to use for tests
 
   /**
@@ -86,8 +99,9 @@ public class AccountControllerTest {
    */
   @Test
   void getAccountByUserId_ShouldReturnAccount_WhenAccountExists() throws Exception {
-    // Mock the accountService to return the sample account when getAccountByUserId is called
-    when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(account));
+    // Mock the accountService to return the sample account when getAccountResponse is called
+    when(accountService.getAccountResponse(1))
+        .thenReturn(Optional.of(AccountResponse.from(account)));
 
     // Perform the GET request to fetch the account by ID and assert the response
     mockMvc
@@ -96,10 +110,12 @@ public class AccountControllerTest {
         .andExpect(jsonPath("$.userId").value(1)) // Expect userId to be 1
         .andExpect(jsonPath("$.firstName").value("John")) // Expect firstName to be "John"
         .andExpect(jsonPath("$.lastName").value("Smith")) // Expect lastName to be "Smith"
-        .andExpect(jsonPath("$.email").value("test@example.com")); // Expect email to match
+        .andExpect(jsonPath("$.email").value("test@example.com")) // Expect email to match
+        .andExpect(jsonPath("$.passwordHash").doesNotExist()) // Expect the hash to stay private
+        .andExpect(jsonPath("$.dob").doesNotExist()); // Expect date of birth to stay private
 
     // Verify that the accountService method was called exactly once
-    verify(accountService, times(1)).getAccountByUserId(1);
+    verify(accountService, times(1)).getAccountResponse(1);
   }
 
   /**
@@ -111,12 +127,113 @@ public class AccountControllerTest {
   @Test
   void getAccountByUserId_ShouldReturn404_WhenAccountDoesNotExist() throws Exception {
     // Mock the accountService to return an empty Optional when the account is not found
-    when(accountService.getAccountByUserId(99)).thenReturn(Optional.empty());
+    when(accountService.getAccountResponse(99)).thenReturn(Optional.empty());
 
     // Perform the GET request and expect a 404 status since the account does not exist
     mockMvc.perform(get("/account/id/99")).andExpect(status().isNotFound());
 
     // Verify that the accountService method was called exactly once
-    verify(accountService, times(1)).getAccountByUserId(99);
+    verify(accountService, times(1)).getAccountResponse(99);
+  }
+
+  /**
+   * Tests bulk account creation. This simulates a POST request to the /account/bulkCreate endpoint
+   * and verifies that one result is returned per submitted row.
+   *
+   * @throws Exception if any error occurs during the test execution
+   */
+  @Test
+  void bulkCreateAccounts_ShouldReturnResultPerRow() throws Exception {
+    // Mock the provisioning service to report one created and one rejected row
+    when(accountProvisioningService.provisionAccounts(anyList()))
+        .thenReturn(
+            List.of(
+                ProvisioningResult.builder()
+                    .row(0)
+                    .status(ProvisioningResult.Status.created)
+                    .parentUserId(10)
+                    .childUserId(11)
+                    .custId(5)
+                    .build(),
+                ProvisioningResult.builder()
+                    .row(1)
+                    .status(ProvisioningResult.Status.rejected)
+                    .message("An account with this email already exists")
+                    .build()));
+
+    // Perform the POST request and assert the per-row results
+    mockMvc
+        .perform(
+            post("/account/bulkCreate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "[{ \"parent\": { \"email\": \"p1@example.com\" } },"
+                        + " { \"parent\": { \"email\": \"p2@example.com\" } }]"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status", is("created")))
+        .andExpect(jsonPath("$[0].custId", is(5)))
+        .andExpect(jsonPath("$[1].status", is("rejected")));
+  }
+
+  /** Test that several accounts are returned from one request, without their password hashes. */
+  @Test
+  void getAccountsByUserIds_ShouldReturnAccountsInOneRequest() throws Exception {
+    Account child = Account.builder().userId(2).firstName("Jane").role(Account.Role.child).build();
+    when(accountService.getAccountResponses(anyCollection()))
+        .thenReturn(List.of(AccountResponse.from(account), AccountResponse.from(child)));
+
+    mockMvc
+        .perform(get("/account/batch").param("ids", "1,2,1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].userId", is(1)))
+        .andExpect(jsonPath("$[1].userId", is(2)))
+        .andExpect(jsonPath("$[0].passwordHash").doesNotExist());
+
+    // Repeated IDs are only looked up once
+    verify(accountService).getAccountResponses(new LinkedHashSet<>(List.of(1, 2)));
+  }
+
+  /** Test that a batch larger than the configured maximum is rejected without a query. */
+  @Test
+  void getAccountsByUserIds_ShouldReturn400_WhenBatchTooLarge() throws Exception {
+    String ids =
+        IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+    mockMvc.perform(get("/account/batch").param("ids", ids)).andExpect(status().isBadRequest());
+
+    verify(accountService, never()).getAccountResponses(anyCollection());
+  }
+
+  /** Test that deleting an account answers 202 Accepted with the pending deletion. */
+  @Test
+  void deleteAccount_ShouldReturn202WithPendingDeletion() throws Exception {
+    when(accountService.deleteAccount(1))
+        .thenReturn(
+            AccountDeletion.builder().userId(1).status(AccountDeletion.Status.pending).build());
+
+    mockMvc
+        .perform(delete("/account/id/1"))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.userId", is(1)))
+        .andExpect(jsonPath("$.status", is("pending")));
+  }
+
+  /** Test that a deletion's progress can be followed, and is 404 for an account never deleted. */
+  @Test
+  void getAccountDeletion_ShouldReturnProgress() throws Exception {
+    when(accountService.getAccountDeletion(1))
+        .thenReturn(
+            Optional.of(
+                AccountDeletion.builder()
+                    .userId(1)
+                    .status(AccountDeletion.Status.pending)
+                    .savingsDeleted(500)
+                    .build()));
+
+    mockMvc
+        .perform(get("/account/id/1/deletion"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.savingsDeleted", is(500)));
+    mockMvc.perform(get("/account/id/2/deletion")).andExpect(status().isNotFound());
   }
 }
@@ -0,0 +1,147 @@
+package com.example.savings_app.controller;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.savings_app.batch.ChunkedJobRunner;
+import com.example.savings_app.batch.JobReport;
+import com.example.savings_app.dto.CacheRegionStats;
+import com.example.savings_app.dto.ReconciliationReport;
+import com.example.savings_app.service.ArchiveService;
+import com.example.savings_app.service.EntityCacheService;
+import com.example.savings_app.service.InterestAccrualService;
+import com.example.savings_app.service.LedgerReconciliationService;
+import com.example.savings_app.service.ReadCoalescingService;
+import com.example.savings_app.util.SingleFlight;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Unit tests for the AdminController class. */
+@WebMvcTest(AdminController.class)
+public class AdminControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private InterestAccrualService interestAccrualService;
+  @MockBean private LedgerReconciliationService ledgerReconciliationService;
+  @MockBean private ArchiveService archiveService;
+  @MockBean private ChunkedJobRunner chunkedJobRunner;
+  @MockBean private EntityCacheService entityCacheService;
+  @MockBean private ReadCoalescingService readCoalescingService;
+
+  private final JobReport report =
+      new JobReport(InterestAccrualService.JOB_NAME, "2024-11-16", 4, 1, 0, 3000, 1500);
+
+  /** Test case for triggering the interest accrual by hand. */
+  @Test
+  public void testRunInterestAccrual_Success() throws Exception {
+    when(interestAccrualService.accrueInterest(LocalDate.parse("2024-11-16"))).thenReturn(report);
+
+    mockMvc
+        .perform(post("/admin/jobs/interest/2024-11-16"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items").value(3000))
+        .andExpect(jsonPath("$.skippedChunks").value(1));
+  }
+
+  /** Test case for an accrual date that cannot be parsed. */
+  @Test
+  public void testRunInterestAccrual_BadDate() throws Exception {
+    mockMvc.perform(post("/admin/jobs/interest/yesterday")).andExpect(status().isBadRequest());
+
+    verifyNoInteractions(interestAccrualService);
+  }
+
+  /** Test case for a reconciliation run that repairs what it finds. */
+  @Test
+  public void testRunLedgerReconciliation_Repair() throws Exception {
+    JobReport job =
+        new JobReport(LedgerReconciliationService.JOB_NAME, "2024-11-16/repair", 1, 0, 0, 50, 20);
+    when(ledgerReconciliationService.reconcile(LocalDate.parse("2024-11-16"), true))
+        .thenReturn(new ReconciliationReport(job, true, 2, 2, new BigDecimal("-5.00"), List.of()));
+
+    mockMvc
+        .perform(post("/admin/jobs/reconciliation/2024-11-16").param("repair", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.mismatches").value(2))
+        .andExpect(jsonPath("$.job.items").value(50));
+  }
+
+  /** Test case for triggering the archive by hand. */
+  @Test
+  public void testRunArchive_Success() throws Exception {
+    when(archiveService.archive(LocalDate.parse("2024-11-16")))
+        .thenReturn(new JobReport(ArchiveService.JOB_NAME, "2024-11-16", 2, 0, 0, 120, 40));
+
+    mockMvc
+        .perform(post("/admin/jobs/archive/2024-11-16"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items").value(120));
+  }
+
+  /** Test case for reading the latest job reports. */
+  @Test
+  public void testGetJobReports_Success() throws Exception {
+    when(chunkedJobRunner.getLastReports())
+        .thenReturn(Map.of(InterestAccrualService.JOB_NAME, report));
+
+    mockMvc
+        .perform(get("/admin/jobs"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$['interest-accrual'].elapsedMs").value(1500));
+  }
+
+  /** Test case for reading the rate limiter's counters. */
+  @Test
+  public void testGetRateLimitStats_Success() throws Exception {
+    mockMvc
+        .perform(get("/admin/rate-limits"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.buckets").value(0))
+        .andExpect(jsonPath("$.displaced").value(0));
+  }
+
+  /** Test case for reading the load of every bulkhead. */
+  @Test
+  public void testGetBulkheadStats_Success() throws Exception {
+    mockMvc
+        .perform(get("/admin/bulkheads"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.admin.maxConcurrent").value(2))
+        .andExpect(jsonPath("$.reads.inFlight").value(0))
+        .andExpect(jsonPath("$.writes.rejected").value(0));
+  }
+
+  /** Test case for reading the hit and miss counts of the second-level cache regions. */
+  @Test
+  public void testGetCacheStats_Success() throws Exception {
+    when(entityCacheService.getRegionStats())
+        .thenReturn(List.of(CacheRegionStats.of("milestone", 90, 10, 10, -1)));
+
+    mockMvc
+        .perform(get("/admin/cache"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].region").value("milestone"))
+        .andExpect(jsonPath("$[0].hitRatio").value(0.9));
+  }
+
+  /** Test case for reading how many reads shared a query already running. */
+  @Test
+  public void testGetCoalescingStats_Success() throws Exception {
+    when(readCoalescingService.getStats()).thenReturn(new SingleFlight.Stats(40, 360, 0, 2));
+
+    mockMvc
+        .perform(get("/admin/coalescing"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.executed").value(40))
+        .andExpect(jsonPath("$.collapsed").value(360));
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.savings_app.controller;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.savings_app.model.BatchOperationResult;
+import com.example.savings_app.service.BatchRequestService;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Unit tests for the BatchController class. */
+@WebMvcTest(BatchController.class)
+public class BatchControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private BatchRequestService batchRequestService;
+
+  private static final String OPERATIONS =
+      "[{\"method\":\"GET\",\"path\":\"/milestone/user/1\"},"
+          + "{\"method\":\"DELETE\",\"path\":\"/savings/delete/4\"}]";
+
+  /** Test case for a batch whose results, and the cookies they set, are returned together. */
+  @Test
+  public void testExecuteBatch_Success() throws Exception {
+    when(batchRequestService.execute(anyList(), any(), any(), anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<String> setCookies = invocation.getArgument(3);
+              setCookies.add("savings-primary-until=123; Path=/");
+              return List.of(
+                  new BatchOperationResult(200, TextNode.valueOf("milestones")),
+                  new BatchOperationResult(404, null));
+            });
+
+    mockMvc
+        .perform(post("/batch").contentType(MediaType.APPLICATION_JSON).content(OPERATIONS))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status").value(200))
+        .andExpect(jsonPath("$[0].body").value("milestones"))
+        .andExpect(jsonPath("$[1].status").value(404))
+        .andExpect(header().string("Set-Cookie", "savings-primary-until=123; Path=/"));
+  }
+
+  /** Test case for a batch the service refuses. */
+  @Test
+  public void testExecuteBatch_Invalid() throws Exception {
+    when(batchRequestService.execute(anyList(), any(), any(), anyList()))
+        .thenThrow(new IllegalArgumentException("Batches cannot be nested."));
+
+    mockMvc
+        .perform(post("/batch").contentType(MediaType.APPLICATION_JSON).content(OPERATIONS))
+        .andExpect(status().isBadRequest());
+  }
+}
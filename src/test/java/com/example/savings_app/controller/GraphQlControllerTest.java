@@ -0,0 +1,208 @@
+package com.example.savings_app.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.config.GraphQlConfig;
+import com.example.savings_app.dto.AccountResponse;
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.exception.GraphQlExceptionResolver;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Customer;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.service.AccountService;
+import com.example.savings_app.service.CustomerService;
+import com.example.savings_app.service.MilestoneService;
+import com.example.savings_app.service.SavingsService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+/** Unit tests for the GraphQlController class. */
+@GraphQlTest(
+    controllers = GraphQlController.class,
+    properties = {"savings.api.max-batch-size=2", "savings.api.max-page-size=2"})
+@Import({GraphQlConfig.class, GraphQlExceptionResolver.class})
+public class GraphQlControllerTest {
+
+  private static final LocalDate DATE = LocalDate.parse("2024-08-01");
+
+  @Autowired private GraphQlTester graphQlTester;
+
+  @MockBean private AccountService accountService;
+  @MockBean private MilestoneService milestoneService;
+  @MockBean private SavingsService savingsService;
+  @MockBean private CustomerService customerService;
+
+  /**
+   * Test case for a nested query over two accounts. Verifies that each level is loaded with one
+   * call for both accounts, and that every account gets its own rows.
+   */
+  @Test
+  public void testNestedFields_AreLoadedOncePerLevel() {
+    when(accountService.getAccountResponses(List.of(1, 2)))
+        .thenReturn(List.of(account(1, Account.Role.child), account(2, Account.Role.child)));
+    when(milestoneService.getMilestoneResponsesForUsers(List.of(1, 2)))
+        .thenReturn(List.of(milestone(10, 1), milestone(11, 1), milestone(20, 2)));
+    when(savingsService.getSavingsResponsesForMilestones(List.of(10, 11, 20), 0, 2))
+        .thenReturn(List.of(savings(100, 1, 10), savings(200, 2, 20)));
+
+    GraphQlTester.Response response =
+        graphQlTester
+            .document(
+                "{ accounts(userIds: [1, 2]) { userId milestones { milestoneId savedAmount"
+                    + " savings { savingsId amount } } } }")
+            .execute();
+
+    response.path("accounts[0].milestones[*].milestoneId").entityList(String.class).contains("10");
+    response.path("accounts[0].milestones[1].savings").entityList(Object.class).hasSize(0);
+    response
+        .path("accounts[0].milestones[0].savings[0].amount")
+        .entity(String.class)
+        .isEqualTo("5.00");
+    response
+        .path("accounts[1].milestones[0].savings[0].savingsId")
+        .entity(String.class)
+        .isEqualTo("200");
+    verify(milestoneService, times(1)).getMilestoneResponsesForUsers(any());
+    verify(savingsService, times(1)).getSavingsResponsesForMilestones(any(), anyInt(), anyInt());
+  }
+
+  /**
+   * Test case for a page of the savings of two accounts. Verifies that the page arguments are
+   * passed on and that both accounts are read with one call.
+   */
+  @Test
+  public void testAccountSavings_AreReadOnePagePerAccount() {
+    when(accountService.getAccountResponses(List.of(1, 2)))
+        .thenReturn(List.of(account(1, Account.Role.child), account(2, Account.Role.child)));
+    when(savingsService.getSavingsResponsesForUsers(List.of(1, 2), 100, 1))
+        .thenReturn(List.of(savings(101, 1, 10), savings(201, 2, 20)));
+
+    GraphQlTester.Response response =
+        graphQlTester
+            .document(
+                "{ accounts(userIds: [1, 2]) { userId savings(first: 1, after: 100)"
+                    + " { savingsId } } }")
+            .execute();
+
+    response
+        .path("accounts[0].savings[*].savingsId")
+        .entityList(String.class)
+        .containsExactly("101");
+    response
+        .path("accounts[1].savings[*].savingsId")
+        .entityList(String.class)
+        .containsExactly("201");
+    verify(savingsService, times(1)).getSavingsResponsesForUsers(any(), anyInt(), anyInt());
+  }
+
+  /** Test case for asking for a larger page of savings than the configured maximum. */
+  @Test
+  public void testMilestoneSavings_PageTooLarge_ReturnsBadRequest() {
+    when(milestoneService.getMilestoneResponses(List.of(10))).thenReturn(List.of(milestone(10, 1)));
+
+    graphQlTester
+        .document("{ milestone(milestoneId: 10) { savings(first: 3) { savingsId } } }")
+        .execute()
+        .errors()
+        .expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST);
+
+    verifyNoInteractions(savingsService);
+  }
+
+  /**
+   * Test case for the children of a parent. Verifies that the links are read for parents only and
+   * that the linked accounts are read in one call.
+   */
+  @Test
+  public void testChildren_AreResolvedThroughCustomerLinks() {
+    when(accountService.getAccountResponses(List.of(1)))
+        .thenReturn(List.of(account(1, Account.Role.parent)));
+    when(customerService.getCustomersForParents(List.of(1)))
+        .thenReturn(
+            List.of(
+                Customer.builder().custId(5).parentId(1).childId(7).build(),
+                Customer.builder().custId(6).parentId(1).childId(8).build()));
+    when(accountService.getAccountResponses(List.of(7, 8)))
+        .thenReturn(List.of(account(7, Account.Role.child)));
+
+    graphQlTester
+        .document("{ account(userId: 1) { userId children { userId role } } }")
+        .execute()
+        .path("account.children[*].userId")
+        .entityList(String.class)
+        .containsExactly("7");
+  }
+
+  /** Test case for a milestone whose owner has been deleted, which resolves to null. */
+  @Test
+  public void testMilestoneOwner_IsNullWhenAccountIsGone() {
+    when(milestoneService.getMilestoneResponses(List.of(10))).thenReturn(List.of(milestone(10, 1)));
+    when(accountService.getAccountResponses(List.of(1))).thenReturn(List.of());
+
+    graphQlTester
+        .document("{ milestone(milestoneId: 10) { milestoneName owner { userId } } }")
+        .execute()
+        .path("milestone.owner")
+        .valueIsNull();
+  }
+
+  /** Test case for asking for more accounts than a batch may hold. */
+  @Test
+  public void testAccounts_TooManyIds_ReturnsBadRequest() {
+    graphQlTester
+        .document("{ accounts(userIds: [1, 2, 3]) { userId } }")
+        .execute()
+        .errors()
+        .expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST);
+
+    verifyNoInteractions(accountService);
+  }
+
+  /** Test case for a query nested deeper than the configured limit, which reads nothing. */
+  @Test
+  public void testDeepQuery_IsRejected() {
+    graphQlTester
+        .document(
+            "{ account(userId: 1) { milestones { owner { milestones { owner { milestones {"
+                + " owner { milestones { owner { milestones { owner { userId"
+                + " } } } } } } } } } } } }")
+        .execute()
+        .errors()
+        .satisfy(errors -> assertFalse(errors.isEmpty()));
+
+    verifyNoInteractions(accountService, milestoneService);
+  }
+
+  private static AccountResponse account(int userId, Account.Role role) {
+    return new AccountResponse(
+        userId, "Sam", "Lee", "sam" + userId + "@example.com", role, null, DATE);
+  }
+
+  private static MilestoneResponse milestone(int milestoneId, int userId) {
+    return new MilestoneResponse(
+        milestoneId,
+        userId,
+        "Bicycle",
+        new BigDecimal("100.00"),
+        new BigDecimal("40.00"),
+        DATE,
+        null,
+        Milestone.Status.active);
+  }
+
+  private static SavingsResponse savings(int savingsId, int userId, int milestoneId) {
+    return new SavingsResponse(savingsId, userId, new BigDecimal("5.00"), DATE, milestoneId);
+  }
+}
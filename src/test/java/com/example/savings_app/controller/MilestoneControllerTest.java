@@ -4,20 +4,27 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.event.MilestoneProgressStream;
+import com.example.savings_app.exception.MilestoneException;
 import com.example.savings_app.model.Account;
 import com.example.savings_app.model.Milestone;
 import com.example.savings_app.service.AccountService;
 import com.example.savings_app.service.MilestoneService;
+import com.example.savings_app.service.UserVersionService;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /** Unit tests for the MilestoneController class */
 @WebMvcTest(MilestoneController.class)
@@ -26,6 +33,8 @@ public class MilestoneControllerTest {
   // Mocked services
   @MockBean private MilestoneService milestoneService;
   @MockBean private AccountService accountService;
+  @MockBean private UserVersionService userVersionService;
+  @MockBean private MilestoneProgressStream milestoneProgressStream;
 
   // Mocked MVC for performing HTTP requests
   @Autowired private MockMvc mockMvc;
@@ -56,13 +65,15 @@ public class MilestoneControllerTest {
             .build();
 
     account = Account.builder().userId(1).firstName("testUser").email("test@example.com").build();
+    milestone.setUser(account);
   }
 
   /** Test case for retrieving a milestone by its ID with a successful response. */
   @Test
   public void testGetMilestoneByMilestoneId_Success() throws Exception {
     // Mock the service method to return a milestone with ID 1
-    when(milestoneService.getMilestoneByMilestoneId(1)).thenReturn(Optional.of(milestone));
+    when(milestoneService.getMilestoneResponse(1))
+        .thenReturn(Optional.of(MilestoneResponse.from(milestone)));
 
     // Perform the GET request to the controller and assert the response
     mockMvc
@@ -72,58 +83,61 @@ public class MilestoneControllerTest {
         .andExpect(jsonPath("$.milestoneName").value("Milestone")) // Assert milestoneName value
         .andExpect(jsonPath("$.targetAmount").value(200.00)) // Assert targetAmount value
         .andExpect(jsonPath("$.savedAmount").value(50.00)) // Assert savedAmount value
-        .andExpect(jsonPath("$.status").value("active")); // Assert status value
+        .andExpect(jsonPath("$.status").value("active")) // Assert status value
+        .andExpect(jsonPath("$.userId").value(1)) // Assert the owner is reduced to its ID
+        .andExpect(jsonPath("$.user").doesNotExist()); // Assert the account is not nested
 
     // Verify that the service method was called exactly once with the correct parameter
-    verify(milestoneService, times(1)).getMilestoneByMilestoneId(1);
+    verify(milestoneService, times(1)).getMilestoneResponse(1);
   }
 
   /** Test case for handling a scenario where the milestone ID is not found in the database. */
   @Test
   public void testGetMilestoneByMilestoneId_NotFound() throws Exception {
     // Mock the service to return an empty Optional, simulating not found
-    when(milestoneService.getMilestoneByMilestoneId(2)).thenReturn(Optional.empty());
+    when(milestoneService.getMilestoneResponse(2)).thenReturn(Optional.empty());
 
     // Perform the GET request for a non-existent milestone and assert the Not Found response
     mockMvc.perform(get("/milestone/2")).andExpect(status().isNotFound());
 
     // Verify that the service method was called exactly once
-    verify(milestoneService, times(1)).getMilestoneByMilestoneId(2);
+    verify(milestoneService, times(1)).getMilestoneResponse(2);
   }
 
   /** Test case for handling a bad request when an invalid milestone ID is passed. */
   @Test
   public void testGetMilestoneByMilestoneId_BadRequest() throws Exception {
     // Simulate the case when the service throws an IllegalArgumentException for invalid milestoneId
-    when(milestoneService.getMilestoneByMilestoneId(-1))
+    when(milestoneService.getMilestoneResponse(-1))
         .thenThrow(new IllegalArgumentException("Invalid Milestone milestoneId: -1"));
 
     // Perform the GET request for an invalid ID and expect a Bad Request response
     mockMvc.perform(get("/milestone/-1")).andExpect(status().isBadRequest());
 
     // Verify that the service method was called with the invalid ID
-    verify(milestoneService, times(1)).getMilestoneByMilestoneId(-1);
+    verify(milestoneService, times(1)).getMilestoneResponse(-1);
   }
 
   /** Test case for handling an internal server error scenario. */
   @Test
   public void testGetMilestoneByMilestoneId_InternalServerError() throws Exception {
     // Simulate the case when the service throws a RuntimeException
-    when(milestoneService.getMilestoneByMilestoneId(1))
+    when(milestoneService.getMilestoneResponse(1))
         .thenThrow(new RuntimeException("Failed to retrieve Milestone"));
 
     // Perform the GET request and expect an Internal Server Error response
     mockMvc.perform(get("/milestone/1")).andExpect(status().isInternalServerError());
 
     // Verify that the service method was called with the correct parameter
-    verify(milestoneService, times(1)).getMilestoneByMilestoneId(1);
+    verify(milestoneService, times(1)).getMilestoneResponse(1);
   }
 
   /** Test case for retrieving a milestone by name with a successful response. */
   @Test
   public void testFindByName_Success() throws Exception {
     // Mock the service to return a milestone with the given name
-    when(milestoneService.getMilestoneByName("Milestone")).thenReturn(Optional.of(milestone));
+    when(milestoneService.getMilestoneResponseByName("Milestone"))
+        .thenReturn(Optional.of(MilestoneResponse.from(milestone)));
 
     // Perform the GET request and assert the response
     mockMvc
@@ -133,20 +147,78 @@ public class MilestoneControllerTest {
         .andExpect(jsonPath("$.milestoneName").value("Milestone"));
 
     // Verify that the service method was called with the correct name
-    verify(milestoneService, times(1)).getMilestoneByName("Milestone");
+    verify(milestoneService, times(1)).getMilestoneResponseByName("Milestone");
   }
 
   /** Test case for handling a not found scenario when searching for a milestone by name. */
   @Test
   public void testFindByName_NotFound() throws Exception {
     // Mock the service to return an empty Optional for a non-existent milestone
-    when(milestoneService.getMilestoneByName("Nonexistent Milestone")).thenReturn(Optional.empty());
+    when(milestoneService.getMilestoneResponseByName("Nonexistent Milestone"))
+        .thenReturn(Optional.empty());
 
     // Perform the GET request and expect a Not Found response
     mockMvc.perform(get("/milestone/name/Nonexistent Milestone")).andExpect(status().isNotFound());
 
     // Verify that the service method was called with the correct name
-    verify(milestoneService, times(1)).getMilestoneByName("Nonexistent Milestone");
+    verify(milestoneService, times(1)).getMilestoneResponseByName("Nonexistent Milestone");
+  }
+
+  /** Test case for fetching several milestones in one request, in the order asked for. */
+  @Test
+  public void testGetMilestonesByIds_Success() throws Exception {
+    Milestone second = Milestone.builder().milestoneId(2).milestoneName("Second").build();
+    when(milestoneService.getMilestoneResponses(anyCollection()))
+        .thenReturn(List.of(MilestoneResponse.from(second), MilestoneResponse.from(milestone)));
+
+    mockMvc
+        .perform(get("/milestone/batch").param("ids", "2,1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].milestoneId").value(2))
+        .andExpect(jsonPath("$[1].milestoneId").value(1));
+  }
+
+  /** Test case for a user's milestone list, which must carry the user's current ETag. */
+  @Test
+  public void testGetAllMilestonesForUser_ReturnsETag() throws Exception {
+    when(userVersionService.getETag(1, "")).thenReturn("W/\"1-7\"");
+    when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(account));
+    when(milestoneService.getMilestoneResponsesForUser(1))
+        .thenReturn(List.of(MilestoneResponse.from(milestone)));
+
+    mockMvc
+        .perform(get("/milestone/user/1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "W/\"1-7\""))
+        .andExpect(jsonPath("$[0].milestoneId").value(1));
+  }
+
+  /** Test case for a client asking for CBOR, which gets CBOR and an ETag of its own. */
+  @Test
+  public void testGetAllMilestonesForUser_Cbor() throws Exception {
+    when(userVersionService.getETag(1, "-cbor")).thenReturn("W/\"1-7-cbor\"");
+    when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(account));
+    when(milestoneService.getMilestoneResponsesForUser(1))
+        .thenReturn(List.of(MilestoneResponse.from(milestone)));
+
+    mockMvc
+        .perform(get("/milestone/user/1").header("Accept", "application/cbor"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/cbor"))
+        .andExpect(header().string("ETag", "W/\"1-7-cbor\""));
+  }
+
+  /** Test case for a poll whose ETag still matches, which must not run the list query. */
+  @Test
+  public void testGetAllMilestonesForUser_NotModified() throws Exception {
+    when(userVersionService.getETag(1, "")).thenReturn("W/\"1-7\"");
+
+    mockMvc
+        .perform(get("/milestone/user/1").header("If-None-Match", "W/\"1-7\""))
+        .andExpect(status().isNotModified());
+
+    verify(accountService, never()).getAccountByUserId(anyInt());
+    verify(milestoneService, never()).getMilestoneResponsesForUser(anyInt());
   }
 
   // Additional test cases would continue here with similar patterns of mocking service calls,
@@ -154,4 +226,71 @@ public class MilestoneControllerTest {
 
   // For example, testing for different status codes (BadRequest, NotFound, etc.),
   // testing CRUD operations, and testing with different milestone attributes.
+
+  /** Test case for resuming a milestone stream from the last event the client received. */
+  @Test
+  public void testStreamMilestonesForUser_Resume() throws Exception {
+    when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(account));
+    when(milestoneProgressStream.subscribe(1, "0-42")).thenReturn(new SseEmitter());
+
+    mockMvc
+        .perform(get("/milestone/user/1/stream").header("Last-Event-ID", "0-42"))
+        .andExpect(status().isOk())
+        .andExpect(request().asyncStarted());
+
+    verify(milestoneProgressStream).subscribe(1, "0-42");
+  }
+
+  /** Test case for a user who already has the most streams allowed open. */
+  @Test
+  public void testStreamMilestonesForUser_TooManyStreams() throws Exception {
+    when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(account));
+    when(milestoneProgressStream.subscribe(1, null))
+        .thenThrow(new IllegalStateException("Too many open streams for user 1"));
+
+    mockMvc.perform(get("/milestone/user/1/stream")).andExpect(status().isTooManyRequests());
+  }
+
+  /** Test case for a deposit rejected by the service, answered through the exception handler. */
+  @Test
+  public void testUpdateSavedAmount_ExceedsTarget() throws Exception {
+    when(milestoneService.updateSavedAmountAndCheckCompletion(eq(1), any()))
+        .thenThrow(MilestoneException.AMOUNT_EXCEEDS_TARGET);
+
+    mockMvc
+        .perform(
+            patch("/milestone/1/updateSavedAmount")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"addedAmount\": \"500\"}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("The added amount exceeds the target amount."));
+  }
+
+  /** Test case for a deposit to a milestone that does not exist. */
+  @Test
+  public void testUpdateSavedAmount_NotFound() throws Exception {
+    when(milestoneService.updateSavedAmountAndCheckCompletion(eq(9), any()))
+        .thenThrow(
+            new MilestoneException.MilestoneNotFoundException("Milestone not found for id: 9"));
+
+    mockMvc
+        .perform(
+            patch("/milestone/9/updateSavedAmount")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"addedAmount\": \"5\"}"))
+        .andExpect(status().isNotFound());
+  }
+
+  /** Test case for an amount that is not a number, which is invalid input rather than an error. */
+  @Test
+  public void testUpdateSavedAmount_MalformedAmount() throws Exception {
+    mockMvc
+        .perform(
+            patch("/milestone/1/updateSavedAmount")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"addedAmount\": \"ten\"}"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(milestoneService);
+  }
 }
@@ -0,0 +1,99 @@
+package com.example.savings_app.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.savings_app.dto.RecurringDepositResponse;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.RecurringDeposit;
+import com.example.savings_app.service.RecurringDepositService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Unit tests for the RecurringDepositController class. */
+@WebMvcTest(RecurringDepositController.class)
+public class RecurringDepositControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private RecurringDepositService recurringDepositService;
+
+  private RecurringDeposit schedule;
+
+  /** Setup method to initialize a sample schedule before each test. */
+  @BeforeEach
+  public void setUp() {
+    schedule =
+        RecurringDeposit.builder()
+            .scheduleId(1)
+            .user(Account.builder().userId(2).build())
+            .milestoneId(3)
+            .amount(BigDecimal.valueOf(5.00))
+            .frequency(RecurringDeposit.Frequency.weekly)
+            .nextRunDate(LocalDate.parse("2024-11-16"))
+            .status(RecurringDeposit.Status.active)
+            .build();
+  }
+
+  /** Test case for successful creation of a schedule. */
+  @Test
+  public void testCreateSchedule_Success() throws Exception {
+    when(recurringDepositService.createSchedule(any(RecurringDeposit.class))).thenReturn(schedule);
+
+    mockMvc
+        .perform(
+            post("/recurring/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "{\"user\":{\"userId\":2},\"milestoneId\":3,\"amount\":5.00,"
+                        + "\"frequency\":\"weekly\"}"))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.scheduleId").value(1));
+  }
+
+  /** Test case for a schedule rejected by validation. */
+  @Test
+  public void testCreateSchedule_BadRequest() throws Exception {
+    when(recurringDepositService.createSchedule(any(RecurringDeposit.class)))
+        .thenThrow(new IllegalArgumentException("Amount must be greater than zero."));
+
+    mockMvc
+        .perform(
+            post("/recurring/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"user\":{\"userId\":2},\"milestoneId\":3,\"amount\":0}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("Amount must be greater than zero."));
+  }
+
+  /** Test case for listing a user's schedules. */
+  @Test
+  public void testGetSchedulesForUser_Success() throws Exception {
+    when(recurringDepositService.getSchedulesForUser(2))
+        .thenReturn(List.of(RecurringDepositResponse.from(schedule)));
+
+    mockMvc
+        .perform(get("/recurring/user/2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].frequency").value("weekly"));
+  }
+
+  /** Test case for cancelling a schedule that does not exist. */
+  @Test
+  public void testCancelSchedule_NotFound() throws Exception {
+    when(recurringDepositService.cancelSchedule(9))
+        .thenThrow(new IllegalArgumentException("Schedule not found for ID: 9"));
+
+    mockMvc.perform(delete("/recurring/9")).andExpect(status().isNotFound());
+  }
+}
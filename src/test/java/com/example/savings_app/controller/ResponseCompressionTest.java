@@ -0,0 +1,122 @@
+package com.example.savings_app.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.event.MilestoneProgressStream;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.repository.UserVersionRepository;
+import com.example.savings_app.service.AccountService;
+import com.example.savings_app.service.MilestoneService;
+import com.example.savings_app.service.UserVersionService;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Checks that the per-user lists are gzipped by the real Tomcat connector, which skips compression
+ * for responses with a strong ETag. MockMvc does not compress, so this test starts a server.
+ */
+@SpringBootTest(
+    classes = ResponseCompressionTest.WebOnly.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "server.compression.enabled=true",
+      "server.compression.min-response-size=1KB",
+      "server.compression.mime-types=application/json"
+    })
+public class ResponseCompressionTest {
+
+  /**
+   * The web layer and the milestone controller, without the database. It is not a {@code
+   * SpringBootConfiguration}, which the web slice tests in this package would pick up as theirs.
+   */
+  @Configuration(proxyBeanMethods = false)
+  @ImportAutoConfiguration({
+    ServletWebServerFactoryAutoConfiguration.class,
+    DispatcherServletAutoConfiguration.class,
+    WebMvcAutoConfiguration.class,
+    HttpMessageConvertersAutoConfiguration.class,
+    JacksonAutoConfiguration.class
+  })
+  @Import(MilestoneController.class)
+  static class WebOnly {
+
+    @Bean
+    UserVersionRepository userVersionRepository() {
+      UserVersionRepository repository = mock(UserVersionRepository.class);
+      when(repository.findVersion(1)).thenReturn(7L);
+      return repository;
+    }
+
+    // The real service, so the response carries the ETag the application really sends
+    @Bean
+    UserVersionService userVersionService(UserVersionRepository userVersionRepository) {
+      return new UserVersionService(userVersionRepository);
+    }
+  }
+
+  @LocalServerPort private int port;
+
+  @MockBean private MilestoneService milestoneService;
+  @MockBean private AccountService accountService;
+  @MockBean private MilestoneProgressStream milestoneProgressStream;
+
+  /** Test that a large milestone list is gzipped and still carries its ETag. */
+  @Test
+  public void testLargeMilestoneList_IsGzipped() throws Exception {
+    when(accountService.getAccountByUserId(1))
+        .thenReturn(Optional.of(Account.builder().userId(1).build()));
+    List<MilestoneResponse> milestones =
+        IntStream.rangeClosed(1, 200)
+            .mapToObj(
+                id ->
+                    new MilestoneResponse(
+                        id,
+                        1,
+                        "Milestone " + id,
+                        new BigDecimal("200.00"),
+                        new BigDecimal("50.00"),
+                        LocalDate.parse("2024-11-01"),
+                        null,
+                        Milestone.Status.active))
+            .toList();
+    when(milestoneService.getMilestoneResponsesForUser(1)).thenReturn(milestones);
+
+    // HttpClient does not decompress, so the raw Content-Encoding is visible
+    HttpResponse<byte[]> response =
+        HttpClient.newHttpClient()
+            .send(
+                HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/milestone/user/1"))
+                    .header("Accept", "application/json")
+                    .header("Accept-Encoding", "gzip")
+                    .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+    assertEquals(200, response.statusCode());
+    assertEquals(Optional.of("gzip"), response.headers().firstValue("Content-Encoding"));
+    assertEquals(Optional.of("W/\"1-7\""), response.headers().firstValue("ETag"));
+  }
+}
@@ -4,14 +4,18 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.example.savings_app.dto.SavingsResponse;
 import com.example.savings_app.model.Account;
 import com.example.savings_app.model.Savings;
 import com.example.savings_app.service.AccountService;
 import com.example.savings_app.service.SavingsService;
+import com.example.savings_app.service.UserVersionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +34,7 @@ public class SavingsControllerTest {
   // Mock services for savings and account operations
   @MockBean private SavingsService savingsService;
   @MockBean private AccountService accountService;
+  @MockBean private UserVersionService userVersionService;
 
   private Savings savings;
   private Account account;
@@ -51,13 +56,17 @@ public class SavingsControllerTest {
 
     // Initialize an account object with sample data
     account = Account.builder().userId(1).firstName("testUser").email("test@example.com").build();
+
+    // Every user starts at version 3 unless a test says otherwise
+    when(userVersionService.getETag(anyInt(), anyString())).thenReturn("\"1-3\"");
   }
 
   /** Test case for successful retrieval of savings by ID. */
   @Test
   public void testGetSavingsById_Success() throws Exception {
     // Mock the service to return a savings object when the savings ID is 1
-    when(savingsService.getSavingsById(1)).thenReturn(Optional.of(savings));
+    when(savingsService.getSavingsResponse(1))
+        .thenReturn(Optional.of(SavingsResponse.from(savings)));
 
     // Perform the GET request and validate the response
     mockMvc
@@ -67,14 +76,14 @@ public class SavingsControllerTest {
         .andExpect(jsonPath("$.amount").value(100.00));
 
     // Verify the service method was called once
-    verify(savingsService, times(1)).getSavingsById(1);
+    verify(savingsService, times(1)).getSavingsResponse(1);
   }
 
   /** Test case for when savings by ID are not found. */
   @Test
   public void testGetSavingsById_NotFound() throws Exception {
     // Mock the service to return empty when the savings ID is 1
-    when(savingsService.getSavingsById(1)).thenReturn(Optional.empty());
+    when(savingsService.getSavingsResponse(1)).thenReturn(Optional.empty());
 
     // Perform the GET request and expect 404 Not Found
     mockMvc
@@ -82,14 +91,15 @@ public class SavingsControllerTest {
         .andExpect(status().isNotFound());
 
     // Verify the service method was called once
-    verify(savingsService, times(1)).getSavingsById(1);
+    verify(savingsService, times(1)).getSavingsResponse(1);
   }
 
   /** Test case for bad request when an invalid savings ID is provided. */
   @Test
   public void testGetSavingsById_BadRequest() throws Exception {
     // Mock the service to throw an exception for an invalid savings ID
-    when(savingsService.getSavingsById(-1)).thenThrow(new IllegalArgumentException("Invalid ID"));
+    when(savingsService.getSavingsResponse(-1))
+        .thenThrow(new IllegalArgumentException("Invalid ID"));
 
     // Perform the GET request and expect 400 Bad Request
     mockMvc
@@ -97,7 +107,7 @@ public class SavingsControllerTest {
         .andExpect(status().isBadRequest());
 
     // Verify the service method was called once
-    verify(savingsService, times(1)).getSavingsById(-1);
+    verify(savingsService, times(1)).getSavingsResponse(-1);
   }
 
   /** Test case for successful retrieval of savings by date. */
@@ -106,7 +116,8 @@ public class SavingsControllerTest {
     LocalDate FormatDate = LocalDate.parse("2024-11-01");
 
     // Mock the service to return a list of savings when queried by date
-    when(savingsService.getSavingsByDate(FormatDate)).thenReturn(Arrays.asList(savings));
+    when(savingsService.getSavingsResponsesByDate(FormatDate))
+        .thenReturn(Arrays.asList(SavingsResponse.from(savings)));
 
     // Perform the GET request using the date as a path variable
     String dateString = FormatDate.toString();
@@ -117,7 +128,7 @@ public class SavingsControllerTest {
         .andExpect(jsonPath("$[0].amount").value(100.00));
 
     // Verify the service method was called once with the correct date
-    verify(savingsService, times(1)).getSavingsByDate(FormatDate);
+    verify(savingsService, times(1)).getSavingsResponsesByDate(FormatDate);
   }
 
   /** Test case for when no savings are found for the given date. */
@@ -126,7 +137,7 @@ public class SavingsControllerTest {
     LocalDate startDate = LocalDate.parse("2024-11-01");
 
     // Mock the service to return an empty list for the given date
-    when(savingsService.getSavingsByDate(startDate)).thenReturn(Arrays.asList());
+    when(savingsService.getSavingsResponsesByDate(startDate)).thenReturn(Arrays.asList());
 
     // Perform the GET request and expect 404 Not Found
     String dateString = startDate.toString();
@@ -135,14 +146,15 @@ public class SavingsControllerTest {
         .andExpect(status().isNotFound());
 
     // Verify the service method was called once with the correct date
-    verify(savingsService, times(1)).getSavingsByDate(startDate);
+    verify(savingsService, times(1)).getSavingsResponsesByDate(startDate);
   }
 
   /** Test case for successful retrieval of savings by milestone ID. */
   @Test
   public void testGetSavingsByMilestoneId_Success() throws Exception {
     // Mock the service to return a savings object when the milestone ID is 1
-    when(savingsService.getSavingsByMilestoneId(1)).thenReturn(Optional.of(savings));
+    when(savingsService.getSavingsResponseByMilestoneId(1))
+        .thenReturn(Optional.of(SavingsResponse.from(savings)));
 
     // Perform the GET request and validate the response
     mockMvc
@@ -152,14 +164,14 @@ public class SavingsControllerTest {
         .andExpect(jsonPath("$.amount").value(100.00));
 
     // Verify the service method was called once
-    verify(savingsService, times(1)).getSavingsByMilestoneId(1);
+    verify(savingsService, times(1)).getSavingsResponseByMilestoneId(1);
   }
 
   /** Test case for when no savings are found for the given milestone ID. */
   @Test
   public void testGetSavingsByMilestoneId_NotFound() throws Exception {
     // Mock the service to return empty when the milestone ID is 1
-    when(savingsService.getSavingsByMilestoneId(1)).thenReturn(Optional.empty());
+    when(savingsService.getSavingsResponseByMilestoneId(1)).thenReturn(Optional.empty());
 
     // Perform the GET request and expect 404 Not Found
     mockMvc
@@ -167,14 +179,14 @@ public class SavingsControllerTest {
         .andExpect(status().isNotFound());
 
     // Verify the service method was called once
-    verify(savingsService, times(1)).getSavingsByMilestoneId(1);
+    verify(savingsService, times(1)).getSavingsResponseByMilestoneId(1);
   }
 
   /** Test case for bad request when an invalid milestone ID is provided. */
   @Test
   public void testGetSavingsByMilestoneId_BadRequest() throws Exception {
     // Mock the service to throw an exception for an invalid milestone ID
-    when(savingsService.getSavingsByMilestoneId(-1))
+    when(savingsService.getSavingsResponseByMilestoneId(-1))
         .thenThrow(new IllegalArgumentException("Invalid Milestone ID"));
 
     // Perform the GET request and expect 400 Bad Request
@@ -183,7 +195,41 @@ public class SavingsControllerTest {
         .andExpect(status().isBadRequest());
 
     // Verify the service method was called once
-    verify(savingsService, times(1)).getSavingsByMilestoneId(-1);
+    verify(savingsService, times(1)).getSavingsResponseByMilestoneId(-1);
+  }
+
+  /** Test case for reading a page of a milestone's savings. */
+  @Test
+  public void testGetSavingsLedger_Success() throws Exception {
+    when(savingsService.getSavingsResponsesForMilestone(1, 5, 10))
+        .thenReturn(List.of(SavingsResponse.from(savings)));
+
+    mockMvc
+        .perform(get("/savings/milestone/1/ledger").param("afterId", "5").param("limit", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].savingsId").value(1));
+  }
+
+  /** Test case for a page size larger than the configured maximum. */
+  @Test
+  public void testGetSavingsLedger_BadRequest() throws Exception {
+    mockMvc
+        .perform(get("/savings/milestone/1/ledger").param("limit", "1000"))
+        .andExpect(status().isBadRequest());
+
+    verify(savingsService, never()).getSavingsResponsesForMilestone(anyInt(), anyInt(), anyInt());
+  }
+
+  /** Test case for reading the total of a milestone's savings. */
+  @Test
+  public void testGetSavingsTotal_Success() throws Exception {
+    when(savingsService.getLedgerTotal(1)).thenReturn(new BigDecimal("125.50"));
+
+    mockMvc
+        .perform(get("/savings/milestone/1/total"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.milestoneId").value(1))
+        .andExpect(jsonPath("$.total").value(125.50));
   }
 
   /** Test case for successful deletion of savings. */
@@ -216,18 +262,49 @@ public class SavingsControllerTest {
   public void testGetAllSavingsForUser_Success() throws Exception {
     // Mock the service to return an account and savings for the user with ID 1
     when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(account));
-    when(savingsService.getAllSavingsForUser(account)).thenReturn(Arrays.asList(savings));
+    when(savingsService.getSavingsResponsesForUser(1))
+        .thenReturn(Arrays.asList(SavingsResponse.from(savings)));
 
     // Perform the GET request and validate the response
     mockMvc
         .perform(get("/savings/user/1").contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$[0].savingsId").value(1))
-        .andExpect(jsonPath("$[0].amount").value(100.00));
+        .andExpect(jsonPath("$[0].amount").value(100.00))
+        .andExpect(header().string("ETag", "\"1-3\""));
 
     // Verify the service methods were called with the correct parameters
     verify(accountService, times(1)).getAccountByUserId(1);
-    verify(savingsService, times(1)).getAllSavingsForUser(account);
+    verify(savingsService, times(1)).getSavingsResponsesForUser(1);
+  }
+
+  /** Test case for a poll whose ETag still matches, which must not read the savings. */
+  @Test
+  public void testGetAllSavingsForUser_NotModified() throws Exception {
+    // Perform the GET request with the current ETag and expect 304 Not Modified
+    mockMvc
+        .perform(get("/savings/user/1").header("If-None-Match", "\"1-3\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"1-3\""));
+
+    // Verify neither the account nor the savings were looked up
+    verify(accountService, never()).getAccountByUserId(anyInt());
+    verify(savingsService, never()).getSavingsResponsesForUser(anyInt());
+  }
+
+  /** Test case for a poll whose ETag is out of date, which gets the full list again. */
+  @Test
+  public void testGetAllSavingsForUser_Modified() throws Exception {
+    when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(account));
+    when(savingsService.getSavingsResponsesForUser(1))
+        .thenReturn(Arrays.asList(SavingsResponse.from(savings)));
+
+    // Perform the GET request with an older ETag and expect the list with the new ETag
+    mockMvc
+        .perform(get("/savings/user/1").header("If-None-Match", "\"1-2\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1-3\""))
+        .andExpect(jsonPath("$[0].savingsId").value(1));
   }
 
   /** Test case for when no savings are found for the user. */
@@ -235,7 +312,7 @@ public class SavingsControllerTest {
   public void testGetAllSavingsForUser_NotFound() throws Exception {
     // Mock the service to return an empty list when no savings are found for the user
     when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(account));
-    when(savingsService.getAllSavingsForUser(account)).thenReturn(Arrays.asList());
+    when(savingsService.getSavingsResponsesForUser(1)).thenReturn(Arrays.asList());
 
     // Perform the GET request and expect 204 No Content
     mockMvc
@@ -244,7 +321,7 @@ public class SavingsControllerTest {
 
     // Verify the service methods were called with the correct parameters
     verify(accountService, times(1)).getAccountByUserId(1);
-    verify(savingsService, times(1)).getAllSavingsForUser(account);
+    verify(savingsService, times(1)).getSavingsResponsesForUser(1);
   }
 
   /** Test case for bad request when no account is found for the user. */
@@ -260,7 +337,31 @@ public class SavingsControllerTest {
 
     // Verify the account service was called once and savings service was never called
     verify(accountService, times(1)).getAccountByUserId(1);
-    verify(savingsService, never()).getAllSavingsForUser(any());
+    verify(savingsService, never()).getSavingsResponsesForUser(anyInt());
+  }
+
+  /** Test case for fetching several savings records in one request. */
+  @Test
+  public void testGetSavingsByIds_Success() throws Exception {
+    when(savingsService.getSavingsResponses(anyCollection()))
+        .thenReturn(Arrays.asList(SavingsResponse.from(savings)));
+
+    // Perform the GET request with two IDs, one of which does not exist
+    mockMvc
+        .perform(get("/savings/batch").param("ids", "1,9"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].savingsId").value(1));
+
+    verify(savingsService, times(1)).getSavingsResponses(new LinkedHashSet<>(Arrays.asList(1, 9)));
+  }
+
+  /** Test case for a batch request without any IDs. */
+  @Test
+  public void testGetSavingsByIds_BadRequest() throws Exception {
+    mockMvc.perform(get("/savings/batch").param("ids", "")).andExpect(status().isBadRequest());
+
+    verify(savingsService, never()).getSavingsResponses(anyCollection());
   }
 
   /** Test case for successful creation of new savings. */
@@ -0,0 +1,70 @@
+package com.example.savings_app.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.savings_app.dto.SyncResponse;
+import com.example.savings_app.service.SyncService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Unit tests for the SyncController class. */
+@WebMvcTest(SyncController.class)
+public class SyncControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private SyncService syncService;
+
+  /** Test case for syncing the changes since a cursor. */
+  @Test
+  public void testGetChanges_Success() throws Exception {
+    when(syncService.getChanges(7, 10L, 200))
+        .thenReturn(
+            new SyncResponse(
+                12,
+                false,
+                false,
+                List.of(),
+                List.of(),
+                List.of(),
+                List.of(),
+                List.of(3),
+                List.of()));
+
+    mockMvc
+        .perform(get("/sync/7").param("cursor", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.cursor").value(12))
+        .andExpect(jsonPath("$.resyncRequired").value(false))
+        .andExpect(jsonPath("$.deletedMilestoneIds[0]").value(3));
+  }
+
+  /** Test case for a first sync, which has no cursor yet. */
+  @Test
+  public void testGetChanges_WithoutCursor_RequiresResync() throws Exception {
+    when(syncService.getChanges(7, null, 200)).thenReturn(SyncResponse.resync(12));
+
+    mockMvc
+        .perform(get("/sync/7"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.resyncRequired").value(true))
+        .andExpect(jsonPath("$.cursor").value(12));
+  }
+
+  /** Test case for a page size above the configured maximum. */
+  @Test
+  public void testGetChanges_LimitTooLarge_ReturnsBadRequest() throws Exception {
+    mockMvc.perform(get("/sync/7").param("limit", "100000")).andExpect(status().isBadRequest());
+
+    verify(syncService, never()).getChanges(anyInt(), any(), anyInt());
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.savings_app.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.savings_app.config.ShardContext;
+import com.example.savings_app.model.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the MilestoneProgressStream. */
+public class MilestoneProgressStreamTest {
+
+  private MilestoneProgressStream stream;
+
+  /** Setup method to create a stream whose ring holds three events. */
+  @BeforeEach
+  void setUp() {
+    stream = new MilestoneProgressStream(new ObjectMapper(), 3, 60_000, 2);
+  }
+
+  /** Test that a reconnecting client is given only its own events after its last event ID. */
+  @Test
+  void missedSince_ShouldReturnUsersLaterEventsInOrder() throws Exception {
+    stream.handle(event(1, OutboxEvent.EventType.milestone_progress, 1));
+    stream.handle(event(2, OutboxEvent.EventType.milestone_progress, 2));
+    stream.handle(event(3, OutboxEvent.EventType.milestone_completed, 1));
+
+    List<MilestoneProgressStream.StreamEvent> missed = stream.missedSince(1, "0-1");
+
+    assertEquals(1, missed.size());
+    assertEquals("0-3", missed.get(0).eventId());
+    // A completion event always reports the completed status
+    assertTrue(missed.get(0).data().contains("\"status\":\"completed\""));
+  }
+
+  /** Test that a client is asked to reload once events after its last ID have been evicted. */
+  @Test
+  void missedSince_ShouldRequestResync_WhenEventsWereEvicted() throws Exception {
+    for (long id = 1; id <= 4; id++) {
+      stream.handle(event(id, OutboxEvent.EventType.milestone_progress, 1));
+    }
+
+    assertNull(stream.missedSince(1, "0-0"));
+    assertEquals(3, stream.missedSince(1, "0-1").size());
+  }
+
+  /**
+   * Test that outbox IDs are compared within their own shard only, since every shard numbers its
+   * outbox rows from its own sequence.
+   */
+  @Test
+  void missedSince_ShouldCompareIdsWithinTheirShard() throws Exception {
+    ShardContext.set(1);
+    try {
+      stream.handle(event(500, OutboxEvent.EventType.milestone_progress, 2));
+      stream.handle(event(501, OutboxEvent.EventType.milestone_progress, 2));
+      stream.handle(event(502, OutboxEvent.EventType.milestone_progress, 2));
+      ShardContext.set(0);
+      stream.handle(event(7, OutboxEvent.EventType.milestone_progress, 1));
+      stream.handle(event(8, OutboxEvent.EventType.milestone_progress, 1));
+    } finally {
+      ShardContext.clear();
+    }
+
+    // Evicting shard 1's events says nothing about shard 0's lower IDs
+    assertEquals(List.of("0-8"), eventIds(stream.missedSince(1, "0-7")));
+    assertNull(stream.missedSince(2, "1-500"));
+    assertEquals(List.of(), eventIds(stream.missedSince(2, "1-502")));
+    // An ID from another shard, or one this stream never sent, cannot be placed
+    assertNull(stream.missedSince(1, "1-600"));
+    assertNull(stream.missedSince(1, "42"));
+  }
+
+  /** Test that a user cannot open more streams than allowed. */
+  @Test
+  void subscribe_ShouldLimitStreamsPerUser() {
+    stream.subscribe(1, null);
+    stream.subscribe(1, null);
+
+    assertThrows(IllegalStateException.class, () -> stream.subscribe(1, null));
+    assertEquals(2, stream.getConnectionCount());
+    stream.subscribe(2, null);
+    assertEquals(3, stream.getConnectionCount());
+  }
+
+  private static List<String> eventIds(List<MilestoneProgressStream.StreamEvent> events) {
+    return events.stream().map(MilestoneProgressStream.StreamEvent::eventId).toList();
+  }
+
+  private static OutboxEvent event(long eventId, OutboxEvent.EventType type, int userId) {
+    return OutboxEvent.builder()
+        .eventId(eventId)
+        .eventType(type)
+        .userId(userId)
+        .aggregateId(10)
+        .payload("{\"milestoneId\":10,\"savedAmount\":50,\"status\":\"active\"}")
+        .build();
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.savings_app.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.repository.OutboxEventRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the OutboxDispatcher class. */
+public class OutboxDispatcherTest {
+
+  private OutboxEventRepository outboxEventRepository;
+  private OutboxDispatcher outboxDispatcher;
+  private final List<Long> handled = Collections.synchronizedList(new ArrayList<>());
+
+  /** Set up a dispatcher with one handler that fails for event 2 and records the rest. */
+  @BeforeEach
+  public void setUp() {
+    outboxEventRepository = mock(OutboxEventRepository.class);
+    DomainEventHandler handler =
+        new DomainEventHandler() {
+          @Override
+          public boolean supports(OutboxEvent.EventType eventType) {
+            return true;
+          }
+
+          @Override
+          public void handle(OutboxEvent event) {
+            if (event.getEventId() == 2L) {
+              throw new IllegalStateException("Handler unavailable");
+            }
+            handled.add(event.getEventId());
+          }
+        };
+    outboxDispatcher = new OutboxDispatcher(
+            outboxEventRepository, List.of(handler), ShardScatterGather.single(), 10, 2, 3, 7, 2);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    outboxDispatcher.shutdown();
+  }
+
+  /** Test that a failure holds back the same user's later events but not other users' events. */
+  @Test
+  public void testDispatchBatch_FailureBlocksOnlySameUser() {
+    List<OutboxEvent> batch =
+        List.of(event(1L, 7, 0), event(2L, 7, 0), event(3L, 7, 0), event(4L, 8, 0));
+
+    boolean allDelivered = outboxDispatcher.dispatchBatch(batch);
+
+    assertFalse(allDelivered);
+    assertTrue(handled.containsAll(List.of(1L, 4L)));
+    assertFalse(handled.contains(3L)); // Must not overtake the failed event 2
+    verify(outboxEventRepository, times(1))
+        .recordFailure(eq(2L), eq(1), eq(OutboxEvent.Status.pending), anyString());
+    verify(outboxEventRepository, times(1))
+        .updateStatus(
+            argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 4L))),
+            eq(OutboxEvent.Status.processed),
+            any(LocalDateTime.class));
+  }
+
+  /** Test that an event is parked as failed once it reaches the attempt limit. */
+  @Test
+  public void testDispatchBatch_ParksEventAfterMaxAttempts() {
+    outboxDispatcher.dispatchBatch(List.of(event(2L, 7, 2)));
+
+    verify(outboxEventRepository, times(1))
+        .recordFailure(eq(2L), eq(3), eq(OutboxEvent.Status.failed), anyString());
+    verify(outboxEventRepository, never()).updateStatus(any(), any(), any());
+  }
+
+  private static OutboxEvent event(long eventId, int userId, int attempts) {
+    return OutboxEvent.builder()
+        .eventId(eventId)
+        .userId(userId)
+        .eventType(OutboxEvent.EventType.savings_created)
+        .payload("{}")
+        .status(OutboxEvent.Status.pending)
+        .attempts(attempts)
+        .build();
+  }
+
+  /** Test that pruning deletes batch after batch until one comes back short. */
+  @Test
+  public void testPrune_DeletesUntilBatchIsShort() {
+    LocalDateTime cutoff = LocalDateTime.parse("2024-08-18T03:00:00");
+    when(outboxEventRepository.deleteProcessedBefore(cutoff, 2)).thenReturn(2, 2, 1);
+
+    assertEquals(5, outboxDispatcher.prune(cutoff));
+    verify(outboxEventRepository, times(3)).deleteProcessedBefore(cutoff, 2);
+  }
+}
@@ -2,6 +2,7 @@ package com.example.savings_app.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.example.savings_app.dto.SavingsResponse;
 import com.example.savings_app.model.Account;
 import com.example.savings_app.model.Savings;
 import java.math.BigDecimal;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 @ExtendWith(SpringExtension.class)
@@ -78,18 +80,84 @@ public class SavingsRepositoryTest {
   }
 
   @Test
-  public void testFindByMilestoneIdFound() {
-    Optional<Savings> foundSavings = savingsRepository.findByMilestoneId(2);
+  public void testFindLatestByMilestoneIdFound() {
+    Optional<Savings> foundSavings =
+        savingsRepository.findFirstByMilestoneIdOrderBySavingsIdDesc(2);
     assertThat(foundSavings).isPresent();
     assertThat(foundSavings.get().getMilestoneId()).isEqualTo(2);
   }
 
   @Test
-  public void testFindByMilestoneIdNotFound() {
-    Optional<Savings> foundSavings = savingsRepository.findByMilestoneId(999);
+  public void testFindLatestByMilestoneIdNotFound() {
+    Optional<Savings> foundSavings =
+        savingsRepository.findFirstByMilestoneIdOrderBySavingsIdDesc(999);
     assertThat(foundSavings).isNotPresent();
   }
 
+  @Test
+  public void testFindResponsePageByMilestoneIdAfterId() {
+    Savings later =
+        savingsRepository.save(
+            Savings.builder()
+                .user(savings2.getUser())
+                .amount(new BigDecimal("25.00"))
+                .date(LocalDate.of(2024, 3, 1))
+                .milestoneId(2)
+                .build());
+
+    List<SavingsResponse> page =
+        savingsRepository.findResponsePageByMilestoneId(
+            2, savings2.getSavingsId(), PageRequest.of(0, 10));
+    assertThat(page).extracting(SavingsResponse::savingsId).containsExactly(later.getSavingsId());
+  }
+
+  @Test
+  public void testFindResponsePagesByMilestoneIdInLimitsEachMilestone() {
+    Savings later =
+        savingsRepository.save(
+            Savings.builder()
+                .user(savings2.getUser())
+                .amount(new BigDecimal("25.00"))
+                .date(LocalDate.of(2024, 3, 1))
+                .milestoneId(2)
+                .build());
+
+    List<SavingsResponse> pages =
+        savingsRepository.findResponsePagesByMilestoneIdIn(List.of(1, 2), 0, 1);
+    assertThat(pages)
+        .extracting(SavingsResponse::savingsId)
+        .containsExactlyInAnyOrder(savings1.getSavingsId(), savings2.getSavingsId());
+
+    List<SavingsResponse> after =
+        savingsRepository.findResponsePagesByMilestoneIdIn(List.of(2), savings2.getSavingsId(), 1);
+    assertThat(after).extracting(SavingsResponse::savingsId).containsExactly(later.getSavingsId());
+  }
+
+  @Test
+  public void testDeleteByMilestoneId() {
+    assertThat(savingsRepository.findIdsByMilestoneId(2)).containsExactly(savings2.getSavingsId());
+
+    assertThat(savingsRepository.deleteByMilestoneId(2)).isEqualTo(1);
+    assertThat(savingsRepository.findIdsByMilestoneId(2)).isEmpty();
+    assertThat(savingsRepository.findById(savings1.getSavingsId())).isPresent();
+  }
+
+  @Test
+  public void testSumAmountByMilestoneId() {
+    BigDecimal before = savingsRepository.sumAmountByMilestoneId(2);
+    savingsRepository.save(
+        Savings.builder()
+            .user(savings2.getUser())
+            .amount(new BigDecimal("25.00"))
+            .date(LocalDate.of(2024, 3, 1))
+            .milestoneId(2)
+            .build());
+
+    assertThat(savingsRepository.sumAmountByMilestoneId(2))
+        .isEqualByComparingTo(before.add(new BigDecimal("25.00")));
+    assertThat(savingsRepository.sumAmountByMilestoneId(999)).isEqualByComparingTo("0");
+  }
+
   @Test
   public void testDeleteByIdFound() {
     Integer id = savings1.getSavingsId();
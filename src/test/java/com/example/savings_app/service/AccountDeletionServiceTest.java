@@ -0,0 +1,110 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.AccountDeletion;
+import com.example.savings_app.model.Customer;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.repository.AccountBatchRepository;
+import com.example.savings_app.repository.AccountDeletionRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Unit tests for the AccountDeletionService. */
+@ExtendWith(MockitoExtension.class)
+public class AccountDeletionServiceTest {
+
+  private static final int USER_ID = 7;
+
+  @Mock private AccountDeletionRepository accountDeletionRepository;
+  @Mock private AccountBatchRepository accountBatchRepository;
+  @Mock private EntityCacheService entityCacheService;
+  @Mock private EmailAvailabilityService emailAvailabilityService;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private AccountDeletionService accountDeletionService;
+  private AccountDeletion deletion;
+
+  /** Setup method to purge in batches of two rows, with one pending deletion. */
+  @BeforeEach
+  void setUp() {
+    accountDeletionService =
+        new AccountDeletionService(
+            accountDeletionRepository,
+            accountBatchRepository,
+            entityCacheService,
+            emailAvailabilityService,
+            ShardScatterGather.single(),
+            transactionManager,
+            2,
+            10,
+            true);
+    deletion =
+        AccountDeletion.builder()
+            .userId(USER_ID)
+            .status(AccountDeletion.Status.pending)
+            .requestedAt(LocalDateTime.parse("2024-11-16T10:00:00"))
+            .build();
+  }
+
+  /**
+   * Test that a purge works through each kind of row in foreign key order, keeps deleting while
+   * batches come back full, records the progress and finally removes the account.
+   */
+  @Test
+  void purge_ShouldDeleteInBatchesAndRecordProgress() {
+    when(accountDeletionRepository.findById(USER_ID)).thenReturn(Optional.of(deletion));
+    when(accountBatchRepository.deleteRecurringDeposits(USER_ID, 2)).thenReturn(1);
+    when(accountBatchRepository.deleteSavings(USER_ID, 2)).thenReturn(2, 2, 1);
+    when(accountBatchRepository.deleteMilestones(USER_ID, 2)).thenReturn(2, 0);
+    when(accountBatchRepository.deleteCustomers(USER_ID, 2)).thenReturn(0);
+
+    accountDeletionService.purge(USER_ID);
+
+    InOrder inOrder = inOrder(accountBatchRepository);
+    inOrder.verify(accountBatchRepository).deleteRecurringDeposits(USER_ID, 2);
+    inOrder.verify(accountBatchRepository, times(3)).deleteSavings(USER_ID, 2);
+    inOrder.verify(accountBatchRepository, times(2)).deleteMilestones(USER_ID, 2);
+    inOrder.verify(accountBatchRepository).deleteCustomers(USER_ID, 2);
+    inOrder.verify(accountBatchRepository).deleteAccount(USER_ID);
+
+    assertEquals(1, deletion.getRecurringDepositsDeleted());
+    assertEquals(5, deletion.getSavingsDeleted());
+    assertEquals(2, deletion.getMilestonesDeleted());
+    assertEquals(0, deletion.getCustomersDeleted());
+    assertEquals(AccountDeletion.Status.completed, deletion.getStatus());
+    assertNotNull(deletion.getCompletedAt());
+    verify(emailAvailabilityService).markRemoved();
+    verify(entityCacheService).evictAll(Account.class, Milestone.class, Customer.class);
+  }
+
+  /** Test that a failed purge leaves the deletion pending for the next poll. */
+  @Test
+  void purgePending_ShouldLeaveDeletionPending_WhenPurgeFails() {
+    when(accountDeletionRepository.findByStatusOrderByRequestedAtAsc(
+            eq(AccountDeletion.Status.pending), any()))
+        .thenReturn(List.of(deletion));
+    when(accountBatchRepository.deleteRecurringDeposits(USER_ID, 2))
+        .thenThrow(new IllegalStateException("Lock wait timeout"));
+
+    accountDeletionService.purgePending();
+
+    assertEquals(AccountDeletion.Status.pending, deletion.getStatus());
+    verify(accountBatchRepository, never()).deleteAccount(anyInt());
+    verifyNoInteractions(emailAvailabilityService);
+  }
+}
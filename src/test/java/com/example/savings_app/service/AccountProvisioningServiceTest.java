@@ -0,0 +1,148 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.Customer;
+import com.example.savings_app.model.ProvisioningResult;
+import com.example.savings_app.model.ProvisioningRow;
+import com.example.savings_app.repository.AccountBatchRepository;
+import com.example.savings_app.repository.AccountRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Unit tests for the AccountProvisioningService. */
+@ExtendWith(MockitoExtension.class)
+public class AccountProvisioningServiceTest {
+
+  @Mock private AccountRepository accountRepository;
+  @Mock private AccountBatchRepository accountBatchRepository;
+  @Mock private EmailAvailabilityService emailAvailabilityService;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private AccountProvisioningService accountProvisioningService;
+
+  /** Setup method to initialize the service with a small batch size before each test. */
+  @BeforeEach
+  void setUp() {
+    accountProvisioningService =
+        new AccountProvisioningService(
+            accountRepository,
+            accountBatchRepository,
+            emailAvailabilityService,
+            ShardScatterGather.single(),
+            transactionManager,
+            2);
+  }
+
+  /**
+   * Test that valid rows are written in batches and that every row gets back its generated IDs.
+   */
+  @Test
+  void provisionAccounts_ShouldCreateAccountsAndLinks_WhenRowsAreValid() {
+    AtomicInteger nextUserId = new AtomicInteger(100);
+    AtomicInteger nextCustId = new AtomicInteger(1);
+
+    when(accountRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+    doAnswer(
+            invocation -> {
+              List<Account> accounts = invocation.getArgument(0);
+              accounts.forEach(a -> a.setUserId(nextUserId.getAndIncrement()));
+              return null;
+            })
+        .when(accountBatchRepository)
+        .insertAccounts(anyList());
+    doAnswer(
+            invocation -> {
+              List<Customer> customers = invocation.getArgument(0);
+              customers.forEach(c -> c.setCustId(nextCustId.getAndIncrement()));
+              return null;
+            })
+        .when(accountBatchRepository)
+        .insertCustomers(anyList());
+
+    List<ProvisioningResult> results =
+        accountProvisioningService.provisionAccounts(
+            List.of(
+                row("parent1@example.com", "child1@example.com"),
+                row("parent2@example.com", "child2@example.com"),
+                row("parent3@example.com", null)));
+
+    // Three rows with a batch size of two means two chunks
+    assertEquals(3, results.size());
+    results.forEach(r -> assertEquals(ProvisioningResult.Status.created, r.getStatus()));
+    assertNotNull(results.get(0).getCustId());
+    assertNull(results.get(2).getChildUserId());
+    assertNull(results.get(2).getCustId());
+    verify(accountBatchRepository, times(2)).insertCustomers(anyList());
+    verify(emailAvailabilityService, times(5)).register(anyString());
+  }
+
+  /** Test that rows with registered or repeated emails are rejected without failing the others. */
+  @Test
+  void provisionAccounts_ShouldRejectRows_WhenEmailIsTakenOrDuplicated() {
+    when(accountRepository.findExistingEmails(anyCollection()))
+        .thenReturn(List.of("Taken@Example.com"));
+
+    List<ProvisioningResult> results =
+        accountProvisioningService.provisionAccounts(
+            List.of(
+                row("taken@example.com", null),
+                row("same@example.com", "same@example.com"),
+                row("fresh@example.com", null)));
+
+    assertEquals(ProvisioningResult.Status.rejected, results.get(0).getStatus());
+    assertEquals("An account with this email already exists", results.get(0).getMessage());
+    assertEquals(ProvisioningResult.Status.rejected, results.get(1).getStatus());
+    assertEquals("Email is duplicated within the request", results.get(1).getMessage());
+    assertEquals(ProvisioningResult.Status.created, results.get(2).getStatus());
+  }
+
+  /** Test that rows failing the normal account validation are rejected with the same message. */
+  @Test
+  void provisionAccounts_ShouldRejectRow_WhenValidationFails() {
+    Account parent = account("parent@example.com");
+    parent.setFirstName(null);
+
+    List<ProvisioningResult> results =
+        accountProvisioningService.provisionAccounts(List.of(new ProvisioningRow(parent, null)));
+
+    assertEquals(ProvisioningResult.Status.rejected, results.get(0).getStatus());
+    assertEquals("First Name is required", results.get(0).getMessage());
+    verify(accountBatchRepository, never()).insertAccounts(anyList());
+  }
+
+  /** Test that an empty request is refused outright. */
+  @Test
+  void provisionAccounts_ShouldThrowException_WhenNoRowsProvided() {
+    assertThrows(
+        IllegalArgumentException.class, () -> accountProvisioningService.provisionAccounts(List.of()));
+  }
+
+  private static ProvisioningRow row(String parentEmail, String childEmail) {
+    return new ProvisioningRow(
+        account(parentEmail), childEmail != null ? account(childEmail) : null);
+  }
+
+  private static Account account(String email) {
+    return Account.builder()
+        .firstName("Dave")
+        .lastName("Smith")
+        .email(email)
+        .passwordHash("password")
+        .dob(LocalDate.parse("2015-11-10"))
+        .build();
+  }
+}
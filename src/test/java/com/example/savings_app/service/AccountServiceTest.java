@@ -1,11 +1,21 @@
 package com.example.savings_app.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.event.DomainEventPublisher;
 import com.example.savings_app.model.Account;
+import com.example.savings_app.model.AccountDeletion;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.repository.AccountDeletionRepository;
 import com.example.savings_app.repository.AccountRepository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,8 +31,12 @@ public class AccountServiceTest {
 
   // Mock the AccountRepository and ParentChildAccountService dependencies
   @Mock private AccountRepository accountRepository;
+  @Mock private AccountDeletionRepository accountDeletionRepository;
   private AccountService accountService;
   @Mock private ParentChildAccountService parentChildAccountService;
+  @Mock private EmailAvailabilityService emailAvailabilityService;
+  @Mock private DomainEventPublisher domainEventPublisher;
+  @Mock private UserVersionService userVersionService;
 
   // Constants used in tests
   private final int USER_ID = 1;
@@ -36,7 +50,15 @@ public class AccountServiceTest {
   /** Setup method to initialize the AccountService before each test. */
   @BeforeEach
   void setUp() {
-    accountService = new AccountService(accountRepository, parentChildAccountService);
+    accountService =
+        new AccountService(
+            accountRepository,
+            accountDeletionRepository,
+            parentChildAccountService,
+            emailAvailabilityService,
+            domainEventPublisher,
+            userVersionService,
+            ShardScatterGather.single());
   }
 
   /**
@@ -101,18 +123,19 @@ public class AccountServiceTest {
     // Create a valid account for testing
     Account newAccount = validCreateAccount;
 
-    // Mock the repository's behavior to ensure no account exists with the given email
-    when(accountRepository.findByEmail(newAccount.getEmail())).thenReturn(Optional.empty());
+    // Mock the availability check to ensure no account exists with the given email
+    when(emailAvailabilityService.isEmailAvailable(newAccount.getEmail())).thenReturn(true);
     when(accountRepository.save(newAccount)).thenReturn(newAccount);
 
     // Call the service method
     Account savedAccount = accountService.createAccount(newAccount);
 
-    // Verify the account was saved correctly
+    // Verify the account was saved correctly and its email recorded as registered
     assertNotNull(savedAccount);
     assertEquals(newAccount.getEmail(), savedAccount.getEmail());
-    verify(accountRepository, times(1)).findByEmail(newAccount.getEmail());
+    verify(emailAvailabilityService, times(1)).isEmailAvailable(newAccount.getEmail());
     verify(accountRepository, times(1)).save(newAccount);
+    verify(emailAvailabilityService, times(1)).register(newAccount.getEmail());
   }
 
   /**
@@ -235,9 +258,8 @@ public class AccountServiceTest {
             .dob(LocalDate.parse("1999-11-10"))
             .build();
 
-    // Mock repository to return the existing account for the email
-    when(accountRepository.findByEmail(newAccount.getEmail()))
-        .thenReturn(Optional.of(existingAccount));
+    // Mock the availability check to report the email as already registered
+    when(emailAvailabilityService.isEmailAvailable(existingAccount.getEmail())).thenReturn(false);
 
     // Assert that an exception is thrown
     IllegalStateException exception =
@@ -245,7 +267,7 @@ public class AccountServiceTest {
 
     // Verify the exception message
     assertEquals("An account with this email already exists", exception.getMessage());
-    verify(accountRepository, times(1)).findByEmail(newAccount.getEmail());
+    verify(emailAvailabilityService, times(1)).isEmailAvailable(newAccount.getEmail());
     verify(accountRepository, never()).save(any());
   }
 
@@ -266,8 +288,8 @@ public class AccountServiceTest {
             .dob(LocalDate.parse("1999-11-10"))
             .build();
 
-    // Mock repository behavior for finding the email and saving the account
-    when(accountRepository.findByEmail(newAccount.getEmail())).thenReturn(Optional.empty());
+    // Mock the availability check and the repository behavior for saving the account
+    when(emailAvailabilityService.isEmailAvailable(newAccount.getEmail())).thenReturn(true);
     when(accountRepository.save(newAccount))
         .thenThrow(new org.springframework.dao.DataIntegrityViolationException("Duplicate entry"));
 
@@ -278,35 +300,55 @@ public class AccountServiceTest {
     // Verify the exception message
     assertTrue(
         exception.getMessage().contains("Failed to create account due to data integrity issues"));
-    verify(accountRepository, times(1)).findByEmail(newAccount.getEmail());
+    verify(emailAvailabilityService, times(1)).isEmailAvailable(newAccount.getEmail());
     verify(accountRepository, times(1)).save(newAccount);
   }
 
   /**
-   * Test for deleting an account by user ID. It verifies that the account deletion happens
-   * correctly.
+   * Test for deleting an account by user ID. It verifies that the account is tombstoned and a
+   * pending deletion is recorded for the background purge.
    */
   @Test
   void testDeleteAccount_Success() {
     int userId = 1;
+    when(accountRepository.markDeleted(eq(userId), any())).thenReturn(1);
+    when(accountDeletionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
     // Call the service method to delete the account
-    accountService.deleteAccount(userId);
+    AccountDeletion deletion = accountService.deleteAccount(userId);
+
+    // The account row stays until the purge, and its email is only freed then
+    assertEquals(userId, deletion.getUserId());
+    assertEquals(AccountDeletion.Status.pending, deletion.getStatus());
+    verify(accountRepository, never()).deleteById(anyInt());
+    verify(emailAvailabilityService, never()).markRemoved();
+    verify(userVersionService)
+        .recordChange(EntityChange.delete(userId, ChangeLog.EntityType.account, userId));
+  }
 
-    // Verify that the accountRepository's deleteById method was called once
-    verify(accountRepository, times(1)).deleteById(userId);
+  /** Test that deleting an account again reports the progress of the first deletion. */
+  @Test
+  void testDeleteAccount_AlreadyDeleted_ReturnsExistingDeletion() {
+    int userId = 1;
+    AccountDeletion existing =
+        AccountDeletion.builder().userId(userId).status(AccountDeletion.Status.completed).build();
+    when(accountRepository.markDeleted(eq(userId), any())).thenReturn(0);
+    when(accountDeletionRepository.findById(userId)).thenReturn(Optional.of(existing));
+
+    assertSame(existing, accountService.deleteAccount(userId));
+    verify(accountDeletionRepository, never()).save(any());
+    verifyNoInteractions(domainEventPublisher);
   }
 
   /**
    * Test for handling invalid user ID when trying to delete an account. It ensures that an
-   * IllegalArgumentException is thrown when the ID is invalid.
+   * IllegalArgumentException is thrown when no account has the ID.
    */
   @Test
   void testDeleteAccount_InvalidUserId_ThrowsException() {
     int invalidUserId = -1;
-    doThrow(new IllegalArgumentException("Invalid user ID"))
-        .when(accountRepository)
-        .deleteById(invalidUserId);
+    when(accountRepository.markDeleted(eq(invalidUserId), any())).thenReturn(0);
+    when(accountDeletionRepository.findById(invalidUserId)).thenReturn(Optional.empty());
 
     // Assert that an exception is thrown
     IllegalArgumentException exception =
@@ -314,8 +356,18 @@ public class AccountServiceTest {
             IllegalArgumentException.class, () -> accountService.deleteAccount(invalidUserId));
 
     // Verify the exception message
-    assertEquals("Invalid user ID", exception.getMessage());
-    verify(accountRepository, times(1)).deleteById(invalidUserId);
+    assertEquals("Account not found: -1", exception.getMessage());
+  }
+
+  /** Test that a deleted account is hidden from lookups by ID while it waits to be purged. */
+  @Test
+  void getAccountByUserId_ShouldReturnEmpty_WhenDeleted() {
+    Account account = new Account();
+    account.setUserId(USER_ID);
+    account.setDeletedAt(LocalDateTime.parse("2024-11-16T10:00:00"));
+    when(accountRepository.findById(USER_ID)).thenReturn(Optional.of(account));
+
+    assertTrue(accountService.getAccountByUserId(USER_ID).isEmpty());
   }
 
   /**
@@ -335,7 +387,8 @@ public class AccountServiceTest {
             Account.Role.parent,
             null,
             NOW,
-            LocalDate.parse("1999-11-10"));
+            LocalDate.parse("1999-11-10"),
+            null);
     Account updatedAccount =
         new Account(
             userId,
@@ -346,7 +399,8 @@ public class AccountServiceTest {
             Account.Role.parent,
             2,
             NOW,
-            LocalDate.parse("1999-11-10"));
+            LocalDate.parse("1999-11-10"),
+            null);
 
     // Mock the repository's behavior
     when(accountRepository.findById(userId)).thenReturn(Optional.of(existingAccount));
@@ -364,8 +418,10 @@ public class AccountServiceTest {
     assertEquals(Account.Role.parent, savedAccount.getRole());
     assertEquals(2, savedAccount.getChildId());
 
-    // Verify that the save method was called
+    // Verify that the save method was called and the change logged for the delta sync
     verify(accountRepository, times(1)).save(existingAccount);
+    verify(userVersionService)
+        .recordChange(EntityChange.upsert(userId, ChangeLog.EntityType.account, userId));
   }
 
   /**
@@ -385,7 +441,8 @@ public class AccountServiceTest {
             Account.Role.parent,
             null,
             NOW,
-            LocalDate.parse("1999-11-10"));
+            LocalDate.parse("1999-11-10"),
+            null);
     Account updatedAccount =
         new Account(
             userId,
@@ -396,7 +453,8 @@ public class AccountServiceTest {
             Account.Role.parent,
             null,
             NOW,
-            LocalDate.parse("1999-11-10"));
+            LocalDate.parse("1999-11-10"),
+            null);
 
     // Mock the repository's behavior
     when(accountRepository.findById(userId)).thenReturn(Optional.of(existingAccount));
@@ -426,7 +484,8 @@ public class AccountServiceTest {
             Account.Role.child,
             2,
             NOW,
-            LocalDate.parse("1999-11-10"));
+            LocalDate.parse("1999-11-10"),
+            null);
 
     // Mock the repository's behavior to return empty for the userId
     when(accountRepository.findById(userId)).thenReturn(Optional.empty());
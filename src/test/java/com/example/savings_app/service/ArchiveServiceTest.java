@@ -0,0 +1,88 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.batch.ChunkedJobRunner;
+import com.example.savings_app.batch.JobReport;
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.repository.ArchiveBatchRepository;
+import com.example.savings_app.repository.MilestoneRepository;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for the ArchiveService. */
+@ExtendWith(MockitoExtension.class)
+public class ArchiveServiceTest {
+
+  private static final LocalDate DATE = LocalDate.parse("2024-11-16");
+
+  @Mock private MilestoneRepository milestoneRepository;
+  @Mock private ArchiveBatchRepository archiveBatchRepository;
+  @Mock private EntityCacheService entityCacheService;
+  @Mock private ChunkedJobRunner chunkedJobRunner;
+
+  private ArchiveService archiveService;
+
+  /** Setup method to keep completed milestones for 30 days and savings for 365. */
+  @BeforeEach
+  void setUp() {
+    archiveService =
+        new ArchiveService(
+            milestoneRepository,
+            archiveBatchRepository,
+            entityCacheService,
+            chunkedJobRunner,
+            ShardScatterGather.single(),
+            30,
+            365,
+            100,
+            false);
+  }
+
+  /** Test that a range archives completed milestones and old savings with their own cutoffs. */
+  @Test
+  void archiveRange_ShouldArchiveMilestonesAndSavingsPastTheirCutoffs() {
+    LocalDate completedBefore = DATE.minusDays(30);
+    LocalDate datedBefore = DATE.minusDays(365);
+    when(archiveBatchRepository.archiveCompletedMilestones(
+            eq(1), eq(101), eq(completedBefore), any()))
+        .thenReturn(4);
+    when(archiveBatchRepository.archiveOldSavings(eq(1), eq(101), eq(datedBefore), any()))
+        .thenReturn(7);
+
+    assertEquals(11, archiveService.archiveRange(1, 101, completedBefore, datedBefore));
+    // The milestone rows left through JDBC, so their cached copies must go
+    verify(entityCacheService).evictAll(Milestone.class);
+  }
+
+  /** Test that the run is keyed by date and spans every milestone ID. */
+  @Test
+  void archive_ShouldRunChunkedJobOverAllMilestoneIds() {
+    JobReport report = new JobReport(ArchiveService.JOB_NAME, "2024-11-16", 5, 0, 0, 9, 1);
+    when(milestoneRepository.findMinId()).thenReturn(3);
+    when(milestoneRepository.findMaxId()).thenReturn(450);
+    when(chunkedJobRunner.run(
+            eq(ArchiveService.JOB_NAME), eq("2024-11-16"), eq(3), eq(450), eq(100), any()))
+        .thenReturn(report);
+
+    assertEquals(report, archiveService.archive(DATE));
+  }
+
+  /** Test that nothing runs when there are no milestones. */
+  @Test
+  void archive_ShouldReturnEmptyReport_WhenNoMilestones() {
+    when(milestoneRepository.findMinId()).thenReturn(null);
+    when(milestoneRepository.findMaxId()).thenReturn(null);
+
+    assertEquals(0, archiveService.archive(DATE).chunks());
+    verifyNoInteractions(chunkedJobRunner);
+  }
+}
@@ -0,0 +1,237 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.savings_app.model.BatchOperation;
+import com.example.savings_app.model.BatchOperationResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/** Unit tests for the BatchRequestService, against a dispatcher that records what it is sent. */
+public class BatchRequestServiceTest {
+
+  private final Map<String, HttpServletRequest> received = new ConcurrentHashMap<>();
+  private final Map<String, String> cookiesSeen = new ConcurrentHashMap<>();
+  private final CountDownLatch slowWrite = new CountDownLatch(1);
+
+  private DispatcherServlet dispatcher;
+  private BatchRequestService batchRequestService;
+  private MockHttpServletRequest batchRequest;
+
+  /**
+   * Setup method to build the service over a fake dispatcher with a limit of three calls, and a
+   * batch call from a client at 203.0.113.9. The dispatcher routes another spelling of /batch back
+   * to the service, as the real one would.
+   */
+  @BeforeEach
+  void setUp() {
+    dispatcher =
+        new DispatcherServlet() {
+          @Override
+          protected void service(HttpServletRequest request, HttpServletResponse response)
+              throws IOException {
+            received.put(request.getMethod() + " " + request.getRequestURI(), request);
+            if (request.getCookies() != null) {
+              for (Cookie cookie : request.getCookies()) {
+                cookiesSeen.put(
+                    request.getRequestURI(), cookie.getName() + "=" + cookie.getValue());
+              }
+            }
+            switch (request.getRequestURI()) {
+              case "/milestone/user/1" -> {
+                response.setContentType("application/json");
+                response.getWriter().write("[{\"milestoneId\":3}]");
+              }
+              case "/savings/delete/4" -> {
+                Cookie cookie = new Cookie("savings-primary-until", "123");
+                cookie.setPath("/");
+                response.addCookie(cookie);
+                response.setContentType("text/plain");
+                response.getWriter().write("Savings deleted");
+              }
+              case "/savings/user/1" -> response.setStatus(204);
+              case "/milestone/id/99" -> response.sendError(404);
+              case "/%62atch" -> {
+                try {
+                  batchRequestService.execute(
+                      List.of(operation("GET", "/milestone/user/1")),
+                      request,
+                      response,
+                      new ArrayList<>());
+                } catch (IllegalArgumentException e) {
+                  response.sendError(400);
+                }
+              }
+              case "/savings/slow" -> {
+                try {
+                  slowWrite.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }
+              default -> throw new IllegalStateException("Unexpected route");
+            }
+          }
+        };
+    batchRequestService = new BatchRequestService(dispatcher, new ObjectMapper(), 3, 2, 10000);
+    batchRequest = new MockHttpServletRequest("POST", "/batch");
+    batchRequest.setRemoteAddr("203.0.113.9");
+    batchRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+  }
+
+  /** Stops the service's workers after each test. */
+  @AfterEach
+  void tearDown() {
+    batchRequestService.shutdown();
+  }
+
+  /**
+   * Test that every call gets its own result in the order sent, that the caller's headers and
+   * address are passed on, and that a cookie set by a write is sent with the read after it and
+   * returned to the client.
+   */
+  @Test
+  void execute_ShouldReturnResultsInOrderAndPassOnCookies() {
+    List<String> setCookies = new ArrayList<>();
+    List<BatchOperationResult> results =
+        batchRequestService.execute(
+            List.of(
+                operation("GET", "/milestone/user/1"),
+                operation("DELETE", "/savings/delete/4"),
+                operation("GET", "/savings/user/1")),
+            batchRequest,
+            new MockHttpServletResponse(),
+            setCookies);
+
+    assertEquals(3, results.size());
+    assertEquals(3, results.get(0).getBody().get(0).get("milestoneId").asInt());
+    assertEquals("Savings deleted", results.get(1).getBody().asText());
+    assertEquals(204, results.get(2).getStatus());
+    assertNull(results.get(2).getBody());
+    assertEquals(List.of("savings-primary-until=123; Path=/"), setCookies);
+    assertEquals("savings-primary-until=123", cookiesSeen.get("/savings/user/1"));
+    assertFalse(cookiesSeen.containsKey("/milestone/user/1"));
+
+    HttpServletRequest read = received.get("GET /milestone/user/1");
+    assertEquals("Bearer token", read.getHeader(HttpHeaders.AUTHORIZATION));
+    assertEquals("203.0.113.9", read.getRemoteAddr());
+    assertNull(read.getHeader("X-Forwarded-For"));
+  }
+
+  /** Test that query parameters of a sub-request are decoded into request parameters. */
+  @Test
+  void execute_ShouldPassQueryParameters() {
+    batchRequestService.execute(
+        List.of(operation("GET", "/savings/user/1?from=2024-01-01&note=a%20b")),
+        batchRequest,
+        new MockHttpServletResponse(),
+        new ArrayList<>());
+
+    HttpServletRequest read = received.get("GET /savings/user/1");
+    assertEquals("2024-01-01", read.getParameter("from"));
+    assertEquals("a b", read.getParameter("note"));
+    assertEquals("/savings/user/1", read.getServletPath());
+  }
+
+  /** Test that a failed call is reported with its status and does not fail the batch. */
+  @Test
+  void execute_ShouldReportFailedCall() {
+    List<BatchOperationResult> results =
+        batchRequestService.execute(
+            List.of(operation("GET", "/milestone/id/99"), operation("GET", "/unknown")),
+            batchRequest,
+            new MockHttpServletResponse(),
+            new ArrayList<>());
+
+    assertEquals(404, results.get(0).getStatus());
+    assertEquals(500, results.get(1).getStatus());
+  }
+
+  /** Test that a batch reached through another spelling of /batch is refused as nested. */
+  @Test
+  void execute_ShouldRefuseBatchInsideBatch() {
+    List<BatchOperationResult> results =
+        batchRequestService.execute(
+            List.of(operation("POST", "/%62atch")),
+            batchRequest,
+            new MockHttpServletResponse(),
+            new ArrayList<>());
+
+    assertEquals(400, results.get(0).getStatus());
+    assertFalse(received.containsKey("GET /milestone/user/1"));
+  }
+
+  /**
+   * Test that a write that does not finish in time is reported as timed out, and that the calls
+   * after it are not run, since they could not be sure to see it.
+   */
+  @Test
+  void execute_ShouldTimeOutSlowWrite() {
+    BatchRequestService impatient =
+        new BatchRequestService(dispatcher, new ObjectMapper(), 3, 2, 50);
+    try {
+      List<BatchOperationResult> results =
+          impatient.execute(
+              List.of(operation("DELETE", "/savings/slow"), operation("GET", "/milestone/user/1")),
+              batchRequest,
+              new MockHttpServletResponse(),
+              new ArrayList<>());
+
+      assertEquals(504, results.get(0).getStatus());
+      assertEquals(504, results.get(1).getStatus());
+      assertFalse(received.containsKey("GET /milestone/user/1"));
+    } finally {
+      slowWrite.countDown();
+      impatient.shutdown();
+    }
+  }
+
+  /** Test that oversized, nested and malformed batches are refused before anything is sent. */
+  @Test
+  void execute_ShouldRefuseInvalidBatches() {
+    BatchOperation read = operation("GET", "/account/id/1");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> batchRequestService.execute(List.of(), batchRequest, response, new ArrayList<>()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            batchRequestService.execute(
+                List.of(read, read, read, read), batchRequest, response, new ArrayList<>()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            batchRequestService.execute(
+                List.of(operation("POST", "/batch")), batchRequest, response, new ArrayList<>()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            batchRequestService.execute(
+                List.of(operation("TRACE", "/account/id/1")),
+                batchRequest,
+                response,
+                new ArrayList<>()));
+    assertTrue(received.isEmpty());
+  }
+
+  private static BatchOperation operation(String method, String path) {
+    return BatchOperation.builder().method(method).path(path).build();
+  }
+}
@@ -3,9 +3,11 @@ package com.example.savings_app.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.example.savings_app.config.ShardScatterGather;
 import com.example.savings_app.model.Account;
 import com.example.savings_app.model.Customer;
 import com.example.savings_app.repository.CustomerRepository;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,7 +46,7 @@ public class CustomerServiceTest {
   void setUp() {
     accountService = mock(AccountService.class); // Mock AccountService
     customerRepository = mock(CustomerRepository.class); // Mock CustomerRepository
-    customerService = new CustomerService(customerRepository); // Initialize CustomerService
+    customerService = new CustomerService(customerRepository, ShardScatterGather.single());
   }
 
   /**
@@ -202,4 +204,21 @@ public class CustomerServiceTest {
 
     assertEquals("Both parent and child accounts must be provided.", thrown.getMessage());
   }
+
+  /**
+   * Test case for loading the links of several parents at once. Verifies that one query fetches
+   * them all and that they come back grouped in the order the parents were asked for.
+   */
+  @Test
+  void getCustomersForParents_ShouldGroupLinksByParent() {
+    Customer first = Customer.builder().custId(1).parentId(10).childId(20).build();
+    Customer second = Customer.builder().custId(2).parentId(11).childId(21).build();
+    Customer third = Customer.builder().custId(3).parentId(10).childId(22).build();
+    when(customerRepository.findByParentIdIn(List.of(11, 10)))
+        .thenReturn(List.of(first, second, third));
+
+    assertEquals(
+        List.of(second, first, third), customerService.getCustomersForParents(List.of(11, 10)));
+    verify(customerRepository, times(1)).findByParentIdIn(any());
+  }
 }
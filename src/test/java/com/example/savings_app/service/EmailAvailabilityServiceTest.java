@@ -0,0 +1,92 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.repository.AccountRepository;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Unit tests for the EmailAvailabilityService. */
+@ExtendWith(MockitoExtension.class)
+public class EmailAvailabilityServiceTest {
+
+  @Mock private AccountRepository accountRepository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private EmailAvailabilityService emailAvailabilityService;
+
+  /** Setup method to initialize the service before each test. */
+  @BeforeEach
+  void setUp() {
+    emailAvailabilityService =
+        new EmailAvailabilityService(
+            accountRepository,
+            ShardScatterGather.single(),
+            transactionManager,
+            1_000,
+            0.01,
+            0.1);
+  }
+
+  /** Test that checks fall back to the database until the filter has been built. */
+  @Test
+  void isEmailAvailable_ShouldQueryDatabase_WhenFilterNotBuilt() {
+    when(accountRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
+
+    assertTrue(emailAvailabilityService.isEmailAvailable("test@example.com"));
+    verify(accountRepository, times(1)).findByEmail("test@example.com");
+  }
+
+  /** Test that an email missing from the filter is reported free without a database lookup. */
+  @Test
+  void isEmailAvailable_ShouldSkipDatabase_WhenFilterMisses() {
+    when(accountRepository.streamAllEmails()).thenReturn(Stream.of("taken@example.com"));
+    emailAvailabilityService.rebuild();
+
+    assertTrue(emailAvailabilityService.isEmailAvailable("free@example.com"));
+    verify(accountRepository, never()).findByEmail(anyString());
+    assertEquals(1, emailAvailabilityService.getFilterAnswers());
+  }
+
+  /** Test that a possible match is confirmed against the database, ignoring case. */
+  @Test
+  void isEmailAvailable_ShouldConfirmWithDatabase_WhenFilterMatches() {
+    when(accountRepository.streamAllEmails()).thenReturn(Stream.of("taken@example.com"));
+    when(accountRepository.findByEmail("Taken@Example.com"))
+        .thenReturn(Optional.of(Account.builder().email("taken@example.com").build()));
+    emailAvailabilityService.rebuild();
+
+    assertFalse(emailAvailabilityService.isEmailAvailable("Taken@Example.com"));
+    assertEquals(1, emailAvailabilityService.getDatabaseChecks());
+  }
+
+  /** Test that a registered email is seen by later checks. */
+  @Test
+  void register_ShouldAddEmailToFilter() {
+    when(accountRepository.streamAllEmails()).thenReturn(Stream.empty());
+    when(accountRepository.findByEmail("new@example.com"))
+        .thenReturn(Optional.of(Account.builder().email("new@example.com").build()));
+    emailAvailabilityService.rebuild();
+
+    emailAvailabilityService.register("new@example.com");
+
+    assertFalse(emailAvailabilityService.isEmailAvailable("new@example.com"));
+  }
+
+  /** Test that blank emails are rejected. */
+  @Test
+  void isEmailAvailable_ShouldThrowException_WhenEmailIsBlank() {
+    assertThrows(
+        IllegalArgumentException.class, () -> emailAvailabilityService.isEmailAvailable(" "));
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.dto.CacheRegionStats;
+import com.example.savings_app.model.Milestone;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Unit tests for the EntityCacheService. */
+@ExtendWith(MockitoExtension.class)
+public class EntityCacheServiceTest {
+
+  @Mock private EntityManagerFactory entityManagerFactory;
+  @Mock private SessionFactory sessionFactory;
+  @Mock private Cache cache;
+  @Mock private Statistics statistics;
+
+  private EntityCacheService entityCacheService;
+
+  /** Setup method to back the service with a mocked Hibernate cache. */
+  @BeforeEach
+  void setUp() {
+    when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+    entityCacheService = new EntityCacheService(entityManagerFactory);
+  }
+
+  /** Test that outside a transaction the rows and cached queries are evicted at once. */
+  @Test
+  void evict_ShouldEvictImmediately_WithoutTransaction() {
+    when(sessionFactory.getCache()).thenReturn(cache);
+
+    entityCacheService.evict(Milestone.class, List.of(1, 2));
+
+    verify(cache).evictEntityData(Milestone.class, 1);
+    verify(cache).evictEntityData(Milestone.class, 2);
+    verify(cache).evictQueryRegions();
+  }
+
+  /** Test that inside a transaction the eviction waits for the commit. */
+  @Test
+  void evict_ShouldWaitForCommit_InsideTransaction() {
+    when(sessionFactory.getCache()).thenReturn(cache);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      entityCacheService.evictAll(Milestone.class);
+      verifyNoInteractions(cache);
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    verify(cache).evictEntityData(Milestone.class);
+    verify(cache).evictQueryRegions();
+  }
+
+  /** Test that region counters are reported, with an unknown size shown as -1. */
+  @Test
+  void getRegionStats_ShouldReportEveryRegion() {
+    CacheRegionStatistics milestones = mock(CacheRegionStatistics.class);
+    when(milestones.getHitCount()).thenReturn(30L);
+    when(milestones.getMissCount()).thenReturn(10L);
+    when(milestones.getPutCount()).thenReturn(10L);
+    when(milestones.getElementCountInMemory())
+        .thenReturn(CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN);
+    when(sessionFactory.getStatistics()).thenReturn(statistics);
+    when(statistics.isStatisticsEnabled()).thenReturn(true);
+    when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[] {"milestone"});
+    when(statistics.getCacheRegionStatistics("milestone")).thenReturn(milestones);
+
+    assertEquals(
+        List.of(new CacheRegionStats("milestone", 30, 10, 10, -1, 0.75)),
+        entityCacheService.getRegionStats());
+  }
+
+  /** Test that nothing is reported while Hibernate statistics are disabled. */
+  @Test
+  void getRegionStats_ShouldBeEmpty_WhenStatisticsDisabled() {
+    when(sessionFactory.getStatistics()).thenReturn(statistics);
+
+    assertTrue(entityCacheService.getRegionStats().isEmpty());
+  }
+}
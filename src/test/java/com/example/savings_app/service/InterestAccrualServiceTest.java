@@ -0,0 +1,149 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.batch.ChunkedJobRunner;
+import com.example.savings_app.batch.JobReport;
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.event.DomainEventPublisher;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.model.Savings;
+import com.example.savings_app.repository.MilestoneBatchRepository;
+import com.example.savings_app.repository.MilestoneRepository;
+import com.example.savings_app.repository.SavingsBatchRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for the InterestAccrualService. */
+@ExtendWith(MockitoExtension.class)
+public class InterestAccrualServiceTest {
+
+  private static final LocalDate DATE = LocalDate.parse("2024-11-16");
+
+  @Mock private MilestoneRepository milestoneRepository;
+  @Mock private MilestoneBatchRepository milestoneBatchRepository;
+  @Mock private SavingsBatchRepository savingsBatchRepository;
+  @Mock private DomainEventPublisher domainEventPublisher;
+  @Mock private UserVersionService userVersionService;
+  @Mock private EntityCacheService entityCacheService;
+  @Mock private ChunkedJobRunner chunkedJobRunner;
+
+  private InterestAccrualService interestAccrualService;
+
+  /** Setup method to initialize the service with a 3.65% rate, i.e. 0.01% a day. */
+  @BeforeEach
+  void setUp() {
+    interestAccrualService =
+        new InterestAccrualService(
+            milestoneRepository,
+            milestoneBatchRepository,
+            savingsBatchRepository,
+            domainEventPublisher,
+            userVersionService,
+            entityCacheService,
+            chunkedJobRunner,
+            ShardScatterGather.single(),
+            new BigDecimal("0.0365"),
+            100,
+            false);
+  }
+
+  /** Test that a range credits interest, writes the new balances, and completes milestones. */
+  @Test
+  void accrueRange_ShouldCreditInterestAndCompleteMilestone_WhenTargetReached() {
+    Milestone small = milestone(1, "100.00", "500.00");
+    Milestone nearlyDone = milestone(2, "9999.50", "10000.00");
+    Milestone empty = milestone(3, "0.00", "50.00");
+    when(milestoneBatchRepository.lockActiveRange(1, 101))
+        .thenReturn(List.of(small, nearlyDone, empty));
+    assignSavingsIds();
+
+    int credited = interestAccrualService.accrueRange(DATE, 1, 101);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Savings>> captor = ArgumentCaptor.forClass(List.class);
+    verify(savingsBatchRepository).insertSavings(captor.capture());
+
+    // An empty balance earns nothing, so only two rows are written
+    assertEquals(2, credited);
+    assertEquals(new BigDecimal("0.01"), captor.getValue().get(0).getAmount());
+    assertEquals(new BigDecimal("1.00"), captor.getValue().get(1).getAmount());
+    assertEquals(Milestone.Status.completed, nearlyDone.getStatus());
+    assertEquals(DATE, nearlyDone.getCompletionDate());
+    verify(milestoneBatchRepository).updateBalances(List.of(small, nearlyDone));
+    verify(entityCacheService).evict(Milestone.class, List.of(1, 2));
+    verify(userVersionService)
+        .recordChanges(
+            List.of(
+                EntityChange.upsert(10, ChangeLog.EntityType.savings, 100),
+                EntityChange.upsert(10, ChangeLog.EntityType.milestone, 1),
+                EntityChange.upsert(20, ChangeLog.EntityType.savings, 101),
+                EntityChange.upsert(20, ChangeLog.EntityType.milestone, 2)));
+    verify(domainEventPublisher)
+        .publishAll(eq(OutboxEvent.EventType.milestone_completed), anyList());
+  }
+
+  /** Test that the run is keyed by date and spans the active milestone IDs. */
+  @Test
+  void accrueInterest_ShouldRunChunkedJobOverActiveIds() {
+    JobReport report = new JobReport(InterestAccrualService.JOB_NAME, "2024-11-16", 5, 0, 0, 9, 1);
+    when(milestoneRepository.findMinIdByStatus(Milestone.Status.active)).thenReturn(3);
+    when(milestoneRepository.findMaxIdByStatus(Milestone.Status.active)).thenReturn(450);
+    when(chunkedJobRunner.run(
+            eq(InterestAccrualService.JOB_NAME), eq("2024-11-16"), eq(3), eq(450), eq(100), any()))
+        .thenReturn(report);
+
+    assertEquals(report, interestAccrualService.accrueInterest(DATE));
+  }
+
+  /** Test that nothing runs when there are no active milestones. */
+  @Test
+  void accrueInterest_ShouldReturnEmptyReport_WhenNoActiveMilestones() {
+    when(milestoneRepository.findMinIdByStatus(Milestone.Status.active)).thenReturn(null);
+    when(milestoneRepository.findMaxIdByStatus(Milestone.Status.active)).thenReturn(null);
+
+    JobReport report = interestAccrualService.accrueInterest(DATE);
+
+    assertEquals(0, report.chunks());
+    verifyNoInteractions(chunkedJobRunner);
+  }
+
+  private static Milestone milestone(int id, String saved, String target) {
+    return Milestone.builder()
+        .milestoneId(id)
+        .user(Account.builder().userId(id * 10).build())
+        .savedAmount(new BigDecimal(saved))
+        .targetAmount(new BigDecimal(target))
+        .status(Milestone.Status.active)
+        .build();
+  }
+
+  /** Stubs the batch insert to assign generated IDs from 100 up, as the database does. */
+  private void assignSavingsIds() {
+    doAnswer(
+            invocation -> {
+              List<Savings> inserted = invocation.getArgument(0);
+              for (int i = 0; i < inserted.size(); i++) {
+                inserted.get(i).setSavingsId(100 + i);
+              }
+              return null;
+            })
+        .when(savingsBatchRepository)
+        .insertSavings(anyList());
+  }
+}
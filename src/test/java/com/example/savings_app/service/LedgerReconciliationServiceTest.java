@@ -0,0 +1,113 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.batch.ChunkProcessor;
+import com.example.savings_app.batch.ChunkedJobRunner;
+import com.example.savings_app.batch.JobReport;
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.dto.LedgerBalance;
+import com.example.savings_app.dto.ReconciliationReport;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.repository.MilestoneBatchRepository;
+import com.example.savings_app.repository.MilestoneRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for the LedgerReconciliationService. */
+@ExtendWith(MockitoExtension.class)
+public class LedgerReconciliationServiceTest {
+
+  private static final LocalDate DATE = LocalDate.parse("2024-11-16");
+
+  @Mock private MilestoneRepository milestoneRepository;
+  @Mock private MilestoneBatchRepository milestoneBatchRepository;
+  @Mock private UserVersionService userVersionService;
+  @Mock private EntityCacheService entityCacheService;
+  @Mock private ChunkedJobRunner chunkedJobRunner;
+
+  private LedgerReconciliationService ledgerReconciliationService;
+
+  private final LedgerBalance balanced = balance(1, "50.00", "50.00");
+  private final LedgerBalance over = balance(2, "30.00", "20.00");
+  private final LedgerBalance under = balance(3, "0.00", "12.50");
+
+  /** Setup method to initialize the service with chunks of 100 milestones. */
+  @BeforeEach
+  void setUp() {
+    ledgerReconciliationService =
+        new LedgerReconciliationService(
+            milestoneRepository,
+            milestoneBatchRepository,
+            userVersionService,
+            entityCacheService,
+            chunkedJobRunner,
+            ShardScatterGather.single(),
+            100,
+            10,
+            false,
+            false);
+    when(milestoneRepository.findMinId()).thenReturn(1);
+    when(milestoneRepository.findMaxId()).thenReturn(3);
+    when(milestoneBatchRepository.findLedgerBalances(1, 4))
+        .thenReturn(List.of(balanced, over, under));
+    when(chunkedJobRunner.run(
+            eq(LedgerReconciliationService.JOB_NAME), any(), eq(1), eq(3), eq(100), any()))
+        .thenAnswer(
+            invocation -> {
+              ChunkProcessor processor = invocation.getArgument(5);
+              int items = processor.process(1, 4);
+              String runKey = invocation.getArgument(1);
+              return new JobReport(
+                  LedgerReconciliationService.JOB_NAME, runKey, 1, 0, 0, items, 1);
+            });
+  }
+
+  /** Test that a check reports every mismatch and its net drift without writing anything. */
+  @Test
+  void reconcile_ShouldReportMismatches_WithoutRepairing() {
+    ReconciliationReport report = ledgerReconciliationService.reconcile(DATE, false);
+
+    assertEquals("2024-11-16/check", report.job().runKey());
+    assertEquals(3, report.job().items());
+    assertEquals(2, report.mismatches());
+    assertEquals(0, report.repaired());
+    assertEquals(new BigDecimal("-2.50"), report.netDrift());
+    assertEquals(List.of(over, under), report.sample());
+    verify(milestoneBatchRepository, never()).repairBalances(any());
+    verifyNoInteractions(userVersionService, entityCacheService);
+  }
+
+  /** Test that a repair writes back only the mismatched milestones and marks their owners. */
+  @Test
+  void reconcile_ShouldRepairOnlyMismatchedMilestones() {
+    when(milestoneBatchRepository.repairBalances(List.of(over, under))).thenReturn(2);
+
+    ReconciliationReport report = ledgerReconciliationService.reconcile(DATE, true);
+
+    assertEquals("2024-11-16/repair", report.job().runKey());
+    assertEquals(2, report.repaired());
+    verify(userVersionService)
+        .recordChanges(
+            List.of(
+                EntityChange.upsert(20, ChangeLog.EntityType.milestone, 2),
+                EntityChange.upsert(30, ChangeLog.EntityType.milestone, 3)));
+    verify(entityCacheService).evict(Milestone.class, List.of(2, 3));
+  }
+
+  private static LedgerBalance balance(int milestoneId, String saved, String ledger) {
+    return new LedgerBalance(
+        milestoneId, milestoneId * 10, new BigDecimal(saved), new BigDecimal(ledger));
+  }
+}
@@ -4,27 +4,48 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
 
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.event.DomainEventPublisher;
 import com.example.savings_app.exception.MilestoneException;
 import com.example.savings_app.model.Account;
+import com.example.savings_app.model.ChangeLog;
 import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.repository.ArchivedMilestoneRepository;
+import com.example.savings_app.repository.ArchivedSavingsRepository;
 import com.example.savings_app.repository.MilestoneRepository;
+import com.example.savings_app.repository.SavingsRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /** Unit test class for MilestoneService to test its methods and ensure proper functionality. */
 @ExtendWith(MockitoExtension.class)
 public class MilestoneServiceTest {
 
   private MilestoneRepository milestoneRepository;
+  private ArchivedMilestoneRepository archivedMilestoneRepository;
+  private SavingsRepository savingsRepository;
+  private ArchivedSavingsRepository archivedSavingsRepository;
   private MilestoneService milestoneService;
   private AccountService accountService;
+  private DomainEventPublisher domainEventPublisher;
+  private UserVersionService userVersionService;
   private Account user;
   private Milestone milestone;
   private LocalDate startDate;
@@ -35,7 +56,22 @@ public class MilestoneServiceTest {
   public void setUp() {
     accountService = mock(AccountService.class);
     milestoneRepository = mock(MilestoneRepository.class);
-    milestoneService = new MilestoneService(milestoneRepository, accountService);
+    archivedMilestoneRepository = mock(ArchivedMilestoneRepository.class);
+    savingsRepository = mock(SavingsRepository.class);
+    archivedSavingsRepository = mock(ArchivedSavingsRepository.class);
+    domainEventPublisher = mock(DomainEventPublisher.class);
+    userVersionService = mock(UserVersionService.class);
+    milestoneService =
+        new MilestoneService(
+            milestoneRepository,
+            archivedMilestoneRepository,
+            savingsRepository,
+            archivedSavingsRepository,
+            accountService,
+            domainEventPublisher,
+            userVersionService,
+            ShardScatterGather.single(),
+            new ReadCoalescingService(mock(PlatformTransactionManager.class), 1000, true));
 
     // Initialize test data for milestones and user account
     startDate = LocalDate.parse("2024-11-01");
@@ -236,20 +272,28 @@ public class MilestoneServiceTest {
             .build();
 
     when(accountService.getAccountByUserId(user.getUserId())).thenReturn(Optional.of(user));
-    when(milestoneRepository.save(any(Milestone.class))).thenReturn(milestone);
+    when(milestoneRepository.save(any(Milestone.class)))
+        .thenAnswer(
+            invocation -> {
+              Milestone saved = invocation.getArgument(0);
+              saved.setMilestoneId(5);
+              return saved;
+            });
 
     Milestone createdMilestone = milestoneService.createMilestone(milestone);
 
     assertNotNull(createdMilestone);
     assertEquals("Buy a Bicycle", createdMilestone.getMilestoneName());
     verify(milestoneRepository, times(1)).save(milestone);
+    verify(userVersionService, times(1))
+        .recordChange(EntityChange.upsert(1, ChangeLog.EntityType.milestone, 5));
   }
 
   /** Test case to mark milestone as completed successfully. */
   @Test
   public void testMarkMilestoneAsCompleted_Success() {
 
-    when(milestoneRepository.findById(1)).thenReturn(Optional.of(milestone));
+    when(milestoneRepository.findByIdForUpdate(1)).thenReturn(Optional.of(milestone));
     when(milestoneRepository.save(any(Milestone.class))).thenReturn(milestone);
 
     Milestone updatedMilestone = milestoneService.markMilestoneAsCompleted(1);
@@ -257,6 +301,8 @@ public class MilestoneServiceTest {
     assertNotNull(updatedMilestone);
     assertEquals(Milestone.Status.completed, updatedMilestone.getStatus());
     verify(milestoneRepository, times(1)).save(updatedMilestone);
+    verify(domainEventPublisher, times(1))
+        .publish(eq(OutboxEvent.EventType.milestone_completed), any(), eq(1), anyMap());
   }
 
   /** Test case for marking a milestone as completed when it's already completed. */
@@ -266,7 +312,7 @@ public class MilestoneServiceTest {
     milestoneCompleted.setMilestoneId(1);
     milestoneCompleted.setStatus(Milestone.Status.completed);
 
-    when(milestoneRepository.findById(1)).thenReturn(Optional.of(milestoneCompleted));
+    when(milestoneRepository.findByIdForUpdate(1)).thenReturn(Optional.of(milestoneCompleted));
 
     assertThrows(IllegalStateException.class, () -> milestoneService.markMilestoneAsCompleted(1));
   }
@@ -274,7 +320,7 @@ public class MilestoneServiceTest {
   /** Test case when milestone is not found during the mark as completed operation. */
   @Test
   public void testMarkMilestoneAsCompleted_NotFound() {
-    when(milestoneRepository.findById(-1)).thenReturn(Optional.empty());
+    when(milestoneRepository.findByIdForUpdate(-1)).thenReturn(Optional.empty());
 
     assertThrows(
         IllegalArgumentException.class, () -> milestoneService.markMilestoneAsCompleted(-1));
@@ -296,11 +342,37 @@ public class MilestoneServiceTest {
     assertEquals("The added amount must be greater than zero.", exception.getMessage());
   }
 
+  /** Test case for a deposit that leaves the milestone short of its target. */
+  @Test
+  public void testUpdateSavedAmountAndCheckCompletion_publishesProgress() {
+    milestone.setUser(user);
+    when(milestoneRepository.findByIdForUpdate(1)).thenReturn(Optional.of(milestone));
+    when(milestoneRepository.save(any(Milestone.class))).thenReturn(milestone);
+
+    milestoneService.updateSavedAmountAndCheckCompletion(1, new BigDecimal("25"));
+
+    assertEquals(Milestone.Status.active, milestone.getStatus());
+    verify(domainEventPublisher, times(1))
+        .publish(eq(OutboxEvent.EventType.milestone_progress), eq(1), eq(1), anyMap());
+    verify(domainEventPublisher, never())
+        .publish(eq(OutboxEvent.EventType.milestone_completed), any(), any(), anyMap());
+  }
+
+  /** Test case for a deposit with a fraction of a penny, which cannot be stored. */
+  @Test
+  public void testUpdateSavedAmountAndCheckCompletion_fractionOfPenny() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> milestoneService.updateSavedAmountAndCheckCompletion(1, new BigDecimal("0.005")));
+
+    verifyNoInteractions(milestoneRepository);
+  }
+
   /** Test case for handling milestone not found during the update of saved amount. */
   @Test
   public void testUpdateSavedAmountAndCheckCompletion_milestoneNotFound() {
     Integer milestoneId = 1;
-    when(milestoneRepository.findById(milestoneId)).thenReturn(Optional.empty());
+    when(milestoneRepository.findByIdForUpdate(milestoneId)).thenReturn(Optional.empty());
 
     Exception exception =
         assertThrows(
@@ -352,4 +424,159 @@ public class MilestoneServiceTest {
     assertTrue(
         exception.getMessage().contains("Failed to retrieve Milestone with Account provided"));
   }
+
+  /** Test case to verify milestone responses for a user are read by user ID. */
+  @Test
+  public void testGetMilestoneResponsesForUser_Success() {
+    milestone.setUser(user);
+    when(milestoneRepository.findResponsesByUserId(1))
+        .thenReturn(List.of(MilestoneResponse.from(milestone)));
+
+    List<MilestoneResponse> result = milestoneService.getMilestoneResponsesForUser(1);
+
+    assertEquals(1, result.size());
+    assertEquals(1, result.get(0).userId());
+    verify(milestoneRepository, never()).findAllByUser(any());
+  }
+
+  /** Test case for reading a milestone that has been moved to the archive. */
+  @Test
+  public void testGetMilestoneResponse_FallsBackToArchive() {
+    MilestoneResponse archived =
+        new MilestoneResponse(
+            7,
+            1,
+            "Old goal",
+            new BigDecimal("100.00"),
+            new BigDecimal("100.00"),
+            startDate,
+            completionDate,
+            Milestone.Status.completed);
+    when(milestoneRepository.findResponseById(7)).thenReturn(Optional.empty());
+    when(archivedMilestoneRepository.findResponseById(7)).thenReturn(Optional.of(archived));
+
+    assertEquals(Optional.of(archived), milestoneService.getMilestoneResponse(7));
+  }
+
+  /** Test case for a user's milestones, which merge live and archived ones in ID order. */
+  @Test
+  public void testGetMilestoneResponsesForUser_MergesArchiveInIdOrder() {
+    milestone.setUser(user);
+    MilestoneResponse live = MilestoneResponse.from(milestone);
+    MilestoneResponse archived =
+        new MilestoneResponse(
+            0,
+            1,
+            "Old goal",
+            new BigDecimal("100.00"),
+            new BigDecimal("100.00"),
+            startDate,
+            completionDate,
+            Milestone.Status.completed);
+    when(milestoneRepository.findResponsesByUserId(1)).thenReturn(List.of(live));
+    when(archivedMilestoneRepository.findResponsesByUserId(1)).thenReturn(List.of(archived));
+
+    assertEquals(List.of(archived, live), milestoneService.getMilestoneResponsesForUser(1));
+  }
+
+  /**
+   * Test case for the milestones of several users, which are read together and grouped by user in
+   * the order the users were asked for.
+   */
+  @Test
+  public void testGetMilestoneResponsesForUsers_GroupsByUser() {
+    MilestoneResponse first = milestoneOf(1, 1);
+    MilestoneResponse second = milestoneOf(2, 2);
+    MilestoneResponse archived = milestoneOf(0, 2);
+    when(milestoneRepository.findResponsesByUserIdIn(List.of(2, 1)))
+        .thenReturn(List.of(first, second));
+    when(archivedMilestoneRepository.findResponsesByUserIdIn(List.of(2, 1)))
+        .thenReturn(List.of(archived));
+
+    assertEquals(
+        List.of(archived, second, first),
+        milestoneService.getMilestoneResponsesForUsers(List.of(2, 1)));
+  }
+
+  /**
+   * Test case for deleting a milestone that has deposits. Verifies that its savings, live and
+   * archived, are deleted before it, so the foreign key holds, and that every deleted row is
+   * logged.
+   */
+  @Test
+  public void testDeleteMilestone_WithDeposits_DeletesSavingsFirst() {
+    milestone.setUser(user);
+    when(milestoneRepository.findById(1)).thenReturn(Optional.of(milestone));
+    when(savingsRepository.findIdsByMilestoneId(1)).thenReturn(List.of(7, 8));
+    when(archivedSavingsRepository.findIdsByMilestoneId(1)).thenReturn(List.of(3));
+
+    milestoneService.deleteMilestone(1);
+
+    InOrder inOrder = inOrder(savingsRepository, archivedSavingsRepository, milestoneRepository);
+    inOrder.verify(savingsRepository).deleteByMilestoneId(1);
+    inOrder.verify(archivedSavingsRepository).deleteByMilestoneId(1);
+    inOrder.verify(milestoneRepository).deleteById(1);
+    verify(userVersionService)
+        .recordChanges(
+            List.of(
+                EntityChange.delete(1, ChangeLog.EntityType.savings, 7),
+                EntityChange.delete(1, ChangeLog.EntityType.savings, 8),
+                EntityChange.delete(1, ChangeLog.EntityType.savings, 3),
+                EntityChange.delete(1, ChangeLog.EntityType.milestone, 1)));
+  }
+
+  /**
+   * Test case for a read that starts after a write while a read from before the write is still
+   * running. Verifies that the later read runs its own query instead of joining the earlier one,
+   * which would hand it the old list under the new version's ETag.
+   */
+  @Test
+  public void testGetMilestoneResponsesForUser_ReadAfterWrite_DoesNotJoinOlderQuery()
+      throws Exception {
+    MilestoneResponse before = milestoneOf(1, 1);
+    MilestoneResponse added = milestoneOf(2, 1);
+    CountDownLatch firstQueryStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstQuery = new CountDownLatch(1);
+    when(userVersionService.getVersion(1)).thenReturn(1L);
+    when(archivedMilestoneRepository.findResponsesByUserId(1)).thenReturn(List.of());
+    when(milestoneRepository.findResponsesByUserId(1))
+        .thenAnswer(
+            invocation -> {
+              firstQueryStarted.countDown();
+              releaseFirstQuery.await();
+              return List.of(before);
+            })
+        .thenReturn(List.of(before, added));
+
+    ExecutorService readers = Executors.newFixedThreadPool(2);
+    try {
+      Future<List<MilestoneResponse>> first =
+          readers.submit(() -> milestoneService.getMilestoneResponsesForUser(1));
+      assertTrue(firstQueryStarted.await(5, TimeUnit.SECONDS));
+
+      // A write commits and bumps the version the next reader's ETag is built from
+      when(userVersionService.getVersion(1)).thenReturn(2L);
+      Future<List<MilestoneResponse>> second =
+          readers.submit(() -> milestoneService.getMilestoneResponsesForUser(1));
+
+      assertEquals(List.of(before, added), second.get(5, TimeUnit.SECONDS));
+      releaseFirstQuery.countDown();
+      assertEquals(List.of(before), first.get(5, TimeUnit.SECONDS));
+    } finally {
+      releaseFirstQuery.countDown();
+      readers.shutdownNow();
+    }
+  }
+
+  private MilestoneResponse milestoneOf(int milestoneId, int userId) {
+    return new MilestoneResponse(
+        milestoneId,
+        userId,
+        "Goal " + milestoneId,
+        new BigDecimal("100.00"),
+        new BigDecimal("10.00"),
+        startDate,
+        null,
+        Milestone.Status.active);
+  }
 }
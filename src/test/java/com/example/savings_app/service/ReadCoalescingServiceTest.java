@@ -0,0 +1,57 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.config.ReplicaRoutingDataSource;
+import com.example.savings_app.util.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/** Unit tests for the ReadCoalescingService. */
+public class ReadCoalescingServiceTest {
+
+  private final PlatformTransactionManager transactionManager =
+      mock(PlatformTransactionManager.class);
+
+  /** Cleanup method to release the thread from the primary after each test. */
+  @AfterEach
+  void tearDown() {
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+  }
+
+  /** Test that a shared read runs in a read-only transaction and is counted. */
+  @Test
+  void read_ShouldRunSharedQueryReadOnly() {
+    ReadCoalescingService service = new ReadCoalescingService(transactionManager, 10, true);
+
+    assertEquals("result", service.read("milestonesByStatus", "active", () -> "result"));
+
+    verify(transactionManager)
+        .getTransaction(argThat((TransactionDefinition definition) -> definition.isReadOnly()));
+    assertEquals(new SingleFlight.Stats(1, 0, 0, 0), service.getStats());
+  }
+
+  /** Test that a request reading its own writes never shares a query that may predate them. */
+  @Test
+  void read_ShouldNotShare_WhenPrimaryRequired() {
+    ReadCoalescingService service = new ReadCoalescingService(transactionManager, 10, true);
+    ReplicaRoutingDataSource.setPrimaryRequired(true);
+
+    assertEquals("result", service.read("milestonesByStatus", "active", () -> "result"));
+
+    assertEquals(new SingleFlight.Stats(0, 0, 0, 0), service.getStats());
+  }
+
+  /** Test that nothing is shared when coalescing is disabled. */
+  @Test
+  void read_ShouldNotShare_WhenDisabled() {
+    ReadCoalescingService service = new ReadCoalescingService(transactionManager, 10, false);
+
+    assertEquals("result", service.read("milestonesByStatus", "active", () -> "result"));
+
+    assertEquals(new SingleFlight.Stats(0, 0, 0, 0), service.getStats());
+  }
+}
@@ -0,0 +1,183 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.event.DomainEventPublisher;
+import com.example.savings_app.model.Account;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.OutboxEvent;
+import com.example.savings_app.model.RecurringDeposit;
+import com.example.savings_app.model.Savings;
+import com.example.savings_app.repository.MilestoneRepository;
+import com.example.savings_app.repository.RecurringDepositRepository;
+import com.example.savings_app.repository.SavingsBatchRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Unit tests for the RecurringDepositService. */
+@ExtendWith(MockitoExtension.class)
+public class RecurringDepositServiceTest {
+
+  private static final LocalDate TODAY = LocalDate.parse("2024-11-16");
+
+  @Mock private RecurringDepositRepository recurringDepositRepository;
+  @Mock private MilestoneRepository milestoneRepository;
+  @Mock private SavingsBatchRepository savingsBatchRepository;
+  @Mock private AccountService accountService;
+  @Mock private DomainEventPublisher domainEventPublisher;
+  @Mock private UserVersionService userVersionService;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private RecurringDepositService recurringDepositService;
+  private Account user;
+  private Milestone milestone;
+
+  /** Setup method to initialize the service with a page size of two before each test. */
+  @BeforeEach
+  void setUp() {
+    recurringDepositService =
+        new RecurringDepositService(
+            recurringDepositRepository,
+            milestoneRepository,
+            savingsBatchRepository,
+            accountService,
+            domainEventPublisher,
+            userVersionService,
+            ShardScatterGather.single(),
+            transactionManager,
+            2,
+            0,
+            false);
+
+    user = Account.builder().userId(1).build();
+    milestone =
+        Milestone.builder()
+            .milestoneId(10)
+            .user(user)
+            .targetAmount(BigDecimal.valueOf(100))
+            .savedAmount(BigDecimal.valueOf(90))
+            .status(Milestone.Status.active)
+            .build();
+  }
+
+  /** Test that a valid schedule is saved as active with today's date as its first run. */
+  @Test
+  void createSchedule_ShouldSaveActiveSchedule_WhenValid() {
+    when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(user));
+    when(milestoneRepository.findById(10)).thenReturn(Optional.of(milestone));
+    when(recurringDepositRepository.save(any(RecurringDeposit.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    RecurringDeposit created =
+        recurringDepositService.createSchedule(schedule(BigDecimal.valueOf(5), null));
+
+    assertEquals(RecurringDeposit.Status.active, created.getStatus());
+    assertEquals(LocalDate.now(), created.getNextRunDate());
+  }
+
+  /** Test that a schedule for another user's milestone is refused. */
+  @Test
+  void createSchedule_ShouldThrowException_WhenMilestoneBelongsToAnotherUser() {
+    milestone.setUser(Account.builder().userId(2).build());
+    when(accountService.getAccountByUserId(1)).thenReturn(Optional.of(user));
+    when(milestoneRepository.findById(10)).thenReturn(Optional.of(milestone));
+
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> recurringDepositService.createSchedule(schedule(BigDecimal.valueOf(5), null)));
+    assertEquals("Milestone does not belong to the user.", exception.getMessage());
+  }
+
+  /**
+   * Test that a due schedule deposits no more than the milestone still needs, completes the
+   * milestone, and moves on to its next run.
+   */
+  @Test
+  void processDueSchedules_ShouldCapDepositAndCompleteMilestone_WhenTargetReached() {
+    RecurringDeposit due = schedule(BigDecimal.valueOf(25), TODAY);
+    due.setScheduleId(5);
+    when(recurringDepositRepository.findDuePage(
+            eq(RecurringDeposit.Status.active), eq(TODAY), any(), anyInt(), any()))
+        .thenReturn(List.of(due));
+    when(milestoneRepository.findAllForUpdate(anyCollection())).thenReturn(List.of(milestone));
+    assignSavingsIds();
+
+    int deposits = recurringDepositService.processDueSchedules(TODAY);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Savings>> captor = ArgumentCaptor.forClass(List.class);
+    verify(savingsBatchRepository).insertSavings(captor.capture());
+    assertEquals(1, deposits);
+    assertEquals(0, BigDecimal.TEN.compareTo(captor.getValue().get(0).getAmount()));
+    assertEquals(Milestone.Status.completed, milestone.getStatus());
+    assertEquals(TODAY.plusWeeks(1), due.getNextRunDate());
+    verify(userVersionService)
+        .recordChanges(
+            List.of(
+                EntityChange.upsert(1, ChangeLog.EntityType.savings, 100),
+                EntityChange.upsert(1, ChangeLog.EntityType.milestone, 10)));
+    verify(domainEventPublisher)
+        .publishAll(eq(OutboxEvent.EventType.milestone_completed), anyList());
+  }
+
+  /** Test that a schedule whose milestone is already completed is finished without a deposit. */
+  @Test
+  void processDueSchedules_ShouldFinishSchedule_WhenMilestoneCompleted() {
+    milestone.setStatus(Milestone.Status.completed);
+    RecurringDeposit due = schedule(BigDecimal.valueOf(5), TODAY);
+    due.setScheduleId(5);
+    when(recurringDepositRepository.findDuePage(
+            eq(RecurringDeposit.Status.active), eq(TODAY), any(), anyInt(), any()))
+        .thenReturn(List.of(due));
+    when(milestoneRepository.findAllForUpdate(anyCollection())).thenReturn(List.of(milestone));
+
+    int deposits = recurringDepositService.processDueSchedules(TODAY);
+
+    assertEquals(0, deposits);
+    assertEquals(RecurringDeposit.Status.finished, due.getStatus());
+    verifyNoInteractions(domainEventPublisher);
+  }
+
+  private RecurringDeposit schedule(BigDecimal amount, LocalDate nextRunDate) {
+    return RecurringDeposit.builder()
+        .user(user)
+        .milestoneId(10)
+        .amount(amount)
+        .frequency(RecurringDeposit.Frequency.weekly)
+        .nextRunDate(nextRunDate)
+        .build();
+  }
+
+  /** Stubs the batch insert to assign generated IDs from 100 up, as the database does. */
+  private void assignSavingsIds() {
+    doAnswer(
+            invocation -> {
+              List<Savings> inserted = invocation.getArgument(0);
+              for (int i = 0; i < inserted.size(); i++) {
+                inserted.get(i).setSavingsId(100 + i);
+              }
+              return null;
+            })
+        .when(savingsBatchRepository)
+        .insertSavings(anyList());
+  }
+}
@@ -3,8 +3,17 @@ package com.example.savings_app.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.event.DomainEventPublisher;
 import com.example.savings_app.model.Account;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.model.OutboxEvent;
 import com.example.savings_app.model.Savings;
+import com.example.savings_app.repository.ArchivedSavingsRepository;
+import com.example.savings_app.repository.MilestoneRepository;
 import com.example.savings_app.repository.SavingsRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,13 +22,19 @@ import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /** Unit tests for the SavingsService class. */
 public class SavingsServiceTest {
 
   private SavingsRepository savingsRepository; // Mocked savings repository
+  private ArchivedSavingsRepository archivedSavingsRepository; // Mocked archive repository
+  private MilestoneRepository milestoneRepository; // Mocked milestone repository
   private SavingsService savingsService; // The service under test
   private AccountService accountService; // Mocked account service
+  private DomainEventPublisher domainEventPublisher; // Mocked outbox publisher
+  private UserVersionService userVersionService; // Mocked version stamps
 
   private Savings savings; // Test savings object
   private final LocalDate savingsDate = LocalDate.parse("2024-11-01"); // Sample date for savings
@@ -29,9 +44,22 @@ public class SavingsServiceTest {
   @BeforeEach
   public void setUp() {
     savingsRepository = mock(SavingsRepository.class); // Mock the savings repository
+    archivedSavingsRepository = mock(ArchivedSavingsRepository.class); // Mock the archive
+    milestoneRepository = mock(MilestoneRepository.class); // Mock the milestone repository
     accountService = mock(AccountService.class); // Mock the account service
+    domainEventPublisher = mock(DomainEventPublisher.class); // Mock the outbox publisher
+    userVersionService = mock(UserVersionService.class); // Mock the version stamps
+    // Initialize service under test, with reads coalesced as in production
     savingsService =
-        new SavingsService(savingsRepository, accountService); // Initialize service under test
+        new SavingsService(
+            savingsRepository,
+            archivedSavingsRepository,
+            milestoneRepository,
+            accountService,
+            domainEventPublisher,
+            userVersionService,
+            ShardScatterGather.single(),
+            new ReadCoalescingService(mock(PlatformTransactionManager.class), 1000, true));
 
     // Initialize sample data for savings and account
     savings =
@@ -101,11 +129,11 @@ public class SavingsServiceTest {
     verify(savingsRepository, times(1)).findByDate(savingsDate); // Verify method call
   }
 
-  /** Test case for getting savings by milestone ID when the milestone exists. */
+  /** Test case for getting the latest savings by milestone ID when the milestone exists. */
   @Test
   public void testGetSavingsByMilestoneId_Success() {
-    when(savingsRepository.findByMilestoneId(1))
-        .thenReturn(Optional.of(savings)); // Mock findByMilestoneId
+    when(savingsRepository.findFirstByMilestoneIdOrderBySavingsIdDesc(1))
+        .thenReturn(Optional.of(savings)); // Mock the latest savings lookup
 
     Optional<Savings> result = savingsService.getSavingsByMilestoneId(1); // Call service method
 
@@ -113,19 +141,22 @@ public class SavingsServiceTest {
     assertTrue(result.isPresent(), "Savings should be found");
     assertEquals(
         savings.getMilestoneId(), result.get().getMilestoneId(), "Milestone ID should match");
-    verify(savingsRepository, times(1)).findByMilestoneId(1); // Verify method call
+    verify(savingsRepository, times(1))
+        .findFirstByMilestoneIdOrderBySavingsIdDesc(1); // Verify method call
   }
 
   /** Test case for getting savings by milestone ID when no savings match. */
   @Test
   public void testGetSavingsByMilestoneId_NotFound() {
-    when(savingsRepository.findByMilestoneId(99)).thenReturn(Optional.empty()); // Mock empty result
+    when(savingsRepository.findFirstByMilestoneIdOrderBySavingsIdDesc(99))
+        .thenReturn(Optional.empty()); // Mock empty result
 
     Optional<Savings> result = savingsService.getSavingsByMilestoneId(99); // Call service method
 
     // Assert that no savings were found
     assertFalse(result.isPresent(), "Savings should not be found");
-    verify(savingsRepository, times(1)).findByMilestoneId(99); // Verify method call
+    verify(savingsRepository, times(1))
+        .findFirstByMilestoneIdOrderBySavingsIdDesc(99); // Verify method call
   }
 
   /** Test case for successfully deleting savings by ID. */
@@ -221,6 +252,9 @@ public class SavingsServiceTest {
 
     when(accountService.getAccountByUserId(user.getUserId()))
         .thenReturn(Optional.of(user)); // Mock account lookup
+    when(milestoneRepository.findById(1))
+        .thenReturn(
+            Optional.of(Milestone.builder().milestoneId(1).user(user).build())); // Mock milestone
     when(savingsRepository.save(any(Savings.class)))
         .thenReturn(savings1); // Mock saving the savings
 
@@ -230,5 +264,140 @@ public class SavingsServiceTest {
     assertNotNull(createdSavings);
     assertEquals(1, savings1.getMilestoneId());
     verify(savingsRepository, times(1)).save(savings1); // Verify save method was called
+    verify(domainEventPublisher, times(1))
+        .publish(
+            eq(OutboxEvent.EventType.savings_created),
+            eq(user.getUserId()),
+            eq(1),
+            anyMap()); // Verify the deposit was recorded in the outbox
+    verify(userVersionService, times(1))
+        .recordChange(
+            EntityChange.upsert(
+                user.getUserId(), ChangeLog.EntityType.savings, 1)); // Verify the change is logged
+  }
+
+  /** Test case for getting savings responses for a date without loading the entities. */
+  @Test
+  public void testGetSavingsResponsesByDate_Success() {
+    LocalDate date = savings.getDate();
+    savings.setUser(user);
+    when(savingsRepository.findResponsesByDate(date))
+        .thenReturn(List.of(SavingsResponse.from(savings)));
+
+    List<SavingsResponse> result = savingsService.getSavingsResponsesByDate(date);
+
+    assertEquals(1, result.size());
+    assertEquals(savings.getSavingsId(), result.get(0).savingsId());
+    verify(savingsRepository, never()).findByDate(any());
+  }
+
+  /** Test case for creating savings against a milestone that belongs to another user. */
+  @Test
+  public void testCreateSavings_MilestoneOfAnotherUser() {
+    savings.setUser(user);
+    when(accountService.getAccountByUserId(user.getUserId())).thenReturn(Optional.of(user));
+    when(milestoneRepository.findById(1))
+        .thenReturn(
+            Optional.of(
+                Milestone.builder()
+                    .milestoneId(1)
+                    .user(Account.builder().userId(2).build())
+                    .build()));
+
+    IllegalArgumentException exception =
+        assertThrows(IllegalArgumentException.class, () -> savingsService.createSavings(savings));
+
+    assertEquals("Milestone does not belong to the user.", exception.getMessage());
+    verify(savingsRepository, never()).save(any());
+  }
+
+  /** Test case for reading a page of a milestone's savings after a given savings ID. */
+  @Test
+  public void testGetSavingsResponsesForMilestone_Page() {
+    savings.setUser(user);
+    when(savingsRepository.findResponsePageByMilestoneId(eq(1), eq(5), any()))
+        .thenReturn(List.of(SavingsResponse.from(savings)));
+
+    List<SavingsResponse> page = savingsService.getSavingsResponsesForMilestone(1, 5, 20);
+
+    assertEquals(1, page.size());
+    verify(savingsRepository).findResponsePageByMilestoneId(1, 5, PageRequest.of(0, 20));
+  }
+
+  /** Test case for a milestone's ledger page, which merges live and archived savings by ID. */
+  @Test
+  public void testGetSavingsResponsesForMilestone_MergesArchive() {
+    SavingsResponse archived1 = new SavingsResponse(2, 1, BigDecimal.ONE, savingsDate, 1);
+    SavingsResponse live = new SavingsResponse(3, 1, BigDecimal.TEN, savingsDate, 1);
+    SavingsResponse archived2 = new SavingsResponse(4, 1, BigDecimal.ONE, savingsDate, 1);
+    PageRequest page = PageRequest.of(0, 2);
+    when(savingsRepository.findResponsePageByMilestoneId(1, 0, page)).thenReturn(List.of(live));
+    when(archivedSavingsRepository.findResponsePageByMilestoneId(1, 0, page))
+        .thenReturn(List.of(archived1, archived2));
+
+    List<SavingsResponse> result = savingsService.getSavingsResponsesForMilestone(1, 0, 2);
+
+    assertEquals(List.of(archived1, live), result);
+  }
+
+  /** Test case for a milestone's ledger total, which adds the live and archived sums. */
+  @Test
+  public void testGetLedgerTotal_IncludesArchive() {
+    when(savingsRepository.sumAmountByMilestoneId(1)).thenReturn(new BigDecimal("10.00"));
+    when(archivedSavingsRepository.sumAmountByMilestoneId(1)).thenReturn(new BigDecimal("2.50"));
+
+    assertEquals(new BigDecimal("12.50"), savingsService.getLedgerTotal(1));
+  }
+
+  /**
+   * Test case for the savings of several milestones, which are read together, archived ones
+   * included, and grouped by milestone in the order the milestones were asked for.
+   */
+  @Test
+  public void testGetSavingsResponsesForMilestones_GroupsByMilestone() {
+    SavingsResponse first = new SavingsResponse(3, 1, BigDecimal.TEN, savingsDate, 1);
+    SavingsResponse second = new SavingsResponse(4, 1, BigDecimal.TEN, savingsDate, 2);
+    SavingsResponse archived = new SavingsResponse(2, 1, BigDecimal.ONE, savingsDate, 1);
+    when(savingsRepository.findResponsePagesByMilestoneIdIn(List.of(2, 1), 0, 50))
+        .thenReturn(List.of(first, second));
+    when(archivedSavingsRepository.findResponsePagesByMilestoneIdIn(List.of(2, 1), 0, 50))
+        .thenReturn(List.of(archived));
+
+    assertEquals(
+        List.of(second, archived, first),
+        savingsService.getSavingsResponsesForMilestones(List.of(2, 1), 0, 50));
+  }
+
+  /**
+   * Test case for a page of the savings of a milestone with records in both tables, which is
+   * trimmed to the page size once the two tables' pages are merged.
+   */
+  @Test
+  public void testGetSavingsResponsesForMilestones_TrimsMergedPage() {
+    SavingsResponse archived = new SavingsResponse(2, 1, BigDecimal.ONE, savingsDate, 1);
+    SavingsResponse first = new SavingsResponse(3, 1, BigDecimal.TEN, savingsDate, 1);
+    SavingsResponse second = new SavingsResponse(5, 1, BigDecimal.TEN, savingsDate, 1);
+    when(savingsRepository.findResponsePagesByMilestoneIdIn(List.of(1), 1, 2))
+        .thenReturn(List.of(first, second));
+    when(archivedSavingsRepository.findResponsePagesByMilestoneIdIn(List.of(1), 1, 2))
+        .thenReturn(List.of(archived));
+
+    assertEquals(
+        List.of(archived, first),
+        savingsService.getSavingsResponsesForMilestones(List.of(1), 1, 2));
+  }
+
+  /** Test case for the savings of several users, which are grouped by user. */
+  @Test
+  public void testGetSavingsResponsesForUsers_GroupsByUser() {
+    SavingsResponse first = new SavingsResponse(3, 1, BigDecimal.TEN, savingsDate, 1);
+    SavingsResponse second = new SavingsResponse(4, 2, BigDecimal.TEN, savingsDate, 2);
+    when(savingsRepository.findResponsePagesByUserIdIn(List.of(2, 1), 0, 50))
+        .thenReturn(List.of(first, second));
+    when(archivedSavingsRepository.findResponsePagesByUserIdIn(List.of(2, 1), 0, 50))
+        .thenReturn(List.of());
+
+    assertEquals(
+        List.of(second, first), savingsService.getSavingsResponsesForUsers(List.of(2, 1), 0, 50));
   }
 }
@@ -0,0 +1,197 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.config.ReplicaRoutingDataSource;
+import com.example.savings_app.config.ShardScatterGather;
+import com.example.savings_app.dto.MilestoneResponse;
+import com.example.savings_app.dto.SavingsResponse;
+import com.example.savings_app.dto.SyncResponse;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.model.Milestone;
+import com.example.savings_app.repository.ChangeLogRepository;
+import com.example.savings_app.repository.UserVersionRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Unit tests for the SyncService. */
+@ExtendWith(MockitoExtension.class)
+public class SyncServiceTest {
+
+  private static final int USER_ID = 7;
+
+  @Mock private ChangeLogRepository changeLogRepository;
+  @Mock private UserVersionRepository userVersionRepository;
+  @Mock private AccountService accountService;
+  @Mock private MilestoneService milestoneService;
+  @Mock private SavingsService savingsService;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private SyncService syncService;
+
+  /** Setup method to expire old changes in batches of two. */
+  @BeforeEach
+  void setUp() {
+    syncService =
+        new SyncService(
+            changeLogRepository,
+            userVersionRepository,
+            accountService,
+            milestoneService,
+            savingsService,
+            ShardScatterGather.single(),
+            transactionManager,
+            90,
+            2,
+            true);
+  }
+
+  /** Test that a first sync asks the client to refetch and hands it the current cursor. */
+  @Test
+  void getChanges_ShouldRequireResync_WithoutCursor() {
+    when(userVersionRepository.findVersion(USER_ID)).thenReturn(12L);
+
+    assertEquals(SyncResponse.resync(12), syncService.getChanges(USER_ID, null, 100));
+    verifyNoInteractions(changeLogRepository);
+  }
+
+  /** Test that an up to date client is answered without reading the log. */
+  @Test
+  void getChanges_ShouldReturnNothing_WhenCursorIsCurrent() {
+    when(userVersionRepository.findVersion(USER_ID)).thenReturn(12L);
+
+    assertEquals(SyncResponse.unchanged(12), syncService.getChanges(USER_ID, 12L, 100));
+    verifyNoInteractions(changeLogRepository);
+  }
+
+  /** Test that a cursor ahead of a lagging replica is kept rather than forcing a resync. */
+  @Test
+  void getChanges_ShouldKeepCursor_WhenReplicaIsBehind() {
+    when(userVersionRepository.findVersion(USER_ID))
+        .thenAnswer(invocation -> ReplicaRoutingDataSource.isPrimaryRequired() ? 14L : 12L);
+
+    assertEquals(SyncResponse.unchanged(14), syncService.getChanges(USER_ID, 14L, 100));
+    assertFalse(ReplicaRoutingDataSource.isPrimaryRequired());
+    verifyNoInteractions(changeLogRepository);
+  }
+
+  /** Test that a cursor ahead of the primary as well was never issued and must resync. */
+  @Test
+  void getChanges_ShouldRequireResync_WhenCursorAheadOfPrimary() {
+    when(userVersionRepository.findVersion(USER_ID))
+        .thenAnswer(invocation -> ReplicaRoutingDataSource.isPrimaryRequired() ? 14L : 12L);
+
+    assertEquals(SyncResponse.resync(14), syncService.getChanges(USER_ID, 99L, 100));
+    verifyNoInteractions(changeLogRepository);
+  }
+
+  /** Test that a cursor whose changes have expired cannot be synced from. */
+  @Test
+  void getChanges_ShouldRequireResync_WhenCursorExpired() {
+    when(userVersionRepository.findVersion(USER_ID)).thenReturn(12L);
+    when(changeLogRepository.findOldestVersion(USER_ID)).thenReturn(9L);
+
+    assertEquals(SyncResponse.resync(12), syncService.getChanges(USER_ID, 8L, 100));
+  }
+
+  /**
+   * Test that each changed row is reported once, in its current state or as deleted, and that a
+   * row which can no longer be read is reported as deleted.
+   */
+  @Test
+  void getChanges_ShouldReturnLatestStateOfEachChangedRow() {
+    when(userVersionRepository.findVersion(USER_ID)).thenReturn(12L);
+    when(changeLogRepository.findOldestVersion(USER_ID)).thenReturn(1L);
+    when(changeLogRepository.findByUserIdAndVersionGreaterThanOrderByVersionAscChangeIdAsc(
+            USER_ID, 10L, PageRequest.of(0, 101)))
+        .thenReturn(
+            List.of(
+                change(11, ChangeLog.EntityType.savings, 30, ChangeLog.Operation.upsert),
+                change(11, ChangeLog.EntityType.milestone, 3, ChangeLog.Operation.upsert),
+                change(12, ChangeLog.EntityType.savings, 31, ChangeLog.Operation.upsert),
+                change(12, ChangeLog.EntityType.milestone, 3, ChangeLog.Operation.upsert),
+                change(12, ChangeLog.EntityType.savings, 30, ChangeLog.Operation.delete)));
+    MilestoneResponse milestone = milestoneResponse(3);
+    when(milestoneService.getMilestoneResponses(List.of(3))).thenReturn(List.of(milestone));
+    // Savings 31 was deleted after this snapshot was logged, by a write on the next page
+    when(savingsService.getSavingsResponses(List.of(31))).thenReturn(List.of());
+
+    SyncResponse response = syncService.getChanges(USER_ID, 10L, 100);
+
+    assertEquals(12, response.cursor());
+    assertFalse(response.hasMore());
+    assertFalse(response.resyncRequired());
+    assertEquals(List.of(milestone), response.milestones());
+    assertEquals(List.<SavingsResponse>of(), response.savings());
+    assertEquals(List.of(30, 31), response.deletedSavingsIds());
+    verify(accountService, never()).getAccountResponses(anyCollection());
+  }
+
+  /** Test that a full page ends before the version it could not hold in full. */
+  @Test
+  void getChanges_ShouldEndPageOnWholeVersion() {
+    when(userVersionRepository.findVersion(USER_ID)).thenReturn(20L);
+    when(changeLogRepository.findOldestVersion(USER_ID)).thenReturn(1L);
+    when(changeLogRepository.findByUserIdAndVersionGreaterThanOrderByVersionAscChangeIdAsc(
+            USER_ID, 10L, PageRequest.of(0, 3)))
+        .thenReturn(
+            List.of(
+                change(11, ChangeLog.EntityType.milestone, 3, ChangeLog.Operation.upsert),
+                change(12, ChangeLog.EntityType.savings, 30, ChangeLog.Operation.upsert),
+                change(12, ChangeLog.EntityType.milestone, 3, ChangeLog.Operation.upsert)));
+    when(milestoneService.getMilestoneResponses(List.of(3)))
+        .thenReturn(List.of(milestoneResponse(3)));
+
+    SyncResponse response = syncService.getChanges(USER_ID, 10L, 2);
+
+    assertEquals(11, response.cursor());
+    assertTrue(response.hasMore());
+    verifyNoInteractions(savingsService);
+  }
+
+  /** Test that expiry deletes batch after batch until one comes back short. */
+  @Test
+  void prune_ShouldDeleteUntilBatchIsShort() {
+    LocalDateTime cutoff = LocalDateTime.parse("2024-08-18T02:30:00");
+    when(changeLogRepository.deleteOlderThan(eq(cutoff), eq(2))).thenReturn(2, 2, 1);
+
+    assertEquals(5, syncService.prune(cutoff));
+    verify(changeLogRepository, times(3)).deleteOlderThan(any(), eq(2));
+  }
+
+  private static ChangeLog change(
+      long version, ChangeLog.EntityType entityType, int entityId, ChangeLog.Operation operation) {
+    return ChangeLog.builder()
+        .userId(USER_ID)
+        .version(version)
+        .entityType(entityType)
+        .entityId(entityId)
+        .operation(operation)
+        .build();
+  }
+
+  private static MilestoneResponse milestoneResponse(int milestoneId) {
+    return new MilestoneResponse(
+        milestoneId,
+        USER_ID,
+        "Bicycle",
+        new BigDecimal("100.00"),
+        new BigDecimal("40.00"),
+        LocalDate.parse("2024-11-01"),
+        null,
+        Milestone.Status.active);
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.savings_app.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.savings_app.dto.EntityChange;
+import com.example.savings_app.model.ChangeLog;
+import com.example.savings_app.repository.UserVersionRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for {@link UserVersionService}. */
+@ExtendWith(MockitoExtension.class)
+class UserVersionServiceTest {
+
+  @Mock private UserVersionRepository userVersionRepository;
+
+  private UserVersionService userVersionService;
+
+  @BeforeEach
+  void setUp() {
+    userVersionService = new UserVersionService(userVersionRepository);
+  }
+
+  /**
+   * Test that the ETag is a weak tag made of the user ID and version, so that Tomcat still
+   * compresses the response.
+   */
+  @Test
+  void getETag_ShouldQuoteUserAndVersion() {
+    when(userVersionRepository.findVersion(7)).thenReturn(42L);
+
+    assertEquals("W/\"7-42\"", userVersionService.getETag(7, ""));
+  }
+
+  /** Test that each encoding gets its own tag, so a 304 never confirms another encoding. */
+  @Test
+  void getETag_ShouldAppendVariant_ForBinaryEncodings() {
+    when(userVersionRepository.findVersion(7)).thenReturn(42L);
+
+    assertEquals("W/\"7-42-cbor\"", userVersionService.getETag(7, "-cbor"));
+  }
+
+  /** Test that a user who has never written anything still gets a stable ETag. */
+  @Test
+  void getETag_ShouldUseVersionZero_WhenUserHasNoWrites() {
+    when(userVersionRepository.findVersion(7)).thenReturn(0L);
+
+    assertEquals("W/\"7-0\"", userVersionService.getETag(7, ""));
+  }
+
+  /** Test that a change bumps its user and is logged at the new version. */
+  @Test
+  void recordChange_ShouldBumpUserAndLogChange() {
+    EntityChange change = EntityChange.upsert(7, ChangeLog.EntityType.milestone, 3);
+
+    userVersionService.recordChange(change);
+
+    InOrder inOrder = inOrder(userVersionRepository);
+    inOrder.verify(userVersionRepository).bump(List.of(7));
+    inOrder.verify(userVersionRepository).logChanges(eq(List.of(change)), any());
+  }
+
+  /** Test that a user with several changes in one write is bumped once. */
+  @Test
+  void recordChanges_ShouldBumpEachUserOnce() {
+    List<EntityChange> changes =
+        List.of(
+            EntityChange.upsert(7, ChangeLog.EntityType.savings, 30),
+            EntityChange.upsert(7, ChangeLog.EntityType.milestone, 3),
+            EntityChange.delete(8, ChangeLog.EntityType.savings, 31));
+
+    userVersionService.recordChanges(changes);
+
+    verify(userVersionRepository).bump(List.of(7, 8));
+    verify(userVersionRepository).logChanges(eq(changes), any());
+  }
+
+  /** Test that a write without changes does not touch the version table. */
+  @Test
+  void recordChanges_ShouldDoNothing_WhenNoChanges() {
+    userVersionService.recordChanges(List.of());
+
+    verifyNoInteractions(userVersionRepository);
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.savings_app.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the BloomFilter class. */
+public class BloomFilterTest {
+
+  /** Test that every added value is reported as possibly present. */
+  @Test
+  void mightContain_ShouldReturnTrue_ForAddedValues() {
+    BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+    for (int i = 0; i < 1_000; i++) {
+      filter.put("user" + i + "@example.com");
+    }
+
+    for (int i = 0; i < 1_000; i++) {
+      assertTrue(filter.mightContain("user" + i + "@example.com"));
+    }
+    assertEquals(1_000, filter.getInsertions());
+  }
+
+  /** Test that the false positive rate stays close to the rate the filter was sized for. */
+  @Test
+  void mightContain_ShouldKeepFalsePositivesNearTargetRate() {
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("user" + i + "@example.com");
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (filter.mightContain("other" + i + "@example.com")) {
+        falsePositives++;
+      }
+    }
+
+    // Allow generous headroom over the 1% target to keep the test stable
+    assertTrue(falsePositives < 300, "Too many false positives: " + falsePositives);
+  }
+
+  /** Test that invalid sizing arguments are rejected. */
+  @Test
+  void create_ShouldThrowException_WhenArgumentsAreInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+  }
+}
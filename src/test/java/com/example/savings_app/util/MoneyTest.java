@@ -0,0 +1,49 @@
+package com.example.savings_app.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the Money class. */
+public class MoneyTest {
+
+  /** Test that amounts convert to pence and back without losing their value or scale. */
+  @Test
+  void of_ShouldRoundTripThroughBigDecimal() {
+    assertEquals(1050, Money.of(new BigDecimal("10.5")).pence());
+    assertEquals(1000, Money.of(BigDecimal.TEN).pence());
+    assertEquals(new BigDecimal("10.50"), Money.of(new BigDecimal("10.5")).toBigDecimal());
+    assertEquals(Money.ZERO, Money.ofNullable(null));
+  }
+
+  /** Test that fractions of a penny and amounts too large for a long are refused. */
+  @Test
+  void of_ShouldThrowException_WhenAmountIsNotWholePence() {
+    assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.001")));
+    assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1E+20")));
+  }
+
+  /** Test that arithmetic throws on overflow instead of wrapping around. */
+  @Test
+  void plus_ShouldThrowException_OnOverflow() {
+    Money max = new Money(Long.MAX_VALUE);
+
+    assertThrows(ArithmeticException.class, () -> max.plus(new Money(1)));
+    assertThrows(ArithmeticException.class, () -> new Money(Long.MIN_VALUE).minus(new Money(1)));
+    assertThrows(ArithmeticException.class, () -> max.times(2, 1));
+  }
+
+  /** Test that scaling by a ratio rounds exactly like BigDecimal with HALF_EVEN. */
+  @Test
+  void times_ShouldRoundHalfEven_LikeBigDecimal() {
+    for (long pence = -500; pence <= 500; pence++) {
+      BigDecimal expected =
+          BigDecimal.valueOf(pence, 2)
+              .multiply(new BigDecimal("0.05"))
+              .divide(BigDecimal.valueOf(8), 2, RoundingMode.HALF_EVEN);
+      assertEquals(expected, new Money(pence).times(5, 800).toBigDecimal(), "pence " + pence);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.example.savings_app.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the SingleFlight class. */
+public class SingleFlightTest {
+
+  private static final int CALLERS = 8;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+  /** Cleanup method to stop the caller threads after each test. */
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /** Test that concurrent calls with the same key run once and all get the same result. */
+  @Test
+  void execute_ShouldShareOneCall_ForConcurrentIdenticalKeys() throws Exception {
+    SingleFlight<String, List<Integer>> group = new SingleFlight<>(10);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+
+    List<Future<List<Integer>>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(
+          executor.submit(
+              () ->
+                  group.execute(
+                      "active",
+                      () -> {
+                        calls.incrementAndGet();
+                        await(release);
+                        return List.of(1, 2, 3);
+                      })));
+    }
+    awaitCollapsed(group, CALLERS - 1);
+    release.countDown();
+
+    List<Integer> first = results.get(0).get(5, TimeUnit.SECONDS);
+    for (Future<List<Integer>> result : results) {
+      assertSame(first, result.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, calls.get());
+    assertEquals(new SingleFlight.Stats(1, CALLERS - 1, 0, 0), group.getStats());
+  }
+
+  /** Test that a finished call is forgotten, so the next call for the key runs again. */
+  @Test
+  void execute_ShouldRunAgain_AfterCallFinishes() {
+    SingleFlight<String, Integer> group = new SingleFlight<>(10);
+    AtomicInteger calls = new AtomicInteger();
+
+    group.execute("active", calls::incrementAndGet);
+    int second = group.execute("active", calls::incrementAndGet);
+
+    assertEquals(2, second);
+    assertEquals(new SingleFlight.Stats(2, 0, 0, 0), group.getStats());
+  }
+
+  /** Test that every caller sharing a failed call gets the leader's exception. */
+  @Test
+  void execute_ShouldRethrowFailure_ToEveryWaiter() throws Exception {
+    SingleFlight<String, Integer> group = new SingleFlight<>(10);
+    CountDownLatch release = new CountDownLatch(1);
+    IllegalStateException failure = new IllegalStateException("Connection reset");
+
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      results.add(
+          executor.submit(
+              () ->
+                  group.execute(
+                      "active",
+                      () -> {
+                        await(release);
+                        throw failure;
+                      })));
+    }
+    awaitCollapsed(group, 1);
+    release.countDown();
+
+    for (Future<Integer> result : results) {
+      Exception thrown = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+      assertSame(failure, thrown.getCause());
+    }
+    assertEquals(0, group.getStats().inFlight());
+  }
+
+  /** Test that a call for a new key runs unshared while the group is full. */
+  @Test
+  void execute_ShouldBypass_WhenTooManyKeysInFlight() throws Exception {
+    SingleFlight<String, Integer> group = new SingleFlight<>(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<Integer> running =
+        executor.submit(
+            () ->
+                group.execute(
+                    "active",
+                    () -> {
+                      await(release);
+                      return 1;
+                    }));
+    while (group.getStats().inFlight() == 0) {
+      Thread.sleep(1);
+    }
+
+    assertEquals(2, group.execute("completed", () -> 2));
+    release.countDown();
+
+    assertEquals(1, running.get(5, TimeUnit.SECONDS));
+    assertEquals(new SingleFlight.Stats(1, 0, 1, 0), group.getStats());
+  }
+
+  /** Test that a group must be allowed at least one call in flight. */
+  @Test
+  void constructor_ShouldThrow_WhenMaxInFlightNotPositive() {
+    assertThrows(IllegalArgumentException.class, () -> new SingleFlight<String, Integer>(0));
+  }
+
+  private static void awaitCollapsed(SingleFlight<?, ?> group, long expected)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (group.getStats().collapsed() < expected) {
+      assertTrue(System.nanoTime() < deadline, "Callers never joined the running call");
+      Thread.sleep(1);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}